@@ -29,11 +29,14 @@ import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
 public class CompareObjectsExecutor {
@@ -46,6 +49,8 @@ public class CompareObjectsExecutor {
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
+    // Extracted property descriptors by data source filter and object class
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> propertyDescriptors = new HashMap<>();
 
     private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
@@ -57,6 +62,7 @@ public class CompareObjectsExecutor {
     private final List<CompareReportLine> reportLines = new ArrayList<>();
     private int reportDepth = 0;
     private CompareReportLine lastLine;
+    private int comparedObjects;
 
     private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
     {
@@ -161,16 +167,25 @@ public class CompareObjectsExecutor {
     {
         reportLines.clear();
         lastLine = null;
+        comparedObjects = 0;
 
         compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        return new CompareReport(rootNodes, reportLines, comparedObjects);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    /**
+     * Compares nodes and their children.
+     * Returns true if nodes or any of their children differ.
+     */
+    private boolean compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
+        int firstLine = reportLines.size();
         reportObjectsCompareBegin(nodes);
+        CompareReportLine line = lastLine;
+        comparedObjects++;
 
+        boolean childrenDiffer = false;
         try {
             if (nodes.size() > 1) {
                 // Go deeper only if we have more than one node
@@ -178,11 +193,18 @@ public class CompareObjectsExecutor {
                     compareProperties(monitor, nodes);
                 }
 
-                compareChildren(monitor, nodes);
+                childrenDiffer = compareChildren(monitor, nodes);
             }
         } finally {
             reportObjectsCompareEnd();
         }
+        boolean hasDifference = line.hasDifference || childrenDiffer;
+        if (!hasDifference && settings.isShowOnlyDifferences()) {
+            // Equal subtree won't be rendered. Drop its lines right away.
+            // Property values don't pile up: they are kept only for the nodes being compared.
+            reportLines.subList(firstLine, reportLines.size()).clear();
+        }
+        return hasDifference;
     }
 
     private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
@@ -218,11 +240,7 @@ public class CompareObjectsExecutor {
         monitor.subTask("Compare " + title.toString());
         boolean compareLazyProperties = false;
 
-        DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode), null);
+        List<ObjectPropertyDescriptor> properties = getObjectProperties(nodes.get(0));
         for (ObjectPropertyDescriptor prop : properties) {
             if (prop.isLazy()) {
                 compareLazyProperties = true;
@@ -288,32 +306,24 @@ public class CompareObjectsExecutor {
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    /**
+     * Compares children of nodes. Children are matched by node name.
+     * Returns true if any child differs.
+     */
+    private boolean compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
-        // Compare children
-        int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
-            }
-        }
+        List<DBNDatabaseNode[]> allChildren = loadChildren(monitor, nodes);
 
+        // Index children by name. The first child wins if there are children with the same name.
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(allChildren.size());
         Set<String> allChildNames = new LinkedHashSet<>();
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, DBNDatabaseNode> nameMap = new HashMap<>();
+            childrenByName.add(nameMap);
             if (childList == null) continue;
             for (DBNDatabaseNode child : childList) {
+                String childName = child.getNodeName();
+                nameMap.putIfAbsent(childName, child);
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -323,47 +333,105 @@ public class CompareObjectsExecutor {
                     // Skip system objects
                     continue;
                 }
-                allChildNames.add(child.getNodeName());
+                allChildNames.add(childName);
             }
         }
 
+        boolean hasDifference = false;
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(childrenByName.size());
+            for (Map<String, DBNDatabaseNode> nameMap : childrenByName) {
+                DBNDatabaseNode child = nameMap.get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
+            // Compare children recursively
+            if (compareNodes(monitor, nodesToCompare)) {
+                hasDifference = true;
+            }
+        }
+        return hasDifference;
+    }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+    /**
+     * Reads children of all nodes. Nodes of different data sources are read in parallel.
+     * Children list is null if node children can't be read.
+     */
+    private List<DBNDatabaseNode[]> loadChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        int nodeCount = nodes.size();
+        // Use submonitor to avoid huge number of tasks
+        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
+        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
+        if (!isParallelLoadPossible(nodes)) {
+            for (DBNDatabaseNode node : nodes) {
+                allChildren.add(loadNodeChildren(subMonitor, node));
+            }
+            return allChildren;
+        }
+
+        DBNDatabaseNode[][] children = new DBNDatabaseNode[nodeCount][];
+        List<DBRRunnableWithProgress> tasks = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            int index = i;
+            DBNDatabaseNode node = nodes.get(i);
+            tasks.add(taskMonitor -> {
+                try {
+                    children[index] = loadNodeChildren(taskMonitor, node);
+                } catch (DBException e) {
+                    throw new InvocationTargetException(e);
                 }
+            });
+        }
+        try {
+            RuntimeUtils.runParallelTasks(subMonitor, "Read objects for compare", tasks);
+        } catch (InvocationTargetException e) {
+            if (e.getTargetException() instanceof DBException) {
+                throw (DBException) e.getTargetException();
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            throw new DBException("Error reading objects for compare", e.getTargetException());
+        }
+        allChildren.addAll(Arrays.asList(children));
+        return allChildren;
+    }
+
+    private static boolean isParallelLoadPossible(List<DBNDatabaseNode> nodes)
+    {
+        // Metadata of the same data source is read through the same connection
+        Set<Object> containers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DBNDatabaseNode node : nodes) {
+            if (!containers.add(node.getDataSourceContainer())) {
+                return false;
+            }
+        }
+        return nodes.size() > 1;
+    }
+
+    private static DBNDatabaseNode[] loadNodeChildren(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException
+    {
+        // Cache structure if possible
+        if (node.getObject() instanceof DBSObjectContainer) {
+            ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+        }
+        try {
+            return node.getChildren(monitor);
+        } catch (Exception e) {
+            log.warn("Error reading child nodes for compare", e);
+            return null;
         }
     }
 
+    private List<ObjectPropertyDescriptor> getObjectProperties(DBNDatabaseNode node)
+    {
+        DataSourcePropertyFilter filter = getDataSourceFilter(node);
+        return propertyDescriptors
+            .computeIfAbsent(filter, f -> new IdentityHashMap<>())
+            .computeIfAbsent(node.getObject().getClass(), objectClass -> ObjectPropertyDescriptor.extractAnnotations(
+                null,
+                objectClass,
+                filter, null));
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -26,11 +26,13 @@ import java.util.List;
 public class CompareReport {
     private List<DBNDatabaseNode> nodes;
     private List<CompareReportLine> reportLines;
+    private int comparedObjects;
 
-    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines)
+    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines, int comparedObjects)
     {
         this.nodes = nodes;
         this.reportLines = reportLines;
+        this.comparedObjects = comparedObjects;
     }
 
     public List<DBNDatabaseNode> getNodes()
@@ -42,4 +44,12 @@ public class CompareReport {
     {
         return reportLines;
     }
+
+    /**
+     * Number of compared objects. Report may contain less lines if it contains only differences.
+     */
+    public int getComparedObjects()
+    {
+        return comparedObjects;
+    }
 }
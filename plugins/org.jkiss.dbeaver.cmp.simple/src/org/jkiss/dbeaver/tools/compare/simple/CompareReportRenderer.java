@@ -237,7 +237,7 @@ public class CompareReportRenderer {
         xml.addAttribute("class", "object");
         xml.startElement("td");
         xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
+        xml.addText("" + report.getComparedObjects() + " objects compared");
         xml.endElement();
         xml.endElement();
 
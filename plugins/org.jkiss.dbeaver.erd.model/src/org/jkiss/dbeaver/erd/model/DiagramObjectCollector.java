@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.erd.model;
 
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBPNamedObject;
@@ -25,8 +26,10 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTablePartition;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -39,6 +42,11 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    // Container structure is prefetched if diagram contains at least this number of container tables
+    private static final int PREFETCH_MIN_TABLES = 10;
+    // ... and at least this percent of all container tables
+    private static final int PREFETCH_MIN_TABLES_PERCENT = 10;
+
     private final ERDDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
     private boolean showViews;
@@ -147,6 +155,7 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Collection<DBSEntity> tables = collectTables(monitor, roots, settings, showViews);
+        prefetchStructure(monitor, tables);
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
@@ -161,6 +170,85 @@ public class DiagramObjectCollector {
         }
     }
 
+    /**
+     * Reads attributes, keys and associations of tables' containers with container-wide bulk loads.
+     * Otherwise, drivers read them table by table while diagram entities and relations are created.
+     * Only containers with a noticeable part of tables on the diagram are prefetched.
+     * Containers of different data sources are read in parallel.
+     */
+    public static void prefetchStructure(DBRProgressMonitor monitor, Collection<DBSEntity> tables)
+    {
+        Map<DBPDataSource, Map<DBSObjectContainer, Integer>> containerTables = new LinkedHashMap<>();
+        for (DBSEntity table : tables) {
+            DBSObject parent = table.getParentObject();
+            if (parent instanceof DBSObjectContainer && table.getDataSource() != null) {
+                containerTables
+                    .computeIfAbsent(table.getDataSource(), ds -> new LinkedHashMap<>())
+                    .merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+
+        List<List<DBSObjectContainer>> dataSourceContainers = new ArrayList<>();
+        for (Map<DBSObjectContainer, Integer> containers : containerTables.values()) {
+            List<DBSObjectContainer> prefetchContainers = new ArrayList<>();
+            for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+                if (isPrefetchNeeded(monitor, entry.getKey(), entry.getValue())) {
+                    prefetchContainers.add(entry.getKey());
+                }
+            }
+            if (!prefetchContainers.isEmpty()) {
+                dataSourceContainers.add(prefetchContainers);
+            }
+        }
+        if (dataSourceContainers.isEmpty()) {
+            return;
+        }
+
+        // Containers of the same data source share metadata connection, so they are read serially
+        List<DBRRunnableWithProgress> tasks = new ArrayList<>(dataSourceContainers.size());
+        for (List<DBSObjectContainer> containers : dataSourceContainers) {
+            tasks.add(taskMonitor -> prefetchContainers(taskMonitor, containers));
+        }
+        try {
+            RuntimeUtils.runParallelTasks(monitor, "Load diagram structure", tasks);
+        } catch (InvocationTargetException e) {
+            log.debug("Error loading diagram structure", e.getTargetException());
+        } catch (InterruptedException e) {
+            // Canceled, the rest is checked by the caller
+        }
+    }
+
+    private static boolean isPrefetchNeeded(DBRProgressMonitor monitor, DBSObjectContainer container, int diagramTables)
+    {
+        if (diagramTables < PREFETCH_MIN_TABLES) {
+            return false;
+        }
+        try {
+            // Tables are already read, so this doesn't hit the database
+            Collection<? extends DBSObject> children = container.getChildren(monitor);
+            return children == null || diagramTables * 100L >= (long) children.size() * PREFETCH_MIN_TABLES_PERCENT;
+        } catch (DBException e) {
+            log.debug("Error reading container '" + container.getName() + "' children", e);
+            return false;
+        }
+    }
+
+    private static void prefetchContainers(DBRProgressMonitor monitor, List<DBSObjectContainer> containers)
+    {
+        for (DBSObjectContainer container : containers) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            monitor.subTask("Load '" + container.getName() + "' structure");
+            try {
+                container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+            } catch (Exception e) {
+                // Not fatal, structure will be read table by table
+                log.debug("Error caching container '" + container.getName() + "' structure", e);
+            }
+        }
+    }
+
     private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
     {
         if (diagram.containsTable(table) && !diagram.getContentProvider().allowEntityDuplicates()) {
@@ -269,6 +269,8 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
     }
 
     public void fillEntities(DBRProgressMonitor monitor, Collection<DBSEntity> entities, DBSObject dbObject) throws DBException {
+        DiagramObjectCollector.prefetchStructure(monitor, entities);
+
         // Load entities
         monitor.beginTask("Load entities metadata", entities.size());
         List<ERDEntity> entityCache = new ArrayList<>();
@@ -311,12 +313,9 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
     }
 
     public boolean containsTable(DBSEntity table) {
-        for (ERDEntity erdEntity : entities) {
-            if (erdEntity.getObject() == table) {
-                return true;
-            }
+        synchronized (entities) {
+            return entityMap.containsKey(table);
         }
-        return false;
     }
 
     public Map<DBSEntity, ERDEntity> getEntityMap() {
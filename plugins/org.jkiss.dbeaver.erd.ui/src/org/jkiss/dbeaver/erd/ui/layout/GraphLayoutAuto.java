@@ -25,25 +25,40 @@ import org.eclipse.draw2dl.IFigure;
 import org.eclipse.draw2dl.geometry.Dimension;
 import org.eclipse.draw2dl.geometry.Rectangle;
 import org.jkiss.dbeaver.erd.ui.layout.algorithm.direct.DirectedGraphLayoutVisitor;
+import org.jkiss.dbeaver.erd.ui.layout.algorithm.force.ForceDirectedLayoutVisitor;
 import org.jkiss.dbeaver.erd.ui.part.DiagramPart;
 
 import java.util.List;
 
 
 /**
- * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram
+ * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram.
+ * Big diagrams are laid out with ForceDirectedLayoutVisitor in background.
  * @author Serge Rider
  */
 public class GraphLayoutAuto extends AbstractLayout
 {
+	// Directed graph layout is too slow for bigger diagrams
+	public static final int FORCE_LAYOUT_MIN_ENTITIES = 300;
 
 	private DiagramPart diagram;
+	private ForceDirectedLayoutVisitor forceLayout;
 
 	public GraphLayoutAuto(DiagramPart diagram)
 	{
 		this.diagram = diagram;
 	}
 
+	/**
+	 * Forgets positions of previous layout, so next layout rearranges all figures
+	 */
+	public void resetLayout()
+	{
+		if (forceLayout != null) {
+			forceLayout.resetLayout();
+		}
+	}
+
 	
 	@Override
     protected Dimension calculatePreferredSize(IFigure container, int wHint, int hHint)
@@ -62,6 +77,19 @@ public class GraphLayoutAuto extends AbstractLayout
 	@Override
     public void layout(IFigure container)
 	{
+		if (diagram.getChildren().size() >= FORCE_LAYOUT_MIN_ENTITIES) {
+			if (forceLayout == null) {
+				forceLayout = new ForceDirectedLayoutVisitor(diagram);
+			}
+			if (forceLayout.layoutDiagram()) {
+				diagram.setTableModelBounds();
+			}
+			return;
+		}
+		if (forceLayout != null) {
+			forceLayout.resetLayout();
+		}
+
         Animation.markBegin();
 /*
 		GraphAnimation.recordInitialState(container);
@@ -0,0 +1,215 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.force;
+
+import java.util.Arrays;
+
+/**
+ * Barnes-Hut quadtree. Approximates repulsion of distant node groups by their center of mass,
+ * so repulsive forces of all nodes are calculated in O(n log n).
+ */
+class BarnesHutTree {
+
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+    // Leaf with several (almost) coincident nodes
+    private static final int MULTIPLE = -3;
+    private static final int MAX_DEPTH = 32;
+
+    private final double theta2;
+
+    private int cellCount;
+    private double[] cellMinX, cellMinY, cellSize;
+    private double[] cellMass, cellSumX, cellSumY;
+    private int[] cellChild;
+    private int[] cellBody;
+    private int[] stack = new int[64];
+
+    BarnesHutTree(double theta) {
+        this.theta2 = theta * theta;
+        allocate(64);
+    }
+
+    /**
+     * Rebuilds tree for the specified node positions
+     */
+    void build(int n, double[] x, double[] y, double[] mass) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        if (cellMinX.length < n * 4 + 1) {
+            allocate(n * 4 + 1);
+        }
+        cellCount = 0;
+        newCell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), 1.0) * 1.0001);
+        for (int i = 0; i < n; i++) {
+            insert(i, x[i], y[i], mass[i]);
+        }
+        for (int c = 0; c < cellCount; c++) {
+            if (cellMass[c] > 0) {
+                cellSumX[c] /= cellMass[c];
+                cellSumY[c] /= cellMass[c];
+            }
+        }
+    }
+
+    /**
+     * Adds repulsion of all other nodes to node force. Repulsion is strength * mass / distance.
+     */
+    void addRepulsion(int node, double x, double y, double strength, double[] force) {
+        int top = 0;
+        stack[top++] = 0;
+        double fx = 0, fy = 0;
+        while (top > 0) {
+            int cell = stack[--top];
+            double mass = cellMass[cell];
+            if (mass == 0 || cellBody[cell] == node) {
+                continue;
+            }
+            double dx = x - cellSumX[cell];
+            double dy = y - cellSumY[cell];
+            double d2 = dx * dx + dy * dy;
+            if (cellBody[cell] == INTERNAL && cellSize[cell] * cellSize[cell] >= theta2 * d2) {
+                // Too close for approximation - open the cell
+                int child = cellChild[cell];
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = child;
+                stack[top++] = child + 1;
+                stack[top++] = child + 2;
+                stack[top++] = child + 3;
+                continue;
+            }
+            if (d2 < 1e-6) {
+                // Coincident nodes. Push in a pseudo-random direction
+                dx = ((node * 31 + cell) % 7) - 3 + 0.5;
+                dy = ((node * 17 + cell) % 5) - 2 + 0.5;
+                d2 = dx * dx + dy * dy;
+            }
+            double f = strength * mass / d2;
+            fx += dx * f;
+            fy += dy * f;
+        }
+        force[0] += fx;
+        force[1] += fy;
+    }
+
+    private void insert(int body, double x, double y, double mass) {
+        int cell = 0;
+        int depth = 0;
+        while (true) {
+            cellMass[cell] += mass;
+            cellSumX[cell] += x * mass;
+            cellSumY[cell] += y * mass;
+            if (cellChild[cell] != EMPTY) {
+                cell = cellChild[cell] + quadrant(cell, x, y);
+                depth++;
+                continue;
+            }
+            if (cellBody[cell] == EMPTY) {
+                cellBody[cell] = body;
+                return;
+            }
+            if (depth >= MAX_DEPTH || cellBody[cell] == MULTIPLE) {
+                cellBody[cell] = MULTIPLE;
+                return;
+            }
+            // Split leaf. Move its body to the child cell
+            int oldBody = cellBody[cell];
+            double oldMass = cellMass[cell] - mass;
+            double oldX = (cellSumX[cell] - x * mass) / oldMass;
+            double oldY = (cellSumY[cell] - y * mass) / oldMass;
+            splitCell(cell);
+            int oldCell = cellChild[cell] + quadrant(cell, oldX, oldY);
+            cellBody[oldCell] = oldBody;
+            cellMass[oldCell] = oldMass;
+            cellSumX[oldCell] = oldX * oldMass;
+            cellSumY[oldCell] = oldY * oldMass;
+
+            cell = cellChild[cell] + quadrant(cell, x, y);
+            depth++;
+        }
+    }
+
+    private int quadrant(int cell, double x, double y) {
+        double half = cellSize[cell] / 2;
+        int quadrant = 0;
+        if (x >= cellMinX[cell] + half) {
+            quadrant |= 1;
+        }
+        if (y >= cellMinY[cell] + half) {
+            quadrant |= 2;
+        }
+        return quadrant;
+    }
+
+    private void splitCell(int cell) {
+        double half = cellSize[cell] / 2;
+        double minX = cellMinX[cell], minY = cellMinY[cell];
+        cellBody[cell] = INTERNAL;
+        cellChild[cell] = cellCount;
+        newCell(minX, minY, half);
+        newCell(minX + half, minY, half);
+        newCell(minX, minY + half, half);
+        newCell(minX + half, minY + half, half);
+    }
+
+    private void newCell(double minX, double minY, double size) {
+        if (cellCount == cellMinX.length) {
+            allocate(cellCount * 2);
+        }
+        int cell = cellCount++;
+        cellMinX[cell] = minX;
+        cellMinY[cell] = minY;
+        cellSize[cell] = size;
+        cellMass[cell] = 0;
+        cellSumX[cell] = 0;
+        cellSumY[cell] = 0;
+        cellChild[cell] = EMPTY;
+        cellBody[cell] = EMPTY;
+    }
+
+    private void allocate(int capacity) {
+        if (cellMinX != null && cellMinX.length >= capacity) {
+            return;
+        }
+        if (cellMinX == null) {
+            cellMinX = new double[capacity];
+            cellMinY = new double[capacity];
+            cellSize = new double[capacity];
+            cellMass = new double[capacity];
+            cellSumX = new double[capacity];
+            cellSumY = new double[capacity];
+            cellChild = new int[capacity];
+            cellBody = new int[capacity];
+        } else {
+            cellMinX = Arrays.copyOf(cellMinX, capacity);
+            cellMinY = Arrays.copyOf(cellMinY, capacity);
+            cellSize = Arrays.copyOf(cellSize, capacity);
+            cellMass = Arrays.copyOf(cellMass, capacity);
+            cellSumX = Arrays.copyOf(cellSumX, capacity);
+            cellSumY = Arrays.copyOf(cellSumY, capacity);
+            cellChild = Arrays.copyOf(cellChild, capacity);
+            cellBody = Arrays.copyOf(cellBody, capacity);
+        }
+    }
+}
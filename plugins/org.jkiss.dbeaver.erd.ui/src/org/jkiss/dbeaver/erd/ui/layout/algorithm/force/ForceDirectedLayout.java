@@ -0,0 +1,673 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.force;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Multilevel force-directed layout (spring-electrical model, see Y.Hu "Efficient and high quality force-directed graph drawing").
+ *
+ * Each connected component is laid out separately. The component graph is coarsened by edge matching,
+ * the coarsest graph is laid out from random positions, and then positions are refined level by level.
+ * Repulsive forces are approximated with Barnes-Hut quadtree. Overlapping nodes are pushed apart at the end.
+ *
+ * Layout is incremental: components of already placed nodes keep their positions,
+ * changed components are refined starting from the current positions of their placed nodes.
+ * New components are packed in rows below the placed ones.
+ */
+public class ForceDirectedLayout {
+
+    // Repulsion constant of spring-electrical model
+    private static final double REPULSION = 0.2;
+    // Barnes-Hut opening criterion
+    private static final double THETA = 0.9;
+    private static final double STEP_RATIO = 0.9;
+    // Graph isn't coarsened further if it has less nodes or if coarsening doesn't reduce it enough
+    private static final int COARSEST_SIZE = 32;
+    private static final double MIN_COARSENING_RATIO = 0.8;
+    private static final int COARSEST_ITERATIONS = 300;
+    private static final int REFINE_ITERATIONS = 60;
+    // Iterations stop when average node move is less than this part of the ideal edge length
+    private static final double CONVERGENCE = 0.01;
+    // Safety limit of overlap removal passes. Usually it converges in a few passes,
+    // remaining overlaps are removed by shifting nodes down (see separateRemaining)
+    private static final int OVERLAP_ITERATIONS = 1000;
+
+    private final ForceLayoutGraph graph;
+    private final Random random = new Random(0);
+    private double nodeSpacing = 40;
+
+    // Ideal edge length
+    private double edgeLength;
+    // Adjacency of the whole graph (CSR)
+    private int[] adjOffsets;
+    private int[] adjNodes;
+
+    public ForceDirectedLayout(ForceLayoutGraph graph) {
+        this.graph = graph;
+    }
+
+    public double getNodeSpacing() {
+        return nodeSpacing;
+    }
+
+    /**
+     * Minimal distance between node rectangles
+     */
+    public void setNodeSpacing(double nodeSpacing) {
+        this.nodeSpacing = nodeSpacing;
+    }
+
+    public void layout(DBRProgressMonitor monitor) {
+        int nodeCount = graph.getNodeCount();
+        monitor.beginTask("Layout diagram", nodeCount);
+        try {
+            if (nodeCount == 0) {
+                return;
+            }
+            buildAdjacency();
+
+            double sizeSum = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                sizeSum += Math.hypot(graph.getNodeWidth(i), graph.getNodeHeight(i));
+            }
+            // Connected nodes are at distance of about edgeLength * cbrt(REPULSION) in balance
+            edgeLength = (sizeSum / nodeCount * 0.75 + nodeSpacing) / Math.cbrt(REPULSION);
+
+            List<int[]> components = findComponents();
+            List<int[]> newComponents = new ArrayList<>();
+            for (int[] component : components) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
+                int placedCount = 0;
+                for (int node : component) {
+                    if (graph.isNodePlaced(node)) {
+                        placedCount++;
+                    }
+                }
+                if (placedCount == component.length) {
+                    // Unchanged component
+                    monitor.worked(component.length);
+                    continue;
+                }
+                monitor.subTask("Layout " + component.length + " entities");
+                if (placedCount > 0) {
+                    refineComponent(monitor, component);
+                } else {
+                    layoutComponent(monitor, component);
+                    newComponents.add(component);
+                }
+                removeOverlaps(monitor, component);
+                monitor.worked(component.length);
+            }
+            if (!monitor.isCanceled()) {
+                packComponents(newComponents);
+            }
+        } finally {
+            monitor.done();
+        }
+    }
+
+    ////////////////////////////////////////////////////
+    // Graph structure
+
+    private void buildAdjacency() {
+        int nodeCount = graph.getNodeCount();
+        int edgeCount = graph.getEdgeCount();
+        // Undirected edges without duplicates and self links
+        long[] edges = new long[edgeCount];
+        int count = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            int source = graph.getEdgeSource(i), target = graph.getEdgeTarget(i);
+            if (source != target) {
+                edges[count++] = ((long) Math.min(source, target) << 32) | Math.max(source, target);
+            }
+        }
+        Arrays.sort(edges, 0, count);
+        int[] degree = new int[nodeCount];
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || edges[i] != edges[i - 1]) {
+                edges[unique++] = edges[i];
+                degree[(int) (edges[i] >>> 32)]++;
+                degree[(int) edges[i]]++;
+            }
+        }
+        adjOffsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            adjOffsets[i + 1] = adjOffsets[i] + degree[i];
+        }
+        adjNodes = new int[adjOffsets[nodeCount]];
+        int[] pos = Arrays.copyOf(adjOffsets, nodeCount);
+        for (int i = 0; i < unique; i++) {
+            int source = (int) (edges[i] >>> 32), target = (int) edges[i];
+            adjNodes[pos[source]++] = target;
+            adjNodes[pos[target]++] = source;
+        }
+    }
+
+    private List<int[]> findComponents() {
+        int nodeCount = graph.getNodeCount();
+        boolean[] visited = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        List<int[]> components = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            visited[start] = true;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int k = adjOffsets[node]; k < adjOffsets[node + 1]; k++) {
+                    int next = adjNodes[k];
+                    if (!visited[next]) {
+                        visited[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            components.add(Arrays.copyOf(queue, tail));
+        }
+        return components;
+    }
+
+    ////////////////////////////////////////////////////
+    // Multilevel layout
+
+    /**
+     * Graph of one layout level. Coarse level nodes are groups of matched finer level nodes.
+     */
+    private static class Level {
+        final int nodeCount;
+        final int[] offsets;
+        final int[] adjacent;
+        final double[] mass;
+        final double[] x;
+        final double[] y;
+        // Node of the next coarser level
+        int[] parent;
+
+        Level(int nodeCount, int[] offsets, int[] adjacent, double[] mass) {
+            this.nodeCount = nodeCount;
+            this.offsets = offsets;
+            this.adjacent = adjacent;
+            this.mass = mass;
+            this.x = new double[nodeCount];
+            this.y = new double[nodeCount];
+        }
+    }
+
+    private Level makeComponentLevel(int[] component) {
+        int[] localIndex = new int[graph.getNodeCount()];
+        for (int i = 0; i < component.length; i++) {
+            localIndex[component[i]] = i;
+        }
+        int[] offsets = new int[component.length + 1];
+        for (int i = 0; i < component.length; i++) {
+            int node = component[i];
+            offsets[i + 1] = offsets[i] + adjOffsets[node + 1] - adjOffsets[node];
+        }
+        int[] adjacent = new int[offsets[component.length]];
+        for (int i = 0; i < component.length; i++) {
+            int node = component[i];
+            int pos = offsets[i];
+            for (int k = adjOffsets[node]; k < adjOffsets[node + 1]; k++) {
+                adjacent[pos++] = localIndex[adjNodes[k]];
+            }
+        }
+        double[] mass = new double[component.length];
+        Arrays.fill(mass, 1);
+        return new Level(component.length, offsets, adjacent, mass);
+    }
+
+    private void layoutComponent(DBRProgressMonitor monitor, int[] component) {
+        List<Level> levels = new ArrayList<>();
+        Level level = makeComponentLevel(component);
+        levels.add(level);
+        while (level.nodeCount > COARSEST_SIZE) {
+            Level coarse = coarsen(level);
+            if (coarse.nodeCount > level.nodeCount * MIN_COARSENING_RATIO) {
+                break;
+            }
+            levels.add(coarse);
+            level = coarse;
+        }
+
+        // Layout the coarsest level from random positions
+        double side = edgeLength * Math.sqrt(level.nodeCount);
+        for (int i = 0; i < level.nodeCount; i++) {
+            level.x[i] = random.nextDouble() * side;
+            level.y[i] = random.nextDouble() * side;
+        }
+        applyForces(monitor, level, COARSEST_ITERATIONS, edgeLength);
+
+        // Refine finer levels
+        for (int l = levels.size() - 2; l >= 0 && !monitor.isCanceled(); l--) {
+            Level fine = levels.get(l);
+            Level coarse = levels.get(l + 1);
+            for (int i = 0; i < fine.nodeCount; i++) {
+                int parent = fine.parent[i];
+                fine.x[i] = coarse.x[parent] + (random.nextDouble() - 0.5) * edgeLength * 0.1;
+                fine.y[i] = coarse.y[parent] + (random.nextDouble() - 0.5) * edgeLength * 0.1;
+            }
+            applyForces(monitor, fine, REFINE_ITERATIONS, edgeLength * 0.5);
+        }
+
+        Level result = levels.get(0);
+        for (int i = 0; i < component.length; i++) {
+            graph.setNodeCenter(component[i], result.x[i], result.y[i]);
+        }
+    }
+
+    /**
+     * Re-layouts component with placed nodes starting from their current positions.
+     * Component is kept at the same place.
+     */
+    private void refineComponent(DBRProgressMonitor monitor, int[] component) {
+        Level level = makeComponentLevel(component);
+        boolean[] positioned = new boolean[component.length];
+        double centerX = 0, centerY = 0;
+        int placedCount = 0;
+        for (int i = 0; i < component.length; i++) {
+            if (graph.isNodePlaced(component[i])) {
+                level.x[i] = graph.getNodeCenterX(component[i]);
+                level.y[i] = graph.getNodeCenterY(component[i]);
+                positioned[i] = true;
+                centerX += level.x[i];
+                centerY += level.y[i];
+                placedCount++;
+            }
+        }
+        centerX /= placedCount;
+        centerY /= placedCount;
+
+        // Put new nodes near their positioned neighbors
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < level.nodeCount; i++) {
+                if (positioned[i]) {
+                    continue;
+                }
+                double sumX = 0, sumY = 0;
+                int count = 0;
+                for (int k = level.offsets[i]; k < level.offsets[i + 1]; k++) {
+                    int next = level.adjacent[k];
+                    if (positioned[next]) {
+                        sumX += level.x[next];
+                        sumY += level.y[next];
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    level.x[i] = sumX / count + (random.nextDouble() - 0.5) * edgeLength;
+                    level.y[i] = sumY / count + (random.nextDouble() - 0.5) * edgeLength;
+                    positioned[i] = true;
+                    changed = true;
+                }
+            }
+        }
+
+        applyForces(monitor, level, REFINE_ITERATIONS, edgeLength * 0.2);
+
+        // Keep placed nodes center
+        double newCenterX = 0, newCenterY = 0;
+        for (int i = 0; i < component.length; i++) {
+            if (graph.isNodePlaced(component[i])) {
+                newCenterX += level.x[i];
+                newCenterY += level.y[i];
+            }
+        }
+        double dx = centerX - newCenterX / placedCount, dy = centerY - newCenterY / placedCount;
+        for (int i = 0; i < component.length; i++) {
+            graph.setNodeCenter(component[i], level.x[i] + dx, level.y[i] + dy);
+        }
+    }
+
+    /**
+     * Makes coarser level by matching each node with its lightest unmatched neighbor.
+     * Unmatched leaves of the same node are matched with each other, so stars are coarsened too.
+     */
+    private Level coarsen(Level level) {
+        int n = level.nodeCount;
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int k = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[k];
+            order[k] = tmp;
+        }
+        int coarseCount = 0;
+        for (int node : order) {
+            if (parent[node] != -1) {
+                continue;
+            }
+            int match = -1;
+            for (int k = level.offsets[node]; k < level.offsets[node + 1]; k++) {
+                int next = level.adjacent[k];
+                if (parent[next] == -1 && (match == -1 || level.mass[next] < level.mass[match])) {
+                    match = next;
+                }
+            }
+            parent[node] = coarseCount;
+            if (match != -1) {
+                parent[match] = coarseCount;
+            }
+            coarseCount++;
+        }
+
+        // Match leaves left alone
+        int[] groupSize = new int[coarseCount];
+        for (int i = 0; i < n; i++) {
+            groupSize[parent[i]]++;
+        }
+        int[] pendingLeaf = new int[n];
+        Arrays.fill(pendingLeaf, -1);
+        boolean[] removed = new boolean[coarseCount];
+        for (int node = 0; node < n; node++) {
+            if (groupSize[parent[node]] != 1 || level.offsets[node + 1] - level.offsets[node] != 1) {
+                continue;
+            }
+            int hub = level.adjacent[level.offsets[node]];
+            int pending = pendingLeaf[hub];
+            if (pending == -1) {
+                pendingLeaf[hub] = node;
+            } else {
+                removed[parent[node]] = true;
+                parent[node] = parent[pending];
+                groupSize[parent[node]]++;
+                pendingLeaf[hub] = -1;
+            }
+        }
+        // Renumber coarse nodes
+        int[] coarseIndex = new int[coarseCount];
+        int count = 0;
+        for (int i = 0; i < coarseCount; i++) {
+            coarseIndex[i] = removed[i] ? -1 : count++;
+        }
+        for (int i = 0; i < n; i++) {
+            parent[i] = coarseIndex[parent[i]];
+        }
+        coarseCount = count;
+        level.parent = parent;
+
+        // Group members of coarse nodes
+        int[] memberOffsets = new int[coarseCount + 1];
+        for (int i = 0; i < n; i++) {
+            memberOffsets[parent[i] + 1]++;
+        }
+        for (int i = 0; i < coarseCount; i++) {
+            memberOffsets[i + 1] += memberOffsets[i];
+        }
+        int[] members = new int[n];
+        int[] pos = Arrays.copyOf(memberOffsets, coarseCount);
+        for (int i = 0; i < n; i++) {
+            members[pos[parent[i]]++] = i;
+        }
+
+        // Coarse edges
+        double[] mass = new double[coarseCount];
+        int[] offsets = new int[coarseCount + 1];
+        int[] adjacent = new int[level.adjacent.length];
+        int[] mark = new int[coarseCount];
+        Arrays.fill(mark, -1);
+        int edgeCount = 0;
+        for (int c = 0; c < coarseCount; c++) {
+            for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                int node = members[m];
+                mass[c] += level.mass[node];
+                for (int k = level.offsets[node]; k < level.offsets[node + 1]; k++) {
+                    int next = parent[level.adjacent[k]];
+                    if (next != c && mark[next] != c) {
+                        mark[next] = c;
+                        adjacent[edgeCount++] = next;
+                    }
+                }
+            }
+            offsets[c + 1] = edgeCount;
+        }
+        return new Level(coarseCount, offsets, Arrays.copyOf(adjacent, edgeCount), mass);
+    }
+
+    /**
+     * Moves nodes along the resulting forces with adaptive step length
+     */
+    private void applyForces(DBRProgressMonitor monitor, Level level, int iterations, double initialStep) {
+        int n = level.nodeCount;
+        if (n < 2) {
+            return;
+        }
+        double[] x = level.x, y = level.y;
+        double repulsion = REPULSION * edgeLength * edgeLength;
+        BarnesHutTree tree = new BarnesHutTree(THETA);
+        double[] force = new double[2];
+        double step = initialStep;
+        double energy = Double.MAX_VALUE;
+        int progress = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            tree.build(n, x, y, level.mass);
+            double prevEnergy = energy;
+            energy = 0;
+            double moved = 0;
+            for (int i = 0; i < n; i++) {
+                force[0] = 0;
+                force[1] = 0;
+                tree.addRepulsion(i, x[i], y[i], repulsion * level.mass[i], force);
+                for (int k = level.offsets[i]; k < level.offsets[i + 1]; k++) {
+                    int next = level.adjacent[k];
+                    double dx = x[next] - x[i], dy = y[next] - y[i];
+                    double distance = Math.sqrt(dx * dx + dy * dy);
+                    // Attraction is distance^2 / edgeLength
+                    force[0] += dx * distance / edgeLength;
+                    force[1] += dy * distance / edgeLength;
+                }
+                double f = Math.sqrt(force[0] * force[0] + force[1] * force[1]);
+                if (f > 0) {
+                    x[i] += step * force[0] / f;
+                    y[i] += step * force[1] / f;
+                    moved += step;
+                }
+                energy += f * f;
+            }
+            if (energy < prevEnergy) {
+                progress++;
+                if (progress >= 5) {
+                    progress = 0;
+                    step /= STEP_RATIO;
+                }
+            } else {
+                progress = 0;
+                step *= STEP_RATIO;
+            }
+            if (moved / n < edgeLength * CONVERGENCE) {
+                break;
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////
+    // Overlaps and packing
+
+    /**
+     * Pushes apart overlapping node rectangles until there are no overlaps.
+     * Candidate pairs are found with sweep along X axis.
+     * If passes don't converge in OVERLAP_ITERATIONS, remaining overlaps are removed by separateRemaining.
+     */
+    private void removeOverlaps(DBRProgressMonitor monitor, int[] component) {
+        int n = component.length;
+        if (n < 2) {
+            return;
+        }
+        Integer[] order = new Integer[n];
+        for (int iteration = 0; iteration < OVERLAP_ITERATIONS; iteration++) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                order[i] = component[i];
+            }
+            Arrays.sort(order, Comparator.comparingDouble(node -> graph.getNodeCenterX(node) - graph.getNodeWidth(node) / 2));
+            boolean hasOverlaps = false;
+            for (int i = 0; i < n; i++) {
+                int a = order[i];
+                double right = graph.getNodeCenterX(a) + graph.getNodeWidth(a) / 2 + nodeSpacing;
+                for (int k = i + 1; k < n; k++) {
+                    int b = order[k];
+                    if (graph.getNodeCenterX(b) - graph.getNodeWidth(b) / 2 >= right) {
+                        break;
+                    }
+                    if (pushApart(a, b)) {
+                        hasOverlaps = true;
+                    }
+                }
+            }
+            if (!hasOverlaps) {
+                return;
+            }
+        }
+        separateRemaining(component);
+    }
+
+    /**
+     * Removes overlaps which pushing apart didn't resolve. Nodes are processed from top to bottom,
+     * node overlapping already processed one is moved below it. Always terminates without overlaps:
+     * node is moved below each processed node at most once.
+     */
+    private void separateRemaining(int[] component) {
+        Integer[] order = new Integer[component.length];
+        for (int i = 0; i < component.length; i++) {
+            order[i] = component[i];
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(graph::getNodeY).thenComparingDouble(graph::getNodeX));
+        List<Integer> processed = new ArrayList<>(order.length);
+        for (int node : order) {
+            boolean moved = true;
+            while (moved) {
+                moved = false;
+                for (int other : processed) {
+                    if (isOverlapping(node, other)) {
+                        double y = graph.getNodeY(other) + graph.getNodeHeight(other) + nodeSpacing;
+                        graph.setNodeCenter(node, graph.getNodeCenterX(node), y + graph.getNodeHeight(node) / 2);
+                        moved = true;
+                    }
+                }
+            }
+            processed.add(node);
+        }
+    }
+
+    private boolean isOverlapping(int a, int b) {
+        double overlapX = (graph.getNodeWidth(a) + graph.getNodeWidth(b)) / 2 + nodeSpacing - Math.abs(graph.getNodeCenterX(b) - graph.getNodeCenterX(a));
+        double overlapY = (graph.getNodeHeight(a) + graph.getNodeHeight(b)) / 2 + nodeSpacing - Math.abs(graph.getNodeCenterY(b) - graph.getNodeCenterY(a));
+        return overlapX > 0 && overlapY > 0;
+    }
+
+    private boolean pushApart(int a, int b) {
+        double dx = graph.getNodeCenterX(b) - graph.getNodeCenterX(a);
+        double dy = graph.getNodeCenterY(b) - graph.getNodeCenterY(a);
+        double overlapX = (graph.getNodeWidth(a) + graph.getNodeWidth(b)) / 2 + nodeSpacing - Math.abs(dx);
+        double overlapY = (graph.getNodeHeight(a) + graph.getNodeHeight(b)) / 2 + nodeSpacing - Math.abs(dy);
+        if (overlapX <= 0 || overlapY <= 0) {
+            return false;
+        }
+        // Move along the axis of the smallest overlap
+        if (overlapX < overlapY) {
+            double shift = (dx < 0 ? -overlapX : overlapX) / 2;
+            graph.setNodeCenter(a, graph.getNodeCenterX(a) - shift, graph.getNodeCenterY(a));
+            graph.setNodeCenter(b, graph.getNodeCenterX(b) + shift, graph.getNodeCenterY(b));
+        } else {
+            double shift = (dy < 0 ? -overlapY : overlapY) / 2;
+            graph.setNodeCenter(a, graph.getNodeCenterX(a), graph.getNodeCenterY(a) - shift);
+            graph.setNodeCenter(b, graph.getNodeCenterX(b), graph.getNodeCenterY(b) + shift);
+        }
+        return true;
+    }
+
+    /**
+     * Packs new components in rows below placed nodes. Bigger components go first.
+     */
+    private void packComponents(List<int[]> components) {
+        if (components.isEmpty()) {
+            return;
+        }
+        // Area of placed nodes
+        double placedMinX = Double.MAX_VALUE, placedMaxY = -Double.MAX_VALUE;
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            if (graph.isNodePlaced(i)) {
+                placedMinX = Math.min(placedMinX, graph.getNodeX(i));
+                placedMaxY = Math.max(placedMaxY, graph.getNodeY(i) + graph.getNodeHeight(i));
+            }
+        }
+        double startX = placedMinX == Double.MAX_VALUE ? 0 : placedMinX;
+        double startY = placedMaxY == -Double.MAX_VALUE ? 0 : placedMaxY + nodeSpacing * 2;
+
+        int count = components.size();
+        double[][] bounds = new double[count][];
+        double totalArea = 0, maxWidth = 0;
+        for (int c = 0; c < count; c++) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int node : components.get(c)) {
+                minX = Math.min(minX, graph.getNodeX(node));
+                minY = Math.min(minY, graph.getNodeY(node));
+                maxX = Math.max(maxX, graph.getNodeX(node) + graph.getNodeWidth(node));
+                maxY = Math.max(maxY, graph.getNodeY(node) + graph.getNodeHeight(node));
+            }
+            bounds[c] = new double[] {minX, minY, maxX - minX + nodeSpacing, maxY - minY + nodeSpacing};
+            totalArea += bounds[c][2] * bounds[c][3];
+            maxWidth = Math.max(maxWidth, bounds[c][2]);
+        }
+        Integer[] order = new Integer[count];
+        for (int c = 0; c < count; c++) {
+            order[c] = c;
+        }
+        Arrays.sort(order, (c1, c2) -> Double.compare(bounds[c2][2] * bounds[c2][3], bounds[c1][2] * bounds[c1][3]));
+
+        double rowWidth = Math.max(maxWidth, Math.sqrt(totalArea) * 1.3);
+        double x = 0, y = 0, rowHeight = 0;
+        for (int c : order) {
+            double[] b = bounds[c];
+            if (x > 0 && x + b[2] > rowWidth) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            double dx = startX + x - b[0], dy = startY + y - b[1];
+            for (int node : components.get(c)) {
+                graph.setNodeCenter(node, graph.getNodeCenterX(node) + dx, graph.getNodeCenterY(node) + dy);
+            }
+            x += b[2];
+            rowHeight = Math.max(rowHeight, b[3]);
+        }
+    }
+}
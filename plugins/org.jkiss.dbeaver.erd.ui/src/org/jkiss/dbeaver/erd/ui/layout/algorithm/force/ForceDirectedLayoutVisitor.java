@@ -0,0 +1,201 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.force;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.draw2dl.IFigure;
+import org.eclipse.draw2dl.geometry.Dimension;
+import org.eclipse.draw2dl.geometry.Insets;
+import org.eclipse.draw2dl.geometry.Point;
+import org.eclipse.draw2dl.geometry.Rectangle;
+import org.eclipse.gef3.EditPart;
+import org.eclipse.gef3.editparts.AbstractConnectionEditPart;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.erd.ui.part.AttributePart;
+import org.jkiss.dbeaver.erd.ui.part.DiagramPart;
+import org.jkiss.dbeaver.erd.ui.part.NodePart;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.UIUtils;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lays out diagram nodes with ForceDirectedLayout.
+ *
+ * Layout runs in a background job, results are applied in UI thread.
+ * Node positions are remembered, so next layout keeps them and only places new nodes
+ * (and refines components they were added to).
+ */
+public class ForceDirectedLayoutVisitor {
+    private static final Log log = Log.getLog(ForceDirectedLayoutVisitor.class);
+
+    private final DiagramPart diagram;
+    private final Map<NodePart, Point> nodePositions = new IdentityHashMap<>();
+    private LayoutJob layoutJob;
+
+    public ForceDirectedLayoutVisitor(DiagramPart diagram) {
+        this.diagram = diagram;
+    }
+
+    /**
+     * Forgets node positions, so next layout is performed from scratch
+     */
+    public void resetLayout() {
+        cancelLayout();
+        nodePositions.clear();
+    }
+
+    public void cancelLayout() {
+        if (layoutJob != null) {
+            layoutJob.cancel();
+            layoutJob = null;
+        }
+    }
+
+    /**
+     * Applies remembered positions if all nodes have them. Otherwise schedules layout job.
+     * Returns false if positions weren't applied yet - layout job updates figures and model bounds on completion.
+     */
+    public boolean layoutDiagram() {
+        List<NodePart> nodes = new ArrayList<>();
+        for (Object child : diagram.getChildren()) {
+            if (child instanceof NodePart) {
+                nodes.add((NodePart) child);
+            }
+        }
+        nodePositions.keySet().retainAll(nodes);
+        if (nodePositions.size() == nodes.size()) {
+            if (layoutJob == null) {
+                applyPositions(nodes);
+                return true;
+            }
+            return false;
+        }
+
+        cancelLayout();
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        Map<EditPart, Integer> nodeIndexes = new IdentityHashMap<>();
+        for (NodePart node : nodes) {
+            Dimension preferredSize = node.getFigure().getPreferredSize(-1, -1);
+            int index = graph.addNode(preferredSize.width, preferredSize.height);
+            Point position = nodePositions.get(node);
+            if (position != null) {
+                graph.setNodePosition(index, position.x, position.y);
+            }
+            nodeIndexes.put(node, index);
+        }
+        for (NodePart node : nodes) {
+            for (Object connection : node.getSourceConnections()) {
+                addEdge(graph, nodeIndexes, (AbstractConnectionEditPart) connection);
+            }
+            for (Object child : node.getChildren()) {
+                if (child instanceof AttributePart) {
+                    for (Object connection : ((AttributePart) child).getSourceConnections()) {
+                        addEdge(graph, nodeIndexes, (AbstractConnectionEditPart) connection);
+                    }
+                }
+            }
+        }
+
+        layoutJob = new LayoutJob(graph, nodes);
+        layoutJob.schedule();
+        return false;
+    }
+
+    private static void addEdge(ForceLayoutGraph graph, Map<EditPart, Integer> nodeIndexes, AbstractConnectionEditPart connectionPart) {
+        Integer source = findNode(nodeIndexes, connectionPart.getSource());
+        Integer target = findNode(nodeIndexes, connectionPart.getTarget());
+        if (source == null || target == null) {
+            log.warn("Source or target node not found");
+            return;
+        }
+        graph.addEdge(source, target);
+    }
+
+    private static Integer findNode(Map<EditPart, Integer> nodeIndexes, EditPart part) {
+        if (part == null) {
+            return null;
+        }
+        Integer node = nodeIndexes.get(part);
+        if (node == null) {
+            node = nodeIndexes.get(part.getParent());
+        }
+        return node;
+    }
+
+    private void applyPositions(List<NodePart> nodes) {
+        Dimension snapSize = diagram.getDiagram().getDecorator().getEntitySnapSize();
+        for (NodePart node : nodes) {
+            IFigure figure = node.getFigure();
+            Point position = nodePositions.get(node);
+            int x = position.x, y = position.y;
+            if (snapSize != null) {
+                x = x / snapSize.width * snapSize.width;
+                y = y / snapSize.height * snapSize.height;
+            }
+            Dimension preferredSize = figure.getPreferredSize();
+            figure.setBounds(new Rectangle(x, y, preferredSize.width, preferredSize.height));
+        }
+    }
+
+    private class LayoutJob extends AbstractJob {
+        private final ForceLayoutGraph graph;
+        private final List<NodePart> nodes;
+
+        LayoutJob(ForceLayoutGraph graph, List<NodePart> nodes) {
+            super("Layout diagram");
+            this.graph = graph;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                ForceDirectedLayout layout = new ForceDirectedLayout(graph);
+                Insets insets = diagram.getDiagram().getDecorator().getDefaultEntityInsets();
+                layout.setNodeSpacing(Math.max(insets.getWidth(), insets.getHeight()));
+                layout.layout(monitor);
+            } catch (Exception e) {
+                log.error("Diagram layout error", e);
+                return Status.OK_STATUS;
+            }
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+            UIUtils.asyncExec(() -> {
+                if (layoutJob != this || !diagram.isActive()) {
+                    return;
+                }
+                layoutJob = null;
+                for (int i = 0; i < nodes.size(); i++) {
+                    nodePositions.put(nodes.get(i), new Point((int) graph.getNodeX(i), (int) graph.getNodeY(i)));
+                }
+                applyPositions(nodes);
+                diagram.setTableModelBounds();
+                diagram.setTableFigureBounds(true);
+                diagram.getFigure().revalidate();
+                diagram.getFigure().repaint();
+            });
+            return Status.OK_STATUS;
+        }
+    }
+}
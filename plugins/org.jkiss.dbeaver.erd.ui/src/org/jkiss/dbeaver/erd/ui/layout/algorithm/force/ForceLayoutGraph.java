@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.force;
+
+import java.util.Arrays;
+
+/**
+ * Graph for force-directed layout.
+ * Nodes are rectangles identified by index. Node positions are rectangle top-left corners.
+ * Edges are undirected, duplicated edges and self links are ignored by layout.
+ */
+public class ForceLayoutGraph {
+
+    private int nodeCount;
+    private double[] width = new double[16];
+    private double[] height = new double[16];
+    // Node centers
+    private double[] centerX = new double[16];
+    private double[] centerY = new double[16];
+    private boolean[] placed = new boolean[16];
+
+    private int edgeCount;
+    private int[] edgeSource = new int[16];
+    private int[] edgeTarget = new int[16];
+
+    /**
+     * Adds node and returns its index
+     */
+    public int addNode(double width, double height) {
+        if (nodeCount == this.width.length) {
+            int capacity = nodeCount * 2;
+            this.width = Arrays.copyOf(this.width, capacity);
+            this.height = Arrays.copyOf(this.height, capacity);
+            this.centerX = Arrays.copyOf(this.centerX, capacity);
+            this.centerY = Arrays.copyOf(this.centerY, capacity);
+            this.placed = Arrays.copyOf(this.placed, capacity);
+        }
+        this.width[nodeCount] = width;
+        this.height[nodeCount] = height;
+        return nodeCount++;
+    }
+
+    public void addEdge(int source, int target) {
+        if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+            throw new IllegalArgumentException("Bad edge " + source + " -> " + target);
+        }
+        if (edgeCount == edgeSource.length) {
+            edgeSource = Arrays.copyOf(edgeSource, edgeCount * 2);
+            edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+        }
+        edgeSource[edgeCount] = source;
+        edgeTarget[edgeCount] = target;
+        edgeCount++;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getEdgeSource(int edge) {
+        return edgeSource[edge];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public double getNodeWidth(int node) {
+        return width[node];
+    }
+
+    public double getNodeHeight(int node) {
+        return height[node];
+    }
+
+    public double getNodeX(int node) {
+        return centerX[node] - width[node] / 2;
+    }
+
+    public double getNodeY(int node) {
+        return centerY[node] - height[node] / 2;
+    }
+
+    /**
+     * Sets position of the node laid out before.
+     * Components which consist of placed nodes only are kept as is,
+     * other components with placed nodes are re-laid out starting from their current positions.
+     */
+    public void setNodePosition(int node, double x, double y) {
+        setNodeCenter(node, x + width[node] / 2, y + height[node] / 2);
+        placed[node] = true;
+    }
+
+    public boolean isNodePlaced(int node) {
+        return placed[node];
+    }
+
+    double getNodeCenterX(int node) {
+        return centerX[node];
+    }
+
+    double getNodeCenterY(int node) {
+        return centerY[node];
+    }
+
+    void setNodeCenter(int node, double x, double y) {
+        centerX[node] = x;
+        centerY[node] = y;
+    }
+
+}
@@ -53,4 +53,11 @@ public class AltibaseConstants {
     
     public static final String TYPE_NAME_GEOMETRY = "GEOMETRY";
 
+    // Driver parameters of bulk loader
+    public static final String PARAM_BULK_LOAD_ARRAY_SIZE = "bulk-load-array-size";
+    public static final String PARAM_BULK_LOAD_APPEND = "bulk-load-append";
+    public static final String PARAM_BULK_LOAD_PARALLEL = "bulk-load-parallel";
+
+    public static final int BULK_LOAD_DEFAULT_ARRAY_SIZE = 1000;
+
 }
@@ -0,0 +1,192 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.altibase.model;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.altibase.AltibaseConstants;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+/**
+ * Bulk loader based on JDBC batch (array) binding.
+ * Rows are committed on each flush. Array size, APPEND hint and parallel degree are configured with driver parameters.
+ * APPEND hint (direct-path insert) is off by default: it locks the table and doesn't reuse free space,
+ * so it suits loads into empty or append-only tables only.
+ */
+public class AltibaseBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(AltibaseBulkLoader.class);
+
+    private final AltibaseDataSource dataSource;
+    private DBSEntity table;
+    private JDBCPreparedStatement insertStatement;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+
+    private int arraySize = AltibaseConstants.BULK_LOAD_DEFAULT_ARRAY_SIZE;
+    private int pendingRows;
+    private long insertedRows;
+
+    public AltibaseBulkLoader(AltibaseDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load is not supported for " + dataContainer.getName());
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+
+        Object arraySizeParam = dataSource.getContainer().getDriver().getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_ARRAY_SIZE);
+        arraySize = CommonUtils.toInt(arraySizeParam, AltibaseConstants.BULK_LOAD_DEFAULT_ARRAY_SIZE);
+        if (arraySize <= 0) {
+            arraySize = AltibaseConstants.BULK_LOAD_DEFAULT_ARRAY_SIZE;
+        }
+        if (batchSize > 0 && batchSize < arraySize) {
+            // Do not keep more rows than commit size
+            arraySize = batchSize;
+        }
+
+        try {
+            insertStatement = ((JDBCSession) session).prepareStatement(makeInsertQuery());
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        return this;
+    }
+
+    private String makeInsertQuery() {
+        String tableName = DBUtils.getObjectFullName(table, DBPEvaluationContext.DML);
+
+        StringBuilder hints = new StringBuilder();
+        if (CommonUtils.getBoolean(dataSource.getContainer().getDriver().getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_APPEND), false)) {
+            hints.append("APPEND");
+        }
+        int parallelDegree = CommonUtils.toInt(dataSource.getContainer().getDriver().getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_PARALLEL), 1);
+        if (parallelDegree > 1) {
+            if (hints.length() > 0) {
+                hints.append(" ");
+            }
+            hints.append("PARALLEL(").append(DBUtils.getQuotedIdentifier(table)).append(", ").append(parallelDegree).append(")");
+        }
+
+        StringBuilder query = new StringBuilder("INSERT ");
+        if (hints.length() > 0) {
+            query.append("/*+ ").append(hints).append(" */ ");
+        }
+        query.append("INTO ").append(tableName).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        query.append(") VALUES (");
+        for (int i = 0; i < attributes.length; i++) {
+            query.append(i > 0 ? ", ?" : "?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, insertStatement, attributes[i], i, attributeValues[i]);
+        }
+        try {
+            insertStatement.addBatch();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        pendingRows++;
+        if (pendingRows >= arraySize) {
+            executeBatch(session);
+        }
+    }
+
+    private void executeBatch(@NotNull DBCSession session) throws DBCException {
+        if (pendingRows == 0) {
+            return;
+        }
+        try {
+            insertStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        insertedRows += pendingRows;
+        pendingRows = 0;
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+        commit(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+        log.debug("Bulk load into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI) + " finished (" + insertedRows + " rows)");
+    }
+
+    private void commit(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk load (" + insertedRows + ")");
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (insertStatement != null) {
+            insertStatement.close();
+            insertStatement = null;
+        }
+    }
+}
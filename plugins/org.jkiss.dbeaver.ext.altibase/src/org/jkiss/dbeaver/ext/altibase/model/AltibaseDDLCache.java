@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.altibase.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Schema-wide DDL cache.
+ * Filled in bulk by AltibaseMetaModel.loadSchemaDDL and cleared on schema refresh.
+ * Keys are object type (DBMS_METADATA type name or catalog source kind) and object name.
+ */
+public class AltibaseDDLCache {
+
+    public static final String CATALOG_VIEW = "VIEW";
+    public static final String CATALOG_PROCEDURE = "PROCEDURE";
+    public static final String CATALOG_PACKAGE_SPEC = "PACKAGE_SPEC";
+    public static final String CATALOG_PACKAGE_BODY = "PACKAGE_BODY";
+    public static final String CATALOG_TRIGGER = "TRIGGER";
+
+    private final Map<String, String> metadataDDL = new HashMap<>();
+    private final Map<String, String> catalogDDL = new HashMap<>();
+    // null means DBMS_METADATA availability was not checked yet
+    private Boolean dbmsMetadataAvailable;
+
+    @Nullable
+    public synchronized Boolean isDbmsMetadataAvailable() {
+        return dbmsMetadataAvailable;
+    }
+
+    public synchronized void setDbmsMetadataAvailable(boolean dbmsMetadataAvailable) {
+        this.dbmsMetadataAvailable = dbmsMetadataAvailable;
+    }
+
+    /**
+     * Returns DDL read with DBMS_METADATA or null if object DDL wasn't cached.
+     */
+    @Nullable
+    public synchronized String getMetadataDDL(@NotNull String objectType, @NotNull String objectName) {
+        return metadataDDL.get(makeKey(objectType, objectName));
+    }
+
+    public synchronized void putMetadataDDL(@NotNull String objectType, @NotNull String objectName, @Nullable String ddl) {
+        metadataDDL.put(makeKey(objectType, objectName), ddl == null ? "" : ddl);
+    }
+
+    /**
+     * Returns DDL assembled from SYSTEM_ catalog source tables or null if object DDL wasn't cached.
+     */
+    @Nullable
+    public synchronized String getCatalogDDL(@NotNull String sourceKind, @NotNull String objectName) {
+        return catalogDDL.get(makeKey(sourceKind, objectName));
+    }
+
+    public synchronized void putCatalogDDL(@NotNull String sourceKind, @NotNull String objectName, @NotNull String ddl) {
+        catalogDDL.put(makeKey(sourceKind, objectName), ddl);
+    }
+
+    public synchronized void removeDDL(@NotNull String objectName) {
+        String suffix = "." + objectName;
+        metadataDDL.keySet().removeIf(key -> key.endsWith(suffix));
+        catalogDDL.keySet().removeIf(key -> key.endsWith(suffix));
+    }
+
+    public synchronized boolean isEmpty() {
+        return metadataDDL.isEmpty() && catalogDDL.isEmpty();
+    }
+
+    public synchronized void clear() {
+        metadataDDL.clear();
+        catalogDDL.clear();
+        dbmsMetadataAvailable = null;
+    }
+
+    private static String makeKey(String objectType, String objectName) {
+        return objectType + "." + objectName;
+    }
+}
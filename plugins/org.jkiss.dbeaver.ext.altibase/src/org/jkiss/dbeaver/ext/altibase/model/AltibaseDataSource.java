@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.exec.plan.DBCPlanStyle;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlannerConfiguration;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 
 public class AltibaseDataSource extends GenericDataSource implements DBCQueryPlanner {
@@ -178,6 +179,14 @@ public class AltibaseDataSource extends GenericDataSource implements DBCQueryPla
     public Collection<AltibaseSynonym> getPublicSynonyms(DBRProgressMonitor monitor) throws DBException {
         return (Collection<AltibaseSynonym>) publicSchema.getSynonyms(monitor);
     }
+
+    @Override
+    public <T> T getAdapter(Class<T> adapter) {
+        if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new AltibaseBulkLoader(this));
+        }
+        return super.getAdapter(adapter);
+    }
     
     ///////////////////////////////////////////////
     // Plan
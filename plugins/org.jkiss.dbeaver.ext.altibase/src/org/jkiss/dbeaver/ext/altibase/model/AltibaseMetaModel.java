@@ -21,8 +21,16 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
@@ -52,6 +60,7 @@ import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaModel;
 import org.jkiss.dbeaver.ext.generic.model.meta.GenericMetaObject;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -62,6 +71,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntityConstraintType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.rdb.DBSIndexType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureType;
 import org.jkiss.utils.CommonUtils;
 
@@ -74,6 +84,7 @@ public class AltibaseMetaModel extends GenericMetaModel
     
     private static final Log log = Log.getLog(AltibaseMetaModel.class);
     public static boolean DBMS_METADATA = true;
+    private static final int DBMS_METADATA_BATCH_SIZE = 100;
 
     /*
     private static final Set<String> INVALID_TABLE_TYPES = new HashSet<>();
@@ -149,6 +160,8 @@ public class AltibaseMetaModel extends GenericMetaModel
     public String getTableDDL(DBRProgressMonitor monitor, GenericTableBase sourceObject, Map<String, Object> options) throws DBException {
     	String ddl = null;
     	
+    	resetCachedDDL(sourceObject, options);
+    	
     	if (DBMS_METADATA) {
     		ddl = getDDLFromDbmsMetadata(monitor, sourceObject, sourceObject.getSchemaName(), sourceObject.getTableType());
     	}
@@ -163,6 +176,8 @@ public class AltibaseMetaModel extends GenericMetaModel
     public String getSynonymDDL(DBRProgressMonitor monitor, AltibaseSynonym sourceObject, Map<String, Object> options) throws DBException {
     	String ddl = null;
     	
+    	resetCachedDDL(sourceObject, options);
+    	
     	if (DBMS_METADATA) {
     		ddl = getDDLFromDbmsMetadata(monitor, sourceObject, sourceObject.getSchemaName(), "SYNONYM");
     	}
@@ -183,6 +198,8 @@ public class AltibaseMetaModel extends GenericMetaModel
     public String getViewDDL(DBRProgressMonitor monitor, GenericView sourceObject, Map<String, Object> options) throws DBException {
     	String ddl = null;
 
+    	resetCachedDDL(sourceObject, options);
+
     	if (DBMS_METADATA) {
     		ddl = getDDLFromDbmsMetadata(monitor, sourceObject, sourceObject.getSchema().getName(), AltibaseUtils.getDmbsMetaDataObjTypeName(sourceObject.getTableType()));
     	}
@@ -200,7 +217,7 @@ public class AltibaseMetaModel extends GenericMetaModel
 					+ " AND VP.VIEW_ID = T.TABLE_ID"
 					+ " ORDER BY SEQ_NO ASC";
 	    	
-	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql);
+	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql, AltibaseDDLCache.CATALOG_VIEW);
     	}
         
         return (ddl.length() < 1)? "-- View definition not available":ddl.toString();
@@ -225,7 +242,7 @@ public class AltibaseMetaModel extends GenericMetaModel
 	    			+ " AND PP.USER_ID = U.USER_ID"
 	    			+ " AND PP.PROC_OID = P.PROC_OID"
 	    			+ " ORDER BY SEQ_NO ASC";
-	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql);
+	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql, AltibaseDDLCache.CATALOG_PROCEDURE);
     	}
         
     	if (ddl.length() < 1) {
@@ -280,7 +297,8 @@ public class AltibaseMetaModel extends GenericMetaModel
 	    			+ " AND PP.PACKAGE_TYPE = P.PACKAGE_TYPE"
 	    			+ " AND PP.PACKAGE_TYPE = " + package_type
 	    			+ " ORDER BY PP.PACKAGE_TYPE, SEQ_NO ASC";
-	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql);
+	    	ddl = getViewProcDDLFromCatalog(monitor, sourceObject, sourceObject.getSchema().getName(), sql,
+	    			(package_type == AltibaseConstants.PACKAGE_SPEC) ? AltibaseDDLCache.CATALOG_PACKAGE_SPEC : AltibaseDDLCache.CATALOG_PACKAGE_BODY);
     	}
         
     	if (ddl.length() < 1) {
@@ -296,6 +314,47 @@ public class AltibaseMetaModel extends GenericMetaModel
     //////////////////////////////////////////////////////
     // Table Columns
     
+    /*
+     * Columns are read from SYSTEM_ catalog, so all columns of a schema are read with one query
+     * if forTable is null. Result set columns follow DatabaseMetaData.getColumns naming.
+     */
+    @Override
+    public JDBCStatement prepareTableColumnLoadStatement(@NotNull JDBCSession session, @NotNull GenericStructContainer owner, @Nullable GenericTableBase forTable) throws SQLException {
+        final JDBCPreparedStatement dbStat = session.prepareStatement(
+        		"SELECT"
+        				+ " T.TABLE_NAME AS TABLE_NAME"
+        				+ ", C.COLUMN_NAME AS COLUMN_NAME"
+        				+ ", C.DATA_TYPE AS DATA_TYPE"
+        				+ ", D.TYPE_NAME AS TYPE_NAME"
+        				+ ", C.PRECISION AS COLUMN_SIZE"
+        				+ ", C.SCALE AS DECIMAL_DIGITS"
+        				+ ", 10 AS NUM_PREC_RADIX"
+        				+ ", CASE2(C.IS_NULLABLE = 'F', 0, 1) AS NULLABLE"
+        				+ ", CM.COMMENTS AS REMARKS"
+        				+ ", C.DEFAULT_VAL AS COLUMN_DEF"
+        				+ ", C.SIZE AS CHAR_OCTET_LENGTH"
+        				+ ", (C.COLUMN_ORDER + 1) AS ORDINAL_POSITION"
+        				+ ", 'NO' AS IS_AUTOINCREMENT"
+        				+ ", 'NO' AS IS_GENERATEDCOLUMN"
+        				+ ", 0 AS SOURCE_DATA_TYPE"
+        			+ " FROM SYSTEM_.SYS_USERS_ U"
+        				+ " INNER JOIN SYSTEM_.SYS_TABLES_ T ON U.USER_ID = T.USER_ID"
+        				+ " INNER JOIN SYSTEM_.SYS_COLUMNS_ C ON T.TABLE_ID = C.TABLE_ID"
+        				+ " LEFT OUTER JOIN V$DATATYPE D ON C.DATA_TYPE = D.DATA_TYPE"
+        				+ " LEFT OUTER JOIN SYSTEM_.SYS_COMMENTS_ CM ON CM.USER_NAME = U.USER_NAME"
+        					+ " AND CM.TABLE_NAME = T.TABLE_NAME AND CM.COLUMN_NAME = C.COLUMN_NAME"
+        			+ " WHERE"
+        				+ " U.USER_NAME = ?"
+        				+ " AND C.IS_HIDDEN = 'F'"
+        				+ ((forTable == null) ? "" : " AND T.TABLE_NAME = ?")
+        			+ " ORDER BY T.TABLE_NAME, C.COLUMN_ORDER");
+        dbStat.setString(1, owner.getName());
+        if (forTable != null) {
+        	dbStat.setString(2, forTable.getName());
+        }
+        return dbStat;
+    }
+
     public GenericTableColumn createTableColumnImpl(@NotNull DBRProgressMonitor monitor, @Nullable JDBCResultSet dbResult, @NotNull GenericTableBase table, String columnName, String typeName, int valueType, int sourceType, int ordinalPos, long columnSize, long charLength, Integer scale, Integer precision, int radix, boolean notNull, String remarks, String defaultValue, boolean autoIncrement, boolean autoGenerated) throws DBException {
         return new AltibaseTableColumn(table,
             columnName,
@@ -538,20 +597,69 @@ public class AltibaseMetaModel extends GenericMetaModel
     					+ " system_.sys_constraints_ c, system_.sys_constraint_columns_ ccol"
     				+ " WHERE"
     					+ " u.user_name = ?"
-    					+ " AND t.table_name = ?"
+    					+ ((forParent == null) ? "" : " AND t.table_name = ?")
     					+ " AND u.user_id = c.user_id"
     					+ " AND u.user_id = t.user_id"
     					+ " AND t.table_id = c.table_id"
     				    + " AND c.constraint_type != 0"
     					+ " AND c.constraint_id = ccol.constraint_id"
     					+ " AND ccol.column_id = col.column_id"
+    				+ " ORDER BY t.table_name, c.constraint_name, ccol.constraint_col_order"
     			);
     	
     	dbStat.setString(1, owner.getName());
-    	dbStat.setString(2, forParent.getName());
+    	if (forParent != null) {
+    		dbStat.setString(2, forParent.getName());
+    	}
         return dbStat;
     }
     
+    //////////////////////////////////////////////////////
+    // Indexes
+    
+    /*
+     * Indexes of all schema tables are read with one query if forParent is null.
+     * Result set columns follow DatabaseMetaData.getIndexInfo naming.
+     */
+    @Override
+    public JDBCStatement prepareIndexLoadStatement(@NotNull JDBCSession session, @NotNull GenericStructContainer owner, @Nullable GenericTableBase forParent) throws SQLException {
+    	final JDBCPreparedStatement dbStat = session.prepareStatement(
+    			"SELECT"
+    					+ " T.TABLE_NAME AS TABLE_NAME"
+    					+ ", I.INDEX_NAME AS INDEX_NAME"
+    					+ ", CASE2(I.IS_UNIQUE = 'T', 0, 1) AS NON_UNIQUE"
+    					+ ", NULL AS INDEX_QUALIFIER"
+    					+ ", 0 AS CARDINALITY"
+    					+ ", " + DatabaseMetaData.tableIndexOther + " AS TYPE"
+    					+ ", (IC.INDEX_COL_ORDER + 1) AS ORDINAL_POSITION"
+    					+ ", C.COLUMN_NAME AS COLUMN_NAME"
+    					+ ", IC.SORT_ORDER AS ASC_OR_DESC"
+    				+ " FROM"
+    					+ " SYSTEM_.SYS_USERS_ U, SYSTEM_.SYS_TABLES_ T, SYSTEM_.SYS_INDICES_ I,"
+    					+ " SYSTEM_.SYS_INDEX_COLUMNS_ IC, SYSTEM_.SYS_COLUMNS_ C"
+    				+ " WHERE"
+    					+ " U.USER_NAME = ?"
+    					+ ((forParent == null) ? "" : " AND T.TABLE_NAME = ?")
+    					+ " AND U.USER_ID = T.USER_ID"
+    					+ " AND T.TABLE_ID = I.TABLE_ID"
+    					+ " AND I.INDEX_ID = IC.INDEX_ID"
+    					+ " AND IC.COLUMN_ID = C.COLUMN_ID"
+    				+ " ORDER BY T.TABLE_NAME, I.INDEX_NAME, IC.INDEX_COL_ORDER"
+    			);
+    	
+    	dbStat.setString(1, owner.getName());
+    	if (forParent != null) {
+    		dbStat.setString(2, forParent.getName());
+    	}
+    	return dbStat;
+    }
+    
+    @Override
+    public AltibaseTableIndex createIndexImpl(GenericTableBase table, boolean nonUnique, String qualifier, long cardinality,
+    		String indexName, DBSIndexType indexType, boolean persisted) {
+    	return new AltibaseTableIndex(table, nonUnique, qualifier, cardinality, indexName, indexType, persisted);
+    }
+    
     @Override
     public GenericUniqueKey createConstraintImpl(GenericTableBase table, String constraintName, DBSEntityConstraintType constraintType, 
     		JDBCResultSet dbResult, boolean persisted) {
@@ -897,15 +1005,306 @@ public class AltibaseMetaModel extends GenericMetaModel
         return dbStat;
 	}
 	
-    private String getViewProcDDLFromCatalog(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String sql) {
-    	return geDDLFromCatalog(monitor, sourceObject, schemaName, sql, "PARSE");
+    //////////////////////////////////////////////////////
+    // Bulk DDL
+
+    /**
+     * Reads DDL of the given schema objects (or of all schema objects if objects is null)
+     * in one metadata session and puts it to the schema DDL cache.
+     * Catalog sources are read with one query per object kind.
+     */
+    public void loadSchemaDDL(@NotNull DBRProgressMonitor monitor, @NotNull AltibaseSchema schema, @Nullable Collection<? extends DBSObject> objects) throws DBException {
+        if (objects == null) {
+            objects = collectSchemaObjects(monitor, schema);
+        }
+        AltibaseDDLCache ddlCache = schema.getDDLCache();
+
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, schema, "Load schema DDL")) {
+            boolean useDbmsMetadata = DBMS_METADATA && hasDbmsMetadataPacakge(session);
+            ddlCache.setDbmsMetadataAvailable(useDbmsMetadata);
+
+            if (useDbmsMetadata) {
+                loadDDLFromDbmsMetadata(monitor, session, schema.getName(), objects, ddlCache);
+            } else {
+                loadDDLFromCatalog(monitor, session, schema.getName(), objects, ddlCache);
+            }
+        } catch (SQLException e) {
+            throw new DBException(e, schema.getDataSource());
+        }
+    }
+
+    private List<DBSObject> collectSchemaObjects(DBRProgressMonitor monitor, AltibaseSchema schema) throws DBException {
+        List<DBSObject> objects = new ArrayList<>();
+        objects.addAll(CommonUtils.safeCollection(schema.getTables(monitor)));
+        objects.addAll(CommonUtils.safeCollection(schema.getProcedures(monitor)));
+        objects.addAll(CommonUtils.safeCollection(schema.getPackages(monitor)));
+        objects.addAll(CommonUtils.safeCollection(schema.getSynonyms(monitor)));
+        objects.addAll(CommonUtils.safeCollection(schema.getTableTriggers(monitor)));
+        return objects;
+    }
+
+    /*
+     * DBMS_METADATA has no set-based entry point, but GET_DDL can be called from a query.
+     * So DDL of a batch of objects of the same type is read with one SELECT. If the batch query fails
+     * (e.g. GET_DDL fails for one of the objects), DDL of the batch objects is read one by one.
+     */
+    private void loadDDLFromDbmsMetadata(DBRProgressMonitor monitor, JDBCSession session, String schemaName,
+    		Collection<? extends DBSObject> objects, AltibaseDDLCache ddlCache) throws SQLException {
+        Map<String, List<String>> namesByType = new LinkedHashMap<>();
+        int objectCount = 0;
+        for (DBSObject object : objects) {
+            for (String objectType : getDbmsMetadataObjectTypes(object)) {
+                namesByType.computeIfAbsent(objectType, type -> new ArrayList<>()).add(object.getName());
+                objectCount++;
+            }
+        }
+
+        monitor.beginTask("Read DDL from DBMS_METADATA", objectCount);
+        try {
+            for (Map.Entry<String, List<String>> entry : namesByType.entrySet()) {
+                String objectType = entry.getKey();
+                List<String> names = entry.getValue();
+                for (int from = 0; from < names.size(); from += DBMS_METADATA_BATCH_SIZE) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    List<String> batch = names.subList(from, Math.min(from + DBMS_METADATA_BATCH_SIZE, names.size()));
+                    monitor.subTask(objectType + " " + batch.get(0));
+                    try {
+                        readDbmsMetadataBatch(session, schemaName, objectType, batch, ddlCache);
+                    } catch (SQLException e) {
+                        log.debug("Can't read DDL of " + objectType + " batch from DBMS_METADATA, read objects one by one", e);
+                        readDbmsMetadataByObject(session, schemaName, objectType, batch, ddlCache);
+                    }
+                    monitor.worked(batch.size());
+                }
+            }
+        } finally {
+            monitor.done();
+        }
+    }
+
+    private void readDbmsMetadataBatch(JDBCSession session, String schemaName, String objectType,
+    		List<String> objectNames, AltibaseDDLCache ddlCache) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        sql.append("SELECT N.OBJECT_NAME, DBMS_METADATA.GET_DDL(?, N.OBJECT_NAME, ?) AS DDL_TEXT FROM (");
+        for (int i = 0; i < objectNames.size(); i++) {
+            if (i > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT CAST(? AS VARCHAR(128)) AS OBJECT_NAME FROM DUAL");
+        }
+        sql.append(") N");
+
+        Map<String, String> ddls = new HashMap<>();
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
+            int index = 1;
+            dbStat.setString(index++, objectType);
+            dbStat.setString(index++, schemaName);
+            for (String objectName : objectNames) {
+                dbStat.setString(index++, objectName);
+            }
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    ddls.put(dbResult.getString(1), dbResult.getString(2));
+                }
+            }
+        }
+        // Cache is filled only when the whole batch is read
+        for (String objectName : objectNames) {
+            ddlCache.putMetadataDDL(objectType, objectName, ddls.get(objectName));
+        }
+    }
+
+    private void readDbmsMetadataByObject(JDBCSession session, String schemaName, String objectType,
+    		List<String> objectNames, AltibaseDDLCache ddlCache) throws SQLException {
+        /* Native CallableStatement: see getDDLFromDbmsMetadata */
+        try (CallableStatement cstmt = session.getOriginal().prepareCall("exec ? := dbms_metadata.get_ddl(?, ?, ?)")) {
+            cstmt.registerOutParameter(1, Types.VARCHAR);
+            cstmt.setString(2, objectType);
+            cstmt.setString(4, schemaName);
+            for (String objectName : objectNames) {
+                cstmt.setString(3, objectName);
+                try {
+                    cstmt.execute();
+                    ddlCache.putMetadataDDL(objectType, objectName, cstmt.getString(1));
+                } catch (SQLException e) {
+                    log.warn("Can't read DDL from DBMS_METADATA: " + objectType + " " + objectName, e);
+                }
+            }
+        }
+    }
+
+    private void loadDDLFromCatalog(DBRProgressMonitor monitor, JDBCSession session, String schemaName,
+    		Collection<? extends DBSObject> objects, AltibaseDDLCache ddlCache) throws SQLException {
+        Set<String> views = new HashSet<>();
+        Set<String> procedures = new HashSet<>();
+        Set<String> packages = new HashSet<>();
+        Set<String> triggers = new HashSet<>();
+        for (DBSObject object : objects) {
+            if (object instanceof GenericView) {
+                views.add(object.getName());
+            } else if (object instanceof AltibaseProcedureStandAlone) {
+                procedures.add(object.getName());
+            } else if (object instanceof AltibasePackage) {
+                packages.add(object.getName());
+            } else if (object instanceof GenericTrigger) {
+                triggers.add(object.getName());
+            }
+        }
+
+        if (!views.isEmpty()) {
+            loadCatalogSources(monitor, session, schemaName,
+                "SELECT"
+                        + " T.TABLE_NAME AS OBJECT_NAME, '" + AltibaseDDLCache.CATALOG_VIEW + "' AS SOURCE_KIND, VP.PARSE AS SOURCE_TEXT"
+                    + " FROM"
+                        + " SYSTEM_.SYS_VIEW_PARSE_ VP, SYSTEM_.SYS_USERS_ U, SYSTEM_.SYS_TABLES_ T"
+                    + " WHERE"
+                        + " U.USER_NAME = ?"
+                        + " AND T.TABLE_TYPE = 'V'"
+                        + " AND VP.USER_ID = U.USER_ID"
+                        + " AND VP.VIEW_ID = T.TABLE_ID"
+                    + " ORDER BY T.TABLE_NAME, VP.SEQ_NO ASC",
+                views, ddlCache, AltibaseDDLCache.CATALOG_VIEW);
+        }
+        if (!procedures.isEmpty()) {
+            loadCatalogSources(monitor, session, schemaName,
+                "SELECT"
+                        + " P.PROC_NAME AS OBJECT_NAME, '" + AltibaseDDLCache.CATALOG_PROCEDURE + "' AS SOURCE_KIND, PP.PARSE AS SOURCE_TEXT"
+                    + " FROM"
+                        + " SYSTEM_.SYS_PROC_PARSE_ PP, SYSTEM_.SYS_USERS_ U, SYSTEM_.SYS_PROCEDURES_ P"
+                    + " WHERE"
+                        + " U.USER_NAME = ?"
+                        + " AND PP.USER_ID = U.USER_ID"
+                        + " AND PP.PROC_OID = P.PROC_OID"
+                    + " ORDER BY P.PROC_NAME, PP.SEQ_NO ASC",
+                procedures, ddlCache, AltibaseDDLCache.CATALOG_PROCEDURE);
+        }
+        if (!packages.isEmpty()) {
+            loadCatalogSources(monitor, session, schemaName,
+                "SELECT"
+                        + " P.PACKAGE_NAME AS OBJECT_NAME"
+                        + ", CASE2(PP.PACKAGE_TYPE = " + AltibaseConstants.PACKAGE_SPEC + ", '" + AltibaseDDLCache.CATALOG_PACKAGE_SPEC + "', '"
+                            + AltibaseDDLCache.CATALOG_PACKAGE_BODY + "') AS SOURCE_KIND"
+                        + ", PP.PARSE AS SOURCE_TEXT"
+                    + " FROM"
+                        + " SYSTEM_.SYS_PACKAGE_PARSE_ PP, SYSTEM_.SYS_USERS_ U, SYSTEM_.SYS_PACKAGES_ P"
+                    + " WHERE"
+                        + " U.USER_NAME = ?"
+                        + " AND PP.USER_ID = U.USER_ID"
+                        + " AND PP.PACKAGE_OID = P.PACKAGE_OID"
+                        + " AND PP.PACKAGE_TYPE = P.PACKAGE_TYPE"
+                    + " ORDER BY P.PACKAGE_NAME, PP.PACKAGE_TYPE, PP.SEQ_NO ASC",
+                packages, ddlCache, AltibaseDDLCache.CATALOG_PACKAGE_SPEC, AltibaseDDLCache.CATALOG_PACKAGE_BODY);
+        }
+        if (!triggers.isEmpty()) {
+            loadCatalogSources(monitor, session, schemaName,
+                "SELECT"
+                        + " T.TRIGGER_NAME AS OBJECT_NAME, '" + AltibaseDDLCache.CATALOG_TRIGGER + "' AS SOURCE_KIND, STS.SUBSTRING AS SOURCE_TEXT"
+                    + " FROM"
+                        + " SYSTEM_.SYS_TRIGGERS_ T, SYSTEM_.SYS_TRIGGER_STRINGS_ STS"
+                    + " WHERE"
+                        + " T.USER_NAME = ?"
+                        + " AND STS.TRIGGER_OID = T.TRIGGER_OID"
+                    + " ORDER BY T.TRIGGER_NAME, STS.SEQNO ASC",
+                triggers, ddlCache, AltibaseDDLCache.CATALOG_TRIGGER);
+        }
+    }
+
+    /*
+     * Source rows are ordered by object name and sequence number, so the source text of each object
+     * is assembled by simple concatenation. Objects without source rows get the same text as per-object read.
+     */
+    private void loadCatalogSources(DBRProgressMonitor monitor, JDBCSession session, String schemaName, String sql,
+    		Set<String> objectNames, AltibaseDDLCache ddlCache, String ... sourceKinds) throws SQLException {
+        Map<String, StringBuilder> sources = new HashMap<>();
+
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql)) {
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            dbStat.setString(1, schemaName);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    String objectName = JDBCUtils.safeGetString(dbResult, "OBJECT_NAME");
+                    if (objectName == null || !objectNames.contains(objectName)) {
+                        continue;
+                    }
+                    String sourceKind = JDBCUtils.safeGetString(dbResult, "SOURCE_KIND");
+                    String content = JDBCUtils.safeGetString(dbResult, "SOURCE_TEXT");
+                    if (content != null) {
+                        sources.computeIfAbsent(sourceKind + "." + objectName, k -> new StringBuilder()).append(content);
+                    }
+                }
+            }
+        }
+
+        for (String objectName : objectNames) {
+            for (String sourceKind : sourceKinds) {
+                StringBuilder source = sources.get(sourceKind + "." + objectName);
+                ddlCache.putCatalogDDL(sourceKind, objectName,
+                    AltibaseMessages.NO_DBMS_METADATA + (source == null ? "" : source.toString()));
+            }
+        }
+    }
+
+    /*
+     * DBMS_METADATA object types used by per-object DDL readers.
+     */
+    private static List<String> getDbmsMetadataObjectTypes(DBSObject object) {
+        if (object instanceof AltibaseSynonym) {
+            return ((AltibaseSynonym) object).isPublic ? Collections.emptyList() : Collections.singletonList("SYNONYM");
+        } else if (object instanceof GenericView) {
+            return Collections.singletonList(AltibaseUtils.getDmbsMetaDataObjTypeName(((GenericView) object).getTableType()));
+        } else if (object instanceof GenericTableBase) {
+            return Collections.singletonList(((GenericTableBase) object).getTableType());
+        } else if (object instanceof AltibaseProcedureStandAlone) {
+            return Collections.singletonList(((AltibaseProcedureStandAlone) object).getProcedureTypeName());
+        } else if (object instanceof AltibasePackage) {
+            return ((AltibasePackage) object).hasBody() ?
+                Arrays.asList("PACKAGE_SPEC", "PACKAGE_BODY") : Collections.singletonList("PACKAGE_SPEC");
+        } else if (object instanceof GenericTrigger) {
+            return Collections.singletonList("TRIGGER");
+        }
+        return Collections.emptyList();
+    }
+
+    @Nullable
+    private static AltibaseDDLCache getDDLCache(DBSObject sourceObject) {
+        AltibaseSchema schema = DBUtils.getParentOfType(AltibaseSchema.class, sourceObject);
+        return schema == null ? null : schema.getDDLCache();
+    }
+
+    /**
+     * Removes cached DDL of the object if DDL refresh is requested
+     */
+    static void resetCachedDDL(DBSObject sourceObject, Map<String, Object> options) {
+        if (CommonUtils.getOption(options, DBPScriptObject.OPTION_REFRESH)) {
+            AltibaseDDLCache ddlCache = getDDLCache(sourceObject);
+            if (ddlCache != null) {
+                ddlCache.removeDDL(sourceObject.getName());
+            }
+        }
+    }
+
+    private String getViewProcDDLFromCatalog(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String sql, String sourceKind) {
+    	return geDDLFromCatalog(monitor, sourceObject, schemaName, sql, "PARSE", sourceKind);
     }
     
     private String getTriggerDDLFromCatalog(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String sql) {
-    	return geDDLFromCatalog(monitor, sourceObject, schemaName, sql, "SUBSTRING");
+    	return geDDLFromCatalog(monitor, sourceObject, schemaName, sql, "SUBSTRING", AltibaseDDLCache.CATALOG_TRIGGER);
     }
     
-    private String geDDLFromCatalog(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String sql, String colname) {
+    private String geDDLFromCatalog(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String sql, String colname, String sourceKind) {
+    	AltibaseDDLCache ddlCache = getDDLCache(sourceObject);
+    	if (ddlCache != null) {
+    		String cachedDDL = ddlCache.getCatalogDDL(sourceKind, sourceObject.getName());
+    		if (cachedDDL != null) {
+    			return cachedDDL;
+    		}
+    	}
+    	
     	StringBuilder ddl = new StringBuilder(AltibaseMessages.NO_DBMS_METADATA);
     	String content = null;
     	//boolean hasDDL = false;
@@ -944,6 +1343,16 @@ public class AltibaseMetaModel extends GenericMetaModel
     
     private String getDDLFromDbmsMetadata(DBRProgressMonitor monitor, DBSObject sourceObject, String schemaName, String objectType) {
     	String ddl = "";
+    	AltibaseDDLCache ddlCache = getDDLCache(sourceObject);
+    	if (ddlCache != null) {
+    		if (Boolean.FALSE.equals(ddlCache.isDbmsMetadataAvailable())) {
+    			return ddl;
+    		}
+    		String cachedDDL = ddlCache.getMetadataDDL(objectType, sourceObject.getName());
+    		if (cachedDDL != null) {
+    			return cachedDDL;
+    		}
+    	}
     	CallableStatement cstmt = null;
     	/* Need to use native CallableStatement
     	 * jcstmt = session.prepareCall("exec ? := dbms_metadata.get_ddl(?, ?, ?)");
@@ -24,10 +24,12 @@ import org.jkiss.dbeaver.ext.altibase.AltibaseConstants;
 import org.jkiss.dbeaver.ext.altibase.AltibaseUtils;
 import org.jkiss.dbeaver.ext.generic.model.GenericPackage;
 import org.jkiss.dbeaver.ext.generic.model.GenericStructContainer;
+import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
 
 public class AltibasePackage extends GenericPackage {
 
@@ -48,9 +50,17 @@ public class AltibasePackage extends GenericPackage {
 		this.hasBody = hasBody;
 	}
 
+	public boolean hasBody() {
+		return hasBody;
+	}
+
     @Override
     //@Property(hidden = true, editable = true, updatable = true, order = -1)
     public String getObjectDefinitionText(DBRProgressMonitor monitor, Map<String, Object> options) throws DBException {
+        if (CommonUtils.getOption(options, DBPScriptObject.OPTION_REFRESH)) {
+            source = null;
+            AltibaseMetaModel.resetCachedDDL(this, options);
+        }
         if (source == null) {
         	source = "-- Package specification " 
         			+ AltibaseUtils.NEW_LINE 
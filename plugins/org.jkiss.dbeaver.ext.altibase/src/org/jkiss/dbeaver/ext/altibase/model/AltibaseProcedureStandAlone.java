@@ -22,8 +22,10 @@ import java.util.Map;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.generic.model.GenericFunctionResultType;
 import org.jkiss.dbeaver.ext.generic.model.GenericStructContainer;
+import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureType;
+import org.jkiss.utils.CommonUtils;
 
 public class AltibaseProcedureStandAlone extends AltibaseProcedureBase {
 	
@@ -34,6 +36,10 @@ public class AltibaseProcedureStandAlone extends AltibaseProcedureBase {
 
     @Override
     public String getObjectDefinitionText(DBRProgressMonitor monitor, Map<String, Object> options) throws DBException {
+        if (CommonUtils.getOption(options, DBPScriptObject.OPTION_REFRESH)) {
+            source = null;
+            AltibaseMetaModel.resetCachedDDL(this, options);
+        }
         if (source == null) {
             source = getDataSource().getMetaModel().getProcedureDDL(monitor, this);
         }
@@ -18,23 +18,110 @@
 package org.jkiss.dbeaver.ext.altibase.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.generic.model.GenericCatalog;
 import org.jkiss.dbeaver.ext.generic.model.GenericDataSource;
 import org.jkiss.dbeaver.ext.generic.model.GenericProcedure;
 import org.jkiss.dbeaver.ext.generic.model.GenericSchema;
 import org.jkiss.dbeaver.ext.generic.model.GenericTableBase;
+import org.jkiss.dbeaver.model.DBPScriptObject;
+import org.jkiss.dbeaver.model.DBPScriptObjectExt2;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBStructUtils;
 import org.jkiss.utils.CommonUtils;
 
-public class AltibaseSchema extends GenericSchema {
+public class AltibaseSchema extends GenericSchema implements DBPScriptObjectExt2 {
+
+    private final AltibaseDDLCache ddlCache = new AltibaseDDLCache();
 
 	public AltibaseSchema(GenericDataSource dataSource, GenericCatalog catalog, String schemaName) {
 		super(dataSource, catalog, schemaName);
 	}
 
+    @NotNull
+    public AltibaseDDLCache getDDLCache() {
+        return ddlCache;
+    }
+
+    /**
+     * Reads DDL of given objects (or of all schema objects if objects is null) in bulk.
+     * Subsequent DDL requests for these objects are served from the schema DDL cache.
+     */
+    public void cacheDDL(@NotNull DBRProgressMonitor monitor, @Nullable Collection<? extends DBSObject> objects) throws DBException {
+        ((AltibaseMetaModel) getDataSource().getMetaModel()).loadSchemaDDL(monitor, this, objects);
+    }
+
+    @Override
+    public boolean supportsObjectDefinitionOption(String option) {
+        return DBPScriptObject.OPTION_INCLUDE_NESTED_OBJECTS.equals(option);
+    }
+
+    /**
+     * Schema DDL with nested objects: DDL of all schema objects is read in bulk
+     * and then per-object DDL is served from the schema DDL cache.
+     */
+    @Override
+    public String getObjectDefinitionText(DBRProgressMonitor monitor, Map<String, Object> options) throws DBException {
+        StringBuilder sql = new StringBuilder();
+        sql.append("-- Schema ").append(DBUtils.getQuotedIdentifier(this)).append("\n");
+        if (!CommonUtils.getOption(options, DBPScriptObject.OPTION_INCLUDE_NESTED_OBJECTS)) {
+            return sql.toString();
+        }
+
+        monitor.beginTask("Load schema DDL", 1);
+        cacheDDL(monitor, null);
+        monitor.done();
+
+        // DDL was just read, so objects must not drop it from the cache
+        Map<String, Object> nestedOptions = new HashMap<>(options);
+        nestedOptions.remove(DBPScriptObject.OPTION_REFRESH);
+
+        if (!monitor.isCanceled()) {
+            List<GenericTableBase> tables = new ArrayList<>(CommonUtils.safeCollection(getTables(monitor)));
+            DBStructUtils.generateTableListDDL(monitor, sql, tables, nestedOptions, false);
+        }
+        List<DBSObject> objects = new ArrayList<>(CommonUtils.safeCollection(getSynonyms(monitor)));
+        for (GenericProcedure procedure : CommonUtils.safeCollection(getProcedures(monitor))) {
+            if (procedure instanceof AltibaseProcedureStandAlone) {
+                objects.add(procedure);
+            }
+        }
+        objects.addAll(CommonUtils.safeCollection(getPackages(monitor)));
+        objects.addAll(CommonUtils.safeCollection(getTableTriggers(monitor)));
+        monitor.beginTask("Load schema objects DDL", objects.size());
+        for (DBSObject object : objects) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (object instanceof DBPScriptObject) {
+                monitor.subTask(object.getName());
+                String ddl = ((DBPScriptObject) object).getObjectDefinitionText(monitor, nestedOptions);
+                if (!CommonUtils.isEmpty(ddl)) {
+                    sql.append("\n").append(ddl.trim()).append("\n");
+                }
+            }
+            monitor.worked(1);
+        }
+        monitor.done();
+
+        return sql.toString();
+    }
+
+    @Override
+    public synchronized DBSObject refreshObject(@NotNull DBRProgressMonitor monitor) throws DBException {
+        ddlCache.clear();
+        return super.refreshObject(monitor);
+    }
+
     @Override
     public List<AltibaseTable> getPhysicalTables(DBRProgressMonitor monitor) throws DBException {
         List<? extends GenericTableBase> tables = getTables(monitor);
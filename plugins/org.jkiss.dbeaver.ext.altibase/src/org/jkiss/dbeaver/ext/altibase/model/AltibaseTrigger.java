@@ -16,14 +16,19 @@
  */
 package org.jkiss.dbeaver.ext.altibase.model;
 
+import java.util.Map;
+
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.generic.model.GenericTrigger;
 import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.jkiss.utils.CommonUtils;
 
 /**
  * AltibaseTrigger
@@ -54,6 +59,16 @@ public abstract class AltibaseTrigger<OWNER extends DBSObject> extends GenericTr
         this.dmltable_table 	= JDBCUtils.safeGetString(dbResult, "DMLTABLE_NAME");
     }
 
+    @Override
+    @Property(hidden = true, editable = true, updatable = true, order = -1)
+    public String getObjectDefinitionText(DBRProgressMonitor monitor, Map<String, Object> options) throws DBException {
+        if (CommonUtils.getOption(options, DBPScriptObject.OPTION_REFRESH)) {
+            source = null;
+            AltibaseMetaModel.resetCachedDDL(this, options);
+        }
+        return super.getObjectDefinitionText(monitor, options);
+    }
+
     @Override
     public boolean isSystem() {
         return false;
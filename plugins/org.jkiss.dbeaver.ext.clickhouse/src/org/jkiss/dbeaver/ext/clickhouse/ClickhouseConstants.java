@@ -24,4 +24,12 @@ public class ClickhouseConstants {
     public static final String SSL_MODE = "sslmode"; //$NON-NLS-1$
 
     public static final String SSL_ROOT_CERTIFICATE = "sslrootcert"; //$NON-NLS-1$
+
+    // Driver parameters of bulk loader
+    public static final String PARAM_BULK_LOAD_BLOCK_ROWS = "bulk-load-block-rows"; //$NON-NLS-1$
+    public static final String PARAM_BULK_LOAD_BLOCK_SIZE = "bulk-load-block-size"; //$NON-NLS-1$
+
+    public static final int BULK_LOAD_DEFAULT_BLOCK_ROWS = 100000;
+    // Max size of encoded block in megabytes
+    public static final int BULK_LOAD_DEFAULT_BLOCK_SIZE = 64;
 }
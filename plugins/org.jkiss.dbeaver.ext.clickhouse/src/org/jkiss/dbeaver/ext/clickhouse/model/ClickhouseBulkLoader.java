@@ -0,0 +1,205 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.clickhouse.ClickhouseConstants;
+import org.jkiss.dbeaver.ext.clickhouse.model.data.ClickhouseRowBinaryEncoder;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader based on INSERT ... FORMAT RowBinary.
+ *
+ * Rows are encoded into big blocks, each block is sent to the server as one insert
+ * (ClickHouse creates a data part per insert, so small inserts are expensive).
+ * Block limits (rows and megabytes) are configured with driver parameters.
+ */
+public class ClickhouseBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(ClickhouseBulkLoader.class);
+
+    private final ClickhouseDataSource dataSource;
+    private DBSEntity table;
+    private String insertQuery;
+    private ClickhouseRowBinaryEncoder encoder;
+
+    private int maxBlockRows = ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_ROWS;
+    private long maxBlockSize = ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_SIZE * 1024L * 1024L;
+    private long encodeTime;
+
+    private int blockCount;
+    private long insertedRows;
+    private long insertedBytes;
+    private long totalSendTime;
+
+    public ClickhouseBulkLoader(ClickhouseDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load is not supported for " + dataContainer.getName());
+        }
+        this.table = (DBSEntity) dataContainer;
+
+        DBPDriver driver = dataSource.getContainer().getDriver();
+        maxBlockRows = CommonUtils.toInt(driver.getDriverParameter(ClickhouseConstants.PARAM_BULK_LOAD_BLOCK_ROWS), ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_ROWS);
+        if (maxBlockRows <= 0) {
+            maxBlockRows = ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_ROWS;
+        }
+        int blockSizeMb = CommonUtils.toInt(driver.getDriverParameter(ClickhouseConstants.PARAM_BULK_LOAD_BLOCK_SIZE), ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_SIZE);
+        if (blockSizeMb <= 0) {
+            blockSizeMb = ClickhouseConstants.BULK_LOAD_DEFAULT_BLOCK_SIZE;
+        }
+        maxBlockSize = blockSizeMb * 1024L * 1024L;
+
+        List<String> columnTypes = new ArrayList<>(attributes.length);
+        StringBuilder query = new StringBuilder("INSERT INTO ");
+        query.append(DBUtils.getObjectFullName(table, DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+            columnTypes.add(attributes[i].getFullTypeName());
+        }
+        query.append(") FORMAT RowBinary");
+        insertQuery = query.toString();
+
+        encoder = new ClickhouseRowBinaryEncoder(columnTypes, 1024 * 1024);
+        return this;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        long startTime = System.nanoTime();
+        encoder.addRow(attributeValues);
+        encodeTime += System.nanoTime() - startTime;
+        if (encoder.getRowCount() >= maxBlockRows || encoder.getBlockSize() >= maxBlockSize) {
+            sendBlock(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        // ClickHouse has no transactions. Blocks are sent when they are full, small inserts would only slow down the server
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        sendBlock(session);
+        log.debug("Bulk load into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI) + " finished: " +
+            insertedRows + " rows, " + blockCount + " blocks, " + insertedBytes + " bytes, send time " + totalSendTime + "ms");
+    }
+
+    private void sendBlock(@NotNull DBCSession session) throws DBCException {
+        final int rowCount = encoder.getRowCount();
+        if (rowCount == 0) {
+            return;
+        }
+        final int blockSize = encoder.getBlockSize();
+        session.getProgressMonitor().subTask("Insert block " + (blockCount + 1) + " (" + (insertedRows + rowCount) + " rows)");
+        long startTime = System.currentTimeMillis();
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            if (connection.getClass().getName().startsWith("ru.yandex.")) {
+                sendBlockLegacy(connection, encoder.getBlockStream());
+            } else {
+                // Driver 0.3.2+ streams the parameter of INSERT ... FORMAT query as is
+                try (PreparedStatement dbStat = connection.prepareStatement(insertQuery)) {
+                    dbStat.setObject(1, encoder.getBlockStream());
+                    dbStat.executeUpdate();
+                }
+            }
+        } catch (Exception e) {
+            throw new DBCException("Error inserting block of " + rowCount + " rows into " + table.getName(), e);
+        }
+        long sendTime = System.currentTimeMillis() - startTime;
+
+        blockCount++;
+        insertedRows += rowCount;
+        insertedBytes += blockSize;
+        totalSendTime += sendTime;
+        log.debug("Block " + blockCount + " inserted into " + table.getName() + ": " + rowCount + " rows, " + blockSize + " bytes, " +
+            "encode time " + (encodeTime / 1000000) + "ms, send time " + sendTime + "ms");
+        encodeTime = 0;
+        encoder.clearBlock();
+    }
+
+    /**
+     * Legacy driver sends streams with ClickHouseStatement.write().send(sql, stream, format)
+     */
+    private void sendBlockLegacy(@NotNull Connection connection, @NotNull InputStream data) throws Exception {
+        ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+        Class<?> formatClass = Class.forName("ru.yandex.clickhouse.domain.ClickHouseFormat", true, driverClassLoader);
+        Object rowBinaryFormat = formatClass.getField("RowBinary").get(null);
+        try (Statement dbStat = connection.createStatement()) {
+            Object writer = dbStat.getClass().getMethod("write").invoke(dbStat);
+            Method sendMethod = writer.getClass().getMethod("send", String.class, InputStream.class, formatClass);
+            // Legacy driver appends FORMAT clause itself
+            String query = insertQuery.substring(0, insertQuery.lastIndexOf(" FORMAT "));
+            try {
+                sendMethod.invoke(writer, query, data, rowBinaryFormat);
+            } catch (InvocationTargetException e) {
+                if (e.getTargetException() instanceof SQLException) {
+                    throw (SQLException) e.getTargetException();
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (encoder != null) {
+            encoder.clearBlock();
+            encoder = null;
+        }
+    }
+}
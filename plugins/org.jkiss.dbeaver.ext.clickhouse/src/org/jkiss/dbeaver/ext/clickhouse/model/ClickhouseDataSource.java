@@ -38,6 +38,7 @@ import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.net.SSLHandlerTrustStoreImpl;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.utils.CommonUtils;
 
@@ -145,6 +146,14 @@ public class ClickhouseDataSource extends GenericDataSource {
         return new ClickhouseJdbcFactory();
     }
 
+    @Override
+    public <T> T getAdapter(Class<T> adapter) {
+        if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new ClickhouseBulkLoader(this));
+        }
+        return super.getAdapter(adapter);
+    }
+
     boolean isSupportTableComments() {
         return isServerVersionAtLeast(21, 6);
     }
@@ -0,0 +1,547 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ext.clickhouse.ClickhouseTypeParser;
+import org.jkiss.dbeaver.model.data.DBDCollection;
+import org.jkiss.dbeaver.model.exec.DBCException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Encoder of rows into ClickHouse RowBinary format (INSERT ... FORMAT RowBinary).
+ *
+ * Rows are appended to the current block, which is sent to the server as one insert.
+ * Values are written little-endian, strings and array sizes are prefixed with LEB128 lengths.
+ * NULL values are accepted only by Nullable types. RowBinary can't mark a value as the column default,
+ * and writing zero, empty or epoch values instead would silently change the data.
+ */
+public class ClickhouseRowBinaryEncoder {
+
+    private interface ValueWriter {
+        void write(@NotNull BlockBuffer out, @Nullable Object value) throws DBCException;
+    }
+
+    private static class BlockBuffer extends ByteArrayOutputStream {
+        BlockBuffer(int size) {
+            super(size);
+        }
+
+        void writeLong(long value, int bytes) {
+            for (int i = 0; i < bytes; i++) {
+                write((int) (value >>> (i * 8)));
+            }
+        }
+
+        void writeBigInteger(@NotNull BigInteger value, int bytes) {
+            if (value.bitLength() > bytes * 8) {
+                throw new ArithmeticException("Value " + value + " doesn't fit " + bytes * 8 + " bits");
+            }
+            // Two's complement big-endian, written in reverse order and sign extended to the type width
+            final byte[] data = value.toByteArray();
+            final byte fill = value.signum() < 0 ? (byte) 0xFF : 0;
+            for (int i = 0; i < bytes; i++) {
+                final int pos = data.length - 1 - i;
+                write(pos >= 0 ? data[pos] : fill);
+            }
+        }
+
+        void writeVarInt(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+
+        @NotNull
+        InputStream getInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    private static final BigInteger UINT64_MASK = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+    private final String[] columnTypes;
+    private final ValueWriter[] writers;
+    private final BlockBuffer block;
+    private int rowCount;
+
+    public ClickhouseRowBinaryEncoder(@NotNull List<String> columnTypes, int initialBlockSize) throws DBCException {
+        this.columnTypes = columnTypes.toArray(new String[0]);
+        this.writers = new ValueWriter[columnTypes.size()];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = createWriter(columnTypes.get(i).trim());
+        }
+        this.block = new BlockBuffer(initialBlockSize);
+    }
+
+    /**
+     * Appends row to the current block. If some value can't be encoded then the block is left unchanged.
+     */
+    public void addRow(@NotNull Object[] values) throws DBCException {
+        if (values.length != writers.length) {
+            throw new DBCException("Row has " + values.length + " values while " + writers.length + " expected");
+        }
+        final int rowStart = block.size();
+        int column = 0;
+        try {
+            for (; column < writers.length; column++) {
+                writers[column].write(block, values[column]);
+            }
+        } catch (DBCException | RuntimeException e) {
+            block.truncate(rowStart);
+            throw new DBCException("Can't encode value '" + values[column] + "' of type " + columnTypes[column], e);
+        }
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns size of the current block in bytes
+     */
+    public int getBlockSize() {
+        return block.size();
+    }
+
+    @NotNull
+    public InputStream getBlockStream() {
+        return block.getInputStream();
+    }
+
+    @NotNull
+    public byte[] getBlockData() {
+        return block.toByteArray();
+    }
+
+    public void clearBlock() {
+        block.reset();
+        rowCount = 0;
+    }
+
+    @NotNull
+    private static ValueWriter createWriter(@NotNull String type) throws DBCException {
+        final String typeName = ClickhouseTypeParser.getTypeNameWithoutModifiers(type).trim();
+        final List<String> args = getTypeArguments(type);
+        switch (typeName) {
+            case "Nullable": {
+                final ValueWriter nestedWriter = createWriter(getSingleArgument(type, args));
+                return (out, value) -> {
+                    if (value == null) {
+                        out.write(1);
+                    } else {
+                        out.write(0);
+                        nestedWriter.write(out, value);
+                    }
+                };
+            }
+            case "LowCardinality":
+                // Low cardinality values are sent as plain values in row formats
+                return createWriter(getSingleArgument(type, args));
+            default: {
+                final ValueWriter valueWriter = createValueWriter(type, typeName, args);
+                return (out, value) -> {
+                    if (value == null) {
+                        throw new DBCException("NULL value can't be written to non-nullable type " + type);
+                    }
+                    valueWriter.write(out, value);
+                };
+            }
+        }
+    }
+
+    /**
+     * Creates writer of non-null values of the specified type
+     */
+    @NotNull
+    private static ValueWriter createValueWriter(@NotNull String type, @NotNull String typeName, @NotNull List<String> args) throws DBCException {
+        switch (typeName) {
+            case "Array": {
+                final ValueWriter itemWriter = createWriter(getSingleArgument(type, args));
+                return (out, value) -> {
+                    final List<?> items = toList(value);
+                    out.writeVarInt(items.size());
+                    for (Object item : items) {
+                        itemWriter.write(out, item);
+                    }
+                };
+            }
+            case "Bool":
+            case "Boolean":
+                return (out, value) -> out.write(toBoolean(value) ? 1 : 0);
+            case "Int8":
+            case "UInt8":
+                return (out, value) -> out.writeLong(toLong(value), 1);
+            case "Int16":
+            case "UInt16":
+                return (out, value) -> out.writeLong(toLong(value), 2);
+            case "Int32":
+            case "UInt32":
+                return (out, value) -> out.writeLong(toLong(value), 4);
+            case "Int64":
+                return (out, value) -> out.writeLong(toLong(value), 8);
+            case "UInt64":
+                // Values above Long.MAX_VALUE come as BigInteger
+                return (out, value) -> out.writeBigInteger(toBigInteger(value).and(UINT64_MASK), 8);
+            case "Int128":
+            case "UInt128":
+                return (out, value) -> out.writeBigInteger(toBigInteger(value), 16);
+            case "Int256":
+            case "UInt256":
+                return (out, value) -> out.writeBigInteger(toBigInteger(value), 32);
+            case "Float32":
+                return (out, value) -> out.writeLong(Float.floatToIntBits((float) toDouble(value)), 4);
+            case "Float64":
+                return (out, value) -> out.writeLong(Double.doubleToLongBits(toDouble(value)), 8);
+            case "Decimal": {
+                if (args.size() != 2) {
+                    throw new DBCException("Bad decimal type " + type);
+                }
+                return createDecimalWriter(getDecimalWidth(parseIntArgument(type, args.get(0))), parseIntArgument(type, args.get(1)));
+            }
+            case "Decimal32":
+                return createDecimalWriter(4, parseIntArgument(type, getSingleArgument(type, args)));
+            case "Decimal64":
+                return createDecimalWriter(8, parseIntArgument(type, getSingleArgument(type, args)));
+            case "Decimal128":
+                return createDecimalWriter(16, parseIntArgument(type, getSingleArgument(type, args)));
+            case "Decimal256":
+                return createDecimalWriter(32, parseIntArgument(type, getSingleArgument(type, args)));
+            case "String":
+                return (out, value) -> {
+                    final byte[] data = toBytes(value);
+                    out.writeVarInt(data.length);
+                    out.write(data, 0, data.length);
+                };
+            case "FixedString": {
+                final int length = parseIntArgument(type, getSingleArgument(type, args));
+                return (out, value) -> {
+                    final byte[] data = toBytes(value);
+                    if (data.length > length) {
+                        throw new DBCException("String is longer than " + length + " bytes");
+                    }
+                    out.write(data, 0, data.length);
+                    for (int i = data.length; i < length; i++) {
+                        out.write(0);
+                    }
+                };
+            }
+            case "UUID":
+                return (out, value) -> {
+                    final UUID uuid = toUUID(value);
+                    out.writeLong(uuid.getMostSignificantBits(), 8);
+                    out.writeLong(uuid.getLeastSignificantBits(), 8);
+                };
+            case "Date":
+                return (out, value) -> out.writeLong(toLocalDate(value).toEpochDay(), 2);
+            case "Date32":
+                return (out, value) -> out.writeLong(toLocalDate(value).toEpochDay(), 4);
+            case "DateTime":
+                return (out, value) -> out.writeLong(toInstant(value).getEpochSecond(), 4);
+            case "DateTime64": {
+                if (args.isEmpty()) {
+                    throw new DBCException("Bad DateTime64 type " + type);
+                }
+                final int precision = parseIntArgument(type, args.get(0));
+                if (precision < 0 || precision > 9) {
+                    throw new DBCException("Bad DateTime64 precision " + precision);
+                }
+                final long ticksPerSecond = BigInteger.TEN.pow(precision).longValue();
+                final long nanosPerTick = 1_000_000_000L / ticksPerSecond;
+                return (out, value) -> {
+                    final Instant instant = toInstant(value);
+                    out.writeLong(instant.getEpochSecond() * ticksPerSecond + instant.getNano() / nanosPerTick, 8);
+                };
+            }
+            case "Enum8":
+            case "Enum16": {
+                final Map<String, Integer> entries = parseEnumEntries(type);
+                final int width = typeName.equals("Enum8") ? 1 : 2;
+                return (out, value) -> {
+                    if (value instanceof String) {
+                        final Integer code = entries.get(value);
+                        if (code == null) {
+                            throw new DBCException("Unknown enum value '" + value + "'");
+                        }
+                        out.writeLong(code, width);
+                    } else {
+                        out.writeLong(toLong(value), width);
+                    }
+                };
+            }
+            default:
+                throw new DBCException("Type " + type + " is not supported by RowBinary encoder");
+        }
+    }
+
+    @NotNull
+    private static ValueWriter createDecimalWriter(int width, int scale) {
+        return (out, value) -> out.writeBigInteger(toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP).unscaledValue(), width);
+    }
+
+    private static int getDecimalWidth(int precision) {
+        if (precision <= 9) {
+            return 4;
+        } else if (precision <= 18) {
+            return 8;
+        } else if (precision <= 38) {
+            return 16;
+        } else {
+            return 32;
+        }
+    }
+
+    /**
+     * Splits type arguments by top-level commas, e.g. "DateTime64(3, 'UTC')" gives ["3", "'UTC'"]
+     */
+    @NotNull
+    static List<String> getTypeArguments(@NotNull String type) {
+        final int start = type.indexOf('(');
+        final int end = type.lastIndexOf(')');
+        if (start < 0 || end < start) {
+            return Collections.emptyList();
+        }
+        final List<String> args = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int argStart = start + 1;
+        for (int i = start + 1; i < end; i++) {
+            final char c = type.charAt(i);
+            if (quoted) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '\'') {
+                    quoted = false;
+                }
+            } else if (c == '\'') {
+                quoted = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                args.add(type.substring(argStart, i).trim());
+                argStart = i + 1;
+            }
+        }
+        args.add(type.substring(argStart, end).trim());
+        return args;
+    }
+
+    @NotNull
+    private static String getSingleArgument(@NotNull String type, @NotNull List<String> args) throws DBCException {
+        if (args.size() != 1) {
+            throw new DBCException("Bad type " + type);
+        }
+        return args.get(0);
+    }
+
+    private static int parseIntArgument(@NotNull String type, @NotNull String arg) throws DBCException {
+        try {
+            return Integer.parseInt(arg.trim());
+        } catch (NumberFormatException e) {
+            throw new DBCException("Bad argument '" + arg + "' of type " + type);
+        }
+    }
+
+    @NotNull
+    private static Map<String, Integer> parseEnumEntries(@NotNull String type) throws DBCException {
+        final Map<String, Integer> entries = new HashMap<>();
+        for (String arg : getTypeArguments(type)) {
+            final int div = arg.lastIndexOf('=');
+            if (div < 0 || !arg.startsWith("'")) {
+                throw new DBCException("Bad enum entry " + arg);
+            }
+            final String name = arg.substring(0, div).trim();
+            if (name.length() < 2 || !name.endsWith("'")) {
+                throw new DBCException("Bad enum entry " + arg);
+            }
+            entries.put(
+                name.substring(1, name.length() - 1).replace("\\'", "'").replace("\\\\", "\\"),
+                parseIntArgument(type, arg.substring(div + 1)));
+        }
+        return entries;
+    }
+
+    ////////////////////////////////////////////
+    // Value conversion
+
+    private static boolean toBoolean(@NotNull Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue() != 0;
+        } else {
+            final String str = value.toString().trim();
+            return str.equalsIgnoreCase("true") || str.equals("1");
+        }
+    }
+
+    private static long toLong(@NotNull Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return toBigInteger(value).longValue();
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else {
+            return new BigDecimal(value.toString().trim()).longValueExact();
+        }
+    }
+
+    @NotNull
+    private static BigInteger toBigInteger(@NotNull Object value) {
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toBigInteger();
+        } else if (value instanceof Number) {
+            return BigInteger.valueOf(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? BigInteger.ONE : BigInteger.ZERO;
+        } else {
+            return new BigDecimal(value.toString().trim()).toBigInteger();
+        }
+    }
+
+    private static double toDouble(@NotNull Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        } else {
+            return Double.parseDouble(value.toString().trim());
+        }
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else {
+            return new BigDecimal(value.toString().trim());
+        }
+    }
+
+    @NotNull
+    private static byte[] toBytes(@NotNull Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        } else {
+            return value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @NotNull
+    private static UUID toUUID(@NotNull Object value) {
+        if (value instanceof UUID) {
+            return (UUID) value;
+        } else {
+            return UUID.fromString(value.toString().trim());
+        }
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        } else if (value instanceof TemporalAccessor) {
+            return LocalDate.from((TemporalAccessor) value);
+        } else if (value instanceof Number) {
+            return LocalDate.ofEpochDay(((Number) value).longValue());
+        } else {
+            final String str = value.toString().trim();
+            return LocalDate.parse(str.length() > 10 ? str.substring(0, 10) : str);
+        }
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof Date) {
+            // Timestamp.toInstant keeps nanoseconds
+            return ((Date) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof Number) {
+            return Instant.ofEpochSecond(((Number) value).longValue());
+        } else {
+            return Timestamp.valueOf(value.toString().trim()).toInstant();
+        }
+    }
+
+    @NotNull
+    private static List<?> toList(@NotNull Object value) throws DBCException {
+        if (value instanceof List) {
+            return (List<?>) value;
+        } else if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        } else if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        } else if (value instanceof DBDCollection) {
+            final DBDCollection collection = (DBDCollection) value;
+            final List<Object> items = new ArrayList<>(collection.getItemCount());
+            for (int i = 0; i < collection.getItemCount(); i++) {
+                items.add(collection.getItem(i));
+            }
+            return items;
+        } else {
+            throw new DBCException("Value of " + value.getClass().getName() + " is not an array");
+        }
+    }
+
+}
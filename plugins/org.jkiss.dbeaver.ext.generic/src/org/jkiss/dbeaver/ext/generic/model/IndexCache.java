@@ -60,12 +60,7 @@ class IndexCache extends JDBCCompositeCache<GenericStructContainer, GenericTable
         throws SQLException
     {
         try {
-            return session.getMetaData().getIndexInfo(
-                    owner.getCatalog() == null ? null : owner.getCatalog().getName(),
-                    owner.getSchema() == null || DBUtils.isVirtualObject(owner.getSchema()) ? null : owner.getSchema().getName(),
-                    forParent == null ? owner.getDataSource().getAllObjectsPattern() : forParent.getName(),
-                    false,
-                    true).getSourceStatement();
+            return owner.getDataSource().getMetaModel().prepareIndexLoadStatement(session, owner, forParent);
         } catch (Exception e) {
             if (forParent == null) {
                 throw new SQLException("Global indexes read not supported", e);
@@ -768,6 +768,15 @@ public class GenericMetaModel {
     //////////////////////////////////////////////////////
     // Indexes
 
+    public JDBCStatement prepareIndexLoadStatement(@NotNull JDBCSession session, @NotNull GenericStructContainer owner, @Nullable GenericTableBase forParent) throws SQLException {
+        return session.getMetaData().getIndexInfo(
+                owner.getCatalog() == null ? null : owner.getCatalog().getName(),
+                owner.getSchema() == null || DBUtils.isVirtualObject(owner.getSchema()) ? null : owner.getSchema().getName(),
+                forParent == null ? owner.getDataSource().getAllObjectsPattern() : forParent.getName(),
+                false,
+                true).getSourceStatement();
+    }
+
     public GenericTableIndex createIndexImpl(
         GenericTableBase table,
         boolean nonUnique,
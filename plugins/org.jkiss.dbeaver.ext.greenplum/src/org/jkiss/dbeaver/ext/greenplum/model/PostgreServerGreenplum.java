@@ -94,6 +94,12 @@ public class PostgreServerGreenplum extends PostgreServerExtensionBase {
         return true;
     }
 
+    @Override
+    public boolean supportsDatabaseCatalogLoad() {
+        // Greenplum schemas read extra table and column attributes
+        return false;
+    }
+
     @Override
     public boolean supportsExplainPlanXML() {
         return false;
@@ -0,0 +1,439 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.BeanUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ *
+ * Rows are encoded as tab-separated text in memory and passed to the driver as the local infile input stream,
+ * so no temporary file is created. Each flush (or each full buffer) is loaded with one LOAD DATA statement.
+ * Binary values are sent in hex and spatial values in WKT, both are converted by SET clause of the statement.
+ * LOAD DATA LOCAL skips rows with duplicate keys and truncates bad values (like IGNORE does),
+ * so the load fails if the server loaded not all rows or reported warnings.
+ *
+ * Requires local_infile enabled on the server and allowLoadLocalInfile driver property (MySQL Connector/J).
+ */
+public class MySQLBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    // Max size of data passed to one LOAD DATA statement
+    private static final int MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+    // Max number of server warnings in the load error message
+    private static final int MAX_REPORTED_WARNINGS = 10;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS", Locale.ENGLISH);
+
+    private static final Set<String> SPATIAL_TYPES = Set.of(
+        "geometry", "point", "linestring", "polygon",
+        "multipoint", "multilinestring", "multipolygon", "geometrycollection", "geomcollection");
+
+    enum ColumnEncoding {
+        TEXT,
+        HEX,
+        BIT,
+        SPATIAL
+    }
+
+    private final MySQLDataSource dataSource;
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private ColumnEncoding[] encodings;
+    private String loadQuery;
+
+    private ByteArrayOutputStream buffer;
+    private Writer bufferWriter;
+    private int bufferedRows;
+
+    private int loadCount;
+    private long loadedRows;
+    private long loadedBytes;
+    private long totalLoadTime;
+
+    public MySQLBulkLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load is not supported for " + dataContainer.getName());
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        this.encodings = new ColumnEncoding[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            encodings[i] = getColumnEncoding(attributes[i]);
+        }
+
+        try {
+            final Connection connection = ((JDBCSession) session).getOriginal();
+            if (!isLocalInfileAllowed(connection)) {
+                throw new DBCException("LOAD DATA LOCAL INFILE is disabled in the driver: " +
+                    "set allowLoadLocalInfile=true in the connection driver properties");
+            }
+            try (Statement dbStat = connection.createStatement();
+                 ResultSet dbResult = dbStat.executeQuery("SELECT @@local_infile")) {
+                // local_infile is a boolean variable, so it is selected as 1 or 0
+                if (dbResult.next() && dbResult.getInt(1) == 0) {
+                    throw new DBCException("LOAD DATA LOCAL INFILE is disabled on the server (local_infile=OFF)");
+                }
+            }
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+
+        loadQuery = makeLoadQuery();
+        buffer = new ByteArrayOutputStream(1024 * 1024);
+        bufferWriter = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        return this;
+    }
+
+    @NotNull
+    private static ColumnEncoding getColumnEncoding(@NotNull DBSAttributeBase attribute) {
+        final String typeName = CommonUtils.notEmpty(attribute.getTypeName()).toLowerCase(Locale.ENGLISH);
+        if (SPATIAL_TYPES.contains(typeName)) {
+            return ColumnEncoding.SPATIAL;
+        } else if (typeName.equals("bit")) {
+            return ColumnEncoding.BIT;
+        } else if (attribute.getDataKind() == DBPDataKind.BINARY || attribute.getDataKind() == DBPDataKind.CONTENT && !typeName.contains("text")) {
+            return ColumnEncoding.HEX;
+        }
+        return ColumnEncoding.TEXT;
+    }
+
+    private String makeLoadQuery() {
+        final StringBuilder columns = new StringBuilder();
+        final StringBuilder conversions = new StringBuilder();
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            final String columnName = DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName());
+            if (encodings[i] == ColumnEncoding.TEXT) {
+                columns.append(columnName);
+                continue;
+            }
+            final String varName = "@v" + i;
+            columns.append(varName);
+            conversions.append(conversions.length() == 0 ? " SET " : ", ").append(columnName).append(" = ");
+            switch (encodings[i]) {
+                case HEX:
+                    conversions.append("UNHEX(").append(varName).append(")");
+                    break;
+                case BIT:
+                    conversions.append("CAST(").append(varName).append(" AS UNSIGNED)");
+                    break;
+                default:
+                    conversions.append("ST_GeomFromText(").append(varName).append(")");
+                    break;
+            }
+        }
+        return "LOAD DATA LOCAL INFILE 'dbeaver-bulk-load' INTO TABLE " + DBUtils.getObjectFullName(table, DBPEvaluationContext.DML) +
+            " CHARACTER SET " + (dataSource.isMariaDB() || dataSource.isServerVersionAtLeast(5, 5) ? "utf8mb4" : "utf8") +
+            " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'" +
+            " (" + columns + ")" + conversions;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        try {
+            for (int i = 0; i < attributes.length; i++) {
+                if (i > 0) {
+                    bufferWriter.write('\t');
+                }
+                writeValue(bufferWriter, encodings[i], attributeValues[i], attributes[i], valueHandlers[i]);
+            }
+            bufferWriter.write('\n');
+        } catch (IOException e) {
+            throw new DBCException("Error encoding row", e);
+        }
+        bufferedRows++;
+        if (buffer.size() >= MAX_BUFFER_SIZE) {
+            loadRows(session);
+        }
+    }
+
+    /**
+     * Writes field value in the specified column encoding. NULL is written as \N
+     */
+    static void writeValue(
+        @NotNull Writer writer,
+        @NotNull ColumnEncoding encoding,
+        @Nullable Object value,
+        @NotNull DBSAttributeBase attribute,
+        @NotNull DBDValueHandler valueHandler) throws IOException
+    {
+        if (DBUtils.isNullValue(value)) {
+            writer.write("\\N");
+            return;
+        }
+        if (value instanceof DBDContent) {
+            // LOB values are read into memory by data transfer
+            value = ((DBDContent) value).getRawValue();
+        }
+        switch (encoding) {
+            case HEX:
+                if (value instanceof byte[]) {
+                    writer.write(CommonUtils.toHexString((byte[]) value));
+                } else {
+                    writer.write(CommonUtils.toHexString(getTextValue(value, attribute, valueHandler).getBytes(StandardCharsets.UTF_8)));
+                }
+                return;
+            case BIT:
+                if (value instanceof Boolean) {
+                    writer.write((Boolean) value ? "1" : "0");
+                } else if (value instanceof byte[]) {
+                    long bits = 0;
+                    for (byte b : (byte[]) value) {
+                        bits = (bits << 8) | (b & 0xFF);
+                    }
+                    writer.write(Long.toUnsignedString(bits));
+                } else {
+                    writer.write(value.toString());
+                }
+                return;
+            default:
+                writeEscaped(writer, getTextValue(value, attribute, valueHandler));
+        }
+    }
+
+    @NotNull
+    private static String getTextValue(@NotNull Object value, @NotNull DBSAttributeBase attribute, @NotNull DBDValueHandler valueHandler) {
+        if (value instanceof String) {
+            return (String) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Number) {
+            return value.toString();
+        } else if (value instanceof Date || value instanceof Time) {
+            // java.sql.Date and Time print in the server formats
+            return value.toString();
+        } else if (value instanceof java.util.Date) {
+            final LocalDateTime dateTime = value instanceof Timestamp ?
+                ((Timestamp) value).toLocalDateTime() :
+                LocalDateTime.ofInstant(((java.util.Date) value).toInstant(), ZoneId.systemDefault());
+            return TIMESTAMP_FORMAT.format(dateTime);
+        } else if (value instanceof LocalDateTime) {
+            return TIMESTAMP_FORMAT.format((TemporalAccessor) value);
+        } else if (value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        return valueHandler.getValueDisplayString(attribute, value, DBDDisplayFormat.NATIVE);
+    }
+
+    /**
+     * Escapes field value for LOAD DATA with default ESCAPED BY '\\'
+     */
+    static void writeEscaped(@NotNull Writer writer, @NotNull String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\0':
+                    writer.write("\\0");
+                    break;
+                default:
+                    writer.write(c);
+                    break;
+            }
+        }
+    }
+
+    private void loadRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        final byte[] data;
+        try {
+            bufferWriter.flush();
+            data = buffer.toByteArray();
+        } catch (IOException e) {
+            throw new DBCException("Error encoding rows", e);
+        }
+        final int rowCount = bufferedRows;
+        session.getProgressMonitor().subTask("Load data into " + table.getName() + " (" + (loadedRows + rowCount) + " rows)");
+        final long startTime = System.currentTimeMillis();
+        try (Statement dbStat = ((JDBCSession) session).getOriginal().createStatement()) {
+            setLocalInfileStream(dbStat, new ByteArrayInputStream(data));
+            final int affectedRows = dbStat.executeUpdate(loadQuery);
+            // LOAD DATA LOCAL works like IGNORE: duplicate keys are skipped and bad values are truncated with warnings
+            final SQLWarning warning = dbStat.getWarnings();
+            if (affectedRows != rowCount || warning != null) {
+                throw new DBCException(makeLoadErrorMessage(rowCount, affectedRows, warning));
+            }
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        final long loadTime = System.currentTimeMillis() - startTime;
+
+        loadCount++;
+        loadedRows += rowCount;
+        loadedBytes += data.length;
+        totalLoadTime += loadTime;
+        log.debug("Loaded " + rowCount + " rows (" + data.length + " bytes) into " + table.getName() + " in " + loadTime + "ms" +
+            (loadTime > 0 ? " (" + (rowCount * 1000L / loadTime) + " rows/s)" : ""));
+
+        buffer.reset();
+        bufferedRows = 0;
+    }
+
+    @NotNull
+    private String makeLoadErrorMessage(int rowCount, int affectedRows, @Nullable SQLWarning warning) {
+        final StringBuilder message = new StringBuilder();
+        message.append("Load data into ").append(table.getName()).append(" affected ").append(affectedRows)
+            .append(" of ").append(rowCount).append(" rows");
+        int warningCount = 0;
+        for (SQLWarning w = warning; w != null; w = w.getNextWarning()) {
+            if (warningCount < MAX_REPORTED_WARNINGS) {
+                message.append("\n").append(w.getMessage());
+            }
+            warningCount++;
+        }
+        if (warningCount > MAX_REPORTED_WARNINGS) {
+            message.append("\n... (").append(warningCount - MAX_REPORTED_WARNINGS).append(" more warnings)");
+        }
+        return message.toString();
+    }
+
+    /**
+     * Checks allowLoadLocalInfile property of MySQL Connector/J connection (8.x property set or 5.1 getter).
+     * Otherwise driver would fail only when the first block of rows is sent.
+     * Other drivers (MariaDB) don't expose their local infile setting, so it is checked by the load itself.
+     */
+    static boolean isLocalInfileAllowed(@NotNull Connection connection) {
+        try {
+            Object allowed;
+            try {
+                final Object propertySet = BeanUtils.invokeObjectMethod(connection, "getPropertySet");
+                final Object property = BeanUtils.invokeObjectMethod(
+                    propertySet, "getBooleanProperty", new Class[]{String.class}, new Object[]{"allowLoadLocalInfile"});
+                allowed = BeanUtils.invokeObjectMethod(property, "getValue");
+            } catch (NoSuchMethodException e) {
+                allowed = BeanUtils.invokeObjectMethod(connection, "getAllowLoadLocalInfile");
+            }
+            return !Boolean.FALSE.equals(allowed);
+        } catch (NoSuchMethodException e) {
+            return true;
+        } catch (Throwable e) {
+            log.debug("Can't read allowLoadLocalInfile property of " + connection.getClass().getName(), e);
+            return true;
+        }
+    }
+
+    /**
+     * Sets stream which driver sends instead of the file of LOAD DATA LOCAL INFILE.
+     * Both MySQL Connector/J and MariaDB (2.x) statements have setLocalInfileInputStream method.
+     */
+    private static void setLocalInfileStream(@NotNull Statement dbStat, @NotNull InputStream stream) throws SQLException {
+        try {
+            final Method setStreamMethod = dbStat.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+            setStreamMethod.invoke(dbStat, stream);
+        } catch (NoSuchMethodException e) {
+            throw new SQLException("Driver " + dbStat.getClass().getName() + " doesn't support local infile streams");
+        } catch (Exception e) {
+            throw new SQLException("Error setting local infile stream", e);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        loadRows(session);
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk load (" + loadedRows + ")");
+            txnManager.commit(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+        log.debug("Bulk load into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI) + " finished: " +
+            loadedRows + " rows, " + loadedBytes + " bytes, " + loadCount + " statements, load time " + totalLoadTime + "ms");
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+        bufferWriter = null;
+        bufferedRows = 0;
+    }
+}
@@ -75,6 +75,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
     final public JobCache jobCache = new JobCache();
     final public SchedulerJobCache schedulerJobCache = new SchedulerJobCache();
     final public SchedulerProgramCache schedulerProgramCache = new SchedulerProgramCache();
+    private final OracleSourceCache sourceCache = new OracleSourceCache(this);
     final public RecycleBin recycleBin = new RecycleBin();
     private volatile boolean hasStatistics;
 
@@ -205,6 +206,10 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         return tableCache;
     }
 
+    OracleSourceCache getSourceCache() {
+        return sourceCache;
+    }
+
     @Association
     public Collection<OracleDataType> getDataTypes(DBRProgressMonitor monitor)
         throws DBException
@@ -434,6 +439,7 @@ public class OracleSchema extends OracleGlobalObject implements DBSSchema, DBPRe
         schedulerJobCache.clearCache();
         recycleBin.clearCache();
         jobCache.clearCache();
+        sourceCache.clearCache();
         return this;
     }
 
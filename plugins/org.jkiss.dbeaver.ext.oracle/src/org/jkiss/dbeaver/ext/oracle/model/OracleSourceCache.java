@@ -0,0 +1,394 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Sources of PL/SQL objects of the schema.
+ *
+ * Sources of all schema objects are read with one ALL_SOURCE (DBA_SOURCE) query ordered by name and line.
+ * Prefetch happens on search in sources or in a background job after several separate source reads
+ * (e.g. during DDL generation). Separate reads don't wait for the prefetch.
+ * Total size of cached sources is limited, sources which don't fit are read separately.
+ *
+ * Cached source is returned only once for each object. Further reads (e.g. after object refresh) go to the database
+ * and update the cache, so search in sources sees changes made in the editor.
+ */
+class OracleSourceCache {
+
+    private static final Log log = Log.getLog(OracleSourceCache.class);
+
+    // Max length of all cached sources (in characters)
+    private static final long MAX_SOURCES_LENGTH = 32L * 1024 * 1024;
+    // Number of separate source reads after which all schema sources are prefetched
+    private static final int PREFETCH_READS_THRESHOLD = 20;
+
+    static class SourceEntry {
+        private final String type;
+        private final String name;
+        // Null means that object has no source lines
+        @Nullable
+        private final String text;
+        private boolean read;
+
+        SourceEntry(@NotNull String type, @NotNull String name, @Nullable String text) {
+            this.type = type;
+            this.name = name;
+            this.text = text;
+        }
+
+        @NotNull
+        String getType() {
+            return type;
+        }
+
+        @NotNull
+        String getName() {
+            return name;
+        }
+    }
+
+    private final OracleSchema schema;
+    private int separateReads;
+    private boolean prefetchScheduled;
+    private boolean prefetchFailed;
+    // Incremented on cache clear. Sources loaded before the clear are dropped
+    private int generation;
+
+    // Sources by type and name. Null if sources weren't prefetched
+    @Nullable
+    private Map<String, SourceEntry> entries;
+    // Entries in index order. Replaced entries are set to null
+    private final List<SourceEntry> indexedEntries = new ArrayList<>();
+    // Upper-cased words of sources. Bits are positions in indexedEntries
+    private final Map<String, BitSet> tokenIndex = new HashMap<>();
+    // All schema sources are prefetched, i.e. missing source means that object has no source
+    private boolean complete;
+
+    OracleSourceCache(@NotNull OracleSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Returns prefetched source of the object. Schedules prefetch of schema sources after several separate reads.
+     * Returns empty string if object has no source and null if source must be read from the database.
+     */
+    @Nullable
+    synchronized String getSource(@NotNull DBRProgressMonitor monitor, @NotNull String type, @NotNull String name) {
+        if (entries == null) {
+            if (!prefetchFailed && !prefetchScheduled && ++separateReads >= PREFETCH_READS_THRESHOLD) {
+                prefetchScheduled = true;
+                schedulePrefetch();
+            }
+            return null;
+        }
+        final String key = makeKey(type, name);
+        SourceEntry entry = entries.get(key);
+        if (entry == null) {
+            if (!complete) {
+                return null;
+            }
+            entry = new SourceEntry(type, name, null);
+            entries.put(key, entry);
+        } else if (entry.read) {
+            return null;
+        }
+        entry.read = true;
+        return entry.text == null ? "" : entry.text;
+    }
+
+    /**
+     * Updates cached source after it was read from the database
+     */
+    synchronized void updateSource(@NotNull String type, @NotNull String name, @Nullable String text) {
+        if (entries == null) {
+            return;
+        }
+        final String key = makeKey(type, name);
+        final SourceEntry oldEntry = entries.get(key);
+        if (oldEntry == null && !complete) {
+            // Object wasn't prefetched, it can't be found in index anyway
+            return;
+        }
+        if (oldEntry != null) {
+            final int oldPosition = indexedEntries.indexOf(oldEntry);
+            if (oldPosition >= 0) {
+                indexedEntries.set(oldPosition, null);
+            }
+        }
+        final SourceEntry entry = new SourceEntry(type, name, text);
+        entry.read = true;
+        entries.put(key, entry);
+        addToIndex(entry);
+    }
+
+    /**
+     * Prefetches all schema sources.
+     *
+     * @return true if all sources are in cache
+     */
+    boolean prefetchSources(@NotNull DBRProgressMonitor monitor) {
+        final int loadGeneration;
+        synchronized (this) {
+            if (entries != null || prefetchFailed) {
+                return entries != null && complete;
+            }
+            loadGeneration = generation;
+        }
+        // Sources are loaded without lock, separate reads go to the database meanwhile
+        loadSources(monitor, loadGeneration);
+        synchronized (this) {
+            return entries != null && complete;
+        }
+    }
+
+    /**
+     * Prefetches schema sources in background
+     */
+    void schedulePrefetch() {
+        new AbstractJob("Load sources of schema '" + schema.getName() + "'") {
+            {
+                setSystem(true);
+            }
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                prefetchSources(monitor);
+                return Status.OK_STATUS;
+            }
+        }.schedule();
+    }
+
+    /**
+     * Finds objects with source lines matching the LIKE mask.
+     * Sources must be prefetched before search.
+     */
+    @NotNull
+    synchronized List<SourceEntry> findSources(@NotNull String mask, boolean caseSensitive) {
+        final List<SourceEntry> result = new ArrayList<>();
+        if (entries == null) {
+            return result;
+        }
+        final BitSet candidates = findCandidates(mask);
+        final Pattern pattern = makeLinePattern(mask, caseSensitive);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final SourceEntry entry = indexedEntries.get(i);
+            if (entry != null && entry.text != null && pattern.matcher(entry.text).find()) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    synchronized void clearCache() {
+        entries = null;
+        indexedEntries.clear();
+        tokenIndex.clear();
+        complete = false;
+        separateReads = 0;
+        prefetchScheduled = false;
+        prefetchFailed = false;
+        generation++;
+    }
+
+    private void loadSources(@NotNull DBRProgressMonitor monitor, int loadGeneration) {
+        final OracleDataSource dataSource = schema.getDataSource();
+        final List<SourceEntry> loadedEntries = new ArrayList<>();
+        boolean loadedAll = true;
+        monitor.subTask("Load sources of schema '" + schema.getName() + "'");
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, schema, "Load sources of schema '" + schema.getName() + "'")) {
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT TYPE,NAME,TEXT FROM " + OracleUtils.getSourceViewName(monitor, dataSource) + " " +
+                    "WHERE OWNER=? AND TYPE<>'JAVA SOURCE' " +
+                    "ORDER BY NAME,TYPE,LINE"))
+            {
+                dbStat.setString(1, schema.getName());
+                dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    String curType = null, curName = null;
+                    StringBuilder curText = null;
+                    long totalLength = 0;
+                    while (dbResult.next()) {
+                        if (monitor.isCanceled()) {
+                            loadedAll = false;
+                            break;
+                        }
+                        final String type = dbResult.getString(1);
+                        final String name = dbResult.getString(2);
+                        String line = dbResult.getString(3);
+                        if (line == null) {
+                            line = "";
+                        }
+                        if (curText == null || !type.equals(curType) || !name.equals(curName)) {
+                            if (curText != null) {
+                                loadedEntries.add(new SourceEntry(curType, curName, curText.toString()));
+                            }
+                            curType = type;
+                            curName = name;
+                            curText = new StringBuilder(200);
+                        }
+                        totalLength += line.length();
+                        if (totalLength > MAX_SOURCES_LENGTH) {
+                            // Current object source is incomplete
+                            log.debug("Sources of schema '" + schema.getName() + "' are too big, only part of them is cached");
+                            curText = null;
+                            loadedAll = false;
+                            break;
+                        }
+                        curText.append(line);
+                    }
+                    if (curText != null) {
+                        loadedEntries.add(new SourceEntry(curType, curName, curText.toString()));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Error loading sources of schema '" + schema.getName() + "'", e);
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    prefetchFailed = true;
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            // Cache was cleared or filled by another prefetch meanwhile
+            if (generation == loadGeneration && entries == null) {
+                setSources(loadedEntries, loadedAll);
+            }
+        }
+    }
+
+    synchronized void setSources(@NotNull Collection<SourceEntry> sources, boolean complete) {
+        this.entries = new HashMap<>(sources.size() * 2);
+        this.complete = complete;
+        indexedEntries.clear();
+        tokenIndex.clear();
+        for (SourceEntry entry : sources) {
+            entries.put(makeKey(entry.type, entry.name), entry);
+            addToIndex(entry);
+        }
+    }
+
+    private void addToIndex(@NotNull SourceEntry entry) {
+        final int position = indexedEntries.size();
+        indexedEntries.add(entry);
+        if (entry.text == null) {
+            return;
+        }
+        final String text = entry.text;
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && isTokenChar(text.charAt(i))) {
+                if (tokenStart < 0) {
+                    tokenStart = i;
+                }
+            } else if (tokenStart >= 0) {
+                final String token = text.substring(tokenStart, i).toUpperCase(Locale.ENGLISH);
+                tokenIndex.computeIfAbsent(token, t -> new BitSet()).set(position);
+                tokenStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Returns entries which contain all words of the mask.
+     * Words of the mask may be parts of source words, so each mask word is looked up in all index words.
+     */
+    @NotNull
+    private BitSet findCandidates(@NotNull String mask) {
+        final BitSet candidates = new BitSet();
+        candidates.set(0, indexedEntries.size());
+        final String upperMask = mask.toUpperCase(Locale.ENGLISH);
+        int tokenStart = -1;
+        for (int i = 0; i <= upperMask.length(); i++) {
+            // Wildcards are not token chars, so they split mask words
+            if (i < upperMask.length() && isTokenChar(upperMask.charAt(i)) && upperMask.charAt(i) != '_') {
+                if (tokenStart < 0) {
+                    tokenStart = i;
+                }
+            } else if (tokenStart >= 0) {
+                final String maskToken = upperMask.substring(tokenStart, i);
+                final BitSet tokenEntries = new BitSet();
+                for (Map.Entry<String, BitSet> indexEntry : tokenIndex.entrySet()) {
+                    if (indexEntry.getKey().contains(maskToken)) {
+                        tokenEntries.or(indexEntry.getValue());
+                    }
+                }
+                candidates.and(tokenEntries);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                tokenStart = -1;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Makes pattern which finds lines matching the LIKE mask
+     */
+    @NotNull
+    static Pattern makeLinePattern(@NotNull String mask, boolean caseSensitive) {
+        final StringBuilder regex = new StringBuilder("^");
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < mask.length(); i++) {
+            final char c = mask.charAt(i);
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? "[^\\n]*" : "[^\\n]");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        regex.append("$");
+        int flags = Pattern.MULTILINE;
+        if (!caseSensitive) {
+            flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        return Pattern.compile(regex.toString(), flags);
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    @NotNull
+    private static String makeKey(@NotNull String type, @NotNull String name) {
+        return type + '\n' + name;
+    }
+}
@@ -229,6 +229,10 @@ public class OracleStructureAssistant implements DBSStructureAssistant<OracleExe
         if (objectTypeClause.length() == 0) {
             return;
         }
+        // Sources of one schema are searched in prefetched sources
+        final boolean searchSourcesOffline = params.isSearchInDefinitions() && schema != null &&
+            schema.getSourceCache().prefetchSources(session.getProgressMonitor());
+        final boolean searchSourcesOnline = params.isSearchInDefinitions() && !searchSourcesOffline;
 
         // Seek for objects (join with public synonyms)
         OracleDataSource dataSource = (OracleDataSource) session.getDataSource();
@@ -259,7 +263,7 @@ public class OracleStructureAssistant implements DBSStructureAssistant<OracleExe
             query.append(" LIKE ?");
             query.append(ownerClause);
         }
-        if (params.isSearchInDefinitions()) {
+        if (searchSourcesOnline) {
             query.append(" UNION ALL SELECT DISTINCT owner, name, type FROM ");
             query.append(OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), dataSource, "SOURCE"));
             query.append(" WHERE ");
@@ -294,7 +298,7 @@ public class OracleStructureAssistant implements DBSStructureAssistant<OracleExe
                     idx++;
                 }
             }
-            if (params.isSearchInDefinitions()) {
+            if (searchSourcesOnline) {
                 dbStat.setString(idx, mask);
                 idx++;
                 if (!ownerClause.isEmpty()) {
@@ -320,6 +324,29 @@ public class OracleStructureAssistant implements DBSStructureAssistant<OracleExe
                 }
             }
         }
+        if (searchSourcesOffline) {
+            for (OracleSourceCache.SourceEntry source : schema.getSourceCache().findSources(params.getMask(), params.isCaseSensitive())) {
+                if (objects.size() >= params.getMaxResults()) {
+                    break;
+                }
+                final OracleObjectType objectType = OracleObjectType.getByType(source.getType());
+                if (objectType != null && objectType.isBrowsable() && oracleObjectTypes.contains(objectType) &&
+                    !containsObjectReference(objects, schema, source.getName(), objectType))
+                {
+                    addObjectReference(objects, source.getName(), schema, objectType, source.getType(), schema.getName(), session);
+                }
+            }
+        }
+    }
+
+    private static boolean containsObjectReference(@NotNull List<DBSObjectReference> references, @NotNull OracleSchema schema,
+                                                   @NotNull String objectName, @NotNull OracleObjectType objectType) {
+        for (DBSObjectReference reference : references) {
+            if (reference.getContainer() == schema && reference.getObjectType() == objectType && objectName.equals(reference.getName())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void addObjectReference(@NotNull Collection<DBSObjectReference> references, String objectName, @NotNull OracleSchema objectSchema,
@@ -326,14 +326,22 @@ public class OracleUtils {
             log.warn("No source owner for object '" + sourceObject.getName() + "'");
             return null;
         }
-        monitor.beginTask("Load sources for '" + sourceObject.getName() + "'...", 1);
-        String sysViewName = OracleConstants.VIEW_DBA_SOURCE;
-        if (!sourceObject.getDataSource().isViewAvailable(monitor, OracleConstants.SCHEMA_SYS, sysViewName)) {
-            sysViewName = OracleConstants.VIEW_ALL_SOURCE;
+        final String fullSourceType = body ? sourceType + " BODY" : sourceType;
+        // Java sources are not prefetched
+        final OracleSourceCache sourceCache = sourceObject instanceof OracleJavaClass ? null : sourceOwner.getSourceCache();
+        if (sourceCache != null) {
+            final String cachedSource = sourceCache.getSource(monitor, fullSourceType, sourceObject.getName());
+            if (cachedSource != null) {
+                if (cachedSource.isEmpty()) {
+                    return null;
+                }
+                return insertCreateReplace ? insertCreateReplace(sourceObject, body, cachedSource) : cachedSource;
+            }
         }
+        monitor.beginTask("Load sources for '" + sourceObject.getName() + "'...", 1);
         try (final JDBCSession session = DBUtils.openMetaSession(monitor, sourceOwner, "Load source code for " + sourceType + " '" + sourceObject.getName() + "'")) {
             try (JDBCPreparedStatement dbStat = session.prepareStatement(
-                "SELECT TEXT FROM " + getSysSchemaPrefix(sourceObject.getDataSource()) + sysViewName + " " +
+                "SELECT TEXT FROM " + getSourceViewName(monitor, sourceObject.getDataSource()) + " " +
                     "WHERE TYPE=? AND OWNER=? AND NAME=? " +
                     "ORDER BY LINE")) {
                 String sourceName;
@@ -342,7 +350,7 @@ public class OracleUtils {
                 } else {
                     sourceName = sourceObject.getName();
                 }
-                dbStat.setString(1, body ? sourceType + " BODY" : sourceType);
+                dbStat.setString(1, fullSourceType);
                 dbStat.setString(2, sourceOwner.getName());
                 dbStat.setString(3, sourceName);
                 dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
@@ -368,6 +376,9 @@ public class OracleUtils {
                         lineCount++;
                         monitor.subTask("Line " + lineCount);
                     }
+                    if (sourceCache != null && !monitor.isCanceled()) {
+                        sourceCache.updateSource(fullSourceType, sourceName, source == null ? null : source.toString());
+                    }
                     if (source == null) {
                         return null;
                     }
@@ -385,6 +396,18 @@ public class OracleUtils {
         }
     }
 
+    /**
+     * Returns DBA_SOURCE view if it is available and ALL_SOURCE otherwise
+     */
+    static String getSourceViewName(DBRProgressMonitor monitor, OracleDataSource dataSource)
+    {
+        String sysViewName = OracleConstants.VIEW_DBA_SOURCE;
+        if (!dataSource.isViewAvailable(monitor, OracleConstants.SCHEMA_SYS, sysViewName)) {
+            sysViewName = OracleConstants.VIEW_ALL_SOURCE;
+        }
+        return getSysSchemaPrefix(dataSource) + sysViewName;
+    }
+
     public static String getSysUserViewName(DBRProgressMonitor monitor, OracleDataSource dataSource, String viewName)
     {
         String dbaView = "DBA_" + viewName;
@@ -51,6 +51,7 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
     private Button readAllDataTypes;
     private Button readKeysWithColumns;
     private Button usePreparedStatements;
+    private Button binaryTransfer;
     private Combo ddPlainBehaviorCombo;
     private Combo ddTagBehaviorCombo;
 
@@ -118,13 +119,15 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
         final DBPDriver driver = site.getDriver();
         PostgreServerType serverType = PostgreUtils.getServerType(driver);
 
-        if (serverType.turnOffPreparedStatements())
         {
             Group performanceGroup = new Group(cfgGroup, SWT.NONE);
             performanceGroup.setText(PostgreMessages.dialog_setting_group_performance);
             performanceGroup.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             performanceGroup.setLayout(new GridLayout(2, false));
-            usePreparedStatements = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_use_prepared_statements, PostgreMessages.dialog_setting_connection_use_prepared_statements_tip, false, 2);
+            if (serverType.turnOffPreparedStatements()) {
+                usePreparedStatements = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_use_prepared_statements, PostgreMessages.dialog_setting_connection_use_prepared_statements_tip, false, 2);
+            }
+            binaryTransfer = UIUtils.createCheckbox(performanceGroup, PostgreMessages.dialog_setting_connection_binary_transfer, PostgreMessages.dialog_setting_connection_binary_transfer_tip, false, 2);
         }
 
         setControl(cfgGroup);
@@ -179,6 +182,8 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
             usePreparedStatements.setSelection(
                     CommonUtils.getBoolean(connectionInfo.getProviderProperty(PostgreConstants.PROP_USE_PREPARED_STATEMENTS), false));
         }
+        binaryTransfer.setSelection(
+            CommonUtils.getBoolean(connectionInfo.getProviderProperty(PostgreConstants.PROP_BINARY_TRANSFER), false));
 
         ddPlainBehaviorCombo.select(CommonUtils.getBoolean(
             connectionInfo.getProviderProperty(PostgreConstants.PROP_DD_PLAIN_STRING),
@@ -202,6 +207,7 @@ public class PostgreConnectionPageAdvanced extends ConnectionPageAbstract
         if (usePreparedStatements != null) {
             connectionCfg.setProviderProperty(PostgreConstants.PROP_USE_PREPARED_STATEMENTS, String.valueOf(usePreparedStatements.getSelection()));
         }
+        connectionCfg.setProviderProperty(PostgreConstants.PROP_BINARY_TRANSFER, String.valueOf(binaryTransfer.getSelection()));
 
         connectionCfg.setProviderProperty(PostgreConstants.PROP_DD_PLAIN_STRING, String.valueOf(ddPlainBehaviorCombo.getSelectionIndex() == 0));
         connectionCfg.setProviderProperty(PostgreConstants.PROP_DD_TAG_STRING, String.valueOf(ddTagBehaviorCombo.getSelectionIndex() == 0));
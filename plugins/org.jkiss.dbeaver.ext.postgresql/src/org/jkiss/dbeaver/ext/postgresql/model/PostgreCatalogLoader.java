@@ -0,0 +1,301 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCCompositeCache;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reads catalog of all database schemas with database-wide queries (one query per catalog table)
+ * and fans rows out into per-schema table, column, constraint, index and procedure caches.
+ * Schemas which are already cached are skipped.
+ */
+class PostgreCatalogLoader {
+
+    private final PostgreDatabase database;
+
+    PostgreCatalogLoader(@NotNull PostgreDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Loads structure of all database schemas.
+     * Procedures are loaded with entities.
+     */
+    void loadCatalog(@NotNull DBRProgressMonitor monitor, int scope) throws DBException {
+        loadCatalog(monitor, getSchemas(monitor), scope);
+    }
+
+    /**
+     * Loads structure of the specified schemas.
+     * Tables are always loaded, procedures are loaded with entities.
+     */
+    void loadCatalog(@NotNull DBRProgressMonitor monitor, @NotNull List<PostgreSchema> schemas, int scope) throws DBException {
+        if (schemas.isEmpty()) {
+            return;
+        }
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, database, "Load database catalog")) {
+            monitor.subTask("Cache tables");
+            loadTables(session, schemas);
+            if ((scope & DBSObjectContainer.STRUCT_ENTITIES) != 0 && !monitor.isCanceled()) {
+                monitor.subTask("Cache procedures");
+                loadProcedures(session, schemas);
+            }
+            if ((scope & (DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS)) != 0 && !monitor.isCanceled()) {
+                monitor.subTask("Cache table columns");
+                loadColumns(session, schemas);
+            }
+            if ((scope & DBSObjectContainer.STRUCT_ASSOCIATIONS) != 0 && !monitor.isCanceled()) {
+                monitor.subTask("Cache constraints");
+                loadConstraints(session, schemas);
+                if (database.getDataSource().getServerType().supportsIndexes() && !monitor.isCanceled()) {
+                    monitor.subTask("Cache indexes");
+                    loadIndexes(session, schemas);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DBException(e, database.getDataSource());
+        }
+    }
+
+    /**
+     * Loads procedures of all database schemas
+     */
+    void loadProcedures(@NotNull DBRProgressMonitor monitor) throws DBException {
+        List<PostgreSchema> schemas = getSchemas(monitor);
+        if (schemas.isEmpty()) {
+            return;
+        }
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, database, "Load database procedures")) {
+            loadProcedures(session, schemas);
+        } catch (SQLException e) {
+            throw new DBException(e, database.getDataSource());
+        }
+    }
+
+    @NotNull
+    private List<PostgreSchema> getSchemas(@NotNull DBRProgressMonitor monitor) throws DBException {
+        List<PostgreSchema> schemas = new ArrayList<>();
+        for (PostgreSchema schema : database.getSchemas(monitor)) {
+            if (schema.isPersisted()) {
+                schemas.add(schema);
+            }
+        }
+        return schemas;
+    }
+
+    private void loadTables(@NotNull JDBCSession session, @NotNull List<PostgreSchema> schemas) throws SQLException, DBException {
+        Map<Long, PostgreSchema> pending = getPendingSchemas(schemas, schema -> !schema.getTableCache().isFullyCached());
+        if (pending.isEmpty()) {
+            return;
+        }
+        PostgreSchema firstSchema = pending.values().iterator().next();
+        String sql = firstSchema.getTableCache().getTablesQuery(makeNamespaceCondition("c.relnamespace", pending.keySet()));
+
+        Map<PostgreSchema, List<PostgreTableBase>> schemaTables = new IdentityHashMap<>();
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql)) {
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        return;
+                    }
+                    PostgreSchema schema = pending.get(JDBCUtils.safeGetLong(dbResult, "relnamespace"));
+                    if (schema == null) {
+                        continue;
+                    }
+                    PostgreTableBase table = schema.getTableCache().fetchObject(session, schema, dbResult);
+                    if (table != null) {
+                        schemaTables.computeIfAbsent(schema, s -> new ArrayList<>()).add(table);
+                    }
+                }
+            }
+        }
+        for (PostgreSchema schema : pending.values()) {
+            List<PostgreTableBase> tables = schemaTables.get(schema);
+            schema.getTableCache().cacheLoadedObjects(
+                session.getProgressMonitor(), schema, tables == null ? new ArrayList<>() : tables);
+        }
+    }
+
+    private void loadColumns(@NotNull JDBCSession session, @NotNull List<PostgreSchema> schemas) throws SQLException, DBException {
+        Map<Long, PostgreSchema> pending = getPendingSchemas(schemas, schema -> !schema.getTableCache().isChildrenFullyCached());
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, PostgreTableBase> tablesById = new HashMap<>();
+        for (PostgreSchema schema : pending.values()) {
+            for (PostgreTableBase table : schema.getTableCache().getCachedObjects()) {
+                tablesById.put(table.getObjectId(), table);
+            }
+        }
+        PostgreSchema firstSchema = pending.values().iterator().next();
+        String sql = firstSchema.getTableCache().getColumnsQuery(firstSchema, makeNamespaceCondition("c.relnamespace", pending.keySet()));
+
+        Map<PostgreTableBase, List<PostgreTableColumn>> tableColumns = new IdentityHashMap<>();
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql)) {
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        return;
+                    }
+                    PostgreTableBase table = tablesById.get(JDBCUtils.safeGetLong(dbResult, "attrelid"));
+                    if (table == null) {
+                        continue;
+                    }
+                    PostgreSchema schema = table.getSchema();
+                    PostgreTableColumn column = schema.getTableCache().fetchChild(session, schema, table, dbResult);
+                    if (column != null) {
+                        tableColumns.computeIfAbsent(table, t -> new ArrayList<>()).add(column);
+                    }
+                }
+            }
+        }
+        for (PostgreSchema schema : pending.values()) {
+            schema.getTableCache().cacheAllChildren(tableColumns);
+        }
+    }
+
+    private void loadConstraints(@NotNull JDBCSession session, @NotNull List<PostgreSchema> schemas) throws SQLException, DBException {
+        Map<Long, PostgreSchema> pending = getPendingSchemas(schemas, schema -> !schema.getConstraintCache().isFullyCached());
+        if (pending.isEmpty()) {
+            return;
+        }
+        PostgreSchema firstSchema = pending.values().iterator().next();
+        String sql = firstSchema.getConstraintCache().getConstraintsQuery(makeNamespaceCondition("t.relnamespace", pending.keySet()));
+        loadCompositeObjects(session, pending, sql, "connamespace", PostgreSchema::getConstraintCache);
+    }
+
+    private void loadIndexes(@NotNull JDBCSession session, @NotNull List<PostgreSchema> schemas) throws SQLException, DBException {
+        Map<Long, PostgreSchema> pending = getPendingSchemas(schemas, schema -> !schema.getIndexCache().isFullyCached());
+        if (pending.isEmpty()) {
+            return;
+        }
+        PostgreSchema firstSchema = pending.values().iterator().next();
+        String sql = firstSchema.getIndexCache().getIndexesQuery(makeNamespaceCondition("c.relnamespace", pending.keySet()));
+        loadCompositeObjects(session, pending, sql, "relnamespace", PostgreSchema::getIndexCache);
+    }
+
+    private void loadCompositeObjects(
+        @NotNull JDBCSession session,
+        @NotNull Map<Long, PostgreSchema> pending,
+        @NotNull String sql,
+        @NotNull String namespaceColumn,
+        @NotNull Function<PostgreSchema, JDBCCompositeCache<PostgreTableContainer, PostgreTableBase, ?, ?>> cacheProvider)
+        throws SQLException, DBException
+    {
+        Map<Long, JDBCCompositeCache<PostgreTableContainer, PostgreTableBase, ?, ?>.CompositeLoader> loaders = new LinkedHashMap<>();
+        for (Map.Entry<Long, PostgreSchema> entry : pending.entrySet()) {
+            loaders.put(entry.getKey(), cacheProvider.apply(entry.getValue()).createLoader(entry.getValue()));
+        }
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql)) {
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        return;
+                    }
+                    JDBCCompositeCache<PostgreTableContainer, PostgreTableBase, ?, ?>.CompositeLoader loader =
+                        loaders.get(JDBCUtils.safeGetLong(dbResult, namespaceColumn));
+                    if (loader != null) {
+                        loader.readRow(session, dbResult);
+                    }
+                }
+            }
+        }
+        // Cache objects of all schemas first, so references (foreign keys) between schemas are resolved from cache
+        for (JDBCCompositeCache<PostgreTableContainer, PostgreTableBase, ?, ?>.CompositeLoader loader : loaders.values()) {
+            loader.cacheObjects(session.getProgressMonitor());
+        }
+        for (JDBCCompositeCache<PostgreTableContainer, PostgreTableBase, ?, ?>.CompositeLoader loader : loaders.values()) {
+            loader.cacheObjectReferences(session.getProgressMonitor());
+        }
+    }
+
+    private void loadProcedures(@NotNull JDBCSession session, @NotNull List<PostgreSchema> schemas) throws SQLException, DBException {
+        Map<Long, PostgreSchema> pending = getPendingSchemas(schemas, schema -> !schema.getProceduresCache().isFullyCached());
+        if (pending.isEmpty()) {
+            return;
+        }
+        String sql = PostgreSchema.ProceduresCache.getProceduresQuery(
+            database.getDataSource(), makeNamespaceCondition("p.pronamespace", pending.keySet()));
+
+        Map<PostgreSchema, List<PostgreProcedure>> schemaProcedures = new IdentityHashMap<>();
+        try (JDBCPreparedStatement dbStat = session.prepareStatement(sql)) {
+            dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
+            try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    if (session.getProgressMonitor().isCanceled()) {
+                        return;
+                    }
+                    PostgreSchema schema = pending.get(JDBCUtils.safeGetLong(dbResult, "pronamespace"));
+                    if (schema == null) {
+                        continue;
+                    }
+                    PostgreProcedure procedure = schema.getProceduresCache().fetchObject(session, schema, dbResult);
+                    if (procedure != null) {
+                        schemaProcedures.computeIfAbsent(schema, s -> new ArrayList<>()).add(procedure);
+                    }
+                }
+            }
+        }
+        for (PostgreSchema schema : pending.values()) {
+            List<PostgreProcedure> procedures = schemaProcedures.get(schema);
+            schema.getProceduresCache().cacheLoadedObjects(
+                session.getProgressMonitor(), schema, procedures == null ? new ArrayList<>() : procedures);
+        }
+    }
+
+    @NotNull
+    private static Map<Long, PostgreSchema> getPendingSchemas(@NotNull List<PostgreSchema> schemas, @NotNull Function<PostgreSchema, Boolean> filter) {
+        Map<Long, PostgreSchema> result = new LinkedHashMap<>();
+        for (PostgreSchema schema : schemas) {
+            if (filter.apply(schema)) {
+                result.put(schema.getObjectId(), schema);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static String makeNamespaceCondition(@NotNull String column, @NotNull Collection<Long> namespaceIds) {
+        StringBuilder condition = new StringBuilder(column).append(" IN (");
+        boolean first = true;
+        for (Long id : namespaceIds) {
+            if (!first) {
+                condition.append(",");
+            }
+            condition.append(id);
+            first = false;
+        }
+        return condition.append(")").toString();
+    }
+}
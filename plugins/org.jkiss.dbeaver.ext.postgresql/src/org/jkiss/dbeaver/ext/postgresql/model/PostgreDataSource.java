@@ -82,6 +82,10 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
         PostgrePrivilegeType.EXECUTE,
         PostgrePrivilegeType.USAGE
     };
+    // Arrays of bool, int2, int4, int8, float4 and float8
+    private static final String BINARY_TRANSFER_OIDS =
+        PostgreOid.BOOL_ARRAY + "," + PostgreOid.INT2_ARRAY + "," + PostgreOid.INT4_ARRAY + "," +
+        PostgreOid.INT8_ARRAY + "," + PostgreOid.FLOAT4_ARRAY + "," + PostgreOid.FLOAT8_ARRAY;
 
     private DatabaseCache databaseCache;
     private SettingCache settingCache;
@@ -280,6 +284,14 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             // Turn off prepared statements using, to avoid error: "ERROR: prepared statement "S_1" already exists" from PGBouncer #10742
             props.put("prepareThreshold", "0");
         }
+        if (isBinaryTransferEnabled()) {
+            // Arrays of primitives are decoded from binary format (see PostgreBinaryDecoder).
+            // Driver uses binary format for server-prepared statements only, -1 prepares them on the first execution.
+            props.put("binaryTransferEnable", BINARY_TRANSFER_OIDS);
+            if (!props.containsKey("prepareThreshold")) {
+                props.put("prepareThreshold", "-1");
+            }
+        }
 
         if (getContainer().isConnectionReadOnly()) {
             props.put("readOnly", "true");
@@ -802,6 +814,10 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
         return CommonUtils.toBoolean(getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_READ_ALL_DATA_TYPES));
     }
 
+    public boolean isBinaryTransferEnabled() {
+        return CommonUtils.toBoolean(getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_BINARY_TRANSFER));
+    }
+
     public boolean supportsReadingKeysWithColumns() {
         return CommonUtils.toBoolean(
             getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_READ_KEYS_WITH_COLUMNS));
@@ -798,7 +798,26 @@ public class PostgreDatabase extends JDBCRemoteInstance
 
     @Override
     public void cacheStructure(@NotNull DBRProgressMonitor monitor, int scope) throws DBException {
+        if (getDataSource().getServerType().supportsDatabaseCatalogLoad()) {
+            // Read all schemas at once instead of per-schema catalog queries
+            new PostgreCatalogLoader(this).loadCatalog(monitor, scope);
+        }
+    }
 
+    /**
+     * Reads structure of the specified schemas with database-wide catalog queries.
+     * Does nothing if the server doesn't support database catalog load, schemas are read on demand then.
+     */
+    public void cacheSchemasStructure(@NotNull DBRProgressMonitor monitor, @NotNull Collection<PostgreSchema> schemas, int scope) throws DBException {
+        if (getDataSource().getServerType().supportsDatabaseCatalogLoad()) {
+            List<PostgreSchema> persistedSchemas = new ArrayList<>(schemas.size());
+            for (PostgreSchema schema : schemas) {
+                if (schema.isPersisted()) {
+                    persistedSchemas.add(schema);
+                }
+            }
+            new PostgreCatalogLoader(this).loadCatalog(monitor, persistedSchemas, scope);
+        }
     }
 
     @NotNull
@@ -869,6 +888,9 @@ public class PostgreDatabase extends JDBCRemoteInstance
 
     public PostgreProcedure getProcedure(DBRProgressMonitor monitor, long procId)
         throws DBException {
+        if (getDataSource().getServerType().supportsDatabaseCatalogLoad()) {
+            new PostgreCatalogLoader(this).loadProcedures(monitor);
+        }
         for (final PostgreSchema schema : getSchemas(monitor)) {
             PostgreProcedure procedure = PostgreUtils.getObjectById(monitor, schema.getProceduresCache(), schema, procId);
             if (procedure != null) {
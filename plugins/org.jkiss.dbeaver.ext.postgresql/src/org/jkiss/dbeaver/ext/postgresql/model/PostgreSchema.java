@@ -738,6 +738,20 @@ public class PostgreSchema implements
         @NotNull
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @Nullable PostgreTableBase object, @Nullable String objectName) throws SQLException {
+            String sql = getTablesQuery("c.relnamespace=?") +
+                (object == null && objectName == null ? "" : " AND relname=?");
+            final JDBCPreparedStatement dbStat = session.prepareStatement(sql);
+            dbStat.setLong(1, getObjectId());
+            if (object != null || objectName != null)
+                dbStat.setString(2, object != null ? object.getName() : objectName);
+            return dbStat;
+        }
+
+        /**
+         * Returns tables query. Namespace condition may refer to pg_class as c.
+         */
+        @NotNull
+        String getTablesQuery(@NotNull String namespaceCondition) {
             StringBuilder sql = new StringBuilder();
             sql.append("SELECT c.oid,c.*,d.description");
             if (getDataSource().isServerVersionAtLeast(10, 0)) {
@@ -745,13 +759,8 @@ public class PostgreSchema implements
             }
             sql.append("\nFROM pg_catalog.pg_class c\n")
                 .append("LEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=c.oid AND d.objsubid=0 AND d.classoid='pg_class'::regclass\n")
-                .append("WHERE c.relnamespace=? AND c.relkind not in ('i','I','c')")
-                .append(object == null && objectName == null ? "" : " AND relname=?");
-            final JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
-            dbStat.setLong(1, getObjectId());
-            if (object != null || objectName != null)
-                dbStat.setString(2, object != null ? object.getName() : objectName);
-            return dbStat;
+                .append("WHERE ").append(namespaceCondition).append(" AND c.relkind not in ('i','I','c')");
+            return sql.toString();
         }
 
         @Override
@@ -773,15 +782,7 @@ public class PostgreSchema implements
 
         protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull PostgreTableContainer container)
             throws SQLException {
-            String sql = "SELECT c.relname,a.*,pg_catalog.pg_get_expr(ad.adbin, ad.adrelid, true) as def_value,dsc.description" +
-                getTableColumnsQueryExtraParameters(container.getSchema(), null) +
-                "\nFROM pg_catalog.pg_attribute a" +
-                "\nINNER JOIN pg_catalog.pg_class c ON (a.attrelid=c.oid)" +
-                "\nLEFT OUTER JOIN pg_catalog.pg_attrdef ad ON (a.attrelid=ad.adrelid AND a.attnum = ad.adnum)" +
-                "\nLEFT OUTER JOIN pg_catalog.pg_description dsc ON (c.oid=dsc.objoid AND a.attnum = dsc.objsubid)" +
-                "\nWHERE NOT a.attisdropped AND c.relnamespace=? AND c.relkind not in ('i','I','c')  ORDER BY a.attnum";
-
-            JDBCPreparedStatement dbStat = session.prepareStatement(sql);
+            JDBCPreparedStatement dbStat = session.prepareStatement(getColumnsQuery(container, "c.relnamespace=?"));
             dbStat.setLong(1, PostgreSchema.this.getObjectId());
             return dbStat;
         }
@@ -805,6 +806,20 @@ public class PostgreSchema implements
             return dbStat;
         }
 
+        /**
+         * Returns columns query of all tables. Namespace condition may refer to pg_class as c.
+         */
+        @NotNull
+        String getColumnsQuery(@NotNull PostgreTableContainer container, @NotNull String namespaceCondition) {
+            return "SELECT c.relname,a.*,pg_catalog.pg_get_expr(ad.adbin, ad.adrelid, true) as def_value,dsc.description" +
+                getTableColumnsQueryExtraParameters(container.getSchema(), null) +
+                "\nFROM pg_catalog.pg_attribute a" +
+                "\nINNER JOIN pg_catalog.pg_class c ON (a.attrelid=c.oid)" +
+                "\nLEFT OUTER JOIN pg_catalog.pg_attrdef ad ON (a.attrelid=ad.adrelid AND a.attnum = ad.adnum)" +
+                "\nLEFT OUTER JOIN pg_catalog.pg_description dsc ON (c.oid=dsc.objoid AND a.attnum = dsc.objsubid)" +
+                "\nWHERE NOT a.attisdropped AND " + namespaceCondition + " AND c.relkind not in ('i','I','c')  ORDER BY a.attnum";
+        }
+
         @Override
         protected PostgreTableColumn fetchChild(@NotNull JDBCSession session, @NotNull PostgreTableContainer container, @NotNull PostgreTableBase table, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException {
@@ -833,21 +848,8 @@ public class PostgreSchema implements
         @NotNull
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, PostgreTableContainer container, PostgreTableBase forParent) throws SQLException {
-            StringBuilder sql = new StringBuilder(
-                "SELECT c.oid,c.*,t.relname as tabrelname,rt.relnamespace as refnamespace,d.description" +
-                    (getDataSource().getServerType().supportsPGConstraintExpressionColumn() ? ", null as consrc_copy" : ", case when c.contype='c' then \"substring\"(pg_get_constraintdef(c.oid), 7) else null end consrc_copy") +
-                    "\nFROM pg_catalog.pg_constraint c" +
-                    "\nINNER JOIN pg_catalog.pg_class t ON t.oid=c.conrelid" +
-                    "\nLEFT OUTER JOIN pg_catalog.pg_class rt ON rt.oid=c.confrelid" +
-                    "\nLEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=c.oid AND d.objsubid=0 AND d.classoid='pg_constraint'::regclass" +
-                    "\nWHERE ");
-            if (forParent == null) {
-                sql.append("t.relnamespace=?");
-            } else {
-                sql.append("c.conrelid=?");
-            }
-            sql.append("\nORDER BY c.oid");
-            JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                getConstraintsQuery(forParent == null ? "t.relnamespace=?" : "c.conrelid=?"));
             if (forParent == null) {
                 dbStat.setLong(1, container.getSchema().getObjectId());
             } else {
@@ -856,6 +858,21 @@ public class PostgreSchema implements
             return dbStat;
         }
 
+        /**
+         * Returns constraints query. Condition may refer to pg_constraint as c and to constraint table as t.
+         */
+        @NotNull
+        String getConstraintsQuery(@NotNull String condition) {
+            return "SELECT c.oid,c.*,t.relname as tabrelname,rt.relnamespace as refnamespace,d.description" +
+                (getDataSource().getServerType().supportsPGConstraintExpressionColumn() ? ", null as consrc_copy" : ", case when c.contype='c' then \"substring\"(pg_get_constraintdef(c.oid), 7) else null end consrc_copy") +
+                "\nFROM pg_catalog.pg_constraint c" +
+                "\nINNER JOIN pg_catalog.pg_class t ON t.oid=c.conrelid" +
+                "\nLEFT OUTER JOIN pg_catalog.pg_class rt ON rt.oid=c.confrelid" +
+                "\nLEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=c.oid AND d.objsubid=0 AND d.classoid='pg_constraint'::regclass" +
+                "\nWHERE " + condition +
+                "\nORDER BY c.oid";
+        }
+
         @Nullable
         @Override
         protected PostgreTableConstraintBase fetchObject(JDBCSession session, PostgreTableContainer container, PostgreTableBase table, String childName, JDBCResultSet resultSet) throws SQLException, DBException {
@@ -988,6 +1005,21 @@ public class PostgreSchema implements
         @Override
         protected JDBCStatement prepareObjectsStatement(JDBCSession session, PostgreTableContainer container, PostgreTableBase forTable)
             throws SQLException {
+            JDBCPreparedStatement dbStat = session.prepareStatement(
+                getIndexesQuery(forTable != null ? "i.indrelid=?" : "c.relnamespace=?"));
+            if (forTable != null) {
+                dbStat.setLong(1, forTable.getObjectId());
+            } else {
+                dbStat.setLong(1, PostgreSchema.this.getObjectId());
+            }
+            return dbStat;
+        }
+
+        /**
+         * Returns indexes query. Condition may refer to pg_index as i and to index relation as c.
+         */
+        @NotNull
+        String getIndexesQuery(@NotNull String condition) {
             boolean supportsExprIndex = getDataSource().isServerVersionAtLeast(7, 4);
             StringBuilder sql = new StringBuilder();
             sql.append(
@@ -1006,21 +1038,10 @@ public class PostgreSchema implements
                     "\nINNER JOIN pg_catalog.pg_class tc ON tc.oid=i.indrelid" +
                     "\nLEFT OUTER JOIN pg_catalog.pg_description dsc ON i.indexrelid=dsc.objoid" +
                     "\nWHERE ");
-            if (forTable != null) {
-                sql.append(" i.indrelid=?");
-            } else {
-                sql.append(" c.relnamespace=?");
-            }
+            sql.append(condition);
             //sql.append(" AND NOT i.indisprimary");
             sql.append(" ORDER BY c.relname");
-
-            JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString());
-            if (forTable != null) {
-                dbStat.setLong(1, forTable.getObjectId());
-            } else {
-                dbStat.setLong(1, PostgreSchema.this.getObjectId());
-            }
-            return dbStat;
+            return sql.toString();
         }
 
         @Nullable
@@ -1102,16 +1123,9 @@ public class PostgreSchema implements
         @NotNull
         @Override
         public JDBCStatement prepareLookupStatement(@NotNull JDBCSession session, @NotNull PostgreSchema owner, @Nullable PostgreProcedure object, @Nullable String objectName) throws SQLException {
-            PostgreServerExtension serverType = owner.getDataSource().getServerType();
-            String oidColumn = serverType.getProceduresOidColumn(); // Hack for Redshift SP support
+            String oidColumn = owner.getDataSource().getServerType().getProceduresOidColumn();
             JDBCPreparedStatement dbStat = session.prepareStatement(
-                "SELECT p." + oidColumn + " as poid,p.*," +
-                    (session.getDataSource().isServerVersionAtLeast(8, 4) ? "pg_catalog.pg_get_expr(p.proargdefaults, 0)" : "NULL") + " as arg_defaults,d.description\n" +
-                    "FROM pg_catalog." + serverType.getProceduresSystemTable() + " p\n" +
-                    "LEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=p." + oidColumn + "\n" +
-                    "WHERE p.pronamespace=?" +
-                    (object == null ? "" : " AND p." + oidColumn + "=?") +
-                    "\nORDER BY p.proname"
+                getProceduresQuery(owner.getDataSource(), "p.pronamespace=?" + (object == null ? "" : " AND p." + oidColumn + "=?"))
             );
             dbStat.setLong(1, owner.getObjectId());
             if (object != null) {
@@ -1120,6 +1134,21 @@ public class PostgreSchema implements
             return dbStat;
         }
 
+        /**
+         * Returns procedures query. Condition may refer to procedures table as p.
+         */
+        @NotNull
+        static String getProceduresQuery(@NotNull PostgreDataSource dataSource, @NotNull String condition) {
+            PostgreServerExtension serverType = dataSource.getServerType();
+            String oidColumn = serverType.getProceduresOidColumn(); // Hack for Redshift SP support
+            return "SELECT p." + oidColumn + " as poid,p.*," +
+                (dataSource.isServerVersionAtLeast(8, 4) ? "pg_catalog.pg_get_expr(p.proargdefaults, 0)" : "NULL") + " as arg_defaults,d.description\n" +
+                "FROM pg_catalog." + serverType.getProceduresSystemTable() + " p\n" +
+                "LEFT OUTER JOIN pg_catalog.pg_description d ON d.objoid=p." + oidColumn + "\n" +
+                "WHERE " + condition +
+                "\nORDER BY p.proname";
+        }
+
         @Override
         protected PostgreProcedure fetchObject(@NotNull JDBCSession session, @NotNull PostgreSchema owner, @NotNull JDBCResultSet dbResult)
             throws SQLException, DBException {
@@ -136,6 +136,9 @@ public interface PostgreServerExtension {
     /** True if supports special column with check constraint expression */
     boolean supportsPGConstraintExpressionColumn();
 
+    /** True if catalog of all database schemas can be read with database-wide queries */
+    boolean supportsDatabaseCatalogLoad();
+
     /** True if supports special "Has OIDs" metadata column*/
     boolean supportsHasOidsColumn();
 
@@ -37,10 +37,7 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.utils.CommonUtils;
 
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 /**
  * PostgreStructureAssistant
@@ -164,9 +161,43 @@ public class PostgreStructureAssistant implements DBSStructureAssistant<PostgreE
         } catch (SQLException ex) {
             throw new DBException(ex, getDataSource());
         }
+        cacheReferencedSchemas(monitor, database, references);
         return references;
     }
 
+    /**
+     * Search results and completion proposals resolve found objects one by one, which reads each schema with its own queries.
+     * Structure of all schemas of found objects is read at once instead.
+     */
+    private static void cacheReferencedSchemas(@NotNull DBRProgressMonitor monitor, @NotNull PostgreDatabase database,
+                                               @NotNull List<DBSObjectReference> references) {
+        Set<PostgreSchema> schemas = new LinkedHashSet<>();
+        int scope = 0;
+        for (DBSObjectReference reference : references) {
+            if (reference.getContainer() instanceof PostgreSchema) {
+                schemas.add((PostgreSchema) reference.getContainer());
+            }
+            DBSObjectType type = reference.getObjectType();
+            if (type == RelationalObjectType.TYPE_PROCEDURE) {
+                scope |= DBSObjectContainer.STRUCT_ENTITIES;
+            } else if (type == RelationalObjectType.TYPE_TABLE_COLUMN) {
+                scope |= DBSObjectContainer.STRUCT_ATTRIBUTES;
+            } else if (type == RelationalObjectType.TYPE_CONSTRAINT) {
+                scope |= DBSObjectContainer.STRUCT_ASSOCIATIONS;
+            }
+        }
+        if (schemas.size() < 2 || monitor.isCanceled()) {
+            // One schema is read with the same number of queries anyway
+            return;
+        }
+        try {
+            database.cacheSchemasStructure(monitor, schemas, scope);
+        } catch (DBException e) {
+            // Not fatal, objects will be read schema by schema
+            log.debug("Error caching structure of found objects schemas", e);
+        }
+    }
+
     private static void findTablesByMask(@NotNull JDBCSession session, @NotNull PostgreDatabase database, @NotNull final List<PostgreSchema> schemas,
                                          @NotNull ObjectsSearchParams params, @NotNull Collection<? super DBSObjectReference> objects)
                                             throws SQLException, DBException {
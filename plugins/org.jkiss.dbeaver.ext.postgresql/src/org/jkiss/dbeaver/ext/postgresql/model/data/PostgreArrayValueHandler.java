@@ -42,6 +42,7 @@ import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.BitSet;
 import java.util.StringJoiner;
 
 /**
@@ -53,12 +54,35 @@ public class PostgreArrayValueHandler extends JDBCArrayValueHandler {
 
     @Override
     protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws DBCException, SQLException {
+        final PostgreDataSource dataSource = (PostgreDataSource) session.getDataSource();
+        if (dataSource.isBinaryTransferEnabled()) {
+            final PostgreDataType arrayType = PostgreUtils.findDataType(session, dataSource, type);
+            final PostgreDataType itemType = arrayType == null ? null : arrayType.getElementType(session.getProgressMonitor());
+            // Values of statements which weren't prepared on server come in text format and are read by driver
+            if (itemType != null && PostgreBinaryDecoder.isPrimitiveArrayElement(itemType.getObjectId()) &&
+                PostgreBinaryDecoder.isBinaryColumn(resultSet, index))
+            {
+                final byte[] data = resultSet.getBytes(index);
+                if (data == null) {
+                    return getValueFromObject(session, type, null, false, false);
+                }
+                final BitSet nulls = new BitSet();
+                final Object values = PostgreBinaryDecoder.decodePrimitiveArray(data, nulls);
+                if (values != null) {
+                    return new PostgrePrimitiveArray(itemType, DBUtils.findValueHandler(session, itemType), values, nulls);
+                }
+                // Multidimensional arrays are decoded by driver
+            }
+        }
         return super.fetchColumnValue(session, resultSet, type, index);
     }
 
     @Override
     public DBDCollection getValueFromObject(@NotNull DBCSession session, @NotNull DBSTypedObject type, Object object, boolean copy, boolean validateValue) throws DBCException
     {
+        if (object instanceof PostgrePrimitiveArray) {
+            return (DBDCollection) (copy ? ((PostgrePrimitiveArray) object).cloneValue(session.getProgressMonitor()) : object);
+        }
         if (object != null) {
             final PostgreDataType arrayType = PostgreUtils.findDataType(session, (PostgreDataSource) session.getDataSource(), type);
             if (arrayType == null) {
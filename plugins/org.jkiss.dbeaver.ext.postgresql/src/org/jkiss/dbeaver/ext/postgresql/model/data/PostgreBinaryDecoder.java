@@ -0,0 +1,324 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreOid;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.utils.BeanUtils;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Decoder of PostgreSQL binary transfer format (see array_send, record_send and hstore_send server functions).
+ *
+ * Driver returns raw bytes of binary values from getBytes and text bytes of values transferred in text format.
+ * Transfer format of the column is taken from the driver result set metadata, see {@link #isBinaryColumn}.
+ */
+public class PostgreBinaryDecoder {
+
+    private static final Log log = Log.getLog(PostgreBinaryDecoder.class);
+
+    // Format code of the binary columns in RowDescription message
+    private static final int BINARY_FORMAT = 1;
+
+    // Bigger counts can't be sent by server, they mean that value is corrupted
+    private static final int MAX_ARRAY_DIMENSIONS = 6;
+
+    // Column formats of the result sets being read. Entries go away with result sets
+    private static final Map<JDBCResultSet, ColumnFormats> columnFormats = new WeakHashMap<>();
+    private static volatile boolean formatErrorLogged;
+
+    /**
+     * Checks whether values of the specified column are transferred in binary format.
+     * Driver uses binary format only for server prepared statements and types listed in binaryTransferEnable,
+     * the format code is read with PGResultSetMetaData.getFormat (driver classes aren't visible to this bundle).
+     * Format is read once per result set column. Returns false if the format can't be read, so that the value is read by driver.
+     */
+    public static boolean isBinaryColumn(@NotNull JDBCResultSet resultSet, int index) {
+        ColumnFormats formats;
+        synchronized (columnFormats) {
+            formats = columnFormats.computeIfAbsent(resultSet, rs -> new ColumnFormats());
+        }
+        return formats.isBinary(resultSet, index);
+    }
+
+    /**
+     * Transfer formats of the result set columns. Result set is read by one thread.
+     */
+    private static class ColumnFormats {
+        private final BitSet resolved = new BitSet();
+        private final BitSet binary = new BitSet();
+
+        boolean isBinary(@NotNull JDBCResultSet resultSet, int index) {
+            if (!resolved.get(index)) {
+                resolved.set(index);
+                binary.set(index, readFormat(resultSet, index) == BINARY_FORMAT);
+            }
+            return binary.get(index);
+        }
+    }
+
+    private static int readFormat(@NotNull JDBCResultSet resultSet, int index) {
+        try {
+            final ResultSet original = resultSet.getOriginal();
+            final ResultSetMetaData metaData = original == null ? null : original.getMetaData();
+            if (metaData == null) {
+                return -1;
+            }
+            final Object format = BeanUtils.invokeObjectMethod(
+                metaData, "getFormat", new Class[] {Integer.TYPE}, new Object[] {index});
+            return format instanceof Integer ? (Integer) format : -1;
+        } catch (Throwable e) {
+            if (!formatErrorLogged) {
+                formatErrorLogged = true;
+                log.debug("Can't read transfer format of column " + index, e);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Checks whether arrays of the specified element type are decoded into primitive arrays
+     */
+    public static boolean isPrimitiveArrayElement(long elementOid) {
+        switch ((int) elementOid) {
+            case PostgreOid.BOOL:
+            case PostgreOid.INT2:
+            case PostgreOid.INT4:
+            case PostgreOid.INT8:
+            case PostgreOid.FLOAT4:
+            case PostgreOid.FLOAT8:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Decodes one-dimensional array of primitive elements.
+     * Null elements are marked in the nulls set.
+     *
+     * @return boolean[], short[], int[], long[], float[] or double[] array.
+     * Null if array is multidimensional or elements aren't primitive.
+     */
+    @Nullable
+    public static Object decodePrimitiveArray(@NotNull byte[] data, @NotNull BitSet nulls) throws DBCException {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int dimensions = buffer.getInt();
+            if (dimensions < 0 || dimensions > MAX_ARRAY_DIMENSIONS) {
+                throw new DBCException("Bad number of array dimensions: " + dimensions);
+            }
+            buffer.getInt(); // Has nulls flag
+            final int elementOid = buffer.getInt();
+            if (dimensions > 1 || !isPrimitiveArrayElement(elementOid)) {
+                return null;
+            }
+            int length = 0;
+            if (dimensions == 1) {
+                length = buffer.getInt();
+                buffer.getInt(); // Lower bound
+                if (length < 0 || length > buffer.remaining() / 4) {
+                    throw new DBCException("Bad array length: " + length);
+                }
+            }
+            switch (elementOid) {
+                case PostgreOid.BOOL: {
+                    final boolean[] values = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 1)) {
+                            values[i] = buffer.get() != 0;
+                        }
+                    }
+                    return values;
+                }
+                case PostgreOid.INT2: {
+                    final short[] values = new short[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 2)) {
+                            values[i] = buffer.getShort();
+                        }
+                    }
+                    return values;
+                }
+                case PostgreOid.INT4: {
+                    final int[] values = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 4)) {
+                            values[i] = buffer.getInt();
+                        }
+                    }
+                    return values;
+                }
+                case PostgreOid.INT8: {
+                    final long[] values = new long[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 8)) {
+                            values[i] = buffer.getLong();
+                        }
+                    }
+                    return values;
+                }
+                case PostgreOid.FLOAT4: {
+                    final float[] values = new float[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 4)) {
+                            values[i] = buffer.getFloat();
+                        }
+                    }
+                    return values;
+                }
+                default: {
+                    final double[] values = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        if (readElementLength(buffer, i, nulls, 8)) {
+                            values[i] = buffer.getDouble();
+                        }
+                    }
+                    return values;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new DBCException("Unexpected end of binary array value", e);
+        }
+    }
+
+    /**
+     * Decodes composite value.
+     *
+     * @return field values. Null if some field type can't be decoded.
+     */
+    @Nullable
+    public static Object[] decodeComposite(@NotNull byte[] data) throws DBCException {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int fieldCount = buffer.getInt();
+            if (fieldCount < 0 || fieldCount > buffer.remaining() / 8) {
+                throw new DBCException("Bad number of composite fields: " + fieldCount);
+            }
+            final Object[] values = new Object[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                final int fieldOid = buffer.getInt();
+                final int length = buffer.getInt();
+                if (length < 0) {
+                    continue;
+                }
+                if (length > buffer.remaining()) {
+                    throw new DBCException("Bad composite field length: " + length);
+                }
+                final int end = buffer.position() + length;
+                switch (fieldOid) {
+                    case PostgreOid.BOOL:
+                        values[i] = buffer.get() != 0;
+                        break;
+                    case PostgreOid.INT2:
+                        values[i] = buffer.getShort();
+                        break;
+                    case PostgreOid.INT4:
+                        values[i] = buffer.getInt();
+                        break;
+                    case PostgreOid.INT8:
+                        values[i] = buffer.getLong();
+                        break;
+                    case PostgreOid.FLOAT4:
+                        values[i] = buffer.getFloat();
+                        break;
+                    case PostgreOid.FLOAT8:
+                        values[i] = buffer.getDouble();
+                        break;
+                    case PostgreOid.TEXT:
+                    case PostgreOid.VARCHAR:
+                    case PostgreOid.BPCHAR:
+                    case PostgreOid.NAME:
+                        // Binary form of text types is the text itself
+                        values[i] = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+                        break;
+                    default:
+                        return null;
+                }
+                buffer.position(end);
+            }
+            return values;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new DBCException("Unexpected end of binary composite value", e);
+        }
+    }
+
+    /**
+     * Decodes hstore value. Pairs are returned in the server order.
+     */
+    @NotNull
+    public static Map<String, String> decodeHStore(@NotNull byte[] data) throws DBCException {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            final int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / 8) {
+                throw new DBCException("Bad number of hstore pairs: " + count);
+            }
+            final Map<String, String> pairs = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                final String key = readString(buffer, data);
+                if (key == null) {
+                    throw new DBCException("Null hstore key");
+                }
+                pairs.put(key, readString(buffer, data));
+            }
+            return pairs;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new DBCException("Unexpected end of binary hstore value", e);
+        }
+    }
+
+    private static boolean readElementLength(@NotNull ByteBuffer buffer, int index, @NotNull BitSet nulls, int expectedLength) throws DBCException {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            nulls.set(index);
+            return false;
+        }
+        if (length != expectedLength) {
+            throw new DBCException("Bad array element length: " + length);
+        }
+        return true;
+    }
+
+    @Nullable
+    private static String readString(@NotNull ByteBuffer buffer, @NotNull byte[] data) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String value = new String(data, buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+}
@@ -16,7 +16,10 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model.data;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreDataSource;
+import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
@@ -26,6 +29,7 @@ import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Map;
 
 /**
  * PostgreHStoreValueHandler
@@ -36,6 +40,20 @@ public class PostgreHStoreValueHandler extends JDBCStringValueHandler {
 
     @Override
     protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws SQLException {
+        // hstore is transferred in binary format if its OID was added to binaryTransferEnable driver property
+        if (((PostgreDataSource) session.getDataSource()).isBinaryTransferEnabled() &&
+            PostgreBinaryDecoder.isBinaryColumn(resultSet, index))
+        {
+            final byte[] data = resultSet.getBytes(index);
+            if (data == null) {
+                return null;
+            }
+            try {
+                return formatHStore(PostgreBinaryDecoder.decodeHStore(data));
+            } catch (DBCException e) {
+                throw new SQLException("Error decoding hstore value", e);
+            }
+        }
         return resultSet.getString(index);
     }
 
@@ -47,4 +65,37 @@ public class PostgreHStoreValueHandler extends JDBCStringValueHandler {
             statement.setObject(paramIndex, value.toString(), Types.OTHER);
         }
     }
+
+    /**
+     * Makes hstore text representation, e.g. "a"=>"1", "b"=>NULL
+     */
+    @NotNull
+    static String formatHStore(@NotNull Map<String, String> pairs) {
+        final StringBuilder str = new StringBuilder(pairs.size() * 16);
+        for (Map.Entry<String, String> pair : pairs.entrySet()) {
+            if (str.length() > 0) {
+                str.append(", ");
+            }
+            appendQuoted(str, pair.getKey());
+            str.append("=>");
+            if (pair.getValue() == null) {
+                str.append("NULL");
+            } else {
+                appendQuoted(str, pair.getValue());
+            }
+        }
+        return str.toString();
+    }
+
+    private static void appendQuoted(@NotNull StringBuilder str, @NotNull String value) {
+        str.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                str.append('\\');
+            }
+            str.append(c);
+        }
+        str.append('"');
+    }
 }
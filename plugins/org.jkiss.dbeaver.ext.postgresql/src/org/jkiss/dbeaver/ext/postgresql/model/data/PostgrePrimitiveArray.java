@@ -0,0 +1,207 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBConstants;
+import org.jkiss.dbeaver.model.data.DBDValueCloneable;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.impl.data.AbstractDatabaseList;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataType;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+
+/**
+ * Array of primitive elements decoded from binary transfer format.
+ *
+ * Elements are kept in a primitive array (e.g. int[]) and boxed on access.
+ * Boxed contents are created on the first modification.
+ */
+public class PostgrePrimitiveArray extends AbstractDatabaseList implements DBDValueCloneable {
+
+    private final DBSDataType type;
+    private final DBDValueHandler valueHandler;
+    // Primitive array (boolean[], short[], int[], long[], float[] or double[]). Null after modification
+    @Nullable
+    private Object values;
+    @Nullable
+    private BitSet nulls;
+    @Nullable
+    private Object[] contents;
+    private boolean modified;
+
+    public PostgrePrimitiveArray(@NotNull DBSDataType type, @NotNull DBDValueHandler valueHandler, @NotNull Object values, @NotNull BitSet nulls) {
+        this.type = type;
+        this.valueHandler = valueHandler;
+        this.values = values;
+        this.nulls = nulls;
+    }
+
+    private PostgrePrimitiveArray(@NotNull PostgrePrimitiveArray source) {
+        this.type = source.type;
+        this.valueHandler = source.valueHandler;
+        if (source.contents != null) {
+            this.contents = source.contents.clone();
+        } else if (source.values != null && source.nulls != null) {
+            final int length = Array.getLength(source.values);
+            this.values = Array.newInstance(source.values.getClass().getComponentType(), length);
+            System.arraycopy(source.values, 0, this.values, 0, length);
+            this.nulls = (BitSet) source.nulls.clone();
+        }
+        this.modified = source.modified;
+    }
+
+    @NotNull
+    @Override
+    public DBSDataType getComponentType() {
+        return type;
+    }
+
+    @NotNull
+    @Override
+    public DBDValueHandler getComponentValueHandler() {
+        return valueHandler;
+    }
+
+    /**
+     * Returns primitive array of elements or null if array was modified or released.
+     * Elements of null items have default values.
+     */
+    @Nullable
+    public Object getPrimitiveValues() {
+        return values;
+    }
+
+    @Override
+    public DBDValueCloneable cloneValue(DBRProgressMonitor monitor) {
+        return new PostgrePrimitiveArray(this);
+    }
+
+    @Override
+    public Object getRawValue() {
+        return contents != null ? contents : boxValues();
+    }
+
+    @Override
+    public boolean isNull() {
+        return values == null && contents == null;
+    }
+
+    @Override
+    public boolean isModified() {
+        return modified;
+    }
+
+    @Override
+    public void release() {
+        values = null;
+        nulls = null;
+        contents = null;
+    }
+
+    @Override
+    public int getItemCount() {
+        if (contents != null) {
+            return contents.length;
+        }
+        return values == null ? 0 : Array.getLength(values);
+    }
+
+    @Override
+    public Object getItem(int index) {
+        if (contents != null) {
+            return contents[index];
+        }
+        if (values == null || nulls == null) {
+            throw new IndexOutOfBoundsException("Array is empty");
+        }
+        if (nulls.get(index)) {
+            return null;
+        }
+        if (values instanceof int[]) {
+            return ((int[]) values)[index];
+        } else if (values instanceof long[]) {
+            return ((long[]) values)[index];
+        } else if (values instanceof double[]) {
+            return ((double[]) values)[index];
+        } else if (values instanceof float[]) {
+            return ((float[]) values)[index];
+        } else if (values instanceof short[]) {
+            return ((short[]) values)[index];
+        } else {
+            return ((boolean[]) values)[index];
+        }
+    }
+
+    @Override
+    public void setItem(int index, Object value) {
+        final Object[] boxed = getContents();
+        if (boxed != null) {
+            boxed[index] = value;
+            modified = true;
+        }
+    }
+
+    @Override
+    public void setContents(Object[] contents) {
+        this.contents = contents;
+        this.values = null;
+        this.nulls = null;
+        this.modified = true;
+    }
+
+    @Nullable
+    private Object[] getContents() {
+        if (contents == null && values != null) {
+            contents = boxValues();
+            values = null;
+            nulls = null;
+        }
+        return contents;
+    }
+
+    @Nullable
+    private Object[] boxValues() {
+        if (values == null) {
+            return null;
+        }
+        final Object[] boxed = new Object[getItemCount()];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = getItem(i);
+        }
+        return boxed;
+    }
+
+    public String toString() {
+        if (isNull()) {
+            return DBConstants.NULL_VALUE_LABEL;
+        }
+        final StringBuilder str = new StringBuilder(getItemCount() * 8);
+        str.append('{');
+        for (int i = 0; i < getItemCount(); i++) {
+            if (i > 0) str.append(','); //$NON-NLS-1$
+            final Object item = getItem(i);
+            str.append(item == null ? "NULL" : item.toString()); //$NON-NLS-1$
+        }
+        str.append('}');
+        return str.toString();
+    }
+
+}
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCStructImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCComposite;
@@ -55,6 +56,26 @@ public class PostgreStructValueHandler extends JDBCStructValueHandler {
     private static final Log log = Log.getLog(PostgreStructValueHandler.class);
     public static final PostgreStructValueHandler INSTANCE = new PostgreStructValueHandler();
 
+    @Override
+    protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws DBCException, SQLException {
+        // Composite type is transferred in binary format if its OID was added to binaryTransferEnable driver property
+        if (((PostgreDataSource) session.getDataSource()).isBinaryTransferEnabled() &&
+            PostgreBinaryDecoder.isBinaryColumn(resultSet, index))
+        {
+            final byte[] data = resultSet.getBytes(index);
+            if (data == null) {
+                return getValueFromObject(session, type, null, false, false);
+            }
+            final Object[] values = PostgreBinaryDecoder.decodeComposite(data);
+            final PostgreDataType structType = values == null ? null : resolveStructType(session, type);
+            if (structType != null) {
+                return new JDBCCompositeStatic(session, structType, new JDBCStructImpl(structType.getTypeName(), values, null));
+            }
+            // Fields of some types can't be decoded, let driver read the value
+        }
+        return super.fetchColumnValue(session, resultSet, type, index);
+    }
+
     @Override
     protected void bindParameter(
         JDBCSession session,
@@ -83,15 +104,10 @@ public class PostgreStructValueHandler extends JDBCStructValueHandler {
     @Override
     public Object getValueFromObject(@NotNull DBCSession session, @NotNull DBSTypedObject type, Object object, boolean copy, boolean validateValue) throws DBCException
     {
-        PostgreDataType structType = PostgreUtils.findDataType(session, (PostgreDataSource)session.getDataSource(), type);
+        PostgreDataType structType = resolveStructType(session, type);
         if (structType == null) {
-            log.debug("Can't resolve struct type '" + type.getTypeName() + "'");
             return object;
         }
-        if (structType.getTypeType() == PostgreTypeType.d) {
-            // Domains are just wrappers around underlying type.
-            structType = structType.getBaseType(session.getProgressMonitor());
-        }
         try {
             if (object == null) {
                 return new JDBCCompositeStatic(session, structType, new JDBCStructImpl(structType.getTypeName(), null, ""));
@@ -111,6 +127,20 @@ public class PostgreStructValueHandler extends JDBCStructValueHandler {
         }
     }
 
+    @Nullable
+    private static PostgreDataType resolveStructType(@NotNull DBCSession session, @NotNull DBSTypedObject type) throws DBCException {
+        PostgreDataType structType = PostgreUtils.findDataType(session, (PostgreDataSource)session.getDataSource(), type);
+        if (structType == null) {
+            log.debug("Can't resolve struct type '" + type.getTypeName() + "'");
+            return null;
+        }
+        if (structType.getTypeType() == PostgreTypeType.d) {
+            // Domains are just wrappers around underlying type.
+            structType = structType.getBaseType(session.getProgressMonitor());
+        }
+        return structType;
+    }
+
     @NotNull
     @Override
     public synchronized String getValueDisplayString(@NotNull DBSTypedObject column, Object value, @NotNull DBDDisplayFormat format) {
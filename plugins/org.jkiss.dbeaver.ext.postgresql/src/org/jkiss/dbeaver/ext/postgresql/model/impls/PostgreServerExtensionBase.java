@@ -451,6 +451,11 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
         return true;
     }
 
+    @Override
+    public boolean supportsDatabaseCatalogLoad() {
+        return true;
+    }
+
     @Override
     public boolean supportsHasOidsColumn() {
         return true;
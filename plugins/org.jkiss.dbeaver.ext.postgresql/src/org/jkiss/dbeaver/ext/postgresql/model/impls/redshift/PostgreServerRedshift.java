@@ -153,6 +153,12 @@ public class PostgreServerRedshift extends PostgreServerExtensionBase implements
         return false;
     }
 
+    @Override
+    public boolean supportsDatabaseCatalogLoad() {
+        // Redshift schemas use own catalog queries
+        return false;
+    }
+
     @Override
     public boolean supportsTriggers() {
         return false;
@@ -0,0 +1,361 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Bulk loader based on one reused INSERT statement.
+ *
+ * Rows are inserted in big explicit transactions. Journal mode and synchronous level may be relaxed for the load
+ * and restored afterwards (both are per-connection settings, WAL mode is kept as is). It is off by default:
+ * a crash during the load with relaxed settings may corrupt the whole database file.
+ * Secondary non-unique indexes may be dropped before the load and recreated after it.
+ * Transaction size, journal settings and index deferring are configured with driver parameters.
+ */
+public class SQLiteBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLiteBulkLoader.class);
+
+    // Driver parameters of bulk loader
+    public static final String PARAM_BULK_LOAD_TRANSACTION_SIZE = "bulk-load-transaction-size";
+    public static final String PARAM_BULK_LOAD_FAST_JOURNAL = "bulk-load-fast-journal";
+    public static final String PARAM_BULK_LOAD_DEFER_INDEXES = "bulk-load-defer-indexes";
+
+    public static final int BULK_LOAD_DEFAULT_TRANSACTION_SIZE = 100000;
+    // Rows passed to the driver in one batch call
+    private static final int BULK_LOAD_BATCH_SIZE = 1000;
+
+    private final SQLiteDataSource dataSource;
+    private DBSEntity table;
+    private JDBCPreparedStatement insertStatement;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler[] valueHandlers;
+
+    // Original connection. Used to restore settings in close(), when session is already closed
+    private Connection connection;
+    private boolean originalAutoCommit;
+    @Nullable
+    private String originalJournalMode;
+    @Nullable
+    private String originalSynchronous;
+    // Definitions of dropped indexes by name
+    private final Map<String, String> droppedIndexes = new LinkedHashMap<>();
+
+    private int transactionSize = BULK_LOAD_DEFAULT_TRANSACTION_SIZE;
+    private int pendingRows;
+    private long uncommittedRows;
+    private long insertedRows;
+    private boolean finished;
+
+    public SQLiteBulkLoader(SQLiteDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        if (!(dataContainer instanceof DBSEntity)) {
+            throw new DBCException("Bulk load is not supported for " + dataContainer.getName());
+        }
+        this.table = (DBSEntity) dataContainer;
+        this.attributes = attributes;
+        this.valueHandlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+
+        DBPDriver driver = dataSource.getContainer().getDriver();
+        transactionSize = CommonUtils.toInt(driver.getDriverParameter(PARAM_BULK_LOAD_TRANSACTION_SIZE), BULK_LOAD_DEFAULT_TRANSACTION_SIZE);
+        if (transactionSize <= 0) {
+            transactionSize = BULK_LOAD_DEFAULT_TRANSACTION_SIZE;
+        }
+        // Commit size of transfer settings is usually much smaller than SQLite can handle efficiently
+        transactionSize = Math.max(transactionSize, batchSize);
+
+        try {
+            connection = ((JDBCSession) session).getOriginal();
+            originalAutoCommit = connection.getAutoCommit();
+            if (!originalAutoCommit) {
+                if (QMUtils.isTransactionActive(session.getExecutionContext())) {
+                    // Loader commits its transactions, so it would commit user changes as well
+                    throw new DBCException("Bulk load can't be started while connection has uncommitted changes. Commit or rollback them first.");
+                }
+                // Journal mode can't be changed inside transaction
+                connection.commit();
+            }
+            if (CommonUtils.getBoolean(driver.getDriverParameter(PARAM_BULK_LOAD_FAST_JOURNAL), false)) {
+                originalSynchronous = readPragma("synchronous");
+                executeStatement("PRAGMA synchronous = OFF");
+                String journalMode = readPragma("journal_mode");
+                if (journalMode != null && !journalMode.equalsIgnoreCase("wal") && !journalMode.equalsIgnoreCase("memory")) {
+                    originalJournalMode = journalMode;
+                    executeStatement("PRAGMA journal_mode = MEMORY");
+                }
+            }
+            connection.setAutoCommit(false);
+            if (CommonUtils.getBoolean(driver.getDriverParameter(PARAM_BULK_LOAD_DEFER_INDEXES), false)) {
+                dropIndexes(session);
+            }
+            insertStatement = ((JDBCSession) session).prepareStatement(makeInsertQuery());
+        } catch (SQLException e) {
+            close();
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        return this;
+    }
+
+    private String makeInsertQuery() {
+        StringBuilder query = new StringBuilder("INSERT INTO ");
+        query.append(DBUtils.getObjectFullName(table, DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < attributes.length; i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append(DBUtils.getQuotedIdentifier(dataSource, attributes[i].getName()));
+        }
+        query.append(") VALUES (");
+        for (int i = 0; i < attributes.length; i++) {
+            query.append(i > 0 ? ", ?" : "?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    private void dropIndexes(@NotNull DBCSession session) throws SQLException {
+        // Unique indexes must reject duplicates during the load, so they are kept
+        final Set<String> uniqueIndexes = new HashSet<>();
+        try (Statement dbStat = connection.createStatement()) {
+            try (ResultSet dbResult = dbStat.executeQuery(
+                "PRAGMA index_list(" + DBUtils.getQuotedIdentifier(dataSource, table.getName()) + ")"))
+            {
+                while (dbResult.next()) {
+                    if (dbResult.getInt("unique") != 0) {
+                        uniqueIndexes.add(dbResult.getString("name"));
+                    }
+                }
+            }
+        }
+        // Automatic indexes (primary keys and unique constraints) have no SQL and can't be dropped
+        try (PreparedStatement dbStat = connection.prepareStatement(
+            "SELECT name, sql FROM sqlite_master WHERE type='index' AND tbl_name=? AND sql IS NOT NULL"))
+        {
+            dbStat.setString(1, table.getName());
+            try (ResultSet dbResult = dbStat.executeQuery()) {
+                while (dbResult.next()) {
+                    final String indexName = dbResult.getString(1);
+                    if (!uniqueIndexes.contains(indexName)) {
+                        droppedIndexes.put(indexName, dbResult.getString(2));
+                    }
+                }
+            }
+        }
+        if (droppedIndexes.isEmpty()) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Drop " + droppedIndexes.size() + " index(es) of " + table.getName());
+        for (String indexName : droppedIndexes.keySet()) {
+            executeStatement("DROP INDEX " + DBUtils.getQuotedIdentifier(dataSource, indexName));
+        }
+        connection.commit();
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < attributes.length; i++) {
+            valueHandlers[i].bindValueObject(session, insertStatement, attributes[i], i, attributeValues[i]);
+        }
+        try {
+            insertStatement.addBatch();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        pendingRows++;
+        if (pendingRows >= BULK_LOAD_BATCH_SIZE) {
+            executeBatch(session);
+        }
+    }
+
+    private void executeBatch(@NotNull DBCSession session) throws DBCException {
+        if (pendingRows == 0) {
+            return;
+        }
+        try {
+            insertStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        insertedRows += pendingRows;
+        uncommittedRows += pendingRows;
+        pendingRows = 0;
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+        if (uncommittedRows >= transactionSize) {
+            commit(session);
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+        commit(session);
+        try {
+            restoreIndexes(session);
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        finished = true;
+        restoreSettings();
+        log.debug("Bulk load into " + DBUtils.getObjectFullName(table, DBPEvaluationContext.UI) + " finished (" + insertedRows + " rows)");
+    }
+
+    private void commit(@NotNull DBCSession session) throws DBCException {
+        session.getProgressMonitor().subTask("Commit bulk load (" + insertedRows + ")");
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        uncommittedRows = 0;
+    }
+
+    /**
+     * Recreates each dropped index independently, so one failed index doesn't prevent creation of others.
+     * Throws exception with errors of all failed indexes.
+     */
+    private void restoreIndexes(@Nullable DBCSession session) throws SQLException {
+        if (droppedIndexes.isEmpty()) {
+            return;
+        }
+        if (session != null) {
+            session.getProgressMonitor().subTask("Create " + droppedIndexes.size() + " index(es) of " + table.getName());
+        }
+        final List<SQLException> errors = new ArrayList<>();
+        for (Iterator<Map.Entry<String, String>> iter = droppedIndexes.entrySet().iterator(); iter.hasNext(); ) {
+            final Map.Entry<String, String> index = iter.next();
+            try {
+                executeStatement(index.getValue());
+                iter.remove();
+            } catch (SQLException e) {
+                errors.add(new SQLException("Error creating index " + index.getKey() + ": " + e.getMessage(), e));
+            }
+        }
+        // Failed CREATE INDEX doesn't abort the transaction, created indexes are committed anyway
+        connection.commit();
+        if (!errors.isEmpty()) {
+            final SQLException error = new SQLException(
+                "Index(es) of " + table.getName() + " dropped by bulk load can't be recreated: " + droppedIndexes.keySet());
+            for (SQLException e : errors) {
+                error.addSuppressed(e);
+            }
+            droppedIndexes.clear();
+            throw error;
+        }
+    }
+
+    private void restoreSettings() {
+        try {
+            if (connection.getAutoCommit() != originalAutoCommit) {
+                connection.setAutoCommit(originalAutoCommit);
+            }
+            if (originalJournalMode != null) {
+                executeStatement("PRAGMA journal_mode = " + originalJournalMode);
+                originalJournalMode = null;
+            }
+            if (originalSynchronous != null) {
+                executeStatement("PRAGMA synchronous = " + originalSynchronous);
+                originalSynchronous = null;
+            }
+        } catch (SQLException e) {
+            log.warn("Error restoring SQLite connection settings after bulk load", e);
+        }
+    }
+
+    @Nullable
+    private String readPragma(@NotNull String name) throws SQLException {
+        try (Statement dbStat = connection.createStatement()) {
+            try (ResultSet dbResult = dbStat.executeQuery("PRAGMA " + name)) {
+                return dbResult.next() ? dbResult.getString(1) : null;
+            }
+        }
+    }
+
+    private void executeStatement(@NotNull String sql) throws SQLException {
+        try (Statement dbStat = connection.createStatement()) {
+            dbStat.execute(sql);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (insertStatement != null) {
+            insertStatement.close();
+            insertStatement = null;
+        }
+        if (!finished && connection != null) {
+            // Load failed or was canceled. Indexes must be recreated anyway
+            try {
+                if (!connection.isClosed()) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                    }
+                    try {
+                        restoreIndexes(null);
+                    } finally {
+                        restoreSettings();
+                    }
+                } else if (!droppedIndexes.isEmpty()) {
+                    log.error("Indexes of " + table.getName() + " were dropped by bulk load and can't be recreated: " + droppedIndexes.keySet());
+                }
+            } catch (SQLException e) {
+                log.error("Error recreating indexes of " + table.getName() + " after bulk load", e);
+            }
+            finished = true;
+        }
+        connection = null;
+    }
+}
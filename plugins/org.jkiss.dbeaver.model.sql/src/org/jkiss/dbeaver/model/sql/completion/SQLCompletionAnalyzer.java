@@ -70,6 +70,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
     private static final String MATCH_ANY_PATTERN = "%";
     public static final int MAX_ATTRIBUTE_VALUE_PROPOSALS = 50;
     public static final int MAX_STRUCT_PROPOSALS = 100;
+    public static final int MAX_CHILD_PROPOSALS = 1000;
     private final SQLCompletionRequest request;
     private DBRProgressMonitor monitor;
 
@@ -420,8 +421,12 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
     private void makeProposalFromHippie(@NotNull SQLWordPartDetector wordPartDetector) {
         HippieProposalProcessor hippieProposalProcessor = new HippieProposalProcessor(wordPartDetector);
         String[] displayNames = hippieProposalProcessor.computeCompletionStrings(request.getDocument(), request.getDocumentOffset() - 1);
+        Set<String> proposalNames = new HashSet<>();
+        for (SQLCompletionProposalBase proposal : proposals) {
+            proposalNames.add(proposal.getDisplayString());
+        }
         for (String word : displayNames) {
-            if (!hasProposal(proposals, word)) {
+            if (proposalNames.add(word)) {
                 proposals.add(request.getContext().createProposal(
                     request,
                     word,
@@ -583,43 +588,30 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
 
         // Remove duplications
         final Set<String> proposalMap = new HashSet<>(proposals.size());
-        for (int i = 0; i < proposals.size(); ) {
-            SQLCompletionProposalBase proposal = proposals.get(i);
-            if (proposalMap.contains(proposal.getDisplayString())) {
-                proposals.remove(i);
-                continue;
-            }
-            proposalMap.add(proposal.getDisplayString());
-            i++;
-        }
+        proposals.removeIf(proposal -> !proposalMap.add(proposal.getDisplayString()));
 
         DBSInstance defaultInstance = dataSource == null ? null : dataSource.getDefaultInstance();
         DBCExecutionContext executionContext = request.getContext().getExecutionContext();
         DBSObject selectedObject = defaultInstance == null || executionContext == null ? null : DBUtils.getActiveInstanceObject(executionContext);
         boolean hideDups = request.getContext().isHideDuplicates() && selectedObject != null;
         if (hideDups) {
-            for (int i = 0; i < proposals.size(); i++) {
-                SQLCompletionProposalBase proposal = proposals.get(i);
-                for (int j = 0; j < proposals.size(); ) {
-                    SQLCompletionProposalBase proposal2 = proposals.get(j);
-                    if (i != j && proposal.hasStructObject() && proposal2.hasStructObject() &&
-                        CommonUtils.equalObjects(proposal.getObject().getName(), proposal2.getObject().getName()) &&
-                        proposal.getObjectContainer() == selectedObject) {
-                        proposals.remove(j);
-                    } else {
-                        j++;
-                    }
+            // Objects from the active container hide objects with the same name from other containers.
+            // The first active container proposal is kept for each name.
+            final Map<String, SQLCompletionProposalBase> activeProposals = new HashMap<>();
+            for (SQLCompletionProposalBase proposal : proposals) {
+                if (proposal.hasStructObject() && proposal.getObjectContainer() == selectedObject) {
+                    activeProposals.putIfAbsent(proposal.getObject().getName(), proposal);
                 }
             }
-        }
-
-        if (hideDups) {
-            // Remove duplicates from non-active schema
-
-            if (selectedObject instanceof DBSObjectContainer) {
-
+            if (!activeProposals.isEmpty()) {
+                proposals.removeIf(proposal -> {
+                    if (!proposal.hasStructObject()) {
+                        return false;
+                    }
+                    SQLCompletionProposalBase activeProposal = activeProposals.get(proposal.getObject().getName());
+                    return activeProposal != null && activeProposal != proposal;
+                });
             }
-
         }
 
         // Apply navigator object filters
@@ -637,18 +629,22 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 List<SQLCompletionProposalBase> list = typeMap.computeIfAbsent(objectType, k -> new ArrayList<>());
                 list.add(proposal);
             }
+            final Set<SQLCompletionProposalBase> filteredProposals = Collections.newSetFromMap(new IdentityHashMap<>());
             for (Map.Entry<DBSObject, Map<Class<?>, List<SQLCompletionProposalBase>>> entry : containerMap.entrySet()) {
                 for (Map.Entry<Class<?>, List<SQLCompletionProposalBase>> typeEntry : entry.getValue().entrySet()) {
                     DBSObjectFilter filter = dsContainer.getObjectFilter(typeEntry.getKey(), entry.getKey(), true);
                     if (filter != null && filter.isEnabled()) {
                         for (SQLCompletionProposalBase proposal : typeEntry.getValue()) {
                             if (!filter.matches(proposal.getObject().getName())) {
-                                proposals.remove(proposal);
+                                filteredProposals.add(proposal);
                             }
                         }
                     }
                 }
             }
+            if (!filteredProposals.isEmpty()) {
+                proposals.removeIf(filteredProposals::contains);
+            }
         }
     }
 
@@ -835,7 +831,22 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     if (childObject == null && !request.isSimpleMode()) {
                         // Search using structure assistant
                         DBSStructureAssistant structureAssistant = DBUtils.getAdapter(DBSStructureAssistant.class, sc);
-                        if (structureAssistant != null) {
+                        if (structureAssistant != null && sc instanceof DBSObject) {
+                            // Cached objects first
+                            String name = request.getWordDetector().removeQuotes(token);
+                            boolean caseSensitive = request.getWordDetector().isQuoted(token);
+                            List<DBSObject> indexedObjects = findIndexedObjects(
+                                (DBSObject) sc, structureAssistant.getAutoCompleteObjectTypes(), name, false, caseSensitive, Integer.MAX_VALUE);
+                            if (indexedObjects != null) {
+                                for (DBSObject object : indexedObjects) {
+                                    if (caseSensitive ? object.getName().equals(name) : object.getName().equalsIgnoreCase(name)) {
+                                        childObject = object;
+                                        break;
+                                    }
+                                }
+                            }
+                        }
+                        if (childObject == null && structureAssistant != null) {
                             DBSStructureAssistant.ObjectsSearchParams params = new DBSStructureAssistant.ObjectsSearchParams(
                                     structureAssistant.getAutoCompleteObjectTypes(),
                                     request.getWordDetector().removeQuotes(token)
@@ -1103,6 +1114,19 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         } else if (parent instanceof DBSEntity) {
             children = ((DBSEntity)parent).getAttributes(monitor);
         }
+        if (children != null && !children.isEmpty() && dataSource != null && parent instanceof DBSObject &&
+            !request.getContext().isSearchInsideNames() &&
+            !CommonUtils.isEmpty(startPart) && !ALL_COLUMNS_PATTERN.equals(startPart))
+        {
+            // Use identifier index instead of scanning all children.
+            // Fuzzy search (inside names) matches and scores every child, so it doesn't use the index.
+            SQLIdentifierIndex identifierIndex = SQLIdentifierIndex.getIndex(dataSource);
+            List<DBSObject> indexedChildren = identifierIndex == null ? null :
+                identifierIndex.findObjects((DBSObject) parent, children, startPart);
+            if (indexedChildren != null) {
+                children = indexedChildren;
+            }
+        }
         if (children != null && !children.isEmpty()) {
             //boolean isJoin = SQLConstants.KEYWORD_JOIN.equals(request.wordDetector.getPrevKeyWord());
 
@@ -1161,17 +1185,18 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     DBPKeywordType.OTHER,
                     "All objects"));
             } else if (!matchedObjects.isEmpty()) {
+                Comparator<DBSObject> comparator = null;
                 if (startPart == null || scoredMatches.isEmpty()) {
                     if (dataSource != null && request.getContext().isSortAlphabetically()) {
-                        matchedObjects.sort((o1, o2) -> {
+                        comparator = (o1, o2) -> {
                             if (o1 instanceof DBSAttributeBase && o2 instanceof DBSAttributeBase) {
                                 return DBUtils.orderComparator().compare((DBSAttributeBase) o1, (DBSAttributeBase) o2);
                             }
                             return DBUtils.nameComparatorIgnoreCase().compare(o1, o2);
-                        });
+                        };
                     }
                 } else {
-                    matchedObjects.sort((o1, o2) -> {
+                    comparator = (o1, o2) -> {
                         int score1 = scoredMatches.get(o1.getName());
                         int score2 = scoredMatches.get(o2.getName());
                         if (score1 == score2) {
@@ -1181,8 +1206,10 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                             return DBUtils.nameComparatorIgnoreCase().compare(o1, o2);
                         }
                         return score2 - score1;
-                    });
+                    };
                 }
+                // Only top proposals are materialized - huge containers would produce unusable proposal lists anyway
+                matchedObjects = selectTopObjects(matchedObjects, comparator, MAX_CHILD_PROPOSALS);
                 List<SQLCompletionProposalBase> childProposals = new ArrayList<>(matchedObjects.size());
                 for (DBSObject child : matchedObjects) {
                     SQLCompletionProposalBase proposal = makeProposalsFromObject(child, !(parent instanceof DBPDataSource), params);
@@ -1203,6 +1230,34 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    /**
+     * Returns first maxCount objects in comparator order (or in original order if comparator is null).
+     * Uses bounded heap so the whole list is never sorted.
+     */
+    @NotNull
+    private static List<DBSObject> selectTopObjects(@NotNull List<DBSObject> objects, @Nullable Comparator<DBSObject> comparator, int maxCount) {
+        if (comparator == null) {
+            return objects.size() <= maxCount ? objects : new ArrayList<>(objects.subList(0, maxCount));
+        }
+        if (objects.size() <= maxCount) {
+            objects.sort(comparator);
+            return objects;
+        }
+        // Heap head is the worst of selected objects
+        PriorityQueue<DBSObject> topObjects = new PriorityQueue<>(maxCount + 1, comparator.reversed());
+        for (DBSObject object : objects) {
+            if (topObjects.size() < maxCount) {
+                topObjects.add(object);
+            } else if (comparator.compare(object, topObjects.peek()) < 0) {
+                topObjects.poll();
+                topObjects.add(object);
+            }
+        }
+        List<DBSObject> result = new ArrayList<>(topObjects);
+        result.sort(comparator);
+        return result;
+    }
+
     private void makeProposalsFromAssistant(
         DBSStructureAssistant assistant,
         @Nullable DBSObjectContainer rootSC,
@@ -1210,8 +1265,32 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         String objectName,
         @NotNull Map<String, Object> params) throws DBException
     {
+        if (objectTypes == null) {
+            objectTypes = assistant.getAutoCompleteObjectTypes();
+        }
+        if (!request.getWordDetector().containsSeparator(objectName) || rootSC != null) {
+            // Cached objects first, structure assistant may query the database
+            DBSObject scope = rootSC instanceof DBSObject && !request.getContext().isSearchGlobally() ? (DBSObject) rootSC : null;
+            if (scope == null) {
+                DBSObjectContainer rootContainer = DBUtils.getAdapter(DBSObjectContainer.class, request.getContext().getDataSource());
+                scope = rootContainer instanceof DBSObject ? (DBSObject) rootContainer : null;
+            }
+            List<DBSObject> indexedObjects = scope == null ? null : findIndexedObjects(
+                scope,
+                objectTypes,
+                getSearchObjectName(objectName, rootSC),
+                request.getContext().isSearchInsideNames(),
+                request.getWordDetector().isQuoted(objectName),
+                MAX_STRUCT_PROPOSALS);
+            if (indexedObjects != null) {
+                for (DBSObject object : indexedObjects) {
+                    proposals.add(makeProposalsFromObject(object, !(rootSC instanceof DBPDataSource), params));
+                }
+                return;
+            }
+        }
         DBSStructureAssistant.ObjectsSearchParams assistantParams = new DBSStructureAssistant.ObjectsSearchParams(
-                objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes,
+                objectTypes,
                 makeObjectNameMask(objectName, rootSC)
         );
         assistantParams.setParentObject(rootSC);
@@ -1229,7 +1308,48 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
+    /**
+     * Finds objects in the identifier index without reading database metadata.
+     * Returns null if the index can't answer: the scope is not loaded yet or nothing matched
+     * (the index contains container children only, while assistant may find other objects, e.g. procedures).
+     */
+    @Nullable
+    private List<DBSObject> findIndexedObjects(
+        @NotNull DBSObject scope,
+        @Nullable DBSObjectType[] objectTypes,
+        @NotNull String name,
+        boolean fuzzy,
+        boolean caseSensitive,
+        int maxResults)
+    {
+        DBPDataSource dataSource = request.getContext().getDataSource();
+        SQLIdentifierIndex identifierIndex = dataSource == null ? null : SQLIdentifierIndex.getIndex(dataSource);
+        if (identifierIndex == null) {
+            return null;
+        }
+        List<DBSObject> objects = identifierIndex.findScopeObjects(monitor, scope, name, fuzzy, objectTypes, maxResults);
+        if (objects != null && caseSensitive && !fuzzy) {
+            objects.removeIf(object -> !object.getName().startsWith(name));
+        }
+        return CommonUtils.isEmpty(objects) ? null : objects;
+    }
+
     private String makeObjectNameMask(String objectName, @Nullable DBSObjectContainer rootSC) {
+        objectName = getSearchObjectName(objectName, rootSC);
+        if (request.getContext().isSearchInsideNames()) {
+            if (CommonUtils.isEmpty(objectName)) {
+                return MATCH_ANY_PATTERN;
+            }
+            return MATCH_ANY_PATTERN + objectName + MATCH_ANY_PATTERN;
+        } else {
+            return objectName + MATCH_ANY_PATTERN;
+        }
+    }
+
+    /**
+     * Object name without quotes. With root container only the last part of the object path is used.
+     */
+    private String getSearchObjectName(String objectName, @Nullable DBSObjectContainer rootSC) {
         SQLWordPartDetector wordDetector = request.getWordDetector();
         if (wordDetector.containsSeparator(objectName)) {
             String[] strings = wordDetector.splitIdentifier(objectName);
@@ -1247,14 +1367,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         } else {
             objectName = wordDetector.removeQuotes(objectName);
         }
-        if (request.getContext().isSearchInsideNames()) {
-            if (CommonUtils.isEmpty(objectName)) {
-                return MATCH_ANY_PATTERN;
-            }
-            return MATCH_ANY_PATTERN + objectName + MATCH_ANY_PATTERN;
-        } else {
-            return objectName + MATCH_ANY_PATTERN;
-        }
+        return objectName;
     }
 
     private SQLCompletionProposalBase makeProposalsFromObject(DBSObject object, boolean useShortName, Map<String, Object> params)
@@ -0,0 +1,516 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.navigator.*;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.util.*;
+
+/**
+ * Identifier index of data source objects used by SQL completion.
+ *
+ * Keeps sorted name keys for each container, so prefix lookups do not scan all container children.
+ * Besides full names the index contains word starts ("line_item" for "order_line_item") and
+ * camel-hump initials ("oli" for "OrderLineItem") which are used for fuzzy lookup.
+ * Completion of container children uses name prefixes only (fuzzy search scores all children),
+ * while structure assistant lookups are answered from the index when the whole search scope is indexed.
+ *
+ * Container indexes are built from cached children: in background for loaded navigator nodes
+ * and on first lookup for other containers. Navigator changes drop indexes of changed containers,
+ * disconnect drops the whole data source index.
+ */
+public class SQLIdentifierIndex implements INavigatorListener, DBPEventListener {
+
+    private static final Log log = Log.getLog(SQLIdentifierIndex.class);
+
+    private static final byte KEY_NAME = 0;
+    private static final byte KEY_WORD = 1;
+    private static final byte KEY_INITIALS = 2;
+
+    private static final Map<DBPDataSourceContainer, SQLIdentifierIndex> indexes = new HashMap<>();
+
+    private static class IndexKey implements Comparable<IndexKey> {
+        private final String key;
+        private final byte kind;
+        private final DBSObject object;
+        // Object position in container children
+        private final int position;
+
+        IndexKey(String key, byte kind, DBSObject object, int position) {
+            this.key = key;
+            this.kind = kind;
+            this.object = object;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(@NotNull IndexKey o) {
+            return key.compareTo(o.key);
+        }
+    }
+
+    /**
+     * Sorted name keys of container children
+     */
+    public static class ContainerIndex {
+        // Used to detect children changes which were not reported by navigator
+        private final int childCount;
+        private final IndexKey[] keys;
+        // Nested containers (but not entities) which are searched by structure assistant lookups
+        private final List<DBSObject> containers;
+
+        private ContainerIndex(int childCount, IndexKey[] keys, List<DBSObject> containers) {
+            this.childCount = childCount;
+            this.keys = keys;
+            this.containers = containers;
+        }
+
+        /**
+         * Builds index of the specified children.
+         * Returns null if children can't be indexed (virtual objects are expanded by completion analyzer).
+         */
+        @Nullable
+        public static ContainerIndex build(@NotNull Collection<? extends DBSObject> children) {
+            List<IndexKey> keys = new ArrayList<>(children.size() * 2);
+            List<DBSObject> containers = new ArrayList<>();
+            int position = 0;
+            for (DBSObject child : children) {
+                position++;
+                if (DBUtils.isVirtualObject(child)) {
+                    return null;
+                }
+                String name = child.getName();
+                if (name == null || DBUtils.isHiddenObject(child)) {
+                    continue;
+                }
+                addObjectKeys(keys, name, child, position);
+                if (child instanceof DBSObjectContainer && !(child instanceof DBSEntity)) {
+                    containers.add(child);
+                }
+            }
+            IndexKey[] keyArray = keys.toArray(new IndexKey[0]);
+            Arrays.sort(keyArray);
+            return new ContainerIndex(children.size(), keyArray, containers);
+        }
+
+        /**
+         * Finds objects whose names start with the specified prefix (case insensitive).
+         * Objects are returned in the original children order.
+         */
+        @NotNull
+        public List<DBSObject> findObjects(@NotNull String prefix) {
+            return findObjects(prefix, false);
+        }
+
+        /**
+         * Finds objects whose names start with the specified prefix (case insensitive).
+         * In fuzzy mode word starts and camel-hump initials are matched as well.
+         * Objects are returned in the original children order.
+         */
+        @NotNull
+        public List<DBSObject> findObjects(@NotNull String prefix, boolean fuzzy) {
+            String keyPrefix = prefix.toLowerCase(Locale.ENGLISH);
+            Map<DBSObject, IndexKey> matches = new IdentityHashMap<>();
+            for (int i = findFirstKey(keys, keyPrefix); i < keys.length && keys[i].key.startsWith(keyPrefix); i++) {
+                if (keys[i].kind == KEY_NAME || fuzzy) {
+                    matches.putIfAbsent(keys[i].object, keys[i]);
+                }
+            }
+            List<IndexKey> matchedKeys = new ArrayList<>(matches.values());
+            matchedKeys.sort(Comparator.comparingInt(k -> k.position));
+            List<DBSObject> result = new ArrayList<>(matchedKeys.size());
+            for (IndexKey key : matchedKeys) {
+                result.add(key.object);
+            }
+            return result;
+        }
+    }
+
+    private final DBNModel navigatorModel;
+    private final DBPDataSource dataSource;
+    private final Map<DBSObject, ContainerIndex> containerIndexes = new IdentityHashMap<>();
+    private volatile boolean disposed;
+
+    SQLIdentifierIndex(@NotNull DBNModel navigatorModel, @NotNull DBPDataSource dataSource) {
+        this.navigatorModel = navigatorModel;
+        this.dataSource = dataSource;
+        this.navigatorModel.addListener(this);
+        DBPDataSourceRegistry registry = dataSource.getContainer().getRegistry();
+        if (registry != null) {
+            registry.addDataSourceListener(this);
+        }
+    }
+
+    /**
+     * Returns identifier index of the specified data source or null if navigator model is not available.
+     */
+    @Nullable
+    public static SQLIdentifierIndex getIndex(@NotNull DBPDataSource dataSource) {
+        DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+        if (navigatorModel == null) {
+            return null;
+        }
+        DBPDataSourceContainer container = dataSource.getContainer();
+        synchronized (indexes) {
+            SQLIdentifierIndex index = indexes.get(container);
+            if (index != null && index.dataSource != dataSource) {
+                // Reconnected
+                index.dispose();
+                index = null;
+            }
+            if (index == null) {
+                index = new SQLIdentifierIndex(navigatorModel, dataSource);
+                indexes.put(container, index);
+                index.scheduleWarmUp();
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Finds children of the specified parent whose names start with the specified prefix (case insensitive).
+     * Objects are returned in the original children order.
+     * Returns null if the parent children can't be indexed.
+     */
+    @Nullable
+    public List<DBSObject> findObjects(
+        @NotNull DBSObject parent,
+        @NotNull Collection<? extends DBSObject> children,
+        @NotNull String prefix)
+    {
+        if (disposed) {
+            return null;
+        }
+        ContainerIndex index = getContainerIndex(parent, children);
+        return index == null ? null : index.findObjects(prefix);
+    }
+
+    /**
+     * Finds objects of the specified types in the scope container and its nested containers (entities are not searched inside).
+     * Doesn't read database metadata: containers are taken from the index or from loaded navigator nodes.
+     * Returns null if some of the scope containers are not loaded yet, so the result could miss objects.
+     *
+     * @param fuzzy match word starts and camel-hump initials as well as name prefixes
+     */
+    @Nullable
+    public List<DBSObject> findScopeObjects(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObject scope,
+        @NotNull String prefix,
+        boolean fuzzy,
+        @Nullable DBSObjectType[] objectTypes,
+        int maxResults)
+    {
+        if (disposed) {
+            return null;
+        }
+        List<ContainerIndex> scopeIndexes = new ArrayList<>();
+        if (!collectScopeIndexes(monitor, scope, scopeIndexes, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+            return null;
+        }
+        List<DBSObject> result = new ArrayList<>();
+        for (ContainerIndex index : scopeIndexes) {
+            for (DBSObject object : index.findObjects(prefix, fuzzy)) {
+                if (isObjectOfType(object, objectTypes)) {
+                    result.add(object);
+                    if (result.size() >= maxResults) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean collectScopeIndexes(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSObject container,
+        @NotNull List<ContainerIndex> result,
+        @NotNull Set<DBSObject> visited)
+    {
+        if (monitor.isCanceled()) {
+            return false;
+        }
+        if (!visited.add(container)) {
+            return true;
+        }
+        ContainerIndex index;
+        synchronized (containerIndexes) {
+            index = containerIndexes.get(container);
+        }
+        if (index == null) {
+            index = indexLoadedContainer(monitor, container);
+            if (index == null) {
+                return false;
+            }
+        }
+        result.add(index);
+        for (DBSObject child : index.containers) {
+            if (!collectScopeIndexes(monitor, child, result, visited)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indexes the container if its navigator node is loaded, so its children are cached
+     */
+    @Nullable
+    private ContainerIndex indexLoadedContainer(@NotNull DBRProgressMonitor monitor, @NotNull DBSObject container) {
+        if (!(container instanceof DBSObjectContainer)) {
+            return null;
+        }
+        DBNDatabaseNode node = navigatorModel.getNodeByObject(container);
+        try {
+            if (node == null || !isChildrenLoaded(monitor, node)) {
+                return null;
+            }
+            Collection<? extends DBSObject> children = ((DBSObjectContainer) container).getChildren(monitor);
+            return children == null ? null : getContainerIndex(container, children);
+        } catch (DBException e) {
+            log.debug("Error indexing children of " + container.getName(), e);
+            return null;
+        }
+    }
+
+    private static boolean isObjectOfType(@NotNull DBSObject object, @Nullable DBSObjectType[] objectTypes) {
+        if (objectTypes == null) {
+            return true;
+        }
+        for (DBSObjectType objectType : objectTypes) {
+            if (objectType.getTypeClass() != null && objectType.getTypeClass().isInstance(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private ContainerIndex getContainerIndex(@NotNull DBSObject parent, @NotNull Collection<? extends DBSObject> children) {
+        ContainerIndex index;
+        synchronized (containerIndexes) {
+            index = containerIndexes.get(parent);
+        }
+        if (index != null && index.childCount == children.size()) {
+            return index;
+        }
+        index = ContainerIndex.build(children);
+        if (index != null) {
+            synchronized (containerIndexes) {
+                containerIndexes.put(parent, index);
+            }
+        }
+        return index;
+    }
+
+    private static void addObjectKeys(List<IndexKey> keys, String name, DBSObject object, int position) {
+        String lowerName = name.toLowerCase(Locale.ENGLISH);
+        keys.add(new IndexKey(lowerName, KEY_NAME, object, position));
+
+        StringBuilder initials = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            if (isWordStart(name, i)) {
+                if (i > 0) {
+                    keys.add(new IndexKey(lowerName.substring(i), KEY_WORD, object, position));
+                }
+                initials.append(lowerName.charAt(i));
+            }
+        }
+        if (initials.length() > 1) {
+            keys.add(new IndexKey(initials.toString(), KEY_INITIALS, object, position));
+        }
+    }
+
+    private static boolean isWordStart(String name, int pos) {
+        char c = name.charAt(pos);
+        if (!Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        if (pos == 0) {
+            return true;
+        }
+        char prev = name.charAt(pos - 1);
+        return !Character.isLetterOrDigit(prev) ||
+            (Character.isUpperCase(c) && Character.isLowerCase(prev)) ||
+            (Character.isDigit(c) != Character.isDigit(prev));
+    }
+
+    private static int findFirstKey(IndexKey[] keys, String prefix) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].key.compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void invalidate(@Nullable Object object) {
+        if (object instanceof DBSObject) {
+            synchronized (containerIndexes) {
+                containerIndexes.remove(object);
+                DBSObject parentObject = ((DBSObject) object).getParentObject();
+                if (parentObject != null) {
+                    containerIndexes.remove(parentObject);
+                }
+            }
+        }
+    }
+
+    private void dispose() {
+        disposed = true;
+        navigatorModel.removeListener(this);
+        DBPDataSourceRegistry registry = dataSource.getContainer().getRegistry();
+        if (registry != null) {
+            registry.removeDataSourceListener(this);
+        }
+        synchronized (containerIndexes) {
+            containerIndexes.clear();
+        }
+    }
+
+    /**
+     * Removes this index from data source indexes and disposes it
+     */
+    private void close() {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        synchronized (indexes) {
+            if (indexes.get(container) == this) {
+                indexes.remove(container);
+            }
+        }
+        dispose();
+    }
+
+    @Override
+    public void handleDataSourceEvent(DBPEvent event) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (event.getObject() == container &&
+            (event.getAction() == DBPEvent.Action.OBJECT_REMOVE ||
+                (event.getAction() == DBPEvent.Action.OBJECT_UPDATE && Boolean.FALSE.equals(event.getEnabled())) ||
+                container.getDataSource() != dataSource))
+        {
+            // Disconnected or removed
+            close();
+        }
+    }
+
+    @Override
+    public void nodeChanged(DBNEvent event) {
+        DBNNode node = event.getNode();
+        if (node instanceof DBNDataSource) {
+            DBPDataSourceContainer container = ((DBNDataSource) node).getDataSourceContainer();
+            if (container == dataSource.getContainer() &&
+                (event.getAction() == DBNEvent.Action.REMOVE || container.getDataSource() != dataSource))
+            {
+                // Disconnected or removed
+                close();
+            }
+        } else if (node instanceof DBNDatabaseNode && ((DBNDatabaseNode) node).getDataSourceContainer() == dataSource.getContainer()) {
+            invalidate(((DBNDatabaseNode) node).getValueObject());
+        }
+    }
+
+    private void scheduleWarmUp() {
+        DBSObjectContainer rootContainer = DBUtils.getAdapter(DBSObjectContainer.class, dataSource);
+        if (!(rootContainer instanceof DBSObject)) {
+            return;
+        }
+        new AbstractJob("Index " + dataSource.getContainer().getName() + " identifiers") {
+            {
+                setSystem(true);
+            }
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                DBNDatabaseNode rootNode = navigatorModel.getNodeByObject((DBSObject) rootContainer);
+                if (rootNode != null) {
+                    try {
+                        warmUpNode(monitor, rootNode);
+                    } catch (Exception e) {
+                        log.debug("Error indexing identifiers of " + dataSource.getContainer().getName(), e);
+                    }
+                }
+                return Status.OK_STATUS;
+            }
+        }.schedule();
+    }
+
+    /**
+     * Indexes containers whose navigator nodes (and child folders) are already loaded.
+     * Such containers have cached children, so indexing doesn't hit the database.
+     */
+    private void warmUpNode(@NotNull DBRProgressMonitor monitor, @NotNull DBNDatabaseNode node) throws DBException {
+        if (disposed || monitor.isCanceled() || node.needsInitialization()) {
+            return;
+        }
+        DBNDatabaseNode[] childNodes = node.getChildren(monitor);
+        if (childNodes == null) {
+            return;
+        }
+        Object object = node.getValueObject();
+        if (isChildrenLoaded(monitor, node) && !(node instanceof DBNDatabaseFolder) && object instanceof DBSObjectContainer && object instanceof DBSObject) {
+            Collection<? extends DBSObject> children = ((DBSObjectContainer) object).getChildren(monitor);
+            if (children != null && !children.isEmpty()) {
+                getContainerIndex((DBSObject) object, children);
+            }
+        }
+        for (DBNDatabaseNode childNode : childNodes) {
+            warmUpNode(monitor, childNode);
+        }
+    }
+
+    /**
+     * Node children (and children of its folders) are loaded, so the object children are cached
+     */
+    private static boolean isChildrenLoaded(@NotNull DBRProgressMonitor monitor, @NotNull DBNDatabaseNode node) throws DBException {
+        if (node.needsInitialization()) {
+            return false;
+        }
+        DBNDatabaseNode[] childNodes = node.getChildren(monitor);
+        if (childNodes != null) {
+            for (DBNDatabaseNode childNode : childNodes) {
+                if (childNode instanceof DBNDatabaseFolder && childNode.needsInitialization()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
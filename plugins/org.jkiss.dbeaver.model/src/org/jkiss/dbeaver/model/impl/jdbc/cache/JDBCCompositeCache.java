@@ -260,6 +260,195 @@ public abstract class JDBCCompositeCache<
         }
     }
 
+    /**
+     * Reads composite objects of one owner from result set rows.
+     * Rows may be read from a query which reads objects of several owners at once,
+     * in this case caller routes each row to the loader of the row owner.
+     */
+    public class CompositeLoader {
+        private final OWNER owner;
+        private final PARENT forParent;
+        // Result contains all objects of owner, so empty result means that owner has no objects
+        private final boolean completeResult;
+        private final Map<PARENT, Map<String, ObjectInfo>> parentObjectMap = new LinkedHashMap<>();
+
+        private CompositeLoader(OWNER owner, PARENT forParent, boolean completeResult)
+        {
+            this.owner = owner;
+            this.forParent = forParent;
+            this.completeResult = completeResult;
+        }
+
+        public void readRow(@NotNull JDBCSession session, @NotNull JDBCResultSet dbResult)
+            throws SQLException, DBException
+        {
+            final DBRProgressMonitor monitor = session.getProgressMonitor();
+            String parentName = forParent != null ?
+                forParent.getName() :
+                (parentColumnName instanceof Number ?
+                    JDBCUtils.safeGetString(dbResult, ((Number)parentColumnName).intValue()) :
+                    JDBCUtils.safeGetStringTrimmed(dbResult, parentColumnName.toString()));
+            String objectName = objectColumnName instanceof Number ?
+                JDBCUtils.safeGetString(dbResult, ((Number)objectColumnName).intValue()) :
+                JDBCUtils.safeGetStringTrimmed(dbResult, objectColumnName.toString());
+
+            if (CommonUtils.isEmpty(objectName)) {
+                // Use default name
+                objectName = getDefaultObjectName(dbResult, parentName);
+            }
+
+            if (forParent == null && CommonUtils.isEmpty(parentName)) {
+                // No parent - can't evaluate it
+                log.debug("Empty parent name in " + JDBCCompositeCache.this);
+                return;
+            }
+
+            PARENT parent = forParent;
+            if (parent == null) {
+                parent = parentCache.getObject(monitor, owner, parentName, parentType);
+                if (parent == null) {
+                    log.debug("Object '" + objectName + "' owner '" + parentName + "' not found");
+                    return;
+                }
+            }
+            synchronized (objectCache) {
+                if (objectCache.containsKey(parent)) {
+                    // Already cached
+                    return;
+                }
+            }
+            // Add to map
+            Map<String, ObjectInfo> objectMap = parentObjectMap.get(parent);
+            if (objectMap == null) {
+                objectMap = new TreeMap<>();
+                parentObjectMap.put(parent, objectMap);
+            }
+
+            ObjectInfo objectInfo = objectMap.get(objectName);
+            if (objectInfo == null) {
+                OBJECT object = fetchObject(session, owner, parent, objectName, dbResult);
+                if (object == null || !isValidObject(monitor, owner, object)) {
+                    // Can't fetch object
+                    return;
+                }
+                objectName = object.getName();
+                objectInfo = new ObjectInfo(object);
+                objectMap.put(objectName, objectInfo);
+            }
+            ROW_REF[] rowRef = fetchObjectRow(session, parent, objectInfo.object, dbResult);
+            if (rowRef == null || rowRef.length == 0) {
+                if (!isEmptyObjectRowsAllowed()) {
+                    // At least one of rows is broken.
+                    // So entire object is broken, let's just skip it.
+                    objectInfo.broken = true;
+                    //log.debug("Object '" + objectName + "' metadata corrupted - NULL child returned");
+                }
+                return;
+            }
+            for (ROW_REF row : rowRef) {
+                if (row != null) {
+                    objectInfo.rows.add(row);
+                }
+            }
+        }
+
+        /**
+         * Puts read objects in cache and caches their rows
+         */
+        public void cacheObjects(@NotNull DBRProgressMonitor monitor)
+            throws DBException
+        {
+            synchronized (JDBCCompositeCache.this) {
+                synchronized (objectCache) {
+                    if (forParent != null || !parentObjectMap.isEmpty() || completeResult) {
+                        if (forParent == null) {
+                            // Cache global object list
+                            List<OBJECT> globalCache = new ArrayList<>();
+                            for (Map<String, ObjectInfo> objMap : parentObjectMap.values()) {
+                                if (objMap != null) {
+                                    for (ObjectInfo info : objMap.values()) {
+                                        if (!info.broken) {
+                                            globalCache.add(info.object);
+                                        }
+                                    }
+                                }
+                            }
+                            // Save precached objects in global cache
+                            for (List<OBJECT> objects : objectCache.values()) {
+                                globalCache.addAll(objects);
+                            }
+                            // Add precached objects to global cache too
+                            JDBCCompositeCache.super.setCache(globalCache);
+                            invalidateObjects(monitor, owner, new CacheIterator());
+                        }
+                    }
+
+                    // Cache data in individual objects only if we have read something or have certain parent object
+                    // Otherwise we assume that this function is not supported for mass data reading
+
+                    // All objects are read. Now assign them to parents
+                    for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
+                        if (colEntry.getValue() == null || objectCache.containsKey(colEntry.getKey())) {
+                            // Do not overwrite this object's cache
+                            continue;
+                        }
+                        Collection<ObjectInfo> objectInfos = colEntry.getValue().values();
+                        ArrayList<OBJECT> objects = new ArrayList<>(objectInfos.size());
+                        for (ObjectInfo objectInfo : objectInfos) {
+                            objectInfo.needsCaching = true;
+                            objects.add(objectInfo.object);
+                        }
+                        objectCache.put(colEntry.getKey(), objects);
+                    }
+                    // Now set empty object list for other parents
+                    if (forParent == null) {
+                        for (PARENT tmpParent : parentCache.getTypedObjects(monitor, owner, parentType)) {
+                            if (!parentObjectMap.containsKey(tmpParent) && !objectCache.containsKey(tmpParent)) {
+                                objectCache.put(tmpParent, new ArrayList<OBJECT>());
+                            }
+                        }
+                    } else if (!parentObjectMap.containsKey(forParent) && !objectCache.containsKey(forParent)) {
+                        objectCache.put(forParent, new ArrayList<OBJECT>());
+                    }
+                }
+                // Cache children lists (we do it in the end because children caching may operate with other model objects)
+                for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
+                    for (ObjectInfo objectInfo : colEntry.getValue().values()) {
+                        if (objectInfo.needsCaching) {
+                            cacheChildren(monitor, objectInfo.object, objectInfo.rows);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Second caching pass. Must be called after {@link #cacheObjects} of all loaders which objects may be referenced.
+         */
+        public void cacheObjectReferences(@NotNull DBRProgressMonitor monitor)
+        {
+            synchronized (JDBCCompositeCache.this) {
+                for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
+                    for (ObjectInfo objectInfo : colEntry.getValue().values()) {
+                        if (objectInfo.needsCaching) {
+                            cacheChildren2(monitor, objectInfo.object, objectInfo.rows);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates loader of all owner objects. Rows are read by caller, e.g. with a query which reads objects of all owners.
+     * Parent objects and their children must be cached before.
+     */
+    @NotNull
+    public CompositeLoader createLoader(@NotNull OWNER owner)
+    {
+        return new CompositeLoader(owner, null, true);
+    }
+
     protected void loadObjects(DBRProgressMonitor monitor, OWNER owner, PARENT forParent)
         throws DBException
     {
@@ -277,7 +466,7 @@ public abstract class JDBCCompositeCache<
             parentCache.loadChildren(monitor, owner, null);
         }
 
-        Map<PARENT, Map<String, ObjectInfo>> parentObjectMap = new LinkedHashMap<>();
+        CompositeLoader loader = new CompositeLoader(owner, forParent, false);
 
         // Load index columns
         DBPDataSource dataSource = owner.getDataSource();
@@ -295,73 +484,7 @@ public abstract class JDBCCompositeCache<
                         if (monitor.isCanceled()) {
                             return;
                         }
-                        String parentName = forParent != null ?
-                            forParent.getName() :
-                            (parentColumnName instanceof Number ?
-                                JDBCUtils.safeGetString(dbResult, ((Number)parentColumnName).intValue()) :
-                                JDBCUtils.safeGetStringTrimmed(dbResult, parentColumnName.toString()));
-                        String objectName = objectColumnName instanceof Number ?
-                            JDBCUtils.safeGetString(dbResult, ((Number)objectColumnName).intValue()) :
-                            JDBCUtils.safeGetStringTrimmed(dbResult, objectColumnName.toString());
-
-                        if (CommonUtils.isEmpty(objectName)) {
-                            // Use default name
-                            objectName = getDefaultObjectName(dbResult, parentName);
-                        }
-
-                        if (forParent == null && CommonUtils.isEmpty(parentName)) {
-                            // No parent - can't evaluate it
-                            log.debug("Empty parent name in " + this);
-                            continue;
-                        }
-
-                        PARENT parent = forParent;
-                        if (parent == null) {
-                            parent = parentCache.getObject(monitor, owner, parentName, parentType);
-                            if (parent == null) {
-                                log.debug("Object '" + objectName + "' owner '" + parentName + "' not found");
-                                continue;
-                            }
-                        }
-                        synchronized (objectCache) {
-                            if (objectCache.containsKey(parent)) {
-                                // Already cached
-                                continue;
-                            }
-                        }
-                        // Add to map
-                        Map<String, ObjectInfo> objectMap = parentObjectMap.get(parent);
-                        if (objectMap == null) {
-                            objectMap = new TreeMap<>();
-                            parentObjectMap.put(parent, objectMap);
-                        }
-
-                        ObjectInfo objectInfo = objectMap.get(objectName);
-                        if (objectInfo == null) {
-                            OBJECT object = fetchObject(session, owner, parent, objectName, dbResult);
-                            if (object == null || !isValidObject(monitor, owner, object)) {
-                                // Can't fetch object
-                                continue;
-                            }
-                            objectName = object.getName();
-                            objectInfo = new ObjectInfo(object);
-                            objectMap.put(objectName, objectInfo);
-                        }
-                        ROW_REF[] rowRef = fetchObjectRow(session, parent, objectInfo.object, dbResult);
-                        if (rowRef == null || rowRef.length == 0) {
-                            if (!isEmptyObjectRowsAllowed()) {
-                                // At least one of rows is broken.
-                                // So entire object is broken, let's just skip it.
-                                objectInfo.broken = true;
-                                //log.debug("Object '" + objectName + "' metadata corrupted - NULL child returned");
-                            }
-                            continue;
-                        }
-                        for (ROW_REF row : rowRef) {
-                            if (row != null) {
-                                objectInfo.rows.add(row);
-                            }
-                        }
+                        loader.readRow(session, dbResult);
                     }
                 }
                 finally {
@@ -388,76 +511,8 @@ public abstract class JDBCCompositeCache<
         }
 
         // Fill global cache
-        synchronized (this) {
-            synchronized (objectCache) {
-                if (forParent != null || !parentObjectMap.isEmpty()) {
-                    if (forParent == null) {
-                        // Cache global object list
-                        List<OBJECT> globalCache = new ArrayList<>();
-                        for (Map<String, ObjectInfo> objMap : parentObjectMap.values()) {
-                            if (objMap != null) {
-                                for (ObjectInfo info : objMap.values()) {
-                                    if (!info.broken) {
-                                        globalCache.add(info.object);
-                                    }
-                                }
-                            }
-                        }
-                        // Save precached objects in global cache
-                        for (List<OBJECT> objects : objectCache.values()) {
-                            globalCache.addAll(objects);
-                        }
-                        // Add precached objects to global cache too
-                        super.setCache(globalCache);
-                        this.invalidateObjects(monitor, owner, new CacheIterator());
-                    }
-                }
-
-                // Cache data in individual objects only if we have read something or have certain parent object
-                // Otherwise we assume that this function is not supported for mass data reading
-
-                // All objects are read. Now assign them to parents
-                for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
-                    if (colEntry.getValue() == null || objectCache.containsKey(colEntry.getKey())) {
-                        // Do not overwrite this object's cache
-                        continue;
-                    }
-                    Collection<ObjectInfo> objectInfos = colEntry.getValue().values();
-                    ArrayList<OBJECT> objects = new ArrayList<>(objectInfos.size());
-                    for (ObjectInfo objectInfo : objectInfos) {
-                        objectInfo.needsCaching = true;
-                        objects.add(objectInfo.object);
-                    }
-                    objectCache.put(colEntry.getKey(), objects);
-                }
-                // Now set empty object list for other parents
-                if (forParent == null) {
-                    for (PARENT tmpParent : parentCache.getTypedObjects(monitor, owner, parentType)) {
-                        if (!parentObjectMap.containsKey(tmpParent) && !objectCache.containsKey(tmpParent)) {
-                            objectCache.put(tmpParent, new ArrayList<OBJECT>());
-                        }
-                    }
-                } else if (!parentObjectMap.containsKey(forParent) && !objectCache.containsKey(forParent)) {
-                    objectCache.put(forParent, new ArrayList<OBJECT>());
-                }
-            }
-            // Cache children lists (we do it in the end because children caching may operate with other model objects)
-            for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
-                for (ObjectInfo objectInfo : colEntry.getValue().values()) {
-                    if (objectInfo.needsCaching) {
-                        cacheChildren(monitor, objectInfo.object, objectInfo.rows);
-                    }
-                }
-            }
-            for (Map.Entry<PARENT, Map<String, ObjectInfo>> colEntry : parentObjectMap.entrySet()) {
-                for (ObjectInfo objectInfo : colEntry.getValue().values()) {
-                    if (objectInfo.needsCaching) {
-                        cacheChildren2(monitor, objectInfo.object, objectInfo.rows);
-                    }
-                }
-            }
-        }
-
+        loader.cacheObjects(monitor);
+        loader.cacheObjectReferences(monitor);
     }
 
     protected String getDefaultObjectName(JDBCResultSet dbResult, String parentName) {
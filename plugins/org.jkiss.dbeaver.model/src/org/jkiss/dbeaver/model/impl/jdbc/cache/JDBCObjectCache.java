@@ -149,15 +149,36 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
             }
         }
 
-        addCustomObjects(tmpObjectList);
+        cacheObjects(monitor, owner, tmpObjectList);
+    }
+
+    /**
+     * Caches objects read by external loader (e.g. with a query which reads objects of several owners at once).
+     */
+    public synchronized void cacheLoadedObjects(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner, @NotNull List<OBJECT> objects)
+        throws DBException
+    {
+        List<OBJECT> validObjects = new ArrayList<>(objects.size());
+        for (OBJECT object : objects) {
+            if (isValidObject(monitor, owner, object)) {
+                validObjects.add(object);
+            }
+        }
+        cacheObjects(monitor, owner, validObjects);
+    }
+
+    private void cacheObjects(@NotNull DBRProgressMonitor monitor, @NotNull OWNER owner, @NotNull List<OBJECT> objects)
+        throws DBException
+    {
+        addCustomObjects(objects);
 
         Comparator<OBJECT> comparator = getListOrderComparator();
         if (comparator != null) {
-            tmpObjectList.sort(comparator);
+            objects.sort(comparator);
         }
 
         detectCaseSensitivity(owner);
-        mergeCache(tmpObjectList);
+        mergeCache(objects);
         this.invalidateObjects(monitor, owner, new CacheIterator());
     }
 
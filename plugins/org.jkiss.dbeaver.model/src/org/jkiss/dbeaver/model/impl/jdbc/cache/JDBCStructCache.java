@@ -178,6 +178,27 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    /**
+     * Caches children of all cached objects.
+     * Used when children were read by external loader (e.g. for several owners at once).
+     * Objects which are missing in the map get empty children lists.
+     */
+    public synchronized void cacheAllChildren(@NotNull Map<OBJECT, List<CHILD>> children)
+    {
+        for (OBJECT object : getCachedObjects()) {
+            if (!isChildrenCached(object)) {
+                List<CHILD> objectChildren = children.get(object);
+                cacheChildren(object, objectChildren == null ? new ArrayList<>() : objectChildren);
+            }
+        }
+        this.childrenCached = true;
+    }
+
+    public boolean isChildrenFullyCached()
+    {
+        return childrenCached;
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -0,0 +1,312 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Dictionary labels cache.
+ *
+ * Keeps labels of recently used keys of a dictionary key attribute (LRU, size-bounded).
+ * Missing keys are read in batches with {@link DBSDictionary#getDictionaryValues}, so showing
+ * descriptions of many referencing rows doesn't make a query per key.
+ * Keys which don't exist in dictionary are cached as well.
+ *
+ * Caches are kept in data source context attributes, so they are dropped together with the data source on disconnect.
+ */
+public class DBVDictionaryCache {
+
+    public static final int MAX_CACHED_KEYS = 10000;
+    // Keys per dictionary query (IN list size)
+    public static final int MAX_KEYS_PER_QUERY = 200;
+
+    // Cached value of keys which are missing in dictionary
+    private static final String NO_LABEL = new String();
+
+    // Data source attribute with caches of the data source dictionaries
+    private static final String CACHES_ATTRIBUTE = "dictionary-labels-caches";
+
+    private final DBSDictionary dictionary;
+    private final DBSEntityAttribute keyAttribute;
+    private final LinkedHashMap<Object, String> labels = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+            return size() > MAX_CACHED_KEYS;
+        }
+    };
+    // Incremented on invalidate. Results read before invalidation are not cached.
+    private long version;
+
+    private DBVDictionaryCache(@NotNull DBSDictionary dictionary, @NotNull DBSEntityAttribute keyAttribute) {
+        this.dictionary = dictionary;
+        this.keyAttribute = keyAttribute;
+    }
+
+    /**
+     * Returns labels cache of the dictionary key attribute.
+     * Attribute without data source gets a new cache which isn't shared.
+     */
+    @NotNull
+    public static DBVDictionaryCache getCache(@NotNull DBSDictionary dictionary, @NotNull DBSEntityAttribute keyAttribute) {
+        DBPDataSource dataSource = keyAttribute.getDataSource();
+        if (dataSource == null) {
+            return new DBVDictionaryCache(dictionary, keyAttribute);
+        }
+        synchronized (DBVDictionaryCache.class) {
+            Map<DBSDictionary, Map<DBSEntityAttribute, DBVDictionaryCache>> caches = dataSource.getContextAttribute(CACHES_ATTRIBUTE);
+            if (caches == null) {
+                caches = new IdentityHashMap<>();
+                dataSource.setContextAttribute(CACHES_ATTRIBUTE, caches);
+            }
+            return caches
+                .computeIfAbsent(dictionary, d -> new IdentityHashMap<>())
+                .computeIfAbsent(keyAttribute, a -> new DBVDictionaryCache(dictionary, a));
+        }
+    }
+
+    /**
+     * Returns labels cache of the dictionary referenced by the specified attribute or null if attribute
+     * doesn't reference dictionary. Only single-column references are supported.
+     */
+    @Nullable
+    public static DBVDictionaryCache findReferenceCache(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntityReferrer referrer,
+        @NotNull DBSEntityAttribute attribute) throws DBException
+    {
+        if (!(referrer instanceof DBSEntityAssociation)) {
+            return null;
+        }
+        DBSEntityAssociation association = (DBSEntityAssociation) referrer;
+        List<? extends DBSEntityAttributeRef> attributeRefs = referrer.getAttributeReferences(monitor);
+        if (attributeRefs == null || attributeRefs.size() != 1) {
+            return null;
+        }
+        DBSEntity associatedEntity = association instanceof DBSEntityAssociationLazy ?
+            ((DBSEntityAssociationLazy) association).getAssociatedEntity(monitor) :
+            association.getAssociatedEntity();
+        if (!(associatedEntity instanceof DBSDictionary) || !((DBSDictionary) associatedEntity).supportsDictionaryEnumeration()) {
+            return null;
+        }
+        DBSEntityAttribute keyAttribute = DBUtils.getReferenceAttribute(monitor, association, attribute, false);
+        if (keyAttribute == null) {
+            return null;
+        }
+        return getEntityCache(monitor, associatedEntity, keyAttribute);
+    }
+
+    /**
+     * Returns labels cache of the entity key attribute or null if entity isn't a dictionary.
+     * Virtual entity shares labels cache of its real entity.
+     */
+    @Nullable
+    public static DBVDictionaryCache getEntityCache(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBSEntity entity,
+        @NotNull DBSEntityAttribute keyAttribute) throws DBException
+    {
+        if (entity instanceof DBVEntity) {
+            entity = ((DBVEntity) entity).getRealEntity(monitor);
+        }
+        return entity instanceof DBSDictionary ? getCache((DBSDictionary) entity, keyAttribute) : null;
+    }
+
+    /**
+     * Drops cached labels of the specified dictionary (e.g. after dictionary data was changed)
+     */
+    public static void invalidate(@NotNull DBSEntity entity) {
+        DBPDataSource dataSource = entity.getDataSource();
+        if (dataSource == null) {
+            return;
+        }
+        List<DBVDictionaryCache> entityCaches = new ArrayList<>();
+        synchronized (DBVDictionaryCache.class) {
+            Map<DBSDictionary, Map<DBSEntityAttribute, DBVDictionaryCache>> caches = dataSource.getContextAttribute(CACHES_ATTRIBUTE);
+            if (caches == null) {
+                return;
+            }
+            for (Map<DBSEntityAttribute, DBVDictionaryCache> attrCaches : caches.values()) {
+                for (DBVDictionaryCache cache : attrCaches.values()) {
+                    if (cache.dictionary == entity || cache.keyAttribute.getParentObject() == entity) {
+                        entityCaches.add(cache);
+                    }
+                }
+            }
+        }
+        for (DBVDictionaryCache cache : entityCaches) {
+            cache.invalidate();
+        }
+    }
+
+    @NotNull
+    public DBSDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @NotNull
+    public DBSEntityAttribute getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    /**
+     * Checks whether key can be cached. Null values and complex values are not cached.
+     */
+    public static boolean isCacheableKey(@Nullable Object key) {
+        return !DBUtils.isNullValue(key) && !(key instanceof DBDValue) && !(key instanceof Date);
+    }
+
+    public synchronized boolean isCached(@NotNull Object key) {
+        return labels.containsKey(normalizeKey(key));
+    }
+
+    /**
+     * Returns cached label or null if key isn't cached or doesn't exist in dictionary.
+     * Doesn't read anything from database.
+     */
+    @Nullable
+    public synchronized String getCachedLabel(@NotNull Object key) {
+        String label = labels.get(normalizeKey(key));
+        return label == NO_LABEL ? null : label;
+    }
+
+    /**
+     * Returns labels of the specified keys. Keys which are not cached are read from dictionary.
+     * Keys missing in dictionary are absent in result map.
+     */
+    @NotNull
+    public Map<Object, String> getLabels(@NotNull DBRProgressMonitor monitor, @NotNull Collection<?> keys) throws DBException {
+        Map<Object, String> result = new HashMap<>();
+        List<Object> missingKeys = new ArrayList<>();
+        long startVersion;
+        synchronized (this) {
+            startVersion = version;
+            Set<Object> checkedKeys = new HashSet<>();
+            for (Object key : keys) {
+                if (!isCacheableKey(key)) {
+                    continue;
+                }
+                Object normalizedKey = normalizeKey(key);
+                if (!checkedKeys.add(normalizedKey)) {
+                    continue;
+                }
+                String label = labels.get(normalizedKey);
+                if (label == null) {
+                    missingKeys.add(key);
+                } else if (label != NO_LABEL) {
+                    result.put(key, label);
+                }
+            }
+        }
+
+        for (int offset = 0; offset < missingKeys.size() && !monitor.isCanceled(); offset += MAX_KEYS_PER_QUERY) {
+            List<Object> chunk = missingKeys.subList(offset, Math.min(offset + MAX_KEYS_PER_QUERY, missingKeys.size()));
+            List<DBDLabelValuePair> values = dictionary.getDictionaryValues(monitor, keyAttribute, new ArrayList<>(chunk), null, true, true);
+            Map<Object, String> chunkLabels = new HashMap<>();
+            for (DBDLabelValuePair pair : values) {
+                if (isCacheableKey(pair.getValue())) {
+                    chunkLabels.put(normalizeKey(pair.getValue()), pair.getLabel());
+                }
+            }
+            synchronized (this) {
+                for (Object key : chunk) {
+                    Object normalizedKey = normalizeKey(key);
+                    String label = chunkLabels.get(normalizedKey);
+                    if (version == startVersion) {
+                        labels.put(normalizedKey, label == null ? NO_LABEL : label);
+                    }
+                    if (label != null) {
+                        result.put(key, label);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns label/value pairs of the specified keys in keys order. Keys missing in dictionary are skipped.
+     */
+    @NotNull
+    public List<DBDLabelValuePair> getLabelValues(@NotNull DBRProgressMonitor monitor, @NotNull Collection<?> keys) throws DBException {
+        Map<Object, String> labels = getLabels(monitor, keys);
+        List<DBDLabelValuePair> result = new ArrayList<>(labels.size());
+        Set<Object> addedKeys = new HashSet<>();
+        for (Object key : keys) {
+            String label = labels.get(key);
+            if (label != null && addedKeys.add(normalizeKey(key))) {
+                result.add(new DBDLabelValuePair(label, key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Caches labels read by other dictionary queries (e.g. enumeration of dictionary values)
+     */
+    public synchronized void putLabels(@NotNull Collection<? extends DBDLabelValuePair> values) {
+        for (DBDLabelValuePair pair : values) {
+            if (isCacheableKey(pair.getValue()) && pair.getLabel() != null) {
+                labels.put(normalizeKey(pair.getValue()), pair.getLabel());
+            }
+        }
+    }
+
+    /**
+     * Reads labels of keys which are not cached yet
+     */
+    public void prefetch(@NotNull DBRProgressMonitor monitor, @NotNull Collection<?> keys) throws DBException {
+        getLabels(monitor, keys);
+    }
+
+    public synchronized void invalidate() {
+        labels.clear();
+        version++;
+    }
+
+    /**
+     * Referencing and referenced attributes may have different numeric types (e.g. INTEGER and BIGINT).
+     */
+    private static Object normalizeKey(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        }
+        try {
+            if (key instanceof BigInteger) {
+                return ((BigInteger) key).longValueExact();
+            }
+            if (key instanceof BigDecimal) {
+                return ((BigDecimal) key).longValueExact();
+            }
+        } catch (ArithmeticException e) {
+            // Doesn't fit long
+            return key instanceof BigDecimal ? ((BigDecimal) key).stripTrailingZeros() : key;
+        }
+        return key;
+    }
+}
@@ -705,9 +705,20 @@ public class DBVEntity extends DBVObject implements DBSEntity, DBPQualifiedObjec
     @Override
     public List<DBDLabelValuePair> getDictionaryValues(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntityAttribute keyColumn, @NotNull List<Object> keyValues, @Nullable List<DBDAttributeValue> preceedingKeys, boolean sortByValue, boolean sortAsc) throws DBException {
         DBSEntity realEntity = getRealEntity(monitor);
-        return realEntity instanceof DBSDictionary ?
-            ((DBSDictionary) realEntity).getDictionaryValues(monitor, keyColumn, keyValues, preceedingKeys, sortByValue, sortAsc) :
-            Collections.emptyList();
+        if (!(realEntity instanceof DBSDictionary)) {
+            return Collections.emptyList();
+        }
+        DBSDictionary dictionary = (DBSDictionary) realEntity;
+        if (CommonUtils.isEmpty(preceedingKeys) && keyValues.stream().allMatch(DBVDictionaryCache::isCacheableKey)) {
+            // Single-column keys are looked up in the shared labels cache, so repeated lookups of the same keys don't query dictionary
+            List<DBDLabelValuePair> values = DBVDictionaryCache.getCache(dictionary, keyColumn).getLabelValues(monitor, keyValues);
+            values.sort(sortByValue ? null : Comparator.comparing(DBDLabelValuePair::getLabel));
+            if (!sortAsc) {
+                Collections.reverse(values);
+            }
+            return values;
+        }
+        return dictionary.getDictionaryValues(monitor, keyColumn, keyValues, preceedingKeys, sortByValue, sortAsc);
     }
 
     public DBVModel getModel() {
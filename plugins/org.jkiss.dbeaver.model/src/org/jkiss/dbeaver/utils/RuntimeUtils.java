@@ -276,6 +276,54 @@ public final class RuntimeUtils {
         return monitoringTask.finished;
     }
 
+    /**
+     * Runs tasks in parallel and waits for all of them.
+     * The first task runs in the caller thread, others run in background jobs with their own progress monitors.
+     * Jobs are canceled when the caller monitor is canceled.
+     * Error of the first failed task is rethrown after all tasks are finished.
+     */
+    public static void runParallelTasks(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull String taskName,
+        @NotNull List<? extends DBRRunnableWithProgress> tasks
+    ) throws InvocationTargetException, InterruptedException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final List<ParallelTaskJob> jobs = new ArrayList<>(tasks.size() - 1);
+        for (int i = 1; i < tasks.size(); i++) {
+            ParallelTaskJob job = new ParallelTaskJob(taskName, tasks.get(i));
+            job.schedule();
+            jobs.add(job);
+        }
+        Throwable error = null;
+        boolean canceled = false;
+        try {
+            tasks.get(0).run(monitor);
+        } catch (InvocationTargetException e) {
+            error = e.getTargetException();
+        } catch (InterruptedException e) {
+            canceled = true;
+        }
+        for (ParallelTaskJob job : jobs) {
+            while (job.getState() != Job.NONE) {
+                if ((canceled || monitor.isCanceled()) && !job.isCanceled()) {
+                    job.cancel();
+                }
+                Thread.sleep(50);
+            }
+            if (error == null) {
+                error = job.error;
+            }
+        }
+        if (error != null) {
+            throw new InvocationTargetException(error);
+        }
+        if (canceled || monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+    }
+
     public static String executeProcess(String binPath, String ... args) throws DBException {
         try {
             String[] cmdBin = {binPath};
@@ -464,4 +512,26 @@ public final class RuntimeUtils {
             }
         }
     }
+
+    private static class ParallelTaskJob extends AbstractJob {
+        private final DBRRunnableWithProgress task;
+        private volatile Throwable error;
+
+        private ParallelTaskJob(String name, DBRRunnableWithProgress task) {
+            super(name);
+            this.task = task;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                task.run(monitor);
+            } catch (InvocationTargetException e) {
+                error = e.getTargetException();
+            } catch (InterruptedException e) {
+                return Status.CANCEL_STATUS;
+            }
+            return Status.OK_STATUS;
+        }
+    }
 }
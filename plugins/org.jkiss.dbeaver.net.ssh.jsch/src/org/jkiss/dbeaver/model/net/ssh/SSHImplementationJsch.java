@@ -50,8 +50,13 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
+    // Sessions (host chains) shared between tunnels
+    private static final SSHSessionPool<Session[]> sessionPool = new SSHSessionPool<>();
+
     private transient JSch jsch;
     private transient volatile Session[] sessions;
+    private transient String sessionKey;
+    private transient SessionController sessionController;
 
     @Override
     protected synchronized void setupTunnel(@NotNull DBRProgressMonitor monitor, @NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts, @NotNull SSHPortForwardConfiguration portForward) throws DBException, IOException {
@@ -60,7 +65,29 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             JSch.setLogger(new JschLoggerProxy());
         }
 
-        sessions = new Session[hosts.length];
+        final SessionController controller = new SessionController(monitor, configuration, hosts);
+        final String sessionKey;
+        if (configuration.getBooleanProperty(SSHConstants.PROP_SHARE_SESSION)) {
+            sessionKey = SSHSessionPool.makeSessionKey(configuration, hosts);
+            sessionPool.acquire(sessionKey, controller, portForward);
+        } else {
+            sessionKey = null;
+            final Session[] sessions = controller.openSession();
+            try {
+                controller.addPortForward(sessions, portForward);
+            } catch (DBException e) {
+                controller.closeSession(sessions);
+                throw e;
+            }
+        }
+
+        this.sessionKey = sessionKey;
+        this.sessionController = controller;
+    }
+
+    @NotNull
+    private Session[] openSessions(@NotNull DBRProgressMonitor monitor, @NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) throws DBException {
+        final Session[] sessions = new Session[hosts.length];
 
         for (int index = 0; index < hosts.length; index++) {
             final SSHHostConfiguration host = hosts[index];
@@ -75,7 +102,8 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
                     } else {
                         addIdentityKeyValue(auth.getKeyValue(), auth.getPassword());
                     }
-                } catch (JSchException e) {
+                } catch (JSchException | IOException e) {
+                    disconnectSessions(sessions);
                     throw new DBException("Cannot add identity key", e);
                 }
             } else if (auth.getType() == AuthType.AGENT) {
@@ -118,18 +146,27 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
                 log.debug("Connect to tunnel host");
 
                 session.connect();
-
-                if (index == hosts.length - 1) {
-                    log.debug("Set port forwarding " + portForward.getLocalHost() + ":" + portForward.getLocalPort() + " -> " + portForward.getRemoteHost() + ":" + portForward.getRemotePort());
-                    session.setPortForwardingL(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
-                }
             } catch (JSchException e) {
-                closeTunnel(monitor);
+                disconnectSessions(sessions);
                 throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
             }
 
             sessions[index] = session;
         }
+
+        return sessions;
+    }
+
+    private static void disconnectSessions(@NotNull Session[] sessions) {
+        RuntimeUtils.runTask(monitor -> {
+            // Disconnect the last hop first, it goes through previous ones
+            for (int i = sessions.length - 1; i >= 0; i--) {
+                Session session = sessions[i];
+                if (session != null && session.isConnected()) {
+                    session.disconnect();
+                }
+            }
+        }, "Close SSH session", 1000);
     }
 
     private void setupHostKeyVerification(Session session, DBWHandlerConfiguration configuration) throws JSchException {
@@ -160,21 +197,19 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
 
     @Override
     public synchronized void closeTunnel(DBRProgressMonitor monitor) {
+        final Session[] sessions = this.sessions;
         if (ArrayUtils.isEmpty(sessions)) {
             return;
         }
-        RuntimeUtils.runTask(monitor1 -> {
-            Session[] sessions = this.sessions;
-            if (ArrayUtils.isEmpty(sessions)) {
-                return;
-            }
-            for (Session session : sessions) {
-                if (session != null && session.isConnected()) {
-                    session.disconnect();
-                }
-            }
-        }, "Close SSH session", 1000);
-        sessions = null;
+        if (sessionKey == null) {
+            disconnectSessions(sessions);
+        } else {
+            // Session may be still used by other tunnels, so the pool removes our port forwarding only
+            sessionPool.release(sessionKey, sessionController);
+        }
+        this.sessions = null;
+        sessionKey = null;
+        sessionController = null;
     }
 
     @Override
@@ -190,20 +225,9 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         // Do not test - just reopen the tunnel. Otherwise it may take too much time.
-        boolean isAlive = false;//session != null && session.isConnected();
-        if (isAlive) {
-            try {
-                for (Session session : sessions) {
-                    session.sendKeepAliveMsg();
-                }
-            } catch (Exception e) {
-                isAlive = false;
-            }
-        }
-        if (!isAlive) {
-            closeTunnel(monitor);
-            initTunnel(monitor, savedConfiguration, savedConnectionInfo);
-        }
+        // Shared session is kept if it is still used and alive, otherwise the pool reconnects it.
+        closeTunnel(monitor);
+        initTunnel(monitor, savedConfiguration, savedConnectionInfo);
     }
 
     @Override
@@ -347,6 +371,69 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
         }
     }
 
+    private class SessionController implements SSHSessionPool.SessionController<Session[]> {
+        private final DBRProgressMonitor monitor;
+        private final DBWHandlerConfiguration configuration;
+        private final SSHHostConfiguration[] hosts;
+
+        SessionController(@NotNull DBRProgressMonitor monitor, @NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) {
+            this.monitor = monitor;
+            this.configuration = configuration;
+            this.hosts = hosts;
+        }
+
+        @NotNull
+        @Override
+        public Session[] openSession() throws DBException {
+            return openSessions(monitor, configuration, hosts);
+        }
+
+        @Override
+        public boolean isSessionAlive(@NotNull Session[] sessions) {
+            for (Session session : sessions) {
+                if (!session.isConnected()) {
+                    return false;
+                }
+            }
+            try {
+                sessions[sessions.length - 1].sendKeepAliveMsg();
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void closeSession(@NotNull Session[] sessions) {
+            disconnectSessions(sessions);
+        }
+
+        @Override
+        public void addPortForward(@NotNull Session[] sessions, @NotNull SSHPortForwardConfiguration portForward) throws DBException {
+            try {
+                log.debug("Set port forwarding " + portForward.getLocalHost() + ":" + portForward.getLocalPort() + " -> " + portForward.getRemoteHost() + ":" + portForward.getRemotePort());
+                sessions[sessions.length - 1].setPortForwardingL(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
+            } catch (JSchException e) {
+                final SSHHostConfiguration host = hosts[hosts.length - 1];
+                throw new DBException("Cannot establish tunnel to " + host.getHostname() + ":" + host.getPort(), e);
+            }
+            // Shared session may be reconnected by another tunnel
+            SSHImplementationJsch.this.sessions = sessions;
+        }
+
+        @Override
+        public void removePortForward(@NotNull Session[] sessions, @NotNull SSHPortForwardConfiguration portForward) {
+            final Session session = sessions[sessions.length - 1];
+            if (session.isConnected()) {
+                try {
+                    session.delPortForwardingL(portForward.getLocalHost(), portForward.getLocalPort());
+                } catch (JSchException e) {
+                    log.debug("Error removing port forwarding: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     private static class JschUserInfo implements UserInfo, UIKeyboardInteractive {
         private final SSHAuthConfiguration configuration;
 
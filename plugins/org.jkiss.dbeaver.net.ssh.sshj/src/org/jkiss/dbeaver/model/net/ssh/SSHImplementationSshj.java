@@ -58,8 +58,12 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
 
     private static final Log log = Log.getLog(SSHImplementationSshj.class);
 
-    private transient SSHClient sshClient;
-    private transient LocalPortListener portListener;
+    // Clients shared between tunnels
+    private static final SSHSessionPool<SSHClient> clientPool = new SSHSessionPool<>();
+
+    private transient volatile SSHClient sshClient;
+    private transient String sessionKey;
+    private transient SessionController sessionController;
 
     @Override
     protected synchronized void setupTunnel(
@@ -67,47 +71,64 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         @NotNull DBWHandlerConfiguration configuration,
         @NotNull SSHHostConfiguration[] hosts,
         @NotNull SSHPortForwardConfiguration portForward) throws DBException {
-        try {
-            final SSHHostConfiguration host = hosts[0];
-            final SSHAuthConfiguration auth = host.getAuthConfiguration();
+        final SessionController controller = new SessionController(configuration, hosts[0]);
+        final String sessionKey;
+        if (configuration.getBooleanProperty(SSHConstants.PROP_SHARE_SESSION)) {
+            sessionKey = SSHSessionPool.makeSessionKey(configuration, hosts);
+            clientPool.acquire(sessionKey, controller, portForward);
+        } else {
+            sessionKey = null;
+            controller.addPortForward(controller.openSession(), portForward);
+        }
+        this.sessionKey = sessionKey;
+        this.sessionController = controller;
+    }
 
+    @NotNull
+    private SSHClient openClient(@NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration host) throws DBException {
+        final SSHAuthConfiguration auth = host.getAuthConfiguration();
+        final SSHClient client;
+        try {
             Config clientConfig = new DefaultConfig();
             clientConfig.setLoggerFactory(LoggerFactory.DEFAULT);
-            sshClient = new SSHClient(clientConfig);
-
+            client = new SSHClient(clientConfig);
+        } catch (Exception e) {
+            throw new DBException("Cannot establish tunnel", e);
+        }
+        try {
             try {
                 if (DBWorkbench.getPlatform().getApplication().isHeadlessMode() || configuration.getBooleanProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION)) {
-                    sshClient.addHostKeyVerifier(new PromiscuousVerifier());
+                    client.addHostKeyVerifier(new PromiscuousVerifier());
                 } else {
                     File knownHostsFile = SSHUtils.getKnownSshHostsFileOrDefault();
-                    sshClient.addHostKeyVerifier(new KnownHostsVerifier(knownHostsFile, DBWorkbench.getPlatformUI()));
+                    client.addHostKeyVerifier(new KnownHostsVerifier(knownHostsFile, DBWorkbench.getPlatformUI()));
                 }
-                sshClient.loadKnownHosts();
+                client.loadKnownHosts();
             } catch (IOException e) {
                 log.debug("Error loading known hosts: " + e.getMessage());
             }
 
-            sshClient.setConnectTimeout(configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT));
-            sshClient.getConnection().getKeepAlive().setKeepAliveInterval(configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL));
+            client.setConnectTimeout(configuration.getIntProperty(SSHConstants.PROP_CONNECT_TIMEOUT));
+            client.getConnection().getKeepAlive().setKeepAliveInterval(configuration.getIntProperty(SSHConstants.PROP_ALIVE_INTERVAL));
 
-            sshClient.connect(host.getHostname(), host.getPort());
+            client.connect(host.getHostname(), host.getPort());
 
             switch (auth.getType()) {
                 case PASSWORD:
-                    sshClient.authPassword(host.getUsername(), auth.getPassword());
+                    client.authPassword(host.getUsername(), auth.getPassword());
                     break;
                 case PUBLIC_KEY:
                     if (auth.getKeyFile() != null) {
                         if (!CommonUtils.isEmpty(auth.getPassword())) {
-                            KeyProvider keyProvider = sshClient.loadKeys(auth.getKeyFile().toAbsolutePath().toString(), auth.getPassword().toCharArray());
-                            sshClient.authPublickey(host.getUsername(), keyProvider);
+                            KeyProvider keyProvider = client.loadKeys(auth.getKeyFile().toAbsolutePath().toString(), auth.getPassword().toCharArray());
+                            client.authPublickey(host.getUsername(), keyProvider);
                         } else {
-                            sshClient.authPublickey(host.getUsername(), auth.getKeyFile().toAbsolutePath().toString());
+                            client.authPublickey(host.getUsername(), auth.getKeyFile().toAbsolutePath().toString());
                         }
                     } else {
-                        KeyProvider keyProvider = sshClient.loadKeys(auth.getKeyValue(), null,
+                        KeyProvider keyProvider = client.loadKeys(auth.getKeyValue(), null,
                             CommonUtils.isEmpty(auth.getPassword()) ? null : PasswordUtils.createOneOff(auth.getPassword().toCharArray()));
-                        sshClient.authPublickey(host.getUsername(), keyProvider);
+                        client.authPublickey(host.getUsername(), keyProvider);
                     }
                     break;
                 case AGENT: {
@@ -116,36 +137,40 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
                     for (SSHAgentIdentity identity : identities) {
                         authMethods.add(new DBeaverAuthAgent(this, identity));
                     }
-                    sshClient.auth(host.getUsername(), authMethods);
+                    client.auth(host.getUsername(), authMethods);
                     break;
                 }
             }
-
-            log.debug("Instantiate SSH tunnel");
-
-            final Parameters params = new Parameters(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
-            portListener = new LocalPortListener(params);
-            portListener.start();
-            RuntimeUtils.pause(100);
         } catch (Exception e) {
+            disconnectClient(client);
             throw new DBException("Cannot establish tunnel", e);
         }
+        return client;
+    }
+
+    private static void disconnectClient(@NotNull SSHClient client) {
+        RuntimeUtils.runTask(monitor -> {
+            try {
+                client.disconnect();
+            } catch (Exception e) {
+                throw new InvocationTargetException(e);
+            }
+        }, "Close SSH client", 1000);
     }
 
     @Override
-    public void closeTunnel(DBRProgressMonitor monitor) {
-        if (portListener != null) {
-            portListener.stopServer();
-        }
+    public synchronized void closeTunnel(DBRProgressMonitor monitor) {
         if (sshClient != null) {
-            RuntimeUtils.runTask(monitor1 -> {
-                try {
-                    sshClient.disconnect();
-                } catch (Exception e) {
-                    throw new InvocationTargetException(e);
-                }
-            }, "Close SSH client", 1000);
+            if (sessionKey != null) {
+                // Client may be still used by other tunnels, so the pool stops our port listener only
+                clientPool.release(sessionKey, sessionController);
+            } else {
+                sessionController.stopPortListener();
+                disconnectClient(sshClient);
+            }
             sshClient = null;
+            sessionKey = null;
+            sessionController = null;
         }
     }
 
@@ -162,18 +187,9 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
     @Override
     public void invalidateTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         // Do not test - just reopen the tunnel. Otherwise it may take too much time.
-        boolean isAlive = false;//sshClient != null && sshClient.isConnected();
-        if (isAlive) {
-            try {
-                sshClient.isConnected();
-            } catch (Exception e) {
-                isAlive = false;
-            }
-        }
-        if (!isAlive) {
-            closeTunnel(monitor);
-            initTunnel(monitor, savedConfiguration, savedConnectionInfo);
-        }
+        // Shared client is kept if it is still used and alive, otherwise the pool reconnects it.
+        closeTunnel(monitor);
+        initTunnel(monitor, savedConfiguration, savedConnectionInfo);
     }
 
     @Override
@@ -237,11 +253,69 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
         return sshClient.newSFTPClient();
     }
 
-    private class LocalPortListener extends Thread {
+    private class SessionController implements SSHSessionPool.SessionController<SSHClient> {
+        private final DBWHandlerConfiguration configuration;
+        private final SSHHostConfiguration host;
+        private volatile LocalPortListener portListener;
+
+        SessionController(@NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration host) {
+            this.configuration = configuration;
+            this.host = host;
+        }
+
+        @NotNull
+        @Override
+        public SSHClient openSession() throws DBException {
+            return openClient(configuration, host);
+        }
+
+        @Override
+        public boolean isSessionAlive(@NotNull SSHClient client) {
+            return client.isConnected() && client.isAuthenticated();
+        }
+
+        @Override
+        public void closeSession(@NotNull SSHClient client) {
+            disconnectClient(client);
+        }
+
+        @Override
+        public void addPortForward(@NotNull SSHClient client, @NotNull SSHPortForwardConfiguration portForward) {
+            // Listener of the broken client still holds the local port
+            stopPortListener();
+
+            log.debug("Instantiate SSH tunnel");
+
+            final Parameters params = new Parameters(portForward.getLocalHost(), portForward.getLocalPort(), portForward.getRemoteHost(), portForward.getRemotePort());
+            portListener = new LocalPortListener(client, params);
+            portListener.start();
+            RuntimeUtils.pause(100);
+            // Shared client may be reconnected by another tunnel
+            sshClient = client;
+        }
+
+        @Override
+        public void removePortForward(@NotNull SSHClient client, @NotNull SSHPortForwardConfiguration portForward) {
+            stopPortListener();
+        }
+
+        void stopPortListener() {
+            final LocalPortListener listener = portListener;
+            if (listener != null) {
+                listener.stopServer();
+                portListener = null;
+            }
+        }
+    }
+
+    private static class LocalPortListener extends Thread {
+        private final SSHClient client;
         private final Parameters params;
         private LocalPortForwarder portForwarder;
+        private ServerSocket serverSocket;
 
-        LocalPortListener(Parameters params) {
+        LocalPortListener(SSHClient client, Parameters params) {
+            this.client = client;
             this.params = params;
         }
 
@@ -249,10 +323,10 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
             setName("Local port forwarder " + params.getRemoteHost() + ":" + params.getRemotePort() + " socket listener");
 
             try {
-                ServerSocket serverSocket = new ServerSocket();
+                serverSocket = new ServerSocket();
                 serverSocket.setReuseAddress(true);
                 serverSocket.bind(new InetSocketAddress(params.getLocalHost(), params.getLocalPort()));
-                portForwarder = sshClient.newLocalPortForwarder(params, serverSocket);
+                portForwarder = client.newLocalPortForwarder(params, serverSocket);
                 portForwarder.listen();
             } catch (IOException e) {
                 log.error(e);
@@ -268,7 +342,15 @@ public class SSHImplementationSshj extends SSHImplementationAbstract {
                     log.error("Error closing port forwarder", e);
                 }
                 portForwarder = null;
+            } else if (serverSocket != null) {
+                // Forwarder wasn't created yet. Client is shared, so close the listening socket explicitly
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    log.debug("Error closing server socket", e);
+                }
             }
+            serverSocket = null;
         }
     }
 
@@ -79,6 +79,7 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<Obje
 
     private Combo tunnelImplCombo;
     private Button fingerprintVerificationCheck;
+    private Button shareSessionCheck;
     private Text localHostText;
     private Text localPortSpinner;
     private Text remoteHostText;
@@ -174,6 +175,12 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<Obje
             fingerprintVerificationCheck.setLayoutData(cgd);
             fingerprintVerificationCheck.setToolTipText(SSHUIMessages.model_ssh_configurator_label_bypass_verification_description);
 
+            shareSessionCheck = UIUtils.createCheckbox(client, SSHUIMessages.model_ssh_configurator_label_share_session, false);
+            cgd = new GridData(GridData.FILL_HORIZONTAL);
+            cgd.horizontalSpan = 2;
+            shareSessionCheck.setLayoutData(cgd);
+            shareSessionCheck.setToolTipText(SSHUIMessages.model_ssh_configurator_label_share_session_description);
+
             localHostText = UIUtils.createLabelText(client, SSHUIMessages.model_ssh_configurator_label_local_host, null, SWT.BORDER, new GridData(GridData.FILL_HORIZONTAL));
             localHostText.setToolTipText(SSHUIMessages.model_ssh_configurator_label_local_host_description);
             localHostText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
@@ -365,6 +372,7 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<Obje
         }
         
         fingerprintVerificationCheck.setSelection(configuration.getBooleanProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION));
+        shareSessionCheck.setSelection(configuration.getBooleanProperty(SSHConstants.PROP_SHARE_SESSION));
         
         localHostText.setText(CommonUtils.notEmpty(configuration.getStringProperty(SSHConstants.PROP_LOCAL_HOST)));
         int lpValue = configuration.getIntProperty(SSHConstants.PROP_LOCAL_PORT);
@@ -422,6 +430,7 @@ public class SSHTunnelConfiguratorUI implements IObjectPropertyConfigurator<Obje
         }
         
         configuration.setProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION, fingerprintVerificationCheck.getSelection());
+        configuration.setProperty(SSHConstants.PROP_SHARE_SESSION, shareSessionCheck.getSelection());
 
         configuration.setProperty(SSHConstants.PROP_LOCAL_HOST, localHostText.getText().trim());
         int localPort = CommonUtils.toInt(localPortSpinner.getText());
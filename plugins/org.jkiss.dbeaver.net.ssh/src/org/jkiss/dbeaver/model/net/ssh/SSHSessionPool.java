@@ -0,0 +1,200 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHAuthConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHHostConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHPortForwardConfiguration;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.SecurityUtils;
+
+import java.util.*;
+
+/**
+ * Pool of SSH sessions shared between tunnels.
+ *
+ * Sessions are keyed by the host chain (host, port, user and credentials of each hop)
+ * and by all handler settings except port forwarding ones, so tunnels with different
+ * host verification, timeouts or keep-alive settings never share a session.
+ * Each tunnel registers its own port forwarding over the shared session and releases
+ * the session on close. Session is disconnected when the last tunnel releases it.
+ * Dead sessions are replaced with new ones on next acquire, port forwardings
+ * of all tunnels are re-applied to the new session.
+ */
+public class SSHSessionPool<SESSION> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    // Tunnel specific properties. All other handler properties are session settings
+    private static final Set<String> PORT_FORWARD_PROPERTIES = Set.of(
+        SSHConstants.PROP_LOCAL_HOST,
+        SSHConstants.PROP_LOCAL_PORT,
+        SSHConstants.PROP_REMOTE_HOST,
+        SSHConstants.PROP_REMOTE_PORT);
+
+    /**
+     * Session lifecycle and port forwarding operations of the particular SSH implementation.
+     * Each tunnel uses its own controller.
+     */
+    public interface SessionController<SESSION> {
+        @NotNull
+        SESSION openSession() throws DBException;
+
+        boolean isSessionAlive(@NotNull SESSION session);
+
+        void closeSession(@NotNull SESSION session);
+
+        /**
+         * Adds tunnel port forwarding to the session.
+         * Called on acquire and again when the shared session is reconnected.
+         */
+        void addPortForward(@NotNull SESSION session, @NotNull SSHPortForwardConfiguration portForward) throws DBException;
+
+        void removePortForward(@NotNull SESSION session, @NotNull SSHPortForwardConfiguration portForward);
+    }
+
+    private static class PooledSession<SESSION> {
+        private SESSION session;
+        private int refCount;
+        // Port forwardings registered on the session, by tunnel controller
+        private final Map<SessionController<SESSION>, SSHPortForwardConfiguration> portForwards = new LinkedHashMap<>();
+    }
+
+    private final Map<String, PooledSession<SESSION>> sessions = new HashMap<>();
+
+    /**
+     * Returns shared session for the specified key and adds port forwarding to it.
+     * Opens new session if there is no alive one.
+     * Each successful acquire must be paired with {@link #release(String, SessionController)}.
+     */
+    @NotNull
+    public SESSION acquire(
+        @NotNull String key,
+        @NotNull SessionController<SESSION> controller,
+        @NotNull SSHPortForwardConfiguration portForward
+    ) throws DBException {
+        PooledSession<SESSION> pooled;
+        synchronized (sessions) {
+            pooled = sessions.computeIfAbsent(key, k -> new PooledSession<>());
+            pooled.refCount++;
+        }
+        // Open sessions outside of pool lock, so slow handshakes don't block other hosts
+        synchronized (pooled) {
+            try {
+                if (pooled.session != null && !controller.isSessionAlive(pooled.session)) {
+                    log.debug("Shared SSH session is broken. Reconnect.");
+                    controller.closeSession(pooled.session);
+                    pooled.session = null;
+                }
+                if (pooled.session == null) {
+                    pooled.session = controller.openSession();
+                    restorePortForwards(pooled);
+                }
+                controller.addPortForward(pooled.session, portForward);
+                pooled.portForwards.put(controller, portForward);
+                return pooled.session;
+            } catch (DBException | RuntimeException e) {
+                release(key, controller);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Re-applies port forwardings of other tunnels. They were lost together with the broken session.
+     */
+    private void restorePortForwards(@NotNull PooledSession<SESSION> pooled) {
+        for (Map.Entry<SessionController<SESSION>, SSHPortForwardConfiguration> entry : pooled.portForwards.entrySet()) {
+            SSHPortForwardConfiguration portForward = entry.getValue();
+            try {
+                entry.getKey().addPortForward(pooled.session, portForward);
+            } catch (DBException | RuntimeException e) {
+                log.error("Error restoring port forwarding " + portForward.getLocalHost() + ":" + portForward.getLocalPort() +
+                    " -> " + portForward.getRemoteHost() + ":" + portForward.getRemotePort(), e);
+            }
+        }
+    }
+
+    /**
+     * Removes tunnel port forwarding and releases session reference.
+     * Session is closed when it is not used anymore.
+     */
+    public void release(@NotNull String key, @NotNull SessionController<SESSION> controller) {
+        PooledSession<SESSION> pooled;
+        synchronized (sessions) {
+            pooled = sessions.get(key);
+            if (pooled == null) {
+                return;
+            }
+            pooled.refCount--;
+            if (pooled.refCount <= 0) {
+                sessions.remove(key);
+            }
+        }
+        synchronized (pooled) {
+            SSHPortForwardConfiguration portForward = pooled.portForwards.remove(controller);
+            if (portForward != null && pooled.session != null) {
+                controller.removePortForward(pooled.session, portForward);
+            }
+            if (pooled.refCount <= 0 && pooled.session != null) {
+                controller.closeSession(pooled.session);
+                pooled.session = null;
+            }
+        }
+    }
+
+    /**
+     * Returns number of tunnels which use the session with the specified key
+     */
+    public int getReferenceCount(@NotNull String key) {
+        synchronized (sessions) {
+            PooledSession<SESSION> pooled = sessions.get(key);
+            return pooled == null ? 0 : pooled.refCount;
+        }
+    }
+
+    /**
+     * Makes pool key of the specified handler settings and host chain.
+     * All handler properties except port forwarding ones are part of the key. Credentials are digested.
+     */
+    @NotNull
+    public static String makeSessionKey(@NotNull DBWHandlerConfiguration configuration, @NotNull SSHHostConfiguration[] hosts) {
+        StringBuilder key = new StringBuilder();
+        for (SSHHostConfiguration host : hosts) {
+            SSHAuthConfiguration auth = host.getAuthConfiguration();
+            if (key.length() > 0) {
+                key.append("->");
+            }
+            key.append(host.getUsername()).append('@').append(host.getHostname()).append(':').append(host.getPort())
+                .append('/').append(auth.getType());
+            if (auth.getKeyFile() != null) {
+                key.append('/').append(auth.getKeyFile().toAbsolutePath());
+            }
+            String secret = CommonUtils.notEmpty(auth.getKeyValue()) + "\n" + CommonUtils.notEmpty(auth.getPassword());
+            key.append('/').append(SecurityUtils.makeDigest(secret));
+        }
+        // Sorted, so the key doesn't depend on properties order
+        Map<String, Object> settings = new TreeMap<>(configuration.getProperties());
+        settings.keySet().removeAll(PORT_FORWARD_PROPERTIES);
+        key.append('?').append(SecurityUtils.makeDigest(settings.toString()));
+        return key.toString();
+    }
+}
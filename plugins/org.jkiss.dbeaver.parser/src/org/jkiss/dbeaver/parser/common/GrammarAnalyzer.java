@@ -20,6 +20,7 @@ import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaBuilder.NfaFragment
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaState;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaTransition;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.ParseOperationKind;
+import org.jkiss.dbeaver.parser.common.lexer.GrammarLexer;
 
 import java.util.*;
 
@@ -30,6 +31,7 @@ class GrammarAnalyzer {
 
     private final List<GrammarNfaTransition> terminalTransitions;
     private final NfaFragment root;
+    private final GrammarLexer lexer;
     private final Map<Integer, String> recursionErrorsByTargetId = new HashMap<>();
 
     /*
@@ -64,9 +66,10 @@ class GrammarAnalyzer {
         }
     }
 
-    public GrammarAnalyzer(List<GrammarNfaTransition> terminalTransitions, NfaFragment root) {
+    public GrammarAnalyzer(List<GrammarNfaTransition> terminalTransitions, NfaFragment root, GrammarLexer lexer) {
         this.terminalTransitions = terminalTransitions;
         this.root = root;
+        this.lexer = lexer;
     }
 
     public List<String> getErrors() {
@@ -141,6 +144,6 @@ class GrammarAnalyzer {
                 }
             }
         }
-        start.prepare();
+        start.prepare(lexer);
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common;
+
+/**
+ * Replacement of the text fragment describing the change of the parsed text
+ */
+public class ParseTextEdit {
+    private final int offset;
+    private final int length;
+    private final String text;
+
+    /**
+     * @param offset position of the replaced fragment in the original text
+     * @param length length of the replaced fragment
+     * @param text new content of the fragment
+     */
+    public ParseTextEdit(int offset, int length, String text) {
+        this.offset = offset;
+        this.length = length;
+        this.text = text;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return difference of the text length after the edit
+     */
+    public int getDelta() {
+        return text.length() - length;
+    }
+
+    public String apply(String originalText) {
+        return originalText.substring(0, offset) + text + originalText.substring(offset + length);
+    }
+
+    @Override
+    public String toString() {
+        return "ParseTextEdit[" + offset + ", " + length + ", '" + text + "']";
+    }
+}
@@ -26,21 +26,24 @@ import java.util.stream.StreamSupport;
 
 /**
  * Parsing tree
+ *
+ * Node position is kept relative to the parent node, so the tree can be updated after the text edit
+ * by shifting just the siblings of the edited node and of its ancestors.
  */
 public class ParseTreeNode {
     private final GrammarRule rule;
     private final String tag;
-    private final int position;
-    private final ParseTreeNode parent;
     private final List<ParseTreeNode> children;
 
-    private int endPosition;
+    private ParseTreeNode parent;
+    private int offset;
+    private int length;
     
     public ParseTreeNode(GrammarRule rule, String tag, int position, int endPosition, ParseTreeNode parent, List<ParseTreeNode> children) {
         this.rule = rule;
         this.tag = tag;
-        this.position = position;
-        this.endPosition = endPosition;
+        this.offset = parent == null ? position : position - parent.getPosition();
+        this.length = endPosition - position;
         this.parent = parent;
         this.children = children;
     }
@@ -54,15 +57,19 @@ public class ParseTreeNode {
     }
     
     public int getPosition() {
+        int position = 0;
+        for (ParseTreeNode node = this; node != null; node = node.parent) {
+            position += node.offset;
+        }
         return position;
     }
 
     public int getEndPosition() {
-        return endPosition;
+        return getPosition() + length;
     }
     
     void setEndPosition(int endPosition) {
-        this.endPosition = endPosition;
+        this.length = endPosition - getPosition();
     }
 
     public ParseTreeNode getParent() {
@@ -91,11 +98,153 @@ public class ParseTreeNode {
         );
     }
 
+    /**
+     * Collect all the nodes containing the given range, the nested nodes go before their parents
+     */
+    void collectEnclosingNodes(int start, int end, List<ParseTreeNode> result) {
+        collectEnclosingNodes(getPosition(), start, end, result);
+    }
+
+    private void collectEnclosingNodes(int nodePosition, int start, int end, List<ParseTreeNode> result) {
+        if (start < nodePosition || end > nodePosition + length) {
+            return;
+        }
+        for (int i = findLastChildBefore(nodePosition, start + 1); i >= 0; i--) {
+            ParseTreeNode child = children.get(i);
+            int childPosition = nodePosition + child.offset;
+            if (childPosition + child.length < end) {
+                break;
+            }
+            child.collectEnclosingNodes(childPosition, start, end, result);
+        }
+        result.add(this);
+    }
+
+    /**
+     * Find the deepest node containing the character at the given position
+     */
+    ParseTreeNode findNodeAt(int position) {
+        int nodePosition = getPosition();
+        if (position < nodePosition || position >= nodePosition + length) {
+            return null;
+        }
+        ParseTreeNode node = this;
+        while (true) {
+            int index = node.findLastChildBefore(nodePosition, position + 1);
+            if (index < 0) {
+                return node;
+            }
+            ParseTreeNode child = node.children.get(index);
+            if (position >= nodePosition + child.offset + child.length) {
+                return node;
+            }
+            node = child;
+            nodePosition += child.offset;
+        }
+    }
+
+    /**
+     * Find the last term starting before the given position
+     */
+    ParseTreeNode findTermBefore(int position) {
+        return findTermBefore(getPosition(), position);
+    }
+
+    private ParseTreeNode findTermBefore(int nodePosition, int position) {
+        for (int i = findLastChildBefore(nodePosition, position); i >= 0; i--) {
+            ParseTreeNode child = children.get(i);
+            ParseTreeNode term = child.isTerm() ? child : child.findTermBefore(nodePosition + child.offset, position);
+            if (term != null) {
+                return term;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first term ending after the given position
+     */
+    ParseTreeNode findTermAfter(int position) {
+        return findTermAfter(getPosition(), position);
+    }
+
+    private ParseTreeNode findTermAfter(int nodePosition, int position) {
+        // the last child starting before the position can still end after it
+        for (int i = Math.max(findLastChildBefore(nodePosition, position), 0); i < children.size(); i++) {
+            ParseTreeNode child = children.get(i);
+            int childPosition = nodePosition + child.offset;
+            if (childPosition + child.length <= position) {
+                continue;
+            }
+            ParseTreeNode term = child.isTerm() ? child : child.findTermAfter(childPosition, position);
+            if (term != null) {
+                return term;
+            }
+        }
+        return null;
+    }
+
+    private boolean isTerm() {
+        return rule == null && children.isEmpty();
+    }
+
+    private int findLastChildBefore(int nodePosition, int position) {
+        int index = -1;
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (nodePosition + children.get(middle).offset < position) {
+                index = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Take the content of the node reparsed after the text edit and shift the following nodes of the tree accordingly
+     *
+     * @param source node of the same rule parsed from the new text of this node
+     */
+    void replaceContent(ParseTreeNode source) {
+        int delta = source.length - this.length;
+        this.children.clear();
+        for (ParseTreeNode child : source.children) {
+            child.parent = this;
+            this.children.add(child);
+        }
+        this.length = source.length;
+        resizeAncestors(delta);
+    }
+
+    /**
+     * Move the node and the following nodes of the tree after the text edit in front of them
+     */
+    void shift(int delta) {
+        this.offset += delta;
+        resizeAncestors(delta);
+    }
+
+    private void resizeAncestors(int delta) {
+        for (ParseTreeNode node = this; node.parent != null; node = node.parent) {
+            List<ParseTreeNode> siblings = node.parent.children;
+            for (int i = siblings.size() - 1; i >= 0 && siblings.get(i) != node; i--) {
+                siblings.get(i).offset += delta;
+            }
+            node.parent.length += delta;
+        }
+    }
+
     private void collectStringImpl(StringBuilder sb, String text, String indent) {
+        int position = this.getPosition();
+        int endPosition = position + this.length;
         sb.append(indent);
         if (this.rule == null && this.children.size() == 0) {
-            if (text != null && this.position >= 0 && this.endPosition >= this.position && this.endPosition <= text.length()) {
-                sb.append("'").append(text.substring(this.position, this.endPosition)).append("'");
+            if (text != null && position >= 0 && endPosition >= position && endPosition <= text.length()) {
+                sb.append("'").append(text.substring(position, endPosition)).append("'");
             } else {
                 sb.append("<TERM> ");
             }
@@ -104,7 +253,7 @@ public class ParseTreeNode {
         }
 
         if (text != null || (this.rule == null && this.children.size() == 0)) {
-            sb.append(" (").append(this.position).append("-").append(this.endPosition).append(")");
+            sb.append(" (").append(position).append("-").append(endPosition).append(")");
         }
         sb.append("\n");
         
@@ -24,8 +24,11 @@ import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaOperation;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaState;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaTransition;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.ParseOperationKind;
+import org.jkiss.dbeaver.parser.common.lexer.GrammarLexer;
+import org.jkiss.dbeaver.parser.common.lexer.LexerScan;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -33,10 +36,14 @@ import java.util.stream.StreamSupport;
 public class Parser {
     private final GrammarInfo grammar;
     private final NfaFragment nfa;
+    private final GrammarLexer lexer;
+    // parsers of the separate rules used to reparse the parts of the text
+    private final Map<GrammarRule, ParserFactory> ruleParserFactories = new ConcurrentHashMap<>();
 
-    public Parser(GrammarInfo grammar, NfaFragment nfa) {
+    public Parser(GrammarInfo grammar, NfaFragment nfa, GrammarLexer lexer) {
         this.grammar = grammar;
         this.nfa = nfa;
+        this.lexer = lexer;
     }
 
     private static ImmList<ParsingStep> performPush(
@@ -48,7 +55,7 @@ public class Parser {
             transition.getOperation().getExprId(),
             exprPosition,
             transition.getOperation().getRule(),
-            allPrevSteps.map(s -> s.stack)
+            allPrevSteps.map(s -> s.stack).distinct()
         )));
     }
 
@@ -83,7 +90,7 @@ public class Parser {
                 transition.getOperation().getExprId(),
                 exprPosition.apply(prevSteps.peek().stack.exprPosition),
                 transition.getOperation().getRule(),
-                prevSteps.flatMap(prevStep -> prevStep.stack.pop())
+                prevSteps.flatMap(prevStep -> prevStep.stack.pop()).distinct()
             )));
         } else {
             return prevSteps.map(prevStep -> new ParsingStep(ImmList.of(prevStep), transition, StackFrame.push(
@@ -137,9 +144,57 @@ public class Parser {
             default:
                 throw new UnsupportedOperationException("Unexpected parse operation kind " + op.getKind());
         }
+        return packSteps(result);
+    }
+
+    /**
+     * Merge steps made with the same transition over the same stack into one step with all their predecessors,
+     * so alternative derivations of the same parser configuration are shared instead of being multiplied
+     */
+    private static ImmList<ParsingStep> packSteps(ImmList<ParsingStep> steps) {
+        if (steps.isEmpty() || steps.pop().isEmpty() || !hasSameSteps(steps)) {
+            return steps;
+        }
+        Map<StepKey, ParsingStep> packed = new LinkedHashMap<>();
+        boolean hasDuplicates = false;
+        for (ParsingStep step : steps) {
+            StepKey key = new StepKey(step.transition, step.stack);
+            ParsingStep other = packed.get(key);
+            if (other == null) {
+                packed.put(key, step);
+            } else {
+                packed.put(key, new ParsingStep(other.prev.merge(step.prev).distinct(), step.transition, step.stack));
+                hasDuplicates = true;
+            }
+        }
+        if (!hasDuplicates) {
+            return steps;
+        }
+        ImmList<ParsingStep> result = ImmList.empty();
+        for (ParsingStep step : packed.values()) {
+            result = result.push(step);
+        }
         return result;
     }
 
+    private static boolean hasSameSteps(ImmList<ParsingStep> steps) {
+        int count = 0;
+        for (ImmList<ParsingStep> a = steps; !a.isEmpty(); a = a.pop()) {
+            if (++count > 8) {
+                // long lists are checked with hashing
+                return true;
+            }
+        }
+        for (ImmList<ParsingStep> a = steps; !a.isEmpty(); a = a.pop()) {
+            for (ImmList<ParsingStep> b = a.pop(); !b.isEmpty(); b = b.pop()) {
+                if (a.peek().stack == b.peek().stack && a.peek().transition == b.peek().transition) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Parse text
      *
@@ -150,20 +205,153 @@ public class Parser {
     }
 
     public ParseResult parse(String text, boolean firstResult, BooleanSupplier cancellationChecker) {
-        PositionsQueue queue = new PositionsQueue(text.length(), nfa.getFrom());
+        return parse(lexer.scan(text));
+    }
+
+    /**
+     * Update the parse tree after the text edit.
+     * The smallest node enclosing the edited region which can be parsed again with its own rule gets the new content,
+     * while the rest of the tree is kept and just shifted. If there is no such node, the whole text is parsed.
+     *
+     * @param tree parse tree of the text before the edit, it is updated in place when possible
+     * @param oldText the text before the edit
+     * @param edit the text edit
+     * @param text the text after the edit
+     * @param withWhitespaces true if the tree was built with whitespaces
+     * @return the updated tree, the new tree or null if the text is not valid anymore
+     */
+    public ParseTreeNode reparse(ParseTreeNode tree, String oldText, ParseTextEdit edit, String text, boolean withWhitespaces) {
+        if (!withWhitespaces && reparseWhitespaces(tree, oldText, edit, text)) {
+            return tree;
+        }
+        List<ParseTreeNode> nodes = new ArrayList<>();
+        tree.collectEnclosingNodes(edit.getOffset(), edit.getOffset() + edit.getLength(), nodes);
+        nodes.sort(Comparator.comparingInt(n -> n.getEndPosition() - n.getPosition()));
+        for (ParseTreeNode node : nodes) {
+            if (node.getRule() != null && reparseNode(tree, node, oldText, edit, text, withWhitespaces)) {
+                return tree;
+            }
+        }
+        List<ParseTreeNode> trees = parse(text).getTrees(withWhitespaces);
+        return trees.isEmpty() ? null : trees.get(0);
+    }
+
+    /**
+     * Whitespaces between the terms are not presented in the tree, so their edit just moves the following nodes
+     */
+    private boolean reparseWhitespaces(ParseTreeNode tree, String oldText, ParseTextEdit edit, String text) {
+        if (grammar.getSkipRuleName() == null) {
+            return false;
+        }
+        ParseTreeNode prevTerm = tree.findTermBefore(edit.getOffset());
+        ParseTreeNode nextTerm = tree.findTermAfter(edit.getOffset() + edit.getLength());
+        int start = prevTerm == null ? 0 : prevTerm.getEndPosition();
+        int oldEnd = nextTerm == null ? oldText.length() : nextTerm.getPosition();
+        if (start > edit.getOffset() || oldEnd < edit.getOffset() + edit.getLength() || tree.findTermAfter(start) != nextTerm) {
+            // some terms are edited
+            return false;
+        }
+        GrammarRule termRule = nextTerm == null ? grammar.getRule(grammar.getStartRuleName()) : nextTerm.getParent().getRule();
+        if (termRule != null && !termRule.isUseSkipRule()) {
+            return false;
+        }
+        if (!isSameTermsAround(tree, start, oldEnd, oldText, edit, text)) {
+            return false;
+        }
+        if (start < text.length() && !lexer.isSameTermIdsAt(oldText, start, text, start)) {
+            // the new text may start another term at the boundary, e.g. operator "-" of the inserted "--" comment
+            return false;
+        }
+        Parser skipParser = getRuleParser(grammar.getRule(grammar.getSkipRuleName()));
+        if (skipParser == null || !skipParser.parse(skipParser.lexer.scan(text, start, oldEnd + edit.getDelta())).isSuccess()) {
+            return false;
+        }
+        if (nextTerm != null) {
+            nextTerm.shift(edit.getDelta());
+        } else {
+            tree.setEndPosition(tree.getEndPosition() + edit.getDelta());
+        }
+        return true;
+    }
+
+    private boolean reparseNode(
+        ParseTreeNode tree,
+        ParseTreeNode node,
+        String oldText,
+        ParseTextEdit edit,
+        String text,
+        boolean withWhitespaces
+    ) {
+        int start = node.getPosition();
+        int oldEnd = node.getEndPosition();
+        int end = oldEnd + edit.getDelta();
+        if (!isSameTermsAround(tree, start, oldEnd, oldText, edit, text)) {
+            return false;
+        }
+        Parser ruleParser = getRuleParser(node.getRule());
+        if (ruleParser == null) {
+            return false;
+        }
+        List<ParseTreeNode> trees = ruleParser.parse(ruleParser.lexer.scan(text, start, end)).getTrees(withWhitespaces);
+        if (trees.size() != 1) {
+            return false;
+        }
+        ParseTreeNode newNode = null;
+        for (ParseTreeNode child : trees.get(0).getChildren()) {
+            if (child.getRule() == node.getRule()) {
+                newNode = child;
+            } else if (child.getEndPosition() > child.getPosition()) {
+                return false;
+            }
+        }
+        if (newNode == null || newNode.getPosition() != 0 || newNode.getEndPosition() != end - start) {
+            return false;
+        }
+        node.replaceContent(newNode);
+        return true;
+    }
+
+    /**
+     * Check if the terms before and after the reparsed part of the text are not affected by the edit
+     */
+    private boolean isSameTermsAround(ParseTreeNode tree, int start, int oldEnd, String oldText, ParseTextEdit edit, String text) {
+        if (start > 0) {
+            ParseTreeNode prevTerm = tree.findNodeAt(start - 1);
+            if (prevTerm == null || !prevTerm.getChildren().isEmpty() || prevTerm.getEndPosition() != start
+                || !lexer.isSameTermsAt(oldText, prevTerm.getPosition(), text, prevTerm.getPosition())
+            ) {
+                return false;
+            }
+        }
+        return oldEnd >= oldText.length() || lexer.isSameTermsAt(oldText, oldEnd, text, oldEnd + edit.getDelta());
+    }
+
+    private Parser getRuleParser(GrammarRule rule) {
+        ParserFactory factory = ruleParserFactories.computeIfAbsent(
+            rule,
+            r -> ParserFactory.getFactory(grammar.withStartRule(r.getName()))
+        );
+        return factory.getErrors().isEmpty() ? factory.createParser() : null;
+    }
+
+    private ParseResultImpl parse(LexerScan scan) {
+        PositionsQueue queue = new PositionsQueue(scan.getLength(), nfa.getFrom());
 
         ArrayList<ParserState> results = new ArrayList<>();
-        ArrayDeque<LocalState> localStates = new ArrayDeque<>();
+        LocalStatesQueue localStates = new LocalStatesQueue();
         while (queue.isNotEmpty()) { // stepping through positions as terms are being discovered
             for (ParserState state : queue.dequeue()) { // for each local context
                 if (state.nfaState == nfa.getTo()) {
                     results.add(state);
                 }
-                GrammarNfaState.DispatchResult dispatchResult = state.nfaState.dispatch(text, state.position);
+                GrammarNfaState.DispatchResult dispatchResult = state.nfaState.dispatch(scan, state.position);
+                if (dispatchResult != null && dispatchResult.end > scan.getLength()) {
+                    // term crosses the end of the scanned part, so it can't be parsed separately from the rest of the text
+                    return new ParseResultImpl(new ArrayList<>(), scan.getLength(), queue.boundaryPosition, List.of());
+                }
                 if (dispatchResult != null) {
-                    localStates.clear();
                     for (GrammarNfaTransition t : dispatchResult.transitions) {
-                        localStates.offer(new LocalState(state.paths, t));
+                        localStates.offer(state.paths, t);
                     }
                     while (!localStates.isEmpty()) { // advance the context as far as possible till next term
                         LocalState localState = localStates.remove();
@@ -172,7 +360,7 @@ public class Parser {
                             queue.enqueue(state.makeNext(
                                 dispatchResult.end,
                                 localState.transitionToGo.getTo(),
-                                localState.prevSteps.map(s -> new ParsingStep(ImmList.of(s), localState.transitionToGo, s.stack))
+                                packSteps(localState.prevSteps.map(s -> new ParsingStep(ImmList.of(s), localState.transitionToGo, s.stack)))
                             ));
                         } else {
                             // just apply the context-local operations between the terms
@@ -186,10 +374,10 @@ public class Parser {
                                                 s -> new ParsingStep(ImmList.of(s), t, s.stack)
                                             )));
                                         } else {
-                                            localStates.offer(new LocalState(stepsDone, t));
+                                            localStates.offer(stepsDone, t);
                                         }
                                     } else {
-                                        localStates.offer(new LocalState(stepsDone, t));
+                                        localStates.offer(stepsDone, t);
                                     }
                                 }
                             }
@@ -199,7 +387,7 @@ public class Parser {
             }
         }
 
-        return new ParseResultImpl(results, text, queue.boundaryPosition, queue.getBoundaryStates());
+        return new ParseResultImpl(results, scan.getLength(), queue.boundaryPosition, queue.getBoundaryStates());
     }
 
     private static class ImmList<T> implements Iterable<T> {
@@ -299,6 +487,28 @@ public class Parser {
             return this == SENTINEL;
         }
 
+        /**
+         * @return list without repeated references to the same objects
+         */
+        public ImmList<T> distinct() {
+            if (this == SENTINEL || this.next == SENTINEL) {
+                return this;
+            }
+            Set<T> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            boolean hasDuplicates = false;
+            for (ImmList<T> item = this; item != SENTINEL; item = item.next) {
+                if (!seen.add(item.data)) {
+                    hasDuplicates = true;
+                    break;
+                }
+            }
+            if (!hasDuplicates) {
+                return this;
+            }
+            seen.clear();
+            return this.filter(seen::add);
+        }
+
         public ImmList<T> pop() {
             if (this.isEmpty()) {
                 throw new NoSuchElementException();
@@ -516,7 +726,7 @@ public class Parser {
             if (other == null) {
                 return this;
             } else if (other.position == this.position && other.nfaState == this.nfaState) {
-                return new ParserState(this.prev.merge(other.prev), position, nfaState, this.paths.merge(other.paths));
+                return new ParserState(this.prev.merge(other.prev).distinct(), position, nfaState, packSteps(this.paths.merge(other.paths)));
             } else {
                 throw new IllegalArgumentException();
             }
@@ -588,7 +798,7 @@ public class Parser {
     }
 
     private static class LocalState {
-        public final ImmList<ParsingStep> prevSteps;
+        public ImmList<ParsingStep> prevSteps;
         public final GrammarNfaTransition transitionToGo;
 
         public LocalState(ImmList<ParsingStep> prevSteps, GrammarNfaTransition transitionToGo) {
@@ -597,6 +807,93 @@ public class Parser {
         }
     }
 
+    /**
+     * Queue of the transitions to evaluate between the terms.
+     * Steps arriving to the transition which is still waiting in the queue are joined to it,
+     * so each transition is evaluated once for all the stacks reaching it the same way.
+     */
+    private static class LocalStatesQueue {
+        private static final int MAX_SCAN_LENGTH = 32;
+
+        private final ArrayList<LocalState> queue = new ArrayList<>(MAX_SCAN_LENGTH);
+        private int head = 0;
+        // index of the waiting states, used only when queue is too long to scan
+        private Map<GrammarNfaTransition, LocalState> pending = null;
+
+        public void offer(ImmList<ParsingStep> prevSteps, GrammarNfaTransition transition) {
+            LocalState localState = findPending(transition);
+            if (localState != null) {
+                localState.prevSteps = localState.prevSteps.merge(prevSteps);
+                return;
+            }
+            localState = new LocalState(prevSteps, transition);
+            queue.add(localState);
+            if (pending != null) {
+                pending.put(transition, localState);
+            } else if (queue.size() - head > MAX_SCAN_LENGTH) {
+                pending = new IdentityHashMap<>();
+                for (int i = head; i < queue.size(); i++) {
+                    pending.put(queue.get(i).transitionToGo, queue.get(i));
+                }
+            }
+        }
+
+        private LocalState findPending(GrammarNfaTransition transition) {
+            if (pending != null) {
+                return pending.get(transition);
+            }
+            for (int i = head; i < queue.size(); i++) {
+                if (queue.get(i).transitionToGo == transition) {
+                    return queue.get(i);
+                }
+            }
+            return null;
+        }
+
+        public boolean isEmpty() {
+            return head == queue.size();
+        }
+
+        public LocalState remove() {
+            LocalState localState = queue.get(head);
+            queue.set(head++, null);
+            if (head > MAX_SCAN_LENGTH && head * 2 > queue.size()) {
+                queue.subList(0, head).clear();
+                head = 0;
+            }
+            if (pending != null) {
+                pending.remove(localState.transitionToGo);
+            }
+            if (head == queue.size()) {
+                queue.clear();
+                head = 0;
+                pending = null;
+            }
+            localState.prevSteps = packSteps(localState.prevSteps);
+            return localState;
+        }
+    }
+
+    private static class StepKey {
+        private final GrammarNfaTransition transition;
+        private final StackFrame stack;
+
+        public StepKey(GrammarNfaTransition transition, StackFrame stack) {
+            this.transition = transition;
+            this.stack = stack;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(transition) * 31 + System.identityHashCode(stack);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof StepKey && ((StepKey) obj).transition == transition && ((StepKey) obj).stack == stack;
+        }
+    }
+
     private static class PathStep {
         public final PathStep next;
         public final ParserState state;
@@ -638,13 +935,13 @@ public class Parser {
 
     private class ParseResultImpl implements ParseResult {
         private final ArrayList<ParserState> results;
-        private final String text;
+        private final int textLength;
         private final int boundaryPosition;
         private final Collection<ParserState> boundaryStates;
 
-        public ParseResultImpl(ArrayList<ParserState> results, String text, int boundaryPosition, Collection<ParserState> boundaryStates) {
+        public ParseResultImpl(ArrayList<ParserState> results, int textLength, int boundaryPosition, Collection<ParserState> boundaryStates) {
             this.results = results;
-            this.text = text;
+            this.textLength = textLength;
             this.boundaryPosition = boundaryPosition;
             this.boundaryStates = boundaryStates;
         }
@@ -658,13 +955,13 @@ public class Parser {
         }
 
         public String[] getBoundaryExpectedContinuations() {
-            ArrayDeque<LocalState> localStates = new ArrayDeque<>();
+            LocalStatesQueue localStates = new LocalStatesQueue();
             HashSet<TermPatternInfo> expectedTerms = new HashSet<TermPatternInfo>();
             for (ParserState state : boundaryStates) {
                 for (Map.Entry<TermPatternInfo, List<GrammarNfaTransition>> nextByTerm : state.nfaState.getAllNextByTerms().entrySet()) {
                     TermPatternInfo term = nextByTerm.getKey();
                     for (GrammarNfaTransition t : nextByTerm.getValue()) {
-                        localStates.offer(new LocalState(state.paths, t));
+                        localStates.offer(state.paths, t);
                     }
                     while (!localStates.isEmpty()) { // advance the context as far as possible till next term
                         LocalState localState = localStates.remove();
@@ -680,10 +977,10 @@ public class Parser {
                                         if (!finalSteps.isEmpty()) {
                                             expectedTerms.add(TermPatternInfo.EOF);
                                         } else {
-                                            localStates.offer(new LocalState(stepsDone, t));
+                                            localStates.offer(stepsDone, t);
                                         }
                                     } else {
-                                        localStates.offer(new LocalState(stepsDone, t));
+                                        localStates.offer(stepsDone, t);
                                     }
                                 }
                             }
@@ -815,7 +1112,7 @@ public class Parser {
          */
         private ParseTreeNode reconstructTree(PathStep treePath, boolean withWhitespaces) {
             GrammarRule skipRule = grammar.getSkipRuleName() == null ? null : grammar.getRule(grammar.getSkipRuleName());
-            ParseTreeNode treeRoot = new ParseTreeNode(null, null, 0, text.length(), null, new ArrayList<>());
+            ParseTreeNode treeRoot = new ParseTreeNode(null, null, 0, textLength, null, new ArrayList<>());
             ParseTreeNode current = treeRoot;
             int pos = 0;
             int skipDepth = 0;
@@ -20,6 +20,7 @@ import org.jkiss.dbeaver.parser.common.grammar.GrammarInfo;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaBuilder;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaBuilder.NfaFragment;
 import org.jkiss.dbeaver.parser.common.grammar.nfa.GrammarNfaTransition;
+import org.jkiss.dbeaver.parser.common.lexer.GrammarLexer;
 
 import java.util.List;
 
@@ -30,11 +31,13 @@ public class ParserFactory {
     
     private final GrammarInfo grammar;
     private final NfaFragment nfa;
+    private final GrammarLexer lexer;
     private final List<String> errors;
 
-    private ParserFactory(GrammarInfo grammar, NfaFragment nfa, List<String> errors) {
+    private ParserFactory(GrammarInfo grammar, NfaFragment nfa, GrammarLexer lexer, List<String> errors) {
         this.grammar = grammar;
         this.nfa = nfa;
+        this.lexer = lexer;
         this.errors = errors;
     }
     
@@ -44,17 +47,19 @@ public class ParserFactory {
         List<GrammarNfaTransition> terminalTransitions = builder.getTerminalTransitions();
 
         if (builder.getErrors().size() > 0) {
-            return new ParserFactory(grammar, null, builder.getErrors());
+            return new ParserFactory(grammar, null, null, builder.getErrors());
         }
 
-        GrammarAnalyzer analyzer = new GrammarAnalyzer(terminalTransitions, root);
+        // all the terminals are compiled into the single automaton, so the states just test expected terms against its results
+        GrammarLexer lexer = GrammarLexer.compile(builder.getTerms());
+        GrammarAnalyzer analyzer = new GrammarAnalyzer(terminalTransitions, root, lexer);
         analyzer.discoverByTermRelations();
 
         if (analyzer.getErrors().size() > 0) {
-            return new ParserFactory(grammar, null, analyzer.getErrors());
+            return new ParserFactory(grammar, null, null, analyzer.getErrors());
         }
 
-        return new ParserFactory(grammar, root, List.of());
+        return new ParserFactory(grammar, root, lexer, List.of());
     }
 
     public List<String> getErrors() {
@@ -62,6 +67,6 @@ public class ParserFactory {
     }
 
     public Parser createParser() {
-        return new Parser(grammar, nfa);
+        return new Parser(grammar, nfa, lexer);
     }
 }
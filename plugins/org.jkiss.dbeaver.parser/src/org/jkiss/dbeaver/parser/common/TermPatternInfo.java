@@ -1,8 +1,16 @@
 package org.jkiss.dbeaver.parser.common;
 
+import java.util.Comparator;
+
 public class TermPatternInfo {
     public static final TermPatternInfo EOF = new TermPatternInfo(-1, null, TermPatternCaps.FIXED);
 
+    /**
+     * Order in which terms matching at the same position are tried: fixed terms first, then variable ones
+     */
+    public static final Comparator<TermPatternInfo> DISPATCH_ORDER = Comparator.<TermPatternInfo>comparingInt(t -> t.caps.priority)
+        .thenComparingInt(t -> t.id);
+
     public final int id;
     public final String pattern;
     public final TermPatternCaps caps;
@@ -17,14 +25,6 @@ public class TermPatternInfo {
         return this.pattern == null;
     }
 
-    public String makeRegexGroup() {
-        return "(?<g" + id + ">(" + pattern + "))";
-    }
-
-    public String makeRegexGroupName() {
-        return "g" + id;
-    }
-
     @Override
     public int hashCode() {
         return Integer.hashCode(this.id);
@@ -61,6 +61,13 @@ public class GrammarInfo {
     public Collection<GrammarRule> getRules() {
         return Collections.unmodifiableCollection(this.rules.values());
     }
+
+    /**
+     * Same rule set to parse the text described with another rule
+     */
+    public GrammarInfo withStartRule(String startRule) {
+        return new GrammarInfo(this.name, startRule, this.skipRuleName, this.rules);
+    }
     
     public static GrammarInfo ofRules(String name, GrammarRule... rules) {
         Map<String, GrammarRule> rulesByName = new HashMap<>();
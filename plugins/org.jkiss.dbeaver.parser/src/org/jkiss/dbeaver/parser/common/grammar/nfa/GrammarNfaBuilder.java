@@ -67,6 +67,10 @@ public class GrammarNfaBuilder {
         return this.terminalTransitions;
     }
 
+    public Collection<TermPatternInfo> getTerms() {
+        return this.terms.values();
+    }
+
     private int nextExprId() {
         return this.exprId++;
     }
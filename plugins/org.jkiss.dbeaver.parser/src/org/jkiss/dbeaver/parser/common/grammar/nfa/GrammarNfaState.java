@@ -18,11 +18,10 @@ package org.jkiss.dbeaver.parser.common.grammar.nfa;
 
 import org.jkiss.dbeaver.parser.common.TermPatternInfo;
 import org.jkiss.dbeaver.parser.common.grammar.GrammarRule;
+import org.jkiss.dbeaver.parser.common.lexer.GrammarLexer;
+import org.jkiss.dbeaver.parser.common.lexer.LexerScan;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * State in the grammar graph
@@ -34,9 +33,9 @@ public class GrammarNfaState {
 
     private HashMap<TermPatternInfo, ArrayList<GrammarNfaTransition>> nextByTerm = null;
 
-    private TermGroup eofGroup = null;
-    private LinkedHashMap<String, TermGroup> termGroupByName = null;
-    private Pattern pattern = null;
+    private ArrayList<GrammarNfaTransition> eofTransitions = null;
+    private BitSet expectedTermIds = null;
+    private TermPatternInfo[] fallbackTerms = null;
 
     public GrammarNfaState(int id, GrammarRule rule) {
         this.id = id;
@@ -113,61 +112,68 @@ public class GrammarNfaState {
         }
     }
 
-    public void prepare() {
-        // if (nextByTerm == null) {
-        //     System.out.println("WTF " + rule.getName());
-        // }
-        List<TermPatternInfo> parts = new ArrayList<>(nextByTerm.size());
-        this.termGroupByName = new LinkedHashMap<>();
-        for (Map.Entry<TermPatternInfo, ArrayList<GrammarNfaTransition>> step : nextByTerm.entrySet()) {
-            String groupName = step.getKey().makeRegexGroupName();
-            TermGroup termGroup = new TermGroup(groupName, step.getKey(), step.getValue());
-            if (step.getKey().isEOF()) {
-                this.eofGroup = termGroup;
+    /**
+     * Prepare the state for dispatching with the grammar lexer
+     */
+    public void prepare(GrammarLexer lexer) {
+        List<TermPatternInfo> fallbackTerms = new ArrayList<>();
+        this.expectedTermIds = new BitSet();
+        // state may be a dead end when it belongs to the rule not reachable from the start rule
+        for (TermPatternInfo term : getExpectedTerms()) {
+            if (term.isEOF()) {
+                this.eofTransitions = nextByTerm.get(term);
+            } else if (lexer.isCompiled(term)) {
+                this.expectedTermIds.set(term.id);
             } else {
-                parts.add(step.getKey());
-                this.termGroupByName.put(groupName, termGroup);
+                fallbackTerms.add(term);
             }
         }
-        parts.sort(Comparator.comparingInt(a -> a.caps.priority));
-        this.pattern = Pattern.compile("(" + parts.stream().map(TermPatternInfo::makeRegexGroup).collect(Collectors.joining("|")) + ")");
+        fallbackTerms.sort(TermPatternInfo.DISPATCH_ORDER);
+        this.fallbackTerms = fallbackTerms.toArray(new TermPatternInfo[0]);
     }
 
-    public DispatchResult dispatch(String text, int position) {
-        if (pattern == null) {
+    /**
+     * Find the term expected by this state at the given position of the text
+     *
+     * @return the first expected term in dispatch order matching non-empty text or null
+     */
+    public DispatchResult dispatch(LexerScan scan, int position) {
+        if (expectedTermIds == null) {
             throw new IllegalStateException();
         }
-        if (position >= text.length()) {
-            if (eofGroup != null) {
-                return new DispatchResult(eofGroup.term, position, eofGroup.transitions);
+        if (position >= scan.getLength()) {
+            if (eofTransitions != null) {
+                return new DispatchResult(TermPatternInfo.EOF, position, eofTransitions);
             }
         } else {
-            Matcher matcher = this.pattern.matcher(text);
-            if (matcher.find(position)) {
-                for (TermGroup g : this.termGroupByName.values()) {
-                    int end = matcher.end(g.groupName);
-                    if (end > 0 && end - position > 0 && matcher.start(g.groupName) == position) {
-                        return new DispatchResult(g.term, end, g.transitions);
-                    }
+            TermPatternInfo term = null;
+            int end = -1;
+            int[] matches = scan.getMatches(position);
+            for (int i = 0; i < matches.length; i += 2) {
+                if (expectedTermIds.get(matches[i])) {
+                    term = scan.getTerm(matches[i]);
+                    end = matches[i + 1];
+                    break;
                 }
             }
+            for (TermPatternInfo fallbackTerm : fallbackTerms) {
+                if (term != null && TermPatternInfo.DISPATCH_ORDER.compare(fallbackTerm, term) > 0) {
+                    break;
+                }
+                int fallbackEnd = scan.matchFallback(fallbackTerm, position);
+                if (fallbackEnd > position) {
+                    term = fallbackTerm;
+                    end = fallbackEnd;
+                    break;
+                }
+            }
+            if (term != null) {
+                return new DispatchResult(term, end, nextByTerm.get(term));
+            }
         }
         return null;
     }
 
-    private static class TermGroup {
-        private final String groupName;
-        private final TermPatternInfo term;
-        private final ArrayList<GrammarNfaTransition> transitions;
-
-        public TermGroup(String groupName, TermPatternInfo term, ArrayList<GrammarNfaTransition> transitions) {
-            this.groupName = groupName;
-            this.term = term;
-            this.transitions = transitions;
-            this.transitions.trimToSize();
-        }
-    }
-
     public static class DispatchResult {
         public final TermPatternInfo term;
         public final int end;
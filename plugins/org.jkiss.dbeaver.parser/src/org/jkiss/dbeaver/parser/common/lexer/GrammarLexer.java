@@ -0,0 +1,496 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common.lexer;
+
+import org.jkiss.dbeaver.parser.common.TermPatternInfo;
+import org.jkiss.dbeaver.parser.common.lexer.LexerPatternParser.*;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Lexer of all the grammar terminals compiled to the single deterministic automaton over char classes.
+ *
+ * Scanning from some position reports every term matching there with its longest match end,
+ * so the parser states only have to check which of the matched terms they expect.
+ * Terms which can't be represented with finite automaton are matched with java.util.regex on demand.
+ */
+public class GrammarLexer {
+
+    private static final int MAX_DFA_STATES = 20000;
+    private static final int ASCII_SIZE = 128;
+
+    private final TermPatternInfo[] termsById;
+    private final int[] rankById;
+    private final boolean[] boundaryBefore;
+    private final boolean[] boundaryAfter;
+    private final Pattern[] fallbackById;
+
+    // char class lookup
+    private final int[] asciiClasses;
+    private final int[] classStarts;
+    private final int classCount;
+
+    // transitions[state * classCount + charClass] is the next state or -1, state 0 is the initial one
+    private final int[] transitions;
+    private final int[][] acceptsByState;
+
+    private GrammarLexer(
+        TermPatternInfo[] termsById,
+        int[] rankById,
+        boolean[] boundaryBefore,
+        boolean[] boundaryAfter,
+        Pattern[] fallbackById,
+        int[] classStarts,
+        int[] transitions,
+        int[][] acceptsByState
+    ) {
+        this.termsById = termsById;
+        this.rankById = rankById;
+        this.boundaryBefore = boundaryBefore;
+        this.boundaryAfter = boundaryAfter;
+        this.fallbackById = fallbackById;
+        this.classStarts = classStarts;
+        this.classCount = classStarts.length;
+        this.transitions = transitions;
+        this.acceptsByState = acceptsByState;
+
+        this.asciiClasses = new int[ASCII_SIZE];
+        for (int c = 0; c < ASCII_SIZE; c++) {
+            this.asciiClasses[c] = findClass(classStarts, c);
+        }
+    }
+
+    /**
+     * Compile all the terminals of the grammar into the lexer automaton
+     */
+    public static GrammarLexer compile(Collection<TermPatternInfo> terms) {
+        int maxId = 0;
+        for (TermPatternInfo term : terms) {
+            maxId = Math.max(maxId, term.id);
+        }
+        TermPatternInfo[] termsById = new TermPatternInfo[maxId + 1];
+        int[] rankById = new int[maxId + 1];
+        boolean[] boundaryBefore = new boolean[maxId + 1];
+        boolean[] boundaryAfter = new boolean[maxId + 1];
+        Pattern[] fallbackById = new Pattern[maxId + 1];
+
+        List<TermPatternInfo> orderedTerms = new ArrayList<>(terms);
+        orderedTerms.removeIf(TermPatternInfo::isEOF);
+        orderedTerms.sort(TermPatternInfo.DISPATCH_ORDER);
+
+        Map<TermPatternInfo, LexerPattern> compiledTerms = new LinkedHashMap<>();
+        for (int i = 0; i < orderedTerms.size(); i++) {
+            TermPatternInfo term = orderedTerms.get(i);
+            termsById[term.id] = term;
+            rankById[term.id] = i;
+            LexerPattern lexerPattern = LexerPatternParser.parse(term.pattern);
+            if (lexerPattern == null) {
+                fallbackById[term.id] = Pattern.compile(term.pattern);
+            } else {
+                boundaryBefore[term.id] = lexerPattern.boundaryBefore;
+                boundaryAfter[term.id] = lexerPattern.boundaryAfter;
+                compiledTerms.put(term, lexerPattern);
+            }
+        }
+
+        DfaBuilder dfaBuilder = new DfaBuilder(rankById);
+        if (!dfaBuilder.build(compiledTerms)) {
+            // automaton is too big, let all the terms be matched with regular expressions
+            for (TermPatternInfo term : compiledTerms.keySet()) {
+                fallbackById[term.id] = Pattern.compile(term.pattern);
+                boundaryBefore[term.id] = false;
+                boundaryAfter[term.id] = false;
+            }
+            return new GrammarLexer(
+                termsById, rankById, boundaryBefore, boundaryAfter, fallbackById,
+                new int[] { 0 }, new int[0], new int[0][]
+            );
+        }
+        return new GrammarLexer(
+            termsById, rankById, boundaryBefore, boundaryAfter, fallbackById,
+            dfaBuilder.classStarts, dfaBuilder.getTransitions(), dfaBuilder.getAccepts()
+        );
+    }
+
+    /**
+     * Prepare lexer for scanning the given text
+     */
+    public LexerScan scan(String text) {
+        return new LexerScan(this, text, 0, text.length());
+    }
+
+    /**
+     * Prepare lexer for scanning the part of the given text between start and end positions
+     */
+    public LexerScan scan(String text, int start, int end) {
+        return new LexerScan(this, text, start, end);
+    }
+
+    /**
+     * Check if the same terms with the same lengths are recognized at the given positions of two texts
+     */
+    public boolean isSameTermsAt(String text, int position, String otherText, int otherPosition) {
+        LexerScan scan = scan(text, position, position + 1);
+        LexerScan otherScan = scan(otherText, otherPosition, otherPosition + 1);
+        if (!Arrays.equals(scan.getMatches(0), otherScan.getMatches(0))) {
+            return false;
+        }
+        for (int id = 0; id < fallbackById.length; id++) {
+            if (fallbackById[id] != null && scan.matchFallback(termsById[id], 0) != otherScan.matchFallback(termsById[id], 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the same terms are recognized at the given positions of two texts, regardless of the match lengths.
+     * Parser dispatches the first expected term in dispatch order, so it chooses the same term at both positions.
+     */
+    public boolean isSameTermIdsAt(String text, int position, String otherText, int otherPosition) {
+        LexerScan scan = scan(text, position, position + 1);
+        LexerScan otherScan = scan(otherText, otherPosition, otherPosition + 1);
+        int[] matches = scan.getMatches(0);
+        int[] otherMatches = otherScan.getMatches(0);
+        if (matches.length != otherMatches.length) {
+            return false;
+        }
+        for (int i = 0; i < matches.length; i += 2) {
+            if (matches[i] != otherMatches[i]) {
+                return false;
+            }
+        }
+        for (int id = 0; id < fallbackById.length; id++) {
+            if (fallbackById[id] != null
+                && (scan.matchFallback(termsById[id], 0) > 0) != (otherScan.matchFallback(termsById[id], 0) > 0)
+            ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the term is recognized by the automaton, false if it is matched with regular expression
+     */
+    public boolean isCompiled(TermPatternInfo term) {
+        return !term.isEOF() && term.id < fallbackById.length && termsById[term.id] != null && fallbackById[term.id] == null;
+    }
+
+    public int getStatesCount() {
+        return acceptsByState.length;
+    }
+
+    public int getCharClassesCount() {
+        return classCount;
+    }
+
+    TermPatternInfo getTerm(int id) {
+        return termsById[id];
+    }
+
+    int getTermsIdBound() {
+        return termsById.length;
+    }
+
+    int getRank(int id) {
+        return rankById[id];
+    }
+
+    boolean isBoundaryBefore(int id) {
+        return boundaryBefore[id];
+    }
+
+    boolean isBoundaryAfter(int id) {
+        return boundaryAfter[id];
+    }
+
+    Pattern getFallbackPattern(int id) {
+        return fallbackById[id];
+    }
+
+    boolean hasAutomaton() {
+        return transitions.length > 0;
+    }
+
+    int[] getAccepts(int state) {
+        return acceptsByState[state];
+    }
+
+    int nextState(int state, char c) {
+        int charClass = c < ASCII_SIZE ? asciiClasses[c] : findClass(classStarts, c);
+        return transitions[state * classCount + charClass];
+    }
+
+    private static int findClass(int[] classStarts, int c) {
+        int index = Arrays.binarySearch(classStarts, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Builds the automaton with subset construction over the Thompson's NFA of all the terms
+     */
+    private static class DfaBuilder {
+        private final int[] rankById;
+
+        // NFA
+        private final List<int[]> nfaClasses = new ArrayList<>();
+        private final List<int[]> nfaEpsilons = new ArrayList<>();
+        private int[] nfaCharTargets = new int[64];
+        private int[] nfaAccepts = new int[64];
+
+        // DFA
+        private int[] classStarts;
+        private final Map<LexerCharSet, int[]> classesBySet = new HashMap<>();
+        private int[] transitions;
+        private final List<int[]> accepts = new ArrayList<>();
+
+        DfaBuilder(int[] rankById) {
+            this.rankById = rankById;
+        }
+
+        int[] getTransitions() {
+            return Arrays.copyOf(transitions, accepts.size() * classStarts.length);
+        }
+
+        int[][] getAccepts() {
+            return accepts.toArray(new int[0][]);
+        }
+
+        boolean build(Map<TermPatternInfo, LexerPattern> terms) {
+            TreeSet<Integer> starts = new TreeSet<>();
+            starts.add(0);
+            for (LexerPattern pattern : terms.values()) {
+                collectClassStarts(pattern.root, starts);
+            }
+            classStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+
+            int start = newNfaState();
+            for (Map.Entry<TermPatternInfo, LexerPattern> entry : terms.entrySet()) {
+                int[] fragment = buildNfa(entry.getValue().root);
+                addEpsilon(start, fragment[0]);
+                nfaAccepts[fragment[1]] = entry.getKey().id;
+            }
+            return buildDfa(start);
+        }
+
+        private void collectClassStarts(Node node, Set<Integer> starts) {
+            if (node instanceof CharsNode) {
+                int[] ranges = ((CharsNode) node).chars.getRanges();
+                for (int i = 0; i < ranges.length; i += 2) {
+                    starts.add(ranges[i]);
+                    if (ranges[i + 1] < LexerCharSet.MAX_CHAR) {
+                        starts.add(ranges[i + 1] + 1);
+                    }
+                }
+            } else if (node instanceof ConcatNode) {
+                for (Node child : ((ConcatNode) node).children) {
+                    collectClassStarts(child, starts);
+                }
+            } else if (node instanceof AltNode) {
+                for (Node child : ((AltNode) node).children) {
+                    collectClassStarts(child, starts);
+                }
+            } else if (node instanceof RepeatNode) {
+                collectClassStarts(((RepeatNode) node).child, starts);
+            }
+        }
+
+        private int[] getClasses(LexerCharSet chars) {
+            return classesBySet.computeIfAbsent(chars, s -> {
+                int[] ranges = s.getRanges();
+                List<Integer> classes = new ArrayList<>();
+                for (int i = 0; i < ranges.length; i += 2) {
+                    for (int c = findClass(classStarts, ranges[i]); c < classStarts.length && classStarts[c] <= ranges[i + 1]; c++) {
+                        classes.add(c);
+                    }
+                }
+                return classes.stream().mapToInt(Integer::intValue).toArray();
+            });
+        }
+
+        private int newNfaState() {
+            int state = nfaClasses.size();
+            nfaClasses.add(null);
+            nfaEpsilons.add(null);
+            if (state >= nfaCharTargets.length) {
+                nfaCharTargets = Arrays.copyOf(nfaCharTargets, state * 2);
+                nfaAccepts = Arrays.copyOf(nfaAccepts, state * 2);
+            }
+            nfaCharTargets[state] = -1;
+            nfaAccepts[state] = -1;
+            return state;
+        }
+
+        private void addEpsilon(int from, int to) {
+            int[] epsilons = nfaEpsilons.get(from);
+            if (epsilons == null) {
+                epsilons = new int[] { to };
+            } else {
+                epsilons = Arrays.copyOf(epsilons, epsilons.length + 1);
+                epsilons[epsilons.length - 1] = to;
+            }
+            nfaEpsilons.set(from, epsilons);
+        }
+
+        /**
+         * @return start and end states of the fragment
+         */
+        private int[] buildNfa(Node node) {
+            int from = newNfaState();
+            int to;
+            if (node instanceof CharsNode) {
+                to = newNfaState();
+                nfaClasses.set(from, getClasses(((CharsNode) node).chars));
+                nfaCharTargets[from] = to;
+            } else if (node instanceof ConcatNode) {
+                to = from;
+                for (Node child : ((ConcatNode) node).children) {
+                    int[] fragment = buildNfa(child);
+                    addEpsilon(to, fragment[0]);
+                    to = fragment[1];
+                }
+            } else if (node instanceof AltNode) {
+                to = newNfaState();
+                for (Node child : ((AltNode) node).children) {
+                    int[] fragment = buildNfa(child);
+                    addEpsilon(from, fragment[0]);
+                    addEpsilon(fragment[1], to);
+                }
+            } else if (node instanceof RepeatNode) {
+                RepeatNode repeat = (RepeatNode) node;
+                to = from;
+                for (int i = 0; i < repeat.min; i++) {
+                    int[] fragment = buildNfa(repeat.child);
+                    addEpsilon(to, fragment[0]);
+                    to = fragment[1];
+                }
+                if (repeat.max < 0) {
+                    int[] fragment = buildNfa(repeat.child);
+                    addEpsilon(to, fragment[0]);
+                    addEpsilon(fragment[1], to);
+                } else {
+                    int end = newNfaState();
+                    for (int i = repeat.min; i < repeat.max; i++) {
+                        int[] fragment = buildNfa(repeat.child);
+                        addEpsilon(to, fragment[0]);
+                        addEpsilon(to, end);
+                        to = fragment[1];
+                    }
+                    addEpsilon(to, end);
+                    to = end;
+                }
+            } else {
+                throw new IllegalStateException("Unexpected pattern node " + node);
+            }
+            return new int[] { from, to };
+        }
+
+        private int[] closure(BitSet states) {
+            ArrayDeque<Integer> stack = new ArrayDeque<>();
+            states.stream().forEach(stack::push);
+            while (!stack.isEmpty()) {
+                int[] epsilons = nfaEpsilons.get(stack.pop());
+                if (epsilons != null) {
+                    for (int next : epsilons) {
+                        if (!states.get(next)) {
+                            states.set(next);
+                            stack.push(next);
+                        }
+                    }
+                }
+            }
+            return states.stream().toArray();
+        }
+
+        private boolean buildDfa(int nfaStart) {
+            int classCount = classStarts.length;
+            Map<List<Integer>, Integer> dfaStateIds = new HashMap<>();
+            List<int[]> dfaStates = new ArrayList<>();
+            transitions = new int[classCount * 64];
+
+            BitSet initial = new BitSet();
+            initial.set(nfaStart);
+            int[] initialState = closure(initial);
+            dfaStates.add(initialState);
+            dfaStateIds.put(asKey(initialState), 0);
+
+            BitSet[] targets = new BitSet[classCount];
+            for (int dfaState = 0; dfaState < dfaStates.size(); dfaState++) {
+                int[] nfaStates = dfaStates.get(dfaState);
+                List<Integer> stateAccepts = new ArrayList<>();
+                for (int nfaState : nfaStates) {
+                    if (nfaAccepts[nfaState] >= 0) {
+                        stateAccepts.add(nfaAccepts[nfaState]);
+                    }
+                    int[] classes = nfaClasses.get(nfaState);
+                    if (classes != null) {
+                        for (int c : classes) {
+                            if (targets[c] == null) {
+                                targets[c] = new BitSet();
+                            }
+                            targets[c].set(nfaCharTargets[nfaState]);
+                        }
+                    }
+                }
+                stateAccepts.sort(Comparator.comparingInt(id -> rankById[id]));
+                accepts.add(stateAccepts.isEmpty() ? null : stateAccepts.stream().mapToInt(Integer::intValue).toArray());
+
+                if ((dfaState + 1) * classCount > transitions.length) {
+                    transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                }
+                Map<BitSet, Integer> targetIds = new HashMap<>();
+                for (int c = 0; c < classCount; c++) {
+                    int target = -1;
+                    if (targets[c] != null) {
+                        Integer known = targetIds.get(targets[c]);
+                        if (known != null) {
+                            target = known;
+                        } else {
+                            BitSet key = (BitSet) targets[c].clone();
+                            int[] nextState = closure(targets[c]);
+                            List<Integer> nextKey = asKey(nextState);
+                            Integer nextId = dfaStateIds.get(nextKey);
+                            if (nextId == null) {
+                                if (dfaStates.size() >= MAX_DFA_STATES) {
+                                    return false;
+                                }
+                                nextId = dfaStates.size();
+                                dfaStates.add(nextState);
+                                dfaStateIds.put(nextKey, nextId);
+                            }
+                            targetIds.put(key, nextId);
+                            target = nextId;
+                        }
+                        targets[c] = null;
+                    }
+                    transitions[dfaState * classCount + c] = target;
+                }
+            }
+            return true;
+        }
+
+        private static List<Integer> asKey(int[] states) {
+            List<Integer> key = new ArrayList<>(states.length);
+            for (int state : states) {
+                key.add(state);
+            }
+            return key;
+        }
+    }
+}
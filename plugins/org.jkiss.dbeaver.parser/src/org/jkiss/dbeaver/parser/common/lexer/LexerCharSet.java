@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common.lexer;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of chars represented with sorted disjoint inclusive ranges
+ */
+class LexerCharSet {
+    static final int MAX_CHAR = Character.MAX_VALUE;
+
+    static final LexerCharSet EMPTY = new LexerCharSet(new int[0]);
+    static final LexerCharSet DIGITS = range('0', '9');
+    static final LexerCharSet WORD = range('a', 'z').union(range('A', 'Z')).union(DIGITS).union(of('_'));
+    static final LexerCharSet SPACES = of(' ').union(range('\t', '\r'));
+    static final LexerCharSet ANY_BUT_LINE_TERMINATOR = of('\n').union(of('\r'))
+        .union(of('\u0085')).union(range('\u2028', '\u2029')).complement();
+
+    // [lo0, hi0, lo1, hi1, ...]
+    private final int[] ranges;
+
+    private LexerCharSet(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    static LexerCharSet of(int c) {
+        return range(c, c);
+    }
+
+    static LexerCharSet range(int lo, int hi) {
+        return new LexerCharSet(new int[] { lo, hi });
+    }
+
+    int[] getRanges() {
+        return ranges;
+    }
+
+    boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    boolean contains(int c) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c < ranges[i]) {
+                return false;
+            } else if (c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    LexerCharSet union(LexerCharSet other) {
+        if (other.ranges.length == 0) {
+            return this;
+        } else if (this.ranges.length == 0) {
+            return other;
+        }
+        int count = (ranges.length + other.ranges.length) / 2;
+        long[] pairs = new long[count];
+        int n = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            pairs[n++] = ((long) ranges[i] << 32) | ranges[i + 1];
+        }
+        for (int i = 0; i < other.ranges.length; i += 2) {
+            pairs[n++] = ((long) other.ranges[i] << 32) | other.ranges[i + 1];
+        }
+        Arrays.sort(pairs);
+
+        int[] result = new int[count * 2];
+        int size = 0;
+        for (long pair : pairs) {
+            int lo = (int) (pair >>> 32);
+            int hi = (int) pair;
+            if (size > 0 && lo <= result[size - 1] + 1) {
+                result[size - 1] = Math.max(result[size - 1], hi);
+            } else {
+                result[size++] = lo;
+                result[size++] = hi;
+            }
+        }
+        return new LexerCharSet(size == result.length ? result : Arrays.copyOf(result, size));
+    }
+
+    LexerCharSet complement() {
+        int[] result = new int[ranges.length + 2];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[size++] = next;
+                result[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= MAX_CHAR) {
+            result[size++] = next;
+            result[size++] = MAX_CHAR;
+        }
+        return new LexerCharSet(Arrays.copyOf(result, size));
+    }
+
+    /**
+     * Adds other case variants of the ASCII letters, like java.util.regex does for CASE_INSENSITIVE without UNICODE_CASE
+     */
+    LexerCharSet ignoreCase() {
+        LexerCharSet result = this;
+        for (int i = 0; i < ranges.length; i += 2) {
+            int upperLo = Math.max(ranges[i], 'A');
+            int upperHi = Math.min(ranges[i + 1], 'Z');
+            if (upperLo <= upperHi) {
+                result = result.union(range(upperLo + ('a' - 'A'), upperHi + ('a' - 'A')));
+            }
+            int lowerLo = Math.max(ranges[i], 'a');
+            int lowerHi = Math.min(ranges[i + 1], 'z');
+            if (lowerLo <= lowerHi) {
+                result = result.union(range(lowerLo - ('a' - 'A'), lowerHi - ('a' - 'A')));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LexerCharSet && Arrays.equals(ranges, ((LexerCharSet) obj).ranges);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < ranges.length; i += 2) {
+            sb.append(String.format("\\u%04x", ranges[i]));
+            if (ranges[i + 1] != ranges[i]) {
+                sb.append('-').append(String.format("\\u%04x", ranges[i + 1]));
+            }
+        }
+        return sb.append("]").toString();
+    }
+}
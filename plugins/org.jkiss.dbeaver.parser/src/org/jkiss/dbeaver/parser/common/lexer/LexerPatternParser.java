@@ -0,0 +1,438 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser of the regular subset of java.util.regex syntax used in the terminal patterns.
+ *
+ * Supports literals, escapes, char classes (without intersections and nested classes),
+ * groups, alternatives, greedy quantifiers, case-insensitive groups and word boundaries at the edges of the pattern.
+ * Everything else (lookarounds, backreferences, anchors, lazy and possessive quantifiers, etc)
+ * is reported as unsupported, such terms are matched with java.util.regex.
+ */
+class LexerPatternParser {
+
+    private static final int MAX_REPEAT_COUNT = 32;
+
+    static class UnsupportedPatternException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedPatternException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Regular expression tree node
+     */
+    abstract static class Node {
+    }
+
+    static class CharsNode extends Node {
+        final LexerCharSet chars;
+
+        CharsNode(LexerCharSet chars) {
+            this.chars = chars;
+        }
+    }
+
+    static class ConcatNode extends Node {
+        final List<Node> children;
+
+        ConcatNode(List<Node> children) {
+            this.children = children;
+        }
+    }
+
+    static class AltNode extends Node {
+        final List<Node> children;
+
+        AltNode(List<Node> children) {
+            this.children = children;
+        }
+    }
+
+    static class RepeatNode extends Node {
+        final Node child;
+        final int min;
+        final int max; // -1 for unbounded
+
+        RepeatNode(Node child, int min, int max) {
+            this.child = child;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    static class BoundaryNode extends Node {
+    }
+
+    /**
+     * Parsed terminal pattern
+     */
+    static class LexerPattern {
+        final Node root;
+        final boolean boundaryBefore;
+        final boolean boundaryAfter;
+
+        LexerPattern(Node root, boolean boundaryBefore, boolean boundaryAfter) {
+            this.root = root;
+            this.boundaryBefore = boundaryBefore;
+            this.boundaryAfter = boundaryAfter;
+        }
+    }
+
+    private final String pattern;
+    private int pos = 0;
+    private boolean ignoreCase = false;
+
+    private LexerPatternParser(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Parse terminal pattern
+     *
+     * @return parsed pattern or null if pattern can't be represented with finite automaton
+     */
+    static LexerPattern parse(String pattern) {
+        try {
+            LexerPatternParser parser = new LexerPatternParser(pattern);
+            Node root = parser.parseAlternatives();
+            if (parser.pos < pattern.length()) {
+                throw new UnsupportedPatternException("Unexpected '" + pattern.charAt(parser.pos) + "'");
+            }
+            boolean boundaryBefore = false;
+            boolean boundaryAfter = false;
+            if (root instanceof ConcatNode) {
+                List<Node> children = ((ConcatNode) root).children;
+                if (!children.isEmpty() && children.get(0) instanceof BoundaryNode) {
+                    children.remove(0);
+                    boundaryBefore = true;
+                }
+                if (!children.isEmpty() && children.get(children.size() - 1) instanceof BoundaryNode) {
+                    children.remove(children.size() - 1);
+                    boundaryAfter = true;
+                }
+            }
+            checkNoBoundaries(root);
+            return new LexerPattern(root, boundaryBefore, boundaryAfter);
+        } catch (UnsupportedPatternException e) {
+            return null;
+        }
+    }
+
+    private static void checkNoBoundaries(Node node) throws UnsupportedPatternException {
+        if (node instanceof BoundaryNode) {
+            throw new UnsupportedPatternException("Word boundary in the middle of the pattern");
+        } else if (node instanceof ConcatNode) {
+            for (Node child : ((ConcatNode) node).children) {
+                checkNoBoundaries(child);
+            }
+        } else if (node instanceof AltNode) {
+            for (Node child : ((AltNode) node).children) {
+                checkNoBoundaries(child);
+            }
+        } else if (node instanceof RepeatNode) {
+            checkNoBoundaries(((RepeatNode) node).child);
+        }
+    }
+
+    private boolean hasMore() {
+        return pos < pattern.length();
+    }
+
+    private char peek() {
+        return pattern.charAt(pos);
+    }
+
+    private char next() throws UnsupportedPatternException {
+        if (pos >= pattern.length()) {
+            throw new UnsupportedPatternException("Unexpected end of the pattern");
+        }
+        return pattern.charAt(pos++);
+    }
+
+    private Node parseAlternatives() throws UnsupportedPatternException {
+        List<Node> alternatives = new ArrayList<>();
+        alternatives.add(parseConcat());
+        while (hasMore() && peek() == '|') {
+            pos++;
+            alternatives.add(parseConcat());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new AltNode(alternatives);
+    }
+
+    private Node parseConcat() throws UnsupportedPatternException {
+        List<Node> items = new ArrayList<>();
+        while (hasMore() && peek() != '|' && peek() != ')') {
+            Node atom = parseAtom();
+            if (atom == null) {
+                continue;
+            }
+            atom = parseQuantifier(atom);
+            if (atom instanceof ConcatNode) {
+                items.addAll(((ConcatNode) atom).children);
+            } else {
+                items.add(atom);
+            }
+        }
+        return new ConcatNode(items);
+    }
+
+    private Node parseAtom() throws UnsupportedPatternException {
+        char c = next();
+        switch (c) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new CharsNode(parseCharClass());
+            case '.':
+                return new CharsNode(LexerCharSet.ANY_BUT_LINE_TERMINATOR);
+            case '\\': {
+                if (hasMore() && peek() == 'b') {
+                    pos++;
+                    return new BoundaryNode();
+                }
+                return new CharsNode(applyCase(parseEscape()));
+            }
+            case '^':
+            case '$':
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedPatternException("Unsupported '" + c + "'");
+            default:
+                return new CharsNode(applyCase(LexerCharSet.of(c)));
+        }
+    }
+
+    private Node parseGroup() throws UnsupportedPatternException {
+        boolean savedIgnoreCase = ignoreCase;
+        if (hasMore() && peek() == '?') {
+            pos++;
+            char c = next();
+            if (c == '<' && hasMore() && Character.isLetter(peek())) {
+                // named group
+                while (next() != '>') {
+                    // skip the name
+                }
+            } else if (c != ':') {
+                pos--;
+                boolean flagValue = true;
+                while (true) {
+                    c = next();
+                    if (c == 'i') {
+                        ignoreCase = flagValue;
+                    } else if (c == '-' && flagValue) {
+                        flagValue = false;
+                    } else {
+                        break;
+                    }
+                }
+                if (c == ')') {
+                    // inline flags are applied till the end of the enclosing group
+                    return null;
+                } else if (c != ':') {
+                    throw new UnsupportedPatternException("Unsupported group construct");
+                }
+            }
+        }
+        Node result = parseAlternatives();
+        if (next() != ')') {
+            throw new UnsupportedPatternException("Unclosed group");
+        }
+        ignoreCase = savedIgnoreCase;
+        return result;
+    }
+
+    private Node parseQuantifier(Node atom) throws UnsupportedPatternException {
+        if (!hasMore()) {
+            return atom;
+        }
+        int min;
+        int max;
+        switch (peek()) {
+            case '*':
+                min = 0;
+                max = -1;
+                break;
+            case '+':
+                min = 1;
+                max = -1;
+                break;
+            case '?':
+                min = 0;
+                max = 1;
+                break;
+            case '{': {
+                int end = pattern.indexOf('}', pos);
+                if (end < 0) {
+                    throw new UnsupportedPatternException("Unclosed repetition");
+                }
+                String[] bounds = pattern.substring(pos + 1, end).split(",", -1);
+                try {
+                    min = Integer.parseInt(bounds[0].trim());
+                    if (bounds.length == 1) {
+                        max = min;
+                    } else if (bounds.length == 2) {
+                        max = bounds[1].trim().isEmpty() ? -1 : Integer.parseInt(bounds[1].trim());
+                    } else {
+                        throw new UnsupportedPatternException("Bad repetition");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new UnsupportedPatternException("Bad repetition");
+                }
+                if (min < 0 || min > MAX_REPEAT_COUNT || max > MAX_REPEAT_COUNT || (max >= 0 && max < min)) {
+                    throw new UnsupportedPatternException("Unsupported repetition");
+                }
+                pos = end;
+                break;
+            }
+            default:
+                return atom;
+        }
+        pos++;
+        if (hasMore() && (peek() == '?' || peek() == '+')) {
+            throw new UnsupportedPatternException("Lazy and possessive quantifiers are not supported");
+        }
+        if (atom instanceof BoundaryNode) {
+            throw new UnsupportedPatternException("Quantified boundary");
+        }
+        return new RepeatNode(atom, min, max);
+    }
+
+    private LexerCharSet parseCharClass() throws UnsupportedPatternException {
+        boolean negated = false;
+        if (hasMore() && peek() == '^') {
+            pos++;
+            negated = true;
+        }
+        if (hasMore() && peek() == ']') {
+            throw new UnsupportedPatternException("Empty char class");
+        }
+        LexerCharSet result = LexerCharSet.EMPTY;
+        while (true) {
+            char c = next();
+            if (c == ']') {
+                break;
+            } else if (c == '[' || (c == '&' && hasMore() && peek() == '&')) {
+                throw new UnsupportedPatternException("Nested char classes are not supported");
+            }
+            LexerCharSet item;
+            int single = -1;
+            if (c == '\\') {
+                item = parseEscape();
+                int[] ranges = item.getRanges();
+                if (ranges.length == 2 && ranges[0] == ranges[1]) {
+                    single = ranges[0];
+                }
+            } else {
+                if (Character.isSurrogate(c)) {
+                    throw new UnsupportedPatternException("Supplementary chars in char class");
+                }
+                item = LexerCharSet.of(c);
+                single = c;
+            }
+            if (single >= 0 && pos + 1 < pattern.length() && peek() == '-' && pattern.charAt(pos + 1) != ']') {
+                pos++;
+                int upper;
+                char u = next();
+                if (u == '\\') {
+                    int[] ranges = parseEscape().getRanges();
+                    if (ranges.length != 2 || ranges[0] != ranges[1]) {
+                        throw new UnsupportedPatternException("Bad range");
+                    }
+                    upper = ranges[0];
+                } else if (u == '[' || Character.isSurrogate(u)) {
+                    throw new UnsupportedPatternException("Bad range");
+                } else {
+                    upper = u;
+                }
+                if (upper < single) {
+                    throw new UnsupportedPatternException("Bad range");
+                }
+                item = LexerCharSet.range(single, upper);
+            }
+            result = result.union(applyCase(item));
+        }
+        return negated ? result.complement() : result;
+    }
+
+    private LexerCharSet parseEscape() throws UnsupportedPatternException {
+        char c = next();
+        switch (c) {
+            case 'd':
+                return LexerCharSet.DIGITS;
+            case 'D':
+                return LexerCharSet.DIGITS.complement();
+            case 'w':
+                return LexerCharSet.WORD;
+            case 'W':
+                return LexerCharSet.WORD.complement();
+            case 's':
+                return LexerCharSet.SPACES;
+            case 'S':
+                return LexerCharSet.SPACES.complement();
+            case 't':
+                return LexerCharSet.of('\t');
+            case 'n':
+                return LexerCharSet.of('\n');
+            case 'r':
+                return LexerCharSet.of('\r');
+            case 'f':
+                return LexerCharSet.of('\f');
+            case 'a':
+                return LexerCharSet.of('\u0007');
+            case 'e':
+                return LexerCharSet.of('\u001B');
+            case 'x':
+                return LexerCharSet.of(parseHex(2));
+            case 'u':
+                return LexerCharSet.of(parseHex(4));
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw new UnsupportedPatternException("Unsupported escape \\" + c);
+                }
+                return LexerCharSet.of(c);
+        }
+    }
+
+    private int parseHex(int length) throws UnsupportedPatternException {
+        if (pos + length > pattern.length()) {
+            throw new UnsupportedPatternException("Bad hex escape");
+        }
+        try {
+            int value = Integer.parseInt(pattern.substring(pos, pos + length), 16);
+            pos += length;
+            if (Character.isSurrogate((char) value)) {
+                throw new UnsupportedPatternException("Surrogate escape");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new UnsupportedPatternException("Bad hex escape");
+        }
+    }
+
+    private LexerCharSet applyCase(LexerCharSet chars) {
+        return ignoreCase ? chars.ignoreCase() : chars;
+    }
+}
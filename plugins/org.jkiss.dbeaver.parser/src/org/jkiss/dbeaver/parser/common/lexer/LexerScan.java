@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common.lexer;
+
+import org.jkiss.dbeaver.parser.common.TermPatternInfo;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+
+/**
+ * Terms recognized in the particular text or in its part.
+ *
+ * Automaton is run at most once per text position, results are cached
+ * since many parser states are dispatched at the same position.
+ * Positions are counted from the start of the scanned part, while the terms are matched against the whole text,
+ * so the matches crossing the end of the part are reported as they are.
+ */
+public class LexerScan {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final GrammarLexer lexer;
+    private final String text;
+    private final int start;
+    private final int length;
+    private final int[][] matchesByPosition;
+    private final Matcher[] fallbackMatchers;
+
+    // per-term longest match ends of the current run
+    private final int[] termEnds;
+    private int[] matchedTerms = new int[16];
+
+    LexerScan(GrammarLexer lexer, String text, int start, int end) {
+        this.lexer = lexer;
+        this.text = text;
+        this.start = start;
+        this.length = end - start;
+        this.matchesByPosition = new int[this.length][];
+        this.fallbackMatchers = new Matcher[lexer.getTermsIdBound()];
+        this.termEnds = new int[lexer.getTermsIdBound()];
+        Arrays.fill(this.termEnds, -1);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return length of the scanned part of the text
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public TermPatternInfo getTerm(int id) {
+        return lexer.getTerm(id);
+    }
+
+    /**
+     * Get all the compiled terms matching non-empty text at the given position
+     *
+     * @return pairs of term id and match end ordered by the term dispatch priority
+     */
+    public int[] getMatches(int position) {
+        if (position >= length) {
+            return NO_MATCHES;
+        }
+        int[] matches = matchesByPosition[position];
+        if (matches == null) {
+            matches = lexer.hasAutomaton() ? runAutomaton(position) : NO_MATCHES;
+            matchesByPosition[position] = matches;
+        }
+        return matches;
+    }
+
+    /**
+     * Match the term which is not compiled into the automaton
+     *
+     * @return end of the match or -1 if term doesn't match at the given position
+     */
+    public int matchFallback(TermPatternInfo term, int position) {
+        Matcher matcher = fallbackMatchers[term.id];
+        if (matcher == null) {
+            matcher = lexer.getFallbackPattern(term.id).matcher(text);
+            matcher.useTransparentBounds(true);
+            matcher.useAnchoringBounds(false);
+            fallbackMatchers[term.id] = matcher;
+        }
+        matcher.region(start + position, text.length());
+        return matcher.lookingAt() ? matcher.end() - start : -1;
+    }
+
+    private int[] runAutomaton(int position) {
+        int matchedCount = 0;
+        int state = 0;
+        int length = text.length();
+        int from = start + position;
+        for (int i = from; ; i++) {
+            int[] accepts = lexer.getAccepts(state);
+            if (accepts != null && i > from) {
+                for (int id : accepts) {
+                    if (!lexer.isBoundaryAfter(id) || isWordBoundary(i)) {
+                        if (termEnds[id] < 0) {
+                            if (matchedCount == matchedTerms.length) {
+                                matchedTerms = Arrays.copyOf(matchedTerms, matchedCount * 2);
+                            }
+                            matchedTerms[matchedCount++] = id;
+                        }
+                        termEnds[id] = i - start;
+                    }
+                }
+            }
+            if (i >= length) {
+                break;
+            }
+            state = lexer.nextState(state, text.charAt(i));
+            if (state < 0) {
+                break;
+            }
+        }
+        if (matchedCount == 0) {
+            return NO_MATCHES;
+        }
+
+        // order by rank, there are usually just a few of them
+        for (int i = 1; i < matchedCount; i++) {
+            int id = matchedTerms[i];
+            int j = i - 1;
+            while (j >= 0 && lexer.getRank(matchedTerms[j]) > lexer.getRank(id)) {
+                matchedTerms[j + 1] = matchedTerms[j];
+                j--;
+            }
+            matchedTerms[j + 1] = id;
+        }
+
+        boolean boundaryAtStart = isWordBoundary(from);
+        int[] result = new int[matchedCount * 2];
+        int size = 0;
+        for (int i = 0; i < matchedCount; i++) {
+            int id = matchedTerms[i];
+            if (boundaryAtStart || !lexer.isBoundaryBefore(id)) {
+                result[size++] = id;
+                result[size++] = termEnds[id];
+            }
+            termEnds[id] = -1;
+        }
+        return size == 0 ? NO_MATCHES : size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private boolean isWordBoundary(int position) {
+        boolean wordBefore = position > 0 && isWordChar(text.charAt(position - 1));
+        boolean wordAfter = position < text.length() && isWordChar(text.charAt(position));
+        return wordBefore != wordAfter;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -26,8 +26,10 @@ import org.jkiss.dbeaver.utils.ContentUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -136,7 +138,18 @@ public class DataSourceConfigurationManagerNIO implements DataSourceConfiguratio
                 }
             }
         } else {
-            Files.write(configFile, data);
+            // Write to temp file and then replace config to avoid partially written config on failure
+            Path tempFile = configFile.resolveSibling(configFile.getFileName() + ".tmp");
+            try {
+                Files.write(tempFile, data);
+                try {
+                    Files.move(tempFile, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, configFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
         }
     }
 }
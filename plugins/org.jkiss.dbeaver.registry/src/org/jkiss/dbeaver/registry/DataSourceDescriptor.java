@@ -134,8 +134,12 @@ public class DataSourceDescriptor
     @Nullable
     private DataSourceFolder folder;
 
-    @NotNull
-    private final DataSourcePreferenceStore preferenceStore;
+    // Created on first access - most connections never read their preferences
+    @Nullable
+    private volatile DataSourcePreferenceStore preferenceStore;
+    // Custom properties read from configuration but not applied to preference store yet
+    @Nullable
+    private Map<String, String> pendingPreferences;
     @Nullable
     private DBPDataSource dataSource;
 
@@ -158,6 +162,9 @@ public class DataSourceDescriptor
     private volatile boolean connecting = false;
 
     private volatile boolean secretsResolved = false;
+    // Applies credentials from secure storage which is read in background. Runs on first access to connection configuration.
+    @Nullable
+    private volatile Runnable credentialsResolver;
 
     private final List<DBRProcessDescriptor> childProcesses = new ArrayList<>();
     private DBWNetworkHandler proxyHandler;
@@ -188,7 +195,6 @@ public class DataSourceDescriptor
         this.id = id;
         this.driver = driver;
         this.connectionInfo = connectionInfo;
-        this.preferenceStore = new DataSourcePreferenceStore(this);
         this.virtualModel = new DBVModel(this);
         this.navigatorSettings = new DataSourceNavigatorSettings(DataSourceNavigatorSettings.getDefaultSettings());
     }
@@ -218,12 +224,12 @@ public class DataSourceDescriptor
         this.connectionReadOnly = source.connectionReadOnly;
         this.forceUseSingleConnection = source.forceUseSingleConnection;
         this.driver = source.driver;
-        this.connectionInfo = source.connectionInfo;
+        this.connectionInfo = source.getConnectionConfiguration();
         this.clientHome = source.clientHome;
 
         this.connectionModifyRestrictions = source.connectionModifyRestrictions == null ? null : new ArrayList<>(source.connectionModifyRestrictions);
 
-        this.connectionInfo = new DBPConnectionConfiguration(source.connectionInfo);
+        this.connectionInfo = new DBPConnectionConfiguration(source.getConnectionConfiguration());
         for (Map.Entry<String, FilterMapping> fe : source.filterMap.entrySet()) {
             this.filterMap.put(fe.getKey(), new FilterMapping(fe.getValue()));
         }
@@ -235,14 +241,22 @@ public class DataSourceDescriptor
             this.folder = (DataSourceFolder) registry.getFolder(source.folder.getFolderPath());
         }
 
-        this.preferenceStore = new DataSourcePreferenceStore(this);
-        this.preferenceStore.setProperties(source.preferenceStore.getProperties());
-        this.preferenceStore.setDefaultProperties(source.preferenceStore.getDefaultProperties());
+        if (source.preferenceStore != null) {
+            DataSourcePreferenceStore store = getPreferenceStore();
+            store.setProperties(source.preferenceStore.getProperties());
+            store.setDefaultProperties(source.preferenceStore.getDefaultProperties());
+        } else {
+            synchronized (source) {
+                if (source.pendingPreferences != null) {
+                    this.pendingPreferences = new LinkedHashMap<>(source.pendingPreferences);
+                }
+            }
+        }
 
         if (source.formatterProfile == null || source.formatterProfile.getProfileName().equals(source.getId())) {
             this.formatterProfile = null;
         } else {
-            this.formatterProfile = new DataFormatterProfile(source.formatterProfile.getProfileName(), preferenceStore);
+            this.formatterProfile = new DataFormatterProfile(source.formatterProfile.getProfileName(), getPreferenceStore());
         }
 
         this.virtualModel = new DBVModel(this, source.virtualModel);
@@ -326,16 +340,40 @@ public class DataSourceDescriptor
     @NotNull
     @Override
     public DBPConnectionConfiguration getConnectionConfiguration() {
+        resolveCredentials();
         return connectionInfo;
     }
 
     public void setConnectionInfo(@NotNull DBPConnectionConfiguration connectionInfo) {
+        this.credentialsResolver = null;
         this.connectionInfo = connectionInfo;
     }
 
+    /**
+     * Sets credentials reader which is called on first access to connection configuration.
+     * Used by configuration parser to not read credentials of every connection on registry load.
+     */
+    void setCredentialsResolver(@Nullable Runnable credentialsResolver) {
+        this.credentialsResolver = credentialsResolver;
+    }
+
+    private void resolveCredentials() {
+        if (credentialsResolver == null) {
+            return;
+        }
+        synchronized (this) {
+            Runnable resolver = credentialsResolver;
+            if (resolver != null) {
+                credentialsResolver = null;
+                resolver.run();
+            }
+        }
+    }
+
     @NotNull
     @Override
     public DBPConnectionConfiguration getActualConnectionConfiguration() {
+        resolveCredentials();
         return this.resolvedConnectionInfo != null ? this.resolvedConnectionInfo : this.connectionInfo;
     }
 
@@ -785,6 +823,7 @@ public class DataSourceDescriptor
 
     @Override
     public void persistSecrets(DBSSecretController secretController) throws DBException {
+        resolveCredentials();
         secretController.setSecretValue(
             getSecretKeyId(),
             saveToSecret()
@@ -793,6 +832,7 @@ public class DataSourceDescriptor
 
     @Override
     public void resolveSecrets(DBSSecretController secretController) throws DBException {
+        resolveCredentials();
         String secretValue = secretController.getSecretValue(
             getSecretKeyId());
         if (secretValue != null) {
@@ -823,6 +863,7 @@ public class DataSourceDescriptor
         DBSSecretController secretController = null;
 
         log.debug("Connect with '" + getName() + "' (" + getId() + ")");
+        resolveCredentials();
         if (getProject().isUseSecretStorage()) {
             // Resolve secrets
             secretController = DBSSecretController.getProjectSecretController(getProject());
@@ -867,7 +908,7 @@ public class DataSourceDescriptor
             }
 
             // Resolve variables
-            if (preferenceStore.getBoolean(ModelPreferences.CONNECT_USE_ENV_VARS) ||
+            if (getPreferenceStore().getBoolean(ModelPreferences.CONNECT_USE_ENV_VARS) ||
                 !CommonUtils.isEmpty(connectionInfo.getConfigProfileName())) {
                 // Update config from profile
                 if (!CommonUtils.isEmpty(connectionInfo.getConfigProfileName())) {
@@ -885,7 +926,7 @@ public class DataSourceDescriptor
                     }
                 }
                 // Process variables
-                if (preferenceStore.getBoolean(ModelPreferences.CONNECT_USE_ENV_VARS)) {
+                if (getPreferenceStore().getBoolean(ModelPreferences.CONNECT_USE_ENV_VARS)) {
                     IVariableResolver variableResolver = new DataSourceVariableResolver(
                         this, this.resolvedConnectionInfo);
                     this.resolvedConnectionInfo.resolveDynamicVariables(variableResolver);
@@ -1309,7 +1350,7 @@ public class DataSourceDescriptor
     @Override
     public DBDDataFormatterProfile getDataFormatterProfile() {
         if (this.formatterProfile == null) {
-            this.formatterProfile = new DataFormatterProfile(getId(), preferenceStore);
+            this.formatterProfile = new DataFormatterProfile(getId(), getPreferenceStore());
         }
         return this.formatterProfile;
     }
@@ -1341,11 +1382,62 @@ public class DataSourceDescriptor
     @NotNull
     @Override
     public DataSourcePreferenceStore getPreferenceStore() {
-        return preferenceStore;
+        DataSourcePreferenceStore store = preferenceStore;
+        if (store == null) {
+            synchronized (this) {
+                store = preferenceStore;
+                if (store == null) {
+                    store = new DataSourcePreferenceStore(this);
+                    if (pendingPreferences != null) {
+                        store.getProperties().putAll(pendingPreferences);
+                        pendingPreferences = null;
+                    }
+                    preferenceStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Adds custom preferences read from configuration.
+     * They are applied to preference store on its first access.
+     */
+    void addConfigurationPreferences(@NotNull Map<String, String> properties) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (preferenceStore != null) {
+                preferenceStore.getProperties().putAll(properties);
+            } else {
+                if (pendingPreferences == null) {
+                    pendingPreferences = new LinkedHashMap<>();
+                }
+                pendingPreferences.putAll(properties);
+            }
+        }
+    }
+
+    /**
+     * Returns custom preferences without creating preference store
+     */
+    @NotNull
+    private synchronized Map<String, String> getCustomPreferences() {
+        if (preferenceStore != null) {
+            return preferenceStore.getProperties();
+        }
+        return pendingPreferences == null ? Collections.emptyMap() : pendingPreferences;
+    }
+
+    @NotNull
+    private Map<String, String> getDefaultPreferences() {
+        DataSourcePreferenceStore store = preferenceStore;
+        return store == null ? Collections.emptyMap() : store.getDefaultProperties();
     }
 
     public void resetPassword() {
-        connectionInfo.setUserPassword(null);
+        getConnectionConfiguration().setUserPassword(null);
     }
 
     @Nullable
@@ -1526,13 +1618,14 @@ public class DataSourceDescriptor
                 CommonUtils.equalObjects(this.forceUseSingleConnection, source.forceUseSingleConnection) &&
                 CommonUtils.equalObjects(this.navigatorSettings, source.navigatorSettings) &&
                 CommonUtils.equalObjects(this.driver, source.driver) &&
-                CommonUtils.equalObjects(this.connectionInfo, source.connectionInfo) &&
+                CommonUtils.equalObjects(this.getConnectionConfiguration(), source.getConnectionConfiguration()) &&
                 CommonUtils.equalObjects(this.filterMap, source.filterMap) &&
                 CommonUtils.equalObjects(this.formatterProfile, source.formatterProfile) &&
                 CommonUtils.equalObjects(this.clientHome, source.clientHome) &&
                 CommonUtils.equalObjects(this.lockPasswordHash, source.lockPasswordHash) &&
                 CommonUtils.equalObjects(this.folder, source.folder) &&
-                CommonUtils.equalObjects(this.preferenceStore, source.preferenceStore) &&
+                CommonUtils.equalObjects(this.getCustomPreferences(), source.getCustomPreferences()) &&
+                CommonUtils.equalObjects(this.getDefaultPreferences(), source.getDefaultPreferences()) &&
                 CommonUtils.equalsContents(this.connectionModifyRestrictions, source.connectionModifyRestrictions);
     }
 
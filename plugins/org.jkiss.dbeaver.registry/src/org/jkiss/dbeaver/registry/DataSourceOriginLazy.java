@@ -32,7 +32,7 @@ class DataSourceOriginLazy implements DBPDataSourceOriginExternal
 {
     private final String originId;
     private final Map<String, Object> originProperties;
-    private final DBPExternalConfiguration externalConfiguration;
+    private DBPExternalConfiguration externalConfiguration;
 
     public DataSourceOriginLazy(
         String originId,
@@ -107,4 +107,8 @@ class DataSourceOriginLazy implements DBPDataSourceOriginExternal
     public DBPExternalConfiguration getExternalConfiguration() {
         return externalConfiguration;
     }
+
+    void setExternalConfiguration(@Nullable DBPExternalConfiguration externalConfiguration) {
+        this.externalConfiguration = externalConfiguration;
+    }
 }
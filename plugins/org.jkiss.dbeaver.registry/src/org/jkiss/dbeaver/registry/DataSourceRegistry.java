@@ -62,6 +62,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
     public static final String DEFAULT_ACTIVE_OBJECT = "default.activeObject"; //$NON-NLS-1$
 
     private static final long DISCONNECT_ALL_TIMEOUT = 5000;
+    // Config changes are coalesced during this delay
+    private static final long CONFIG_SAVE_DELAY = 100;
+    // Maximum delay between the first unsaved change and config save
+    private static final long CONFIG_SAVE_MAX_DELAY = 1000;
 
     private static final Log log = Log.getLog(DataSourceRegistry.class);
 
@@ -81,6 +85,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
 
     private final DBVModel.ModelChangeListener modelChangeListener = new DBVModel.ModelChangeListener();
     private volatile ConfigSaver configSaver;
+    // Digests of last saved config contents (by config file name)
+    private final Map<String, String> savedConfigDigests = new HashMap<>();
     private DBACredentialsProvider authCredentialsProvider;
     protected Throwable lastError;
 
@@ -120,6 +126,12 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
             }
             this.dataSourceListeners.clear();
         }
+        // Save changes which are still waiting in config saver
+        ConfigSaver saver = configSaver;
+        if (saver != null && saver.hasPendingChanges()) {
+            saver.cancel();
+            saver.saveNow();
+        }
         // Disconnect in 5 seconds or die
         closeConnections(DISCONNECT_ALL_TIMEOUT);
         // Do not save config on shutdown.
@@ -539,11 +551,11 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
     }
 
     protected void persistDataSourceUpdate(@NotNull DBPDataSourceContainer container) {
-        saveDataSources();
+        flushConfig();
     }
 
     protected void persistDataSourceDelete(@NotNull DBPDataSourceContainer container) {
-        saveDataSources();
+        flushConfig();
     }
 
     @Override
@@ -552,15 +564,22 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
             return;
         }
         // Use async config saver to avoid too frequent configuration re-save during some massive configuration update
-        if (configSaver == null) {
-            configSaver = new ConfigSaver();
+        ConfigSaver saver = configSaver;
+        if (saver == null) {
+            synchronized (this) {
+                saver = configSaver;
+                if (saver == null) {
+                    saver = configSaver = new ConfigSaver();
+                }
+            }
         }
-        configSaver.schedule(100);
+        saver.requestSave();
     }
 
     @Override
     public void refreshConfig() {
-        if (!saveInProgress) {
+        ConfigSaver saver = configSaver;
+        if (!saveInProgress && (saver == null || !saver.hasPendingChanges())) {
             this.loadDataSources(true);
         }
     }
@@ -675,6 +694,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         }
         // Clear filters before reload
         savedFilters.clear();
+        // Config files may be changed externally
+        synchronized (savedConfigDigests) {
+            savedConfigDigests.clear();
+        }
 
         // Parse datasources
         ParseResults parseResults = new ParseResults();
@@ -780,6 +803,21 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         }
     }
 
+    /**
+     * Checks whether config contents differ from the last saved contents and remembers the new digest.
+     */
+    boolean updateSavedConfigDigest(@NotNull String configName, @NotNull String digest) {
+        synchronized (savedConfigDigests) {
+            return !digest.equals(savedConfigDigests.put(configName, digest));
+        }
+    }
+
+    void resetSavedConfigDigest(@NotNull String configName) {
+        synchronized (savedConfigDigests) {
+            savedConfigDigests.remove(configName);
+        }
+    }
+
     private List<DataSourceDescriptor> getDataSources(DBPDataSourceConfigurationStorage storage) {
         List<DataSourceDescriptor> result = new ArrayList<>();
         synchronized (dataSources) {
@@ -958,16 +996,50 @@ public class DataSourceRegistry implements DBPDataSourceRegistry, DataSourcePers
         }
     }
 
+    /**
+     * Write-behind config saver.
+     * Save requests are coalesced for CONFIG_SAVE_DELAY but config is never kept unsaved
+     * longer than CONFIG_SAVE_MAX_DELAY.
+     */
     private class ConfigSaver extends AbstractJob {
+        // Time of the first unsaved change, 0 if there are no pending changes
+        private long firstRequestTime;
+
         ConfigSaver() {
             super("Datasource configuration save");
+            setSystem(true);
         }
-        @Override
-        protected IStatus run(DBRProgressMonitor monitor) {
+
+        synchronized void requestSave() {
+            long currentTime = System.currentTimeMillis();
+            if (firstRequestTime == 0) {
+                firstRequestTime = currentTime;
+            }
+            long maxDelay = firstRequestTime + CONFIG_SAVE_MAX_DELAY - currentTime;
+            schedule(Math.max(0, Math.min(CONFIG_SAVE_DELAY, maxDelay)));
+        }
+
+        synchronized boolean hasPendingChanges() {
+            return firstRequestTime != 0;
+        }
+
+        void saveNow() {
+            synchronized (this) {
+                firstRequestTime = 0;
+            }
             synchronized (DataSourceRegistry.this) {
-                //log.debug("Save column config " + System.currentTimeMillis());
                 saveDataSources();
             }
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            saveNow();
+            // Save is deferred, so callers can't check the last error. Report it here.
+            Throwable error = getLastError();
+            if (error != null) {
+                DBWorkbench.getPlatformUI().showError("Save error", "Error saving datasource configuration", error);
+            }
             return Status.OK_STATUS;
         }
     }
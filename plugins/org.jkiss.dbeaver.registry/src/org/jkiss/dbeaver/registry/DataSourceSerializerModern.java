@@ -19,6 +19,8 @@ package org.jkiss.dbeaver.registry;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
@@ -47,8 +49,10 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
+import org.jkiss.utils.SecurityUtils;
 
 import java.io.*;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 
@@ -75,6 +79,10 @@ class DataSourceSerializerModern implements DataSourceSerializer
         .serializeNulls()
         .setPrettyPrinting()
         .create();
+    private static final Type OBJECT_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+    private static final Type OBJECT_LIST_TYPE = new TypeToken<List<Map<String, Object>>>() {}.getType();
+    private static final Type NESTED_OBJECTS_TYPE = new TypeToken<Map<String, Map<String, Object>>>() {}.getType();
+
     private static final Gson SECURE_GSON = new GsonBuilder()
         .setLenient()
         .serializeNulls()
@@ -291,39 +299,54 @@ class DataSourceSerializerModern implements DataSourceSerializer
         }
     }
 
-    private String loadConfigFile(InputStream stream, boolean decrypt) throws IOException {
-        ByteArrayOutputStream credBuffer = new ByteArrayOutputStream();
+    /**
+     * Opens streaming reader over config contents. Plain configs are not buffered in memory.
+     */
+    private Reader openConfigReader(InputStream stream, boolean decrypt) throws IOException {
+        if (!decrypt) {
+            return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        }
+        ByteArrayOutputStream encBuffer = new ByteArrayOutputStream();
         try {
-            IOUtils.copyStream(stream, credBuffer);
-        } catch (Exception e) {
-            log.error("Error reading secure credentials file", e);
+            IOUtils.copyStream(stream, encBuffer);
+        } finally {
+            stream.close();
         }
-        if (!decrypt) {
-            return credBuffer.toString(StandardCharsets.UTF_8);
-        } else {
-            DBSValueEncryptor encryptor = new DefaultValueEncryptor(registry.getProject().getLocalSecretKey());
-            try {
-                return new String(encryptor.decryptValue(credBuffer.toByteArray()), StandardCharsets.UTF_8);
-            } catch (Exception e) {
-                throw new IOException("Error decrypting encrypted file", e);
-            }
+        DBSValueEncryptor encryptor = new DefaultValueEncryptor(registry.getProject().getLocalSecretKey());
+        try {
+            return new InputStreamReader(
+                new ByteArrayInputStream(encryptor.decryptValue(encBuffer.toByteArray())),
+                StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IOException("Error decrypting encrypted file", e);
         }
     }
 
     private void saveConfigFile(DataSourceConfigurationManager configurationManager, String name, String contents, boolean teamPrivate, boolean encrypt) throws DBException, IOException {
-        byte[] binaryContents = null;
-        if (contents != null) {
-            if (encrypt) {
-                // Serialize and encrypt
-                DBSValueEncryptor valueEncryptor = new DefaultValueEncryptor(registry.getProject().getLocalSecretKey());
-                binaryContents = valueEncryptor.encryptValue(contents.getBytes(StandardCharsets.UTF_8));
-            } else {
-                binaryContents = contents.getBytes(StandardCharsets.UTF_8);
-            }
+        // Skip rewrite (and re-encryption) if contents weren't changed since last save
+        String digest = contents == null ? "" : SecurityUtils.makeDigest(contents);
+        if (!registry.updateSavedConfigDigest(name, digest)) {
+            return;
         }
+        try {
+            byte[] binaryContents = null;
+            if (contents != null) {
+                if (encrypt) {
+                    // Serialize and encrypt
+                    DBSValueEncryptor valueEncryptor = new DefaultValueEncryptor(registry.getProject().getLocalSecretKey());
+                    binaryContents = valueEncryptor.encryptValue(contents.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    binaryContents = contents.getBytes(StandardCharsets.UTF_8);
+                }
+            }
 
-        // Save result to file
-        configurationManager.writeConfiguration(name, binaryContents);
+            // Save result to file
+            configurationManager.writeConfiguration(name, binaryContents);
+        } catch (Throwable e) {
+            // Contents weren't saved, do not skip next save
+            registry.resetSavedConfigDigest(name);
+            throw e;
+        }
     }
 
     private void saveSecureCredentialsFile(DataSourceConfigurationManager configurationManager, DBPDataSourceConfigurationStorage storage) {
@@ -349,14 +372,14 @@ class DataSourceSerializerModern implements DataSourceSerializer
         boolean refresh
     ) throws DBException, IOException {
         if (!configurationManager.isSecure()) {
-            // Read secured creds file
+            // Read secured creds file. It is decrypted on the caller thread: the local secret key
+            // may come from the secure storage which can ask for the master password.
             InputStream secureCredsData = configurationManager.readConfiguration(
                 DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_PREFIX + configurationStorage.getStorageSubId() + DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_EXT);
             if (secureCredsData != null) {
-                try {
-                    String credJson = loadConfigFile(secureCredsData, true);
+                try (Reader credReader = openConfigReader(secureCredsData, true)) {
                     Map<String, Map<String, Map<String, String>>> res = CONFIG_GSON.fromJson(
-                        credJson,
+                        credReader,
                         new TypeToken<Map<String, Map<String, Map<String, String>>>>() {
                         }.getType());
                     if (res != null) {
@@ -375,333 +398,442 @@ class DataSourceSerializerModern implements DataSourceSerializer
             configData = configurationManager.readConfiguration(configurationStorage.getStorageName());
         }
         if (configData != null) {
-            String configJson = loadConfigFile(configData, CommonUtils.toBoolean(registry.getProject().isEncryptedProject()));
-
-            Map<String, Object> jsonMap = JSONUtils.parseMap(CONFIG_GSON, new StringReader(configJson));
-
-            // Folders
-            for (Map.Entry<String, Map<String, Object>> folderMap : JSONUtils.getNestedObjects(jsonMap, "folders")) {
-                String name = folderMap.getKey();
-                String description = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_DESCRIPTION);
-                String parentFolder = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_PARENT);
-                DataSourceFolder parent = parentFolder == null ? null : registry.findFolderByPath(parentFolder, true);
-                DataSourceFolder folder = parent == null ? registry.findFolderByPath(name, true) : parent.getChild(name);
-                if (folder == null) {
-                    folder = new DataSourceFolder(registry, parent, name, description);
-                    registry.addDataSourceFolder(folder);
-                } else {
-                    folder.setDescription(description);
+            // Config is read section by section and connections are parsed one by one,
+            // so the whole configuration tree is never built in memory.
+            ConfigLinks links = new ConfigLinks();
+            try (JsonReader json = CONFIG_GSON.newJsonReader(
+                openConfigReader(configData, CommonUtils.toBoolean(registry.getProject().isEncryptedProject()))))
+            {
+                if (beginConfigObject(json)) {
+                    while (json.hasNext()) {
+                        String section = json.nextName();
+                        if (json.peek() == JsonToken.NULL) {
+                            json.nextNull();
+                            continue;
+                        }
+                        switch (section) {
+                            case "folders":
+                                for (Map.Entry<String, Map<String, Object>> folderMap : readNestedObjects(json)) {
+                                    parseFolder(folderMap);
+                                }
+                                break;
+                            case "connection-types":
+                                for (Map.Entry<String, Map<String, Object>> ctMap : readNestedObjects(json)) {
+                                    parseConnectionType(ctMap);
+                                }
+                                break;
+                            case "external-configurations":
+                                for (Map.Entry<String, Map<String, Object>> ctMap : readNestedObjects(json)) {
+                                    String id = ctMap.getKey();
+                                    Map<String, Object> configMap = ctMap.getValue();
+                                    links.externalConfigurations.put(id, new DBPExternalConfiguration(id, configMap));
+                                }
+                                break;
+                            case "virtual-models":
+                                for (Map.Entry<String, Map<String, Object>> vmMap : readNestedObjects(json)) {
+                                    String id = vmMap.getKey();
+                                    DBVModel model = new DBVModel(id, vmMap.getValue());
+                                    links.modelMap.put(id, model);
+                                }
+                                break;
+                            case "network-profiles":
+                                for (Map.Entry<String, Map<String, Object>> profileEntry : readNestedObjects(json)) {
+                                    parseNetworkProfile(configurationManager, links, profileEntry);
+                                }
+                                break;
+                            case "auth-profiles":
+                                for (Map.Entry<String, Map<String, Object>> profileEntry : readNestedObjects(json)) {
+                                    parseAuthProfile(configurationManager, links, profileEntry);
+                                }
+                                break;
+                            case "connections":
+                                json.beginObject();
+                                while (json.hasNext()) {
+                                    String id = json.nextName();
+                                    Map<String, Object> conObject = CONFIG_GSON.fromJson(json, OBJECT_TYPE);
+                                    if (conObject != null) {
+                                        parseDataSource(configurationStorage, configurationManager, parseResults, links, id, conObject);
+                                    }
+                                }
+                                json.endObject();
+                                break;
+                            case "saved-filters":
+                                List<Map<String, Object>> savedFilters = CONFIG_GSON.fromJson(json, OBJECT_LIST_TYPE);
+                                if (savedFilters != null) {
+                                    for (Map<String, Object> ctMap : savedFilters) {
+                                        DBSObjectFilter filter = readObjectFiler(ctMap);
+                                        registry.addSavedFilter(filter);
+                                    }
+                                }
+                                break;
+                            default:
+                                // Drivers config is not loaded here
+                                json.skipValue();
+                                break;
+                        }
+                    }
+                    json.endObject();
                 }
             }
 
-            // Connection types
-            for (Map.Entry<String, Map<String, Object>> ctMap : JSONUtils.getNestedObjects(jsonMap, "connection-types")) {
-                String id = ctMap.getKey();
-                Map<String, Object> ctConfig = ctMap.getValue();
-                String name = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_NAME);
-                String description = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_DESCRIPTION);
-                String color = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_COLOR);
-                Boolean autoCommit = JSONUtils.getObjectProperty(ctConfig, "auto-commit");
-                Boolean confirmExecute = JSONUtils.getObjectProperty(ctConfig, "confirm-execute");
-                Boolean confirmDataChange = JSONUtils.getObjectProperty(ctConfig, "confirm-data-change");
-                Boolean autoCloseTransactions = JSONUtils.getObjectProperty(ctConfig, "auto-close-transactions");
-                DBPConnectionType ct = DBWorkbench.getPlatform().getDataSourceProviderRegistry().getConnectionType(id, null);
-                if (ct == null) {
-                    ct = new DBPConnectionType(
-                        id,
-                        name,
-                        color,
-                        description,
-                        CommonUtils.toBoolean(autoCommit),
-                        CommonUtils.toBoolean(confirmExecute),
-                        CommonUtils.toBoolean(confirmDataChange),
-                        CommonUtils.toBoolean(autoCloseTransactions));
-                    DBWorkbench.getPlatform().getDataSourceProviderRegistry().addConnectionType(ct);
-                }
-                deserializeModifyPermissions(ctConfig, ct);
+            // Virtual models, connection types and external configurations are saved after connections
+            for (Runnable link : links.dataSourceLinks) {
+                link.run();
             }
+            // Profiles are few, read their credentials once main config is parsed
+            for (Runnable reader : links.profileCredentialReaders) {
+                reader.run();
+            }
+        }
 
-            // Drivers
-            // TODO: load drivers config
+    }
 
-            // External configurations
-            Map<String, DBPExternalConfiguration> externalConfigurations = new LinkedHashMap<>();
-            for (Map.Entry<String, Map<String, Object>> ctMap : JSONUtils.getNestedObjects(jsonMap, "external-configurations")) {
-                String id = ctMap.getKey();
-                Map<String, Object> configMap = ctMap.getValue();
-                externalConfigurations.put(id, new DBPExternalConfiguration(id, configMap));
-            }
+    /**
+     * Reads object section which maps ids to objects
+     */
+    @NotNull
+    private static Collection<Map.Entry<String, Map<String, Object>>> readNestedObjects(@NotNull JsonReader json) {
+        Map<String, Map<String, Object>> objects = CONFIG_GSON.fromJson(json, NESTED_OBJECTS_TYPE);
+        return objects == null ? Collections.emptyList() : objects.entrySet();
+    }
 
-            // Virtual models
-            Map<String, DBVModel> modelMap = new LinkedHashMap<>();
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "virtual-models")) {
-                String id = vmMap.getKey();
-                DBVModel model = new DBVModel(id, vmMap.getValue());
-                modelMap.put(id, model);
-            }
+    private static boolean beginConfigObject(@NotNull JsonReader json) throws IOException {
+        try {
+            json.peek();
+        } catch (EOFException e) {
+            // Empty config
+            return false;
+        }
+        json.beginObject();
+        return true;
+    }
 
-            // Network profiles
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "network-profiles")) {
-                String profileId = vmMap.getKey();
-                Map<String, Object> profileMap = vmMap.getValue();
-                DBWNetworkProfile profile = new DBWNetworkProfile(registry.getProject());
-                profile.setProfileName(profileId);
-                profile.setProfileName(profileId);
-                profile.setProperties(JSONUtils.deserializeStringMap(profileMap, "properties"));
-
-                for (Map.Entry<String, Map<String, Object>> handlerMap : JSONUtils.getNestedObjects(profileMap, "handlers")) {
-                    DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(configurationManager, null, profile, handlerMap);
-                    if (configuration != null) {
-                        profile.updateConfiguration(configuration);
-                    }
-                }
+    private void parseFolder(@NotNull Map.Entry<String, Map<String, Object>> folderMap) {
+        String name = folderMap.getKey();
+        String description = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_DESCRIPTION);
+        String parentFolder = JSONUtils.getObjectProperty(folderMap.getValue(), RegistryConstants.ATTR_PARENT);
+        DataSourceFolder parent = parentFolder == null ? null : registry.findFolderByPath(parentFolder, true);
+        DataSourceFolder folder = parent == null ? registry.findFolderByPath(name, true) : parent.getChild(name);
+        if (folder == null) {
+            folder = new DataSourceFolder(registry, parent, name, description);
+            registry.addDataSourceFolder(folder);
+        } else {
+            folder.setDescription(description);
+        }
+    }
 
-                registry.updateNetworkProfile(profile);
-            }
+    private void parseConnectionType(@NotNull Map.Entry<String, Map<String, Object>> ctMap) {
+        String id = ctMap.getKey();
+        Map<String, Object> ctConfig = ctMap.getValue();
+        String name = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_NAME);
+        String description = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_DESCRIPTION);
+        String color = JSONUtils.getObjectProperty(ctConfig, RegistryConstants.ATTR_COLOR);
+        Boolean autoCommit = JSONUtils.getObjectProperty(ctConfig, "auto-commit");
+        Boolean confirmExecute = JSONUtils.getObjectProperty(ctConfig, "confirm-execute");
+        Boolean confirmDataChange = JSONUtils.getObjectProperty(ctConfig, "confirm-data-change");
+        Boolean autoCloseTransactions = JSONUtils.getObjectProperty(ctConfig, "auto-close-transactions");
+        DBPConnectionType ct = DBWorkbench.getPlatform().getDataSourceProviderRegistry().getConnectionType(id, null);
+        if (ct == null) {
+            ct = new DBPConnectionType(
+                id,
+                name,
+                color,
+                description,
+                CommonUtils.toBoolean(autoCommit),
+                CommonUtils.toBoolean(confirmExecute),
+                CommonUtils.toBoolean(confirmDataChange),
+                CommonUtils.toBoolean(autoCloseTransactions));
+            DBWorkbench.getPlatform().getDataSourceProviderRegistry().addConnectionType(ct);
+        }
+        deserializeModifyPermissions(ctConfig, ct);
+    }
 
-            // Auth profiles
-            for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "auth-profiles")) {
-                String profileId = vmMap.getKey();
-                Map<String, Object> profileMap = vmMap.getValue();
-                DBAAuthProfile profile = new DBAAuthProfile(registry.getProject());
-                profile.setProfileId(profileId);
-                profile.setProfileName(JSONUtils.getString(profileMap, RegistryConstants.ATTR_NAME));
-                profile.setAuthModelId(JSONUtils.getString(profileMap, RegistryConstants.ATTR_AUTH_MODEL));
-                profile.setSavePassword(JSONUtils.getBoolean(profileMap, RegistryConstants.ATTR_SAVE_PASSWORD));
-
-                SecureCredentials authCreds = configurationManager.isSecure() ?
-                    readPlainCredentials(profileMap) :
-                    readSecuredCredentials(null, profile, null);
-                profile.setUserName(authCreds.getUserName());
-                profile.setUserPassword(authCreds.getUserPassword());
-                profile.setProperties(authCreds.getProperties());
-
-                registry.updateAuthProfile(profile);
+    private void parseNetworkProfile(
+        @NotNull DataSourceConfigurationManager configurationManager,
+        @NotNull ConfigLinks links,
+        @NotNull Map.Entry<String, Map<String, Object>> profileEntry)
+    {
+        String profileId = profileEntry.getKey();
+        Map<String, Object> profileMap = profileEntry.getValue();
+        DBWNetworkProfile profile = new DBWNetworkProfile(registry.getProject());
+        profile.setProfileName(profileId);
+        profile.setProfileName(profileId);
+        profile.setProperties(JSONUtils.deserializeStringMap(profileMap, "properties"));
+
+        for (Map.Entry<String, Map<String, Object>> handlerMap : JSONUtils.getNestedObjects(profileMap, "handlers")) {
+            DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(configurationManager, null, profile, handlerMap, links.profileCredentialReaders);
+            if (configuration != null) {
+                profile.updateConfiguration(configuration);
             }
+        }
 
-            // Connections
-            for (Map.Entry<String, Map<String, Object>> conMap : JSONUtils.getNestedObjects(jsonMap, "connections")) {
-                String id = conMap.getKey();
-                Map<String, Object> conObject = conMap.getValue();
-
-                // Primary settings
-                String dsProviderID = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_PROVIDER));
-                if (CommonUtils.isEmpty(dsProviderID)) {
-                    log.debug("Empty datasource provider for datasource '" + id + "'");
-                    continue;
-                }
-                DataSourceProviderDescriptor provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(
-                    dsProviderID);
-                if (provider == null) {
-                    log.debug("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
-                    provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
-                }
-                String driverId = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_DRIVER));
-                DriverDescriptor driver = provider.getDriver(driverId);
-                if (driver == null) {
-                    log.debug("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
-                    driver = provider.createDriver(driverId);
-                    driver.setName(driverId);
-                    driver.setDescription("Missing driver " + driverId);
-                    driver.setDriverClassName("java.sql.Driver");
-                    driver.setTemporary(true);
-                    provider.addDriver(driver);
-                }
+        registry.updateNetworkProfile(profile);
+    }
 
-                DataSourceDescriptor dataSource = registry.getDataSource(id);
-                boolean newDataSource = (dataSource == null);
-                if (newDataSource) {
-                    DBPDataSourceOrigin origin;
-                    Map<String, Object> originProperties = JSONUtils.deserializeProperties(conObject, TAG_ORIGIN);
-                    if (CommonUtils.isEmpty(originProperties) || !originProperties.containsKey(ATTR_ORIGIN_TYPE)) {
-                        origin = DataSourceOriginLocal.INSTANCE;
-                    } else {
-                        String originID = CommonUtils.toString(originProperties.remove(ATTR_ORIGIN_TYPE));
-                        String extConfigID = CommonUtils.toString(originProperties.remove(ATTR_ORIGIN_CONFIGURATION));
-                        DBPExternalConfiguration extConfig = null;
-                        if (!CommonUtils.isEmpty(extConfigID)) {
-                            extConfig = externalConfigurations.get(extConfigID);
-                        }
-                        origin = new DataSourceOriginLazy(originID, originProperties, extConfig);
-                    }
-                    dataSource = new DataSourceDescriptor(
-                        registry,
-                        configurationStorage.isVirtual() ? registry.getDefaultStorage() : configurationStorage,
-                        origin,
-                        id,
-                        driver,
-                        new DBPConnectionConfiguration());
-                } else {
-                    // Clean settings - they have to be loaded later by parser
-                    dataSource.getConnectionConfiguration().setProperties(Collections.emptyMap());
-                    dataSource.getConnectionConfiguration().setHandlers(Collections.emptyList());
-                    dataSource.clearFilters();
-                }
-                dataSource.setName(JSONUtils.getString(conObject, RegistryConstants.ATTR_NAME));
-                dataSource.setDescription(JSONUtils.getString(conObject, RegistryConstants.TAG_DESCRIPTION));
-                dataSource.setSavePassword(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_SAVE_PASSWORD));
-                dataSource.setTemplate(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_TEMPLATE));
-
-                DataSourceNavigatorSettings navSettings = dataSource.getNavigatorSettings();
-                navSettings.setShowSystemObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_SYSTEM_OBJECTS));
-                navSettings.setShowUtilityObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_UTIL_OBJECTS));
-                navSettings.setShowOnlyEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_ONLY_ENTITIES));
-                navSettings.setHideFolders(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_FOLDERS));
-                navSettings.setHideSchemas(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_SCHEMAS));
-                navSettings.setHideVirtualModel(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_VIRTUAL));
-                navSettings.setMergeEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_MERGE_ENTITIES));
-
-                dataSource.setConnectionReadOnly(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_READ_ONLY));
-                final String folderPath = JSONUtils.getString(conObject, RegistryConstants.ATTR_FOLDER);
-                if (folderPath != null) {
-                    dataSource.setFolder(registry.findFolderByPath(folderPath, true));
-                }
-                dataSource.setLockPasswordHash(CommonUtils.toString(conObject.get(RegistryConstants.ATTR_LOCK_PASSWORD)));
+    private void parseAuthProfile(
+        @NotNull DataSourceConfigurationManager configurationManager,
+        @NotNull ConfigLinks links,
+        @NotNull Map.Entry<String, Map<String, Object>> profileEntry)
+    {
+        String profileId = profileEntry.getKey();
+        Map<String, Object> profileMap = profileEntry.getValue();
+        DBAAuthProfile profile = new DBAAuthProfile(registry.getProject());
+        profile.setProfileId(profileId);
+        profile.setProfileName(JSONUtils.getString(profileMap, RegistryConstants.ATTR_NAME));
+        profile.setAuthModelId(JSONUtils.getString(profileMap, RegistryConstants.ATTR_AUTH_MODEL));
+        profile.setSavePassword(JSONUtils.getBoolean(profileMap, RegistryConstants.ATTR_SAVE_PASSWORD));
+
+        links.profileCredentialReaders.add(() -> {
+            SecureCredentials authCreds = configurationManager.isSecure() ?
+                readPlainCredentials(profileMap) :
+                readSecuredCredentials(null, profile, null);
+            profile.setUserName(authCreds.getUserName());
+            profile.setUserPassword(authCreds.getUserPassword());
+            profile.setProperties(authCreds.getProperties());
+        });
+
+        registry.updateAuthProfile(profile);
+    }
 
-                // Connection settings
-                {
-                    Map<String, Object> cfgObject = JSONUtils.getObject(conObject, "configuration");
-                    DBPConnectionConfiguration config = dataSource.getConnectionConfiguration();
-                    config.setHostName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOST));
-                    config.setHostPort(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PORT));
-                    config.setServerName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_SERVER));
-                    config.setDatabaseName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_DATABASE));
-                    config.setUrl(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_URL));
-                    if (!passwordReadCanceled) {
-                        final SecureCredentials creds = configurationManager.isSecure() ?
-                            readPlainCredentials(cfgObject) :
-                            readSecuredCredentials(dataSource, null, null);
-                        config.setUserName(creds.getUserName());
-                        if (dataSource.isSavePassword()) {
-                            config.setUserPassword(creds.getUserPassword());
-                        }
-                    }
-                    {
-                        // Still try to read credentials directly from configuration (#6564)
-                        String userName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
-                        if (!CommonUtils.isEmpty(userName)) config.setUserName(userName);
-                        String userPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
-                        if (!CommonUtils.isEmpty(userPassword)) config.setUserPassword(userPassword);
-                    }
+    private void parseDataSource(
+        @NotNull DBPDataSourceConfigurationStorage configurationStorage,
+        @NotNull DataSourceConfigurationManager configurationManager,
+        @NotNull DataSourceRegistry.ParseResults parseResults,
+        @NotNull ConfigLinks links,
+        @NotNull String id,
+        @NotNull Map<String, Object> conObject)
+    {
+        List<Runnable> credentialReaders = new ArrayList<>();
 
-                    config.setClientHomeId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOME));
-                    config.setConfigProfileName(JSONUtils.getString(cfgObject, "config-profile"));
-                    config.setConnectionType(
-                        DataSourceProviderRegistry.getInstance().getConnectionType(
-                            JSONUtils.getString(cfgObject, RegistryConstants.ATTR_TYPE), DBPConnectionType.DEFAULT_TYPE));
-                    String configurationType = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_CONFIGURATION_TYPE);
-                    if (!CommonUtils.isEmpty(configurationType)) {
-                        config.setConfigurationType(DBPDriverConfigurationType.valueOf(configurationType));
-                    }
-                    String colorValue = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_COLOR);
-                    if (!CommonUtils.isEmpty(colorValue)) {
-                        config.setConnectionColor(colorValue);
-                    }
-                    int keepAlive = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_KEEP_ALIVE);
-                    if (keepAlive > 0) {
-                        config.setKeepAliveInterval(keepAlive);
-                    }
-                    int closeIdle = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_CLOSE_IDLE);
-                    if (closeIdle > 0) {
-                        config.setCloseIdleInterval(closeIdle);
-                    }
+        // Primary settings
+        String dsProviderID = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_PROVIDER));
+        if (CommonUtils.isEmpty(dsProviderID)) {
+            log.debug("Empty datasource provider for datasource '" + id + "'");
+            return;
+        }
+        DataSourceProviderDescriptor provider = DataSourceProviderRegistry.getInstance().getDataSourceProvider(
+            dsProviderID);
+        if (provider == null) {
+            log.debug("Can't find datasource provider " + dsProviderID + " for datasource '" + id + "'");
+            provider = (DataSourceProviderDescriptor) DataSourceProviderRegistry.getInstance().makeFakeProvider(dsProviderID);
+        }
+        String driverId = CommonUtils.toString(conObject.get(RegistryConstants.ATTR_DRIVER));
+        DriverDescriptor driver = provider.getDriver(driverId);
+        if (driver == null) {
+            log.debug("Can't find driver " + driverId + " in datasource provider " + provider.getId() + " for datasource '" + id + "'. Create new driver");
+            driver = provider.createDriver(driverId);
+            driver.setName(driverId);
+            driver.setDescription("Missing driver " + driverId);
+            driver.setDriverClassName("java.sql.Driver");
+            driver.setTemporary(true);
+            provider.addDriver(driver);
+        }
 
-                    config.setProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROPERTIES));
-                    config.setProviderProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROVIDER_PROPERTIES));
-                    config.setAuthModelId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_AUTH_MODEL));
-                    config.setAuthProperties(JSONUtils.deserializeStringMapOrNull(cfgObject, "auth-properties"));
-
-                    // Events
-                    for (Map.Entry<String, Map<String, Object>> eventObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_EVENTS)) {
-                        DBPConnectionEventType eventType = CommonUtils.valueOf(DBPConnectionEventType.class, eventObject.getKey(), DBPConnectionEventType.BEFORE_CONNECT);
-                        Map<String, Object> eventCfg = eventObject.getValue();
-                        DBRShellCommand command = new DBRShellCommand("");
-                        command.setEnabled(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_ENABLED));
-                        command.setShowProcessPanel(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_SHOW_PANEL));
-                        command.setWaitProcessFinish(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS));
-                        if (command.isWaitProcessFinish()) {
-                            command.setWaitProcessTimeoutMs(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS_TIMEOUT));
-                        }
-                        command.setTerminateAtDisconnect(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_TERMINATE_AT_DISCONNECT));
-                        command.setPauseAfterExecute(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_PAUSE_AFTER_EXECUTE));
-                        command.setWorkingDirectory(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_WORKING_DIRECTORY));
-                        command.setCommand(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_COMMAND));
+        DataSourceDescriptor dataSource = registry.getDataSource(id);
+        boolean newDataSource = (dataSource == null);
+        if (newDataSource) {
+            DBPDataSourceOrigin origin;
+            Map<String, Object> originProperties = JSONUtils.deserializeProperties(conObject, TAG_ORIGIN);
+            if (CommonUtils.isEmpty(originProperties) || !originProperties.containsKey(ATTR_ORIGIN_TYPE)) {
+                origin = DataSourceOriginLocal.INSTANCE;
+            } else {
+                String originID = CommonUtils.toString(originProperties.remove(ATTR_ORIGIN_TYPE));
+                String extConfigID = CommonUtils.toString(originProperties.remove(ATTR_ORIGIN_CONFIGURATION));
+                DataSourceOriginLazy lazyOrigin = new DataSourceOriginLazy(originID, originProperties, null);
+                if (!CommonUtils.isEmpty(extConfigID)) {
+                    links.dataSourceLinks.add(() -> lazyOrigin.setExternalConfiguration(links.externalConfigurations.get(extConfigID)));
+                }
+                origin = lazyOrigin;
+            }
+            dataSource = new DataSourceDescriptor(
+                registry,
+                configurationStorage.isVirtual() ? registry.getDefaultStorage() : configurationStorage,
+                origin,
+                id,
+                driver,
+                new DBPConnectionConfiguration());
+        } else {
+            // Clean settings - they have to be loaded later by parser
+            dataSource.getConnectionConfiguration().setProperties(Collections.emptyMap());
+            dataSource.getConnectionConfiguration().setHandlers(Collections.emptyList());
+            dataSource.clearFilters();
+        }
+        dataSource.setName(JSONUtils.getString(conObject, RegistryConstants.ATTR_NAME));
+        dataSource.setDescription(JSONUtils.getString(conObject, RegistryConstants.TAG_DESCRIPTION));
+        dataSource.setSavePassword(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_SAVE_PASSWORD));
+        dataSource.setTemplate(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_TEMPLATE));
 
-                        config.setEvent(eventType, command);
-                    }
+        DataSourceNavigatorSettings navSettings = dataSource.getNavigatorSettings();
+        navSettings.setShowSystemObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_SYSTEM_OBJECTS));
+        navSettings.setShowUtilityObjects(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_UTIL_OBJECTS));
+        navSettings.setShowOnlyEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_SHOW_ONLY_ENTITIES));
+        navSettings.setHideFolders(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_FOLDERS));
+        navSettings.setHideSchemas(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_SCHEMAS));
+        navSettings.setHideVirtualModel(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_HIDE_VIRTUAL));
+        navSettings.setMergeEntities(JSONUtils.getBoolean(conObject, DataSourceSerializerModern.ATTR_NAVIGATOR_MERGE_ENTITIES));
+
+        dataSource.setConnectionReadOnly(JSONUtils.getBoolean(conObject, RegistryConstants.ATTR_READ_ONLY));
+        final String folderPath = JSONUtils.getString(conObject, RegistryConstants.ATTR_FOLDER);
+        if (folderPath != null) {
+            dataSource.setFolder(registry.findFolderByPath(folderPath, true));
+        }
+        dataSource.setLockPasswordHash(CommonUtils.toString(conObject.get(RegistryConstants.ATTR_LOCK_PASSWORD)));
 
-                    // Handlers
-                    for (Map.Entry<String, Map<String, Object>> handlerObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_HANDLERS)) {
-                        DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(configurationManager, dataSource, null, handlerObject);
-                        if (configuration != null) {
-                            dataSource.getConnectionConfiguration().updateHandler(configuration);
-                        }
+        // Connection settings
+        {
+            Map<String, Object> cfgObject = JSONUtils.getObject(conObject, "configuration");
+            DBPConnectionConfiguration config = dataSource.getConnectionConfiguration();
+            config.setHostName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOST));
+            config.setHostPort(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PORT));
+            config.setServerName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_SERVER));
+            config.setDatabaseName(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_DATABASE));
+            config.setUrl(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_URL));
+            if (!passwordReadCanceled) {
+                final DataSourceDescriptor credDataSource = dataSource;
+                credentialReaders.add(() -> {
+                    final SecureCredentials creds = configurationManager.isSecure() ?
+                        readPlainCredentials(cfgObject) :
+                        readSecuredCredentials(credDataSource, null, null);
+                    config.setUserName(creds.getUserName());
+                    if (credDataSource.isSavePassword()) {
+                        config.setUserPassword(creds.getUserPassword());
                     }
+                });
+            }
+            {
+                // Still try to read credentials directly from configuration (#6564)
+                String userName = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_USER);
+                String userPassword = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_PASSWORD);
+                credentialReaders.add(() -> {
+                    if (!CommonUtils.isEmpty(userName)) config.setUserName(userName);
+                    if (!CommonUtils.isEmpty(userPassword)) config.setUserPassword(userPassword);
+                });
+            }
 
-                    // Bootstrap
-                    Map<String, Object> bootstrapCfg = JSONUtils.getObject(cfgObject, RegistryConstants.TAG_BOOTSTRAP);
-                    DBPConnectionBootstrap bootstrap = config.getBootstrap();
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_AUTOCOMMIT)) {
-                        bootstrap.setDefaultAutoCommit(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_AUTOCOMMIT));
-                    }
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_TXN_ISOLATION)) {
-                        bootstrap.setDefaultTransactionIsolation(JSONUtils.getInteger(bootstrapCfg, RegistryConstants.ATTR_TXN_ISOLATION));
-                    }
-                    bootstrap.setDefaultCatalogName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_CATALOG));
-                    bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_SCHEMA));
-                    String defObjectName = JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_OBJECT);
-                    if (!CommonUtils.isEmpty(defObjectName) && CommonUtils.isEmpty(bootstrap.getDefaultSchemaName())) {
-                        bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, defObjectName));
-                    }
+            config.setClientHomeId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_HOME));
+            config.setConfigProfileName(JSONUtils.getString(cfgObject, "config-profile"));
+            String connectionTypeId = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_TYPE);
+            DBPConnectionType connectionType = DataSourceProviderRegistry.getInstance().getConnectionType(connectionTypeId, null);
+            config.setConnectionType(connectionType == null ? DBPConnectionType.DEFAULT_TYPE : connectionType);
+            if (connectionType == null && connectionTypeId != null) {
+                // Custom connection types are saved after connections
+                links.dataSourceLinks.add(() -> config.setConnectionType(
+                    DataSourceProviderRegistry.getInstance().getConnectionType(connectionTypeId, DBPConnectionType.DEFAULT_TYPE)));
+            }
+            String configurationType = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_CONFIGURATION_TYPE);
+            if (!CommonUtils.isEmpty(configurationType)) {
+                config.setConfigurationType(DBPDriverConfigurationType.valueOf(configurationType));
+            }
+            String colorValue = JSONUtils.getString(cfgObject, RegistryConstants.ATTR_COLOR);
+            if (!CommonUtils.isEmpty(colorValue)) {
+                config.setConnectionColor(colorValue);
+            }
+            int keepAlive = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_KEEP_ALIVE);
+            if (keepAlive > 0) {
+                config.setKeepAliveInterval(keepAlive);
+            }
+            int closeIdle = JSONUtils.getInteger(cfgObject, RegistryConstants.ATTR_CLOSE_IDLE);
+            if (closeIdle > 0) {
+                config.setCloseIdleInterval(closeIdle);
+            }
 
-                    if (bootstrapCfg.containsKey(RegistryConstants.ATTR_IGNORE_ERRORS)) {
-                        bootstrap.setIgnoreErrors(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_IGNORE_ERRORS));
-                    }
-                    bootstrap.setInitQueries(JSONUtils.deserializeStringList(bootstrapCfg, RegistryConstants.TAG_QUERY));
+            config.setProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROPERTIES));
+            config.setProviderProperties(JSONUtils.deserializeStringMap(cfgObject, RegistryConstants.TAG_PROVIDER_PROPERTIES));
+            config.setAuthModelId(JSONUtils.getString(cfgObject, RegistryConstants.ATTR_AUTH_MODEL));
+            config.setAuthProperties(JSONUtils.deserializeStringMapOrNull(cfgObject, "auth-properties"));
+
+            // Events
+            for (Map.Entry<String, Map<String, Object>> eventObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_EVENTS)) {
+                DBPConnectionEventType eventType = CommonUtils.valueOf(DBPConnectionEventType.class, eventObject.getKey(), DBPConnectionEventType.BEFORE_CONNECT);
+                Map<String, Object> eventCfg = eventObject.getValue();
+                DBRShellCommand command = new DBRShellCommand("");
+                command.setEnabled(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_ENABLED));
+                command.setShowProcessPanel(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_SHOW_PANEL));
+                command.setWaitProcessFinish(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS));
+                if (command.isWaitProcessFinish()) {
+                    command.setWaitProcessTimeoutMs(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_WAIT_PROCESS_TIMEOUT));
                 }
+                command.setTerminateAtDisconnect(JSONUtils.getBoolean(eventCfg, RegistryConstants.ATTR_TERMINATE_AT_DISCONNECT));
+                command.setPauseAfterExecute(JSONUtils.getInteger(eventCfg, RegistryConstants.ATTR_PAUSE_AFTER_EXECUTE));
+                command.setWorkingDirectory(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_WORKING_DIRECTORY));
+                command.setCommand(JSONUtils.getString(eventCfg, RegistryConstants.ATTR_COMMAND));
 
-                // Permissions
-                {
-                    deserializeModifyPermissions(conObject, dataSource);
-                }
+                config.setEvent(eventType, command);
+            }
 
-                // Filters
-                for (Map<String, Object> filterCfg : JSONUtils.getObjectList(conObject, RegistryConstants.TAG_FILTERS)) {
-                    String typeName = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_TYPE);
-                    String objectID = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_ID);
-                    if (!CommonUtils.isEmpty(typeName)) {
-                        DBSObjectFilter filter = readObjectFiler(filterCfg);
-                        dataSource.updateObjectFilter(typeName, objectID, filter);
-                    }
+            // Handlers
+            for (Map.Entry<String, Map<String, Object>> handlerObject : JSONUtils.getNestedObjects(cfgObject, RegistryConstants.TAG_HANDLERS)) {
+                DBWHandlerConfiguration configuration = parseNetworkHandlerConfig(configurationManager, dataSource, null, handlerObject, credentialReaders);
+                if (configuration != null) {
+                    dataSource.getConnectionConfiguration().updateHandler(configuration);
                 }
+            }
 
-                // Preferences
-                dataSource.getPreferenceStore().getProperties().putAll(
-                    JSONUtils.deserializeStringMap(conObject, RegistryConstants.TAG_CUSTOM_PROPERTIES)
-                );
-
-                // Virtual model
-                String vmID = CommonUtils.toString(conObject.get("virtual-model-id"), id);
-                DBVModel dbvModel = modelMap.get(vmID);
-                if (dbvModel != null) {
-                    dataSource.setVirtualModel(dbvModel);
-                }
+            // Bootstrap
+            Map<String, Object> bootstrapCfg = JSONUtils.getObject(cfgObject, RegistryConstants.TAG_BOOTSTRAP);
+            DBPConnectionBootstrap bootstrap = config.getBootstrap();
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_AUTOCOMMIT)) {
+                bootstrap.setDefaultAutoCommit(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_AUTOCOMMIT));
+            }
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_TXN_ISOLATION)) {
+                bootstrap.setDefaultTransactionIsolation(JSONUtils.getInteger(bootstrapCfg, RegistryConstants.ATTR_TXN_ISOLATION));
+            }
+            bootstrap.setDefaultCatalogName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_CATALOG));
+            bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_SCHEMA));
+            String defObjectName = JSONUtils.getString(bootstrapCfg, RegistryConstants.ATTR_DEFAULT_OBJECT);
+            if (!CommonUtils.isEmpty(defObjectName) && CommonUtils.isEmpty(bootstrap.getDefaultSchemaName())) {
+                bootstrap.setDefaultSchemaName(JSONUtils.getString(bootstrapCfg, defObjectName));
+            }
 
-                // Add to the list
-                if (newDataSource) {
-                    parseResults.addedDataSources.add(dataSource);
-                } else {
-                    parseResults.updatedDataSources.add(dataSource);
-                }
+            if (bootstrapCfg.containsKey(RegistryConstants.ATTR_IGNORE_ERRORS)) {
+                bootstrap.setIgnoreErrors(JSONUtils.getBoolean(bootstrapCfg, RegistryConstants.ATTR_IGNORE_ERRORS));
             }
+            bootstrap.setInitQueries(JSONUtils.deserializeStringList(bootstrapCfg, RegistryConstants.TAG_QUERY));
+        }
 
-            // Saved filters
-            for (Map<String, Object> ctMap : JSONUtils.getObjectList(jsonMap, "saved-filters")) {
-                DBSObjectFilter filter = readObjectFiler(ctMap);
-                registry.addSavedFilter(filter);
+        // Permissions
+        {
+            deserializeModifyPermissions(conObject, dataSource);
+        }
+
+        // Filters
+        for (Map<String, Object> filterCfg : JSONUtils.getObjectList(conObject, RegistryConstants.TAG_FILTERS)) {
+            String typeName = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_TYPE);
+            String objectID = JSONUtils.getString(filterCfg, RegistryConstants.ATTR_ID);
+            if (!CommonUtils.isEmpty(typeName)) {
+                DBSObjectFilter filter = readObjectFiler(filterCfg);
+                dataSource.updateObjectFilter(typeName, objectID, filter);
             }
         }
 
+        // Preferences
+        dataSource.addConfigurationPreferences(
+            JSONUtils.deserializeStringMap(conObject, RegistryConstants.TAG_CUSTOM_PROPERTIES)
+        );
+
+        // Virtual model
+        String vmID = CommonUtils.toString(conObject.get("virtual-model-id"), id);
+        final DataSourceDescriptor vmDataSource = dataSource;
+        links.dataSourceLinks.add(() -> {
+            DBVModel dbvModel = links.modelMap.get(vmID);
+            if (dbvModel != null) {
+                vmDataSource.setVirtualModel(dbvModel);
+            }
+        });
+
+        // Credentials are applied on first access to the connection configuration
+        dataSource.setCredentialsResolver(() -> {
+            for (Runnable reader : credentialReaders) {
+                reader.run();
+            }
+        });
+
+        // Add to the list
+        if (newDataSource) {
+            parseResults.addedDataSources.add(dataSource);
+        } else {
+            parseResults.updatedDataSources.add(dataSource);
+        }
     }
 
     private void deserializeModifyPermissions(Map<String, Object> conObject, DBPDataSourcePermissionOwner permissionOwner) {
@@ -732,7 +864,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
         DataSourceConfigurationManager configurationManager,
         @Nullable DataSourceDescriptor dataSource,
         @Nullable DBWNetworkProfile profile,
-        @NotNull Map.Entry<String, Map<String, Object>> handlerObject)
+        @NotNull Map.Entry<String, Map<String, Object>> handlerObject,
+        @NotNull List<Runnable> credentialReaders)
     {
         String handlerId = handlerObject.getKey();
         Map<String, Object> handlerCfg = handlerObject.getValue();
@@ -746,24 +879,28 @@ class DataSourceSerializerModern implements DataSourceSerializer
             curNetworkHandler.setEnabled(JSONUtils.getBoolean(handlerCfg, RegistryConstants.ATTR_ENABLED));
             curNetworkHandler.setSavePassword(JSONUtils.getBoolean(handlerCfg, RegistryConstants.ATTR_SAVE_PASSWORD));
             if (!passwordReadCanceled) {
-                final SecureCredentials creds = configurationManager.isSecure() ?
-                    readPlainCredentials(handlerCfg) :
-                    readSecuredCredentials(dataSource, profile,
-                    "network/" + handlerId + (profile == null ? "" : "/profile/" + profile.getProfileName()));
-                curNetworkHandler.setUserName(creds.getUserName());
-                if (curNetworkHandler.isSavePassword()) {
-                    curNetworkHandler.setPassword(creds.getUserPassword());
-                }
-                if (creds.getProperties() != null) {
-                    curNetworkHandler.setSecureProperties(creds.getProperties());
-                }
+                credentialReaders.add(() -> {
+                    final SecureCredentials creds = configurationManager.isSecure() ?
+                        readPlainCredentials(handlerCfg) :
+                        readSecuredCredentials(dataSource, profile,
+                        "network/" + handlerId + (profile == null ? "" : "/profile/" + profile.getProfileName()));
+                    curNetworkHandler.setUserName(creds.getUserName());
+                    if (curNetworkHandler.isSavePassword()) {
+                        curNetworkHandler.setPassword(creds.getUserPassword());
+                    }
+                    if (creds.getProperties() != null) {
+                        curNetworkHandler.setSecureProperties(creds.getProperties());
+                    }
+                });
             }
             {
                 // Still try to read credentials directly from configuration (#6564)
                 String userName = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_USER);
-                if (!CommonUtils.isEmpty(userName)) curNetworkHandler.setUserName(userName);
                 String userPassword = JSONUtils.getString(handlerCfg, RegistryConstants.ATTR_PASSWORD);
-                if (!CommonUtils.isEmpty(userPassword)) curNetworkHandler.setPassword(userPassword);
+                credentialReaders.add(() -> {
+                    if (!CommonUtils.isEmpty(userName)) curNetworkHandler.setUserName(userName);
+                    if (!CommonUtils.isEmpty(userPassword)) curNetworkHandler.setPassword(userPassword);
+                });
             }
 
             Map<String, Object> properties = JSONUtils.deserializeProperties(handlerCfg, RegistryConstants.TAG_PROPERTIES);
@@ -1154,4 +1291,14 @@ class DataSourceSerializerModern implements DataSourceSerializer
         return creds;
     }
 
+    /**
+     * Objects which are referenced by connections but saved after them
+     */
+    private static class ConfigLinks {
+        final Map<String, DBPExternalConfiguration> externalConfigurations = new LinkedHashMap<>();
+        final Map<String, DBVModel> modelMap = new LinkedHashMap<>();
+        final List<Runnable> dataSourceLinks = new ArrayList<>();
+        final List<Runnable> profileCredentialReaders = new ArrayList<>();
+    }
+
 }
@@ -16,20 +16,15 @@
  */
 package org.jkiss.dbeaver.registry.task;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPNamedObject2;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.task.*;
-import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -41,14 +36,7 @@ import java.util.stream.Collectors;
 public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private static final Log log = Log.getLog(TaskImpl.class);
 
-    private static final String META_FILE_NAME = "meta.json";
-
-    private static final int MAX_RUNS_IN_STATS = 100;
     private static final TaskRunImpl VOID_RUN = new TaskRunImpl();
-    private static final Gson gson = new GsonBuilder()
-        .setLenient()
-        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
-        .create();
 
     private final DBPProject project;
     private final String id;
@@ -60,10 +48,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private Map<String, Object> properties;
     private TaskRunImpl lastRun;
     @Nullable private TaskFolderImpl taskFolder;
-
-    private static class RunStatistics {
-        private final List<TaskRunImpl> runs = new ArrayList<>();
-    }
+    private final TaskRunHistory runHistory = new TaskRunHistory(this::getTaskStatsFolder);
 
     public TaskImpl(@NotNull DBPProject project, @NotNull DBTTaskType type, @NotNull String id, @NotNull String label, @Nullable String description, @NotNull Date createTime, @Nullable Date updateTime, @Nullable TaskFolderImpl taskFolder) {
         this.project = project;
@@ -162,7 +147,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     @NotNull
     @Override
     public DBTTaskRun[] getRunStatistics() {
-        return loadRunStatistics().runs.toArray(new DBTTaskRun[0]);
+        return runHistory.getRuns().toArray(new DBTTaskRun[0]);
     }
 
     @NotNull
@@ -183,9 +168,9 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete log file '" + runLog.toAbsolutePath() + "'", e);
             }
         }
-        RunStatistics runStatistics = loadRunStatistics();
-        runStatistics.runs.remove(taskRun);
-        flushRunStatistics(runStatistics);
+        if (taskRun instanceof TaskRunImpl) {
+            runHistory.removeRun((TaskRunImpl) taskRun);
+        }
         if (CommonUtils.equalObjects(lastRun, taskRun)) {
             lastRun = null;
         }
@@ -210,8 +195,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete logs folder '" + statsFolder.toAbsolutePath() + "'", e);
             }
         }
-        RunStatistics runStatistics = new RunStatistics();
-        flushRunStatistics(runStatistics);
+        runHistory.clear();
         lastRun = null;
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
@@ -220,8 +204,10 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     public void refreshRunStatistics() {
         try {
             synchronized (this) {
-                List<TaskRunImpl> runs = loadRunStatistics().runs;
-                lastRun = runs.isEmpty() ? VOID_RUN : runs.get(runs.size() - 1);
+                // Runs may be changed by another process
+                runHistory.invalidate();
+                TaskRunImpl run = runHistory.getLastRun();
+                lastRun = run == null ? VOID_RUN : run;
             }
         } catch (Throwable e) {
             log.debug("Error loading task runs", e); //$NON-NLS-1$
@@ -256,60 +242,16 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
         return taskStatsFolder;
     }
 
-    private RunStatistics loadRunStatistics() {
-        Path metaFile = getTaskStatsFolder(false).resolve(META_FILE_NAME);
-        if (!Files.exists(metaFile)) {
-            return new RunStatistics();
-        }
-        try (Reader reader = Files.newBufferedReader(metaFile)) {
-            RunStatistics statistics = gson.fromJson(reader, RunStatistics.class);
-            if (statistics == null) {
-                log.error("Null task run statistics returned");
-                return new RunStatistics();
-            }
-            return statistics;
-        } catch (Exception e) {
-            log.error("Error reading task run statistics", e);
-            return new RunStatistics();
-        }
-    }
-
-    private void flushRunStatistics(RunStatistics stats) {
-        Path metaFile = getTaskStatsFolder(true).resolve(META_FILE_NAME);
-        try (Writer writer = Files.newBufferedWriter(metaFile)) {
-            String metaContent = gson.toJson(stats);
-            writer.write(metaContent);
-        } catch (IOException e) {
-            log.error("Error writing task run statistics", e);
-        }
-    }
-
     void addNewRun(TaskRunImpl taskRun) {
         synchronized (this) {
             lastRun = taskRun;
-            RunStatistics stats = loadRunStatistics();
-            stats.runs.add(taskRun);
-            while (stats.runs.size() > MAX_RUNS_IN_STATS) {
-                stats.runs.remove(0);
-            }
-            flushRunStatistics(stats);
+            runHistory.addRun(taskRun);
         }
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
     void updateRun(TaskRunImpl taskRun) {
-        synchronized (this) {
-            RunStatistics stats = loadRunStatistics();
-            List<TaskRunImpl> runs = stats.runs;
-            for (int i = 0; i < runs.size(); i++) {
-                TaskRunImpl run = runs.get(i);
-                if (CommonUtils.equalObjects(run.getId(), taskRun.getId())) {
-                    runs.set(i, taskRun);
-                    break;
-                }
-            }
-            flushRunStatistics(stats);
-        }
+        runHistory.updateRun(taskRun);
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
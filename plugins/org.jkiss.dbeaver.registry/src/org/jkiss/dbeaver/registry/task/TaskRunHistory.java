@@ -0,0 +1,281 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Task run history.
+ *
+ * Runs are kept in memory after the first read. Changes are appended to the run journal
+ * and journal is periodically compacted into the meta file snapshot.
+ * Journal writes and compaction are done under the lock file, so runs appended by other
+ * processes (e.g. scheduled task runs) are not lost on compaction.
+ */
+class TaskRunHistory {
+    private static final Log log = Log.getLog(TaskRunHistory.class);
+
+    static final String META_FILE_NAME = "meta.json";
+    static final String JOURNAL_FILE_NAME = "runs.journal";
+    static final String LOCK_FILE_NAME = "runs.lock";
+
+    private static final int MAX_RUNS_IN_STATS = 100;
+    // Journal is compacted after this number of records
+    private static final int MAX_JOURNAL_RECORDS = MAX_RUNS_IN_STATS * 2;
+
+    private static final String ACTION_ADD = "add";
+    private static final String ACTION_UPDATE = "update";
+    private static final String ACTION_REMOVE = "remove";
+
+    private static final Gson gson = new GsonBuilder()
+        .setLenient()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+
+    private static class RunStatistics {
+        private final List<TaskRunImpl> runs = new ArrayList<>();
+    }
+
+    private interface JournalAction {
+        void run() throws IOException;
+    }
+
+    private static class JournalRecord {
+        private String action;
+        private TaskRunImpl run;
+
+        JournalRecord(String action, TaskRunImpl run) {
+            this.action = action;
+            this.run = run;
+        }
+    }
+
+    private final Function<Boolean, Path> folderProvider;
+    // Runs by id in start order. Null means that history wasn't read yet
+    @Nullable
+    private LinkedHashMap<String, TaskRunImpl> runs;
+    private int journalRecords;
+
+    TaskRunHistory(@NotNull Function<Boolean, Path> folderProvider) {
+        this.folderProvider = folderProvider;
+    }
+
+    @NotNull
+    synchronized List<TaskRunImpl> getRuns() {
+        return new ArrayList<>(getRunMap().values());
+    }
+
+    @Nullable
+    synchronized TaskRunImpl getLastRun() {
+        TaskRunImpl lastRun = null;
+        for (TaskRunImpl run : getRunMap().values()) {
+            lastRun = run;
+        }
+        return lastRun;
+    }
+
+    synchronized void addRun(@NotNull TaskRunImpl run) {
+        Map<String, TaskRunImpl> runMap = getRunMap();
+        runMap.put(run.getId(), run);
+        trimRuns(runMap);
+        appendRecord(new JournalRecord(ACTION_ADD, run));
+    }
+
+    synchronized void updateRun(@NotNull TaskRunImpl run) {
+        Map<String, TaskRunImpl> runMap = getRunMap();
+        if (runMap.containsKey(run.getId())) {
+            runMap.put(run.getId(), run);
+            appendRecord(new JournalRecord(ACTION_UPDATE, run));
+        }
+    }
+
+    synchronized void removeRun(@NotNull TaskRunImpl run) {
+        if (getRunMap().remove(run.getId()) != null) {
+            appendRecord(new JournalRecord(ACTION_REMOVE, run));
+        }
+    }
+
+    /**
+     * Removes all runs and writes empty snapshot
+     */
+    synchronized void clear() {
+        compact(true);
+    }
+
+    /**
+     * Drops cached runs. History will be re-read on next access (e.g. after task run in another process).
+     */
+    synchronized void invalidate() {
+        runs = null;
+    }
+
+    private LinkedHashMap<String, TaskRunImpl> getRunMap() {
+        if (runs == null) {
+            runs = loadRuns();
+        }
+        return runs;
+    }
+
+    private LinkedHashMap<String, TaskRunImpl> loadRuns() {
+        LinkedHashMap<String, TaskRunImpl> result = new LinkedHashMap<>();
+        journalRecords = 0;
+        Path folder = folderProvider.apply(false);
+
+        Path metaFile = folder.resolve(META_FILE_NAME);
+        if (Files.exists(metaFile)) {
+            try (Reader reader = Files.newBufferedReader(metaFile)) {
+                RunStatistics statistics = gson.fromJson(reader, RunStatistics.class);
+                if (statistics == null) {
+                    log.error("Null task run statistics returned");
+                } else {
+                    for (TaskRunImpl run : statistics.runs) {
+                        result.put(run.getId(), run);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error reading task run statistics", e);
+            }
+        }
+
+        Path journalFile = folder.resolve(JOURNAL_FILE_NAME);
+        if (Files.exists(journalFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    JournalRecord record;
+                    try {
+                        record = gson.fromJson(line, JournalRecord.class);
+                    } catch (Exception e) {
+                        // Partially written record
+                        log.debug("Skip broken task run journal record: " + e.getMessage());
+                        continue;
+                    }
+                    if (record == null || record.run == null || record.run.getId() == null) {
+                        continue;
+                    }
+                    journalRecords++;
+                    switch (record.action) {
+                        case ACTION_ADD:
+                            result.put(record.run.getId(), record.run);
+                            break;
+                        case ACTION_UPDATE:
+                            result.replace(record.run.getId(), record.run);
+                            break;
+                        case ACTION_REMOVE:
+                            result.remove(record.run.getId());
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error reading task run journal", e);
+            }
+        }
+        trimRuns(result);
+        return result;
+    }
+
+    private void appendRecord(JournalRecord record) {
+        Path folder = folderProvider.apply(true);
+        try {
+            withJournalLock(folder, () -> {
+                try (Writer writer = Files.newBufferedWriter(folder.resolve(JOURNAL_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(gson.toJson(record));
+                    writer.write('\n');
+                }
+            });
+            journalRecords++;
+        } catch (IOException e) {
+            log.error("Error writing task run journal", e);
+            return;
+        }
+        if (journalRecords >= MAX_JOURNAL_RECORDS) {
+            compact(false);
+        }
+    }
+
+    /**
+     * Writes all runs into the meta file and removes journal.
+     * Meta file and journal are re-read under the lock first, as other processes may have
+     * appended runs which are not in memory yet.
+     */
+    private void compact(boolean clear) {
+        Path folder = folderProvider.apply(true);
+        Path metaFile = folder.resolve(META_FILE_NAME);
+        Path tempFile = folder.resolve(META_FILE_NAME + ".tmp");
+        try {
+            withJournalLock(folder, () -> {
+                LinkedHashMap<String, TaskRunImpl> actualRuns = clear ? new LinkedHashMap<>() : loadRuns();
+                RunStatistics stats = new RunStatistics();
+                stats.runs.addAll(actualRuns.values());
+                try (Writer writer = Files.newBufferedWriter(tempFile)) {
+                    writer.write(gson.toJson(stats));
+                }
+                try {
+                    Files.move(tempFile, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, metaFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.deleteIfExists(folder.resolve(JOURNAL_FILE_NAME));
+                runs = actualRuns;
+                journalRecords = 0;
+            });
+        } catch (IOException e) {
+            log.error("Error writing task run statistics", e);
+        }
+    }
+
+    /**
+     * Runs journal action under the lock file shared with other processes.
+     * File locks are held on behalf of the whole JVM, so access from this process is serialized separately.
+     */
+    private static void withJournalLock(@NotNull Path folder, @NotNull JournalAction action) throws IOException {
+        synchronized (TaskRunHistory.class) {
+            try (FileChannel channel = FileChannel.open(folder.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock())
+            {
+                action.run();
+            }
+        }
+    }
+
+    private static void trimRuns(Map<String, TaskRunImpl> runMap) {
+        Iterator<String> iterator = runMap.keySet().iterator();
+        while (runMap.size() > MAX_RUNS_IN_STATS && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -48,6 +48,11 @@ class GridColumn implements IGridColumn {
     private static final int imageSpacing = 3;
     private static final int insideMargin = 3;
 
+    // Cell widths are measured in this number of visible rows (evenly sampled)
+    private static final int MAX_PACK_SAMPLE_ROWS = 20;
+    // Longer texts are truncated before measurement (such columns are narrowed anyway)
+    private static final int MAX_PACK_TEXT_LENGTH = 300;
+
 	private final LightGrid grid;
     private final Object element;
     private final GridColumn parent;
@@ -269,12 +274,12 @@ class GridColumn implements IGridColumn {
 	void pack(boolean reflect) {
 		int newWidth = computeHeaderWidth();
         if (CommonUtils.isEmpty(children)) {
-            // Calculate width of visible cells
+            // Calculate width of sampled visible cells
             int topIndex = grid.getTopIndex();
-            int bottomIndex = grid.getBottomIndex();
+            int bottomIndex = Math.min(grid.getBottomIndex(), grid.getItemCount() - 1);
             if (topIndex >= 0 && bottomIndex >= topIndex) {
-                int itemCount = grid.getItemCount();
-                for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
+                int step = Math.max(1, (bottomIndex - topIndex + 1) / MAX_PACK_SAMPLE_ROWS);
+                for (int i = topIndex; i <= bottomIndex; i += step) {
                     newWidth = Math.max(newWidth, computeCellWidth(grid.getRow(i)));
                 }
             }
@@ -308,6 +313,9 @@ class GridColumn implements IGridColumn {
             this, row, false);
 
         String cellText = grid.getCellText(cellInfo.text);
+        if (cellText.length() > MAX_PACK_TEXT_LENGTH) {
+            cellText = cellText.substring(0, MAX_PACK_TEXT_LENGTH);
+        }
         int state = cellInfo.state;
         Rectangle imageBounds;
         if (GridCellRenderer.isLinkState(state)) {
@@ -0,0 +1,70 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+
+/**
+ * Grid paint timings.
+ * Enabled with dbeaver.grid.paint.trace system property. Summary is written in debug log after each REPORT_FRAMES frames.
+ */
+class GridPaintStatistics {
+
+    private static final Log log = Log.getLog(GridPaintStatistics.class);
+
+    static final boolean TRACE_ENABLED = CommonUtils.toBoolean(System.getProperty("dbeaver.grid.paint.trace"));
+
+    private static final int REPORT_FRAMES = 100;
+    // Frame time budget for 60 Hz
+    private static final long FRAME_BUDGET_NANOS = 1_000_000_000L / 60;
+
+    private int frames;
+    private int slowFrames;
+    private long paintedCells;
+    private long totalTime;
+    private long maxTime;
+
+    void addFrame(long paintTime, int cellCount) {
+        frames++;
+        paintedCells += cellCount;
+        totalTime += paintTime;
+        maxTime = Math.max(maxTime, paintTime);
+        if (paintTime > FRAME_BUDGET_NANOS) {
+            slowFrames++;
+        }
+        if (frames >= REPORT_FRAMES) {
+            log.debug("Grid paint: " + frames + " frames, avg " + formatTime(totalTime / frames) +
+                ", max " + formatTime(maxTime) +
+                ", over budget " + slowFrames +
+                ", avg cells " + (paintedCells / frames));
+            reset();
+        }
+    }
+
+    private void reset() {
+        frames = 0;
+        slowFrames = 0;
+        paintedCells = 0;
+        totalTime = 0;
+        maxTime = 0;
+    }
+
+    private static String formatTime(long nanos) {
+        return String.format("%.2fms", nanos / 1000000.0);
+    }
+}
@@ -78,6 +78,11 @@ public abstract class LightGrid extends Canvas {
      */
     private static final int MIN_COLUMN_HEADER_WIDTH = 32;
 
+    /**
+     * Selection changes with more cells repaint the whole grid.
+     */
+    private static final int MAX_PARTIAL_REDRAW_CELLS = 1000;
+
     /**
      * Threshold for the selection border used for drag n drop
      * in mode.
@@ -351,6 +356,17 @@ public abstract class LightGrid extends Canvas {
      */
     private int bottomIndex = -1;
 
+    /**
+     * Scroll position of the grid image on screen. It is used to move painted image
+     * on scroll, so only uncovered rows or columns are painted. -1 means that image must be repainted.
+     */
+    private int screenTopIndex = -1;
+    private int screenHScroll = -1;
+    private int screenFixedWidth = -1;
+
+    @Nullable
+    private final GridPaintStatistics paintStatistics = GridPaintStatistics.TRACE_ENABLED ? new GridPaintStatistics() : null;
+
     /**
      * True if the last visible item is completely visible.  The value must never be read directly.  It is cached and
      * updated when appropriate.  #isShown() should be called for every client (even internal
@@ -539,6 +555,7 @@ public abstract class LightGrid extends Canvas {
         GridPos savedFocus = keepState ? getFocusPos() : null;
         int savedHSB = keepState ? hScroll.getSelection() : -1;
         int savedVSB = keepState ? vScroll.getSelection() : -1;
+        screenTopIndex = -1;
 
         Map<Object, Integer> oldWidths = null;
         if (keepState && !controlWasHidden) {
@@ -1779,7 +1796,7 @@ public abstract class LightGrid extends Canvas {
         vScroll.setSelection(index);
         topIndex = -1;
         bottomIndex = -1;
-        redraw();
+        redrawScrolledArea();
     }
 
     /**
@@ -2300,6 +2317,9 @@ public abstract class LightGrid extends Canvas {
      */
     private void onPaint(@NotNull PaintEvent e)
     {
+        final long paintStartTime = paintStatistics == null ? 0 : System.nanoTime();
+        int paintedCells = 0;
+
         final GC gc = e.gc;
         gc.setBackground(getBackground());
 
@@ -2310,10 +2330,18 @@ public abstract class LightGrid extends Canvas {
             scrollValuesObsolete = false;
         }
 
+        // Only damaged area is painted (e.g. rows uncovered by scroll)
+        final int paintLeft = e.x;
+        final int paintTop = e.y;
+        final int paintRight = e.x + e.width;
+        final int paintBottom = e.y + e.height;
+
         int y = 0;
 
         if (columnHeadersVisible) {
-            paintHeader(gc);
+            if (paintTop < headerHeight) {
+                paintHeader(gc);
+            }
             y += headerHeight;
         }
 
@@ -2337,8 +2365,19 @@ public abstract class LightGrid extends Canvas {
         final Rectangle cellBounds = new Rectangle(0, 0, 0, 0);
         int pinnedColumnsWidth = getPinnedColumnsWidth();
 
+        screenTopIndex = firstVisibleIndex;
+        screenHScroll = hScrollSelectionInPixels;
+        screenFixedWidth = (rowHeaderVisible ? rowHeaderWidth : 0) + pinnedColumnsWidth;
+
         for (int i = 0; i < visibleRows; i++) {
 
+            if (y >= paintBottom || y + itemHeight + 1 <= paintTop) {
+                // Row is out of damaged area
+                y += itemHeight + 1;
+                row++;
+                continue;
+            }
+
             int x = 0;
 
             x -= hScrollSelectionInPixels;
@@ -2363,7 +2402,7 @@ public abstract class LightGrid extends Canvas {
 
                     int width = column.getWidth();
 
-                    if (x + width >= 0 && x < clientArea.width) {
+                    if (x + width >= paintLeft && x < clientArea.width && x < paintRight) {
 
                         cellBounds.x = x;
                         cellBounds.y = y;
@@ -2379,6 +2418,7 @@ public abstract class LightGrid extends Canvas {
                             focusItem == row && focusColumn == column,
                             column,
                             gridRows[row]);
+                        paintedCells++;
 
                         //gc.setClipping((Rectangle) null);
                     }
@@ -2394,7 +2434,7 @@ public abstract class LightGrid extends Canvas {
 
                 if (rowHeaderVisible) {
 
-                    if (y >= headerHeight) {
+                    if (y >= headerHeight && paintLeft < rowHeaderWidth) {
                         cellBounds.x = 0;
                         cellBounds.y = y;
                         cellBounds.width = rowHeaderWidth;
@@ -2424,6 +2464,10 @@ public abstract class LightGrid extends Canvas {
                             break;
                         }
                         int width = pc.getWidth();
+                        if (x + width < paintLeft || x >= paintRight) {
+                            x += width;
+                            continue;
+                        }
                         cellBounds.x = x;
                         cellBounds.y = y;
                         cellBounds.width = width;
@@ -2442,6 +2486,7 @@ public abstract class LightGrid extends Canvas {
                                 focusItem == row && focusColumn == pc,
                                 pc,
                                 gridRows[row]);
+                            paintedCells++;
                         } finally {
                             gc.setClipping((Rectangle)null);
                         }
@@ -2551,6 +2596,10 @@ public abstract class LightGrid extends Canvas {
             int lastRow = row >= gridRows.length ? gridRows.length - 1 : row;
             getContentProvider().validateDataPresence(columns.get(columns.size() - 1), gridRows[lastRow]);
         }
+
+        if (paintStatistics != null) {
+            paintStatistics.addFrame(System.nanoTime() - paintStartTime, paintedCells);
+        }
     }
 
     /**
@@ -2798,6 +2847,7 @@ public abstract class LightGrid extends Canvas {
             return null;
         }
 
+        int[] oldSelectionRows = getSelectionRowRange();
         boolean shift = (stateMask & SWT.MOD2) == SWT.MOD2;
         boolean ctrl = (stateMask & SWT.MOD1) == SWT.MOD1;
         if (eventSource == EventSource.KEYBOARD) {
@@ -2950,12 +3000,60 @@ public abstract class LightGrid extends Canvas {
             followupCellSelectionEventOwed = true;
         }
 
-        Rectangle clientArea = getClientArea();
-        redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
+        redrawSelectionChange(oldSelectionRows);
 
         return e;
     }
 
+    /**
+     * Returns first and last rows of selected cells and focus cell.
+     * Returns null for big selections.
+     */
+    @Nullable
+    private int[] getSelectionRowRange()
+    {
+        if (selectedCells.size() > MAX_PARTIAL_REDRAW_CELLS) {
+            return null;
+        }
+        int firstRow = focusItem >= 0 ? focusItem : Integer.MAX_VALUE;
+        int lastRow = focusItem;
+        for (GridPos cell : selectedCells) {
+            firstRow = Math.min(firstRow, cell.row);
+            lastRow = Math.max(lastRow, cell.row);
+        }
+        return new int[] { firstRow, lastRow };
+    }
+
+    /**
+     * Redraws column headers and rows with changed selection
+     */
+    private void redrawSelectionChange(@Nullable int[] oldSelectionRows)
+    {
+        Rectangle clientArea = getClientArea();
+        int[] newSelectionRows = getSelectionRowRange();
+        if (oldSelectionRows == null || newSelectionRows == null) {
+            redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
+            return;
+        }
+        int dataTop = columnHeadersVisible ? headerHeight : 0;
+        if (dataTop > 0) {
+            // Headers of selected columns are highlighted
+            redraw(0, 0, clientArea.width, dataTop, false);
+        }
+        int firstRow = Math.min(oldSelectionRows[0], newSelectionRows[0]);
+        int lastRow = Math.max(oldSelectionRows[1], newSelectionRows[1]);
+        if (lastRow < firstRow) {
+            return;
+        }
+        int topIndex = getTopIndex();
+        int rowHeight = getItemHeight() + 1;
+        long top = Math.max(dataTop, dataTop + (long) (firstRow - topIndex) * rowHeight);
+        long bottom = Math.min(clientArea.height, dataTop + (long) (lastRow - topIndex + 1) * rowHeight);
+        if (bottom > top) {
+            redraw(0, (int) top, clientArea.width, (int) (bottom - top), false);
+        }
+    }
+
     private boolean addToCellSelection(GridPos newCell)
     {
         if (newCell.col < 0 || newCell.col >= columns.size())
@@ -4066,10 +4164,64 @@ public abstract class LightGrid extends Canvas {
         topIndex = -1;
         bottomIndex = -1;
         refreshHoverState();
+        redrawScrolledArea();
+    }
+
+    /**
+     * Redraws grid after scroll.
+     * If grid was scrolled in one direction then painted image is moved and only uncovered area is repainted.
+     */
+    private void redrawScrolledArea()
+    {
         final Rectangle clientArea = getClientArea();
+        int newTopIndex = getTopIndex();
+        int newHScroll = getHScrollSelectionInPixels();
+        int fixedWidth = (rowHeaderVisible ? rowHeaderWidth : 0) + getPinnedColumnsWidth();
+        if (screenTopIndex >= 0 && screenFixedWidth == fixedWidth && !hasVisibleChildren()) {
+            if (newHScroll == screenHScroll && newTopIndex != screenTopIndex) {
+                int dataTop = columnHeadersVisible ? headerHeight : 0;
+                int dataHeight = clientArea.height - dataTop;
+                int deltaY = (screenTopIndex - newTopIndex) * (getItemHeight() + 1);
+                if (Math.abs(deltaY) < dataHeight) {
+                    scroll(
+                        0, dataTop + Math.max(deltaY, 0),
+                        0, dataTop + Math.max(-deltaY, 0),
+                        clientArea.width, dataHeight - Math.abs(deltaY),
+                        false);
+                    screenTopIndex = newTopIndex;
+                    return;
+                }
+            } else if (newTopIndex == screenTopIndex && newHScroll != screenHScroll) {
+                // Pinned columns divider is not moved
+                int dataLeft = fixedWidth + 1;
+                int dataWidth = clientArea.width - dataLeft;
+                int deltaX = screenHScroll - newHScroll;
+                if (Math.abs(deltaX) < dataWidth) {
+                    scroll(
+                        dataLeft + Math.max(deltaX, 0), 0,
+                        dataLeft + Math.max(-deltaX, 0), 0,
+                        dataWidth - Math.abs(deltaX), clientArea.height,
+                        false);
+                    redraw(fixedWidth, 0, 1, clientArea.height, false);
+                    screenHScroll = newHScroll;
+                    return;
+                }
+            }
+        }
         redraw(clientArea.x, clientArea.y, clientArea.width, clientArea.height, false);
     }
 
+    private boolean hasVisibleChildren()
+    {
+        for (Control child : getChildren()) {
+            if (child.isVisible()) {
+                // Inline editor or other control over grid image
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the intersection of the given column and given item.
      *
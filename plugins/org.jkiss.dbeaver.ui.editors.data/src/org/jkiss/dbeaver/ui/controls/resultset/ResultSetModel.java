@@ -58,6 +58,9 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // All fetched rows if rows are filtered on client side. Null if rows aren't filtered
+    @Nullable
+    private List<ResultSetRow> unfilteredRows;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -864,15 +867,20 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            unfilteredRows = null;
         }
         int rowCount = rows.size();
-        int firstRowNum = curRows.size();
+        int firstRowNum = unfilteredRows != null ? unfilteredRows.size() : curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
         for (int i = 0; i < rowCount; i++) {
             newRows.add(
                 new ResultSetRow(firstRowNum + i, rows.get(i)));
         }
         curRows.addAll(newRows);
+        if (unfilteredRows != null) {
+            // New rows were filtered by server with the same filter
+            unfilteredRows.addAll(newRows);
+        }
 
         updateRowColors(resetOldRows, newRows);
     }
@@ -880,6 +888,7 @@ public class ResultSetModel {
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        this.unfilteredRows = null;
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -908,11 +917,14 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRow newRow = new ResultSetRow(unfilteredRows != null ? unfilteredRows.size() : curRows.size(), data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
+        if (unfilteredRows != null) {
+            unfilteredRows.add(newRow);
+        }
         changesCount++;
         return newRow;
     }
@@ -941,6 +953,10 @@ public class ResultSetModel {
         int index = row.getVisualNumber();
         if (this.curRows.size() > index) {
             this.curRows.remove(index);
+            if (unfilteredRows != null) {
+                // Rows equality is based on numbers which are obsolete for hidden rows
+                unfilteredRows.removeIf(r -> r == row);
+            }
             this.shiftRows(row, -1);
         } else {
             log.debug("Error removing row from list: invalid row index: " + index);
@@ -966,14 +982,52 @@ public class ResultSetModel {
             if (row.getVisualNumber() >= relative.getVisualNumber()) {
                 row.setVisualNumber(row.getVisualNumber() + delta);
             }
-            if (row.getRowNumber() >= relative.getRowNumber()) {
+            if (unfilteredRows == null && row.getRowNumber() >= relative.getRowNumber()) {
                 row.setRowNumber(row.getRowNumber() + delta);
             }
         }
+        if (unfilteredRows != null) {
+            for (ResultSetRow row : unfilteredRows) {
+                if (row.getRowNumber() >= relative.getRowNumber()) {
+                    row.setRowNumber(row.getRowNumber() + delta);
+                }
+            }
+        }
+    }
+
+    public boolean isFilteredLocally() {
+        return unfilteredRows != null;
+    }
+
+    /**
+     * Filters fetched rows on client side and sets new data filter.
+     * Returns false if filter can't be evaluated on client side. Model isn't changed in this case.
+     */
+    boolean filterRowsLocally(@NotNull DBDDataFilter filter) {
+        ResultSetRowFilter rowFilter = ResultSetRowFilter.compile(this, filter);
+        if (rowFilter == null) {
+            return false;
+        }
+        List<ResultSetRow> allRows = unfilteredRows != null ? unfilteredRows : curRows;
+        if (rowFilter.isEmpty()) {
+            curRows = allRows;
+            unfilteredRows = null;
+        } else {
+            BitSet matchedRows = rowFilter.evaluate(allRows);
+            List<ResultSetRow> filteredRows = new ArrayList<>(matchedRows.cardinality());
+            for (int i = matchedRows.nextSetBit(0); i >= 0; i = matchedRows.nextSetBit(i + 1)) {
+                filteredRows.add(allRows.get(i));
+            }
+            unfilteredRows = allRows;
+            curRows = filteredRows;
+        }
+        setDataFilter(filter);
+        resetOrdering();
+        return true;
     }
 
     void releaseAllData() {
-        final List<ResultSetRow> oldRows = curRows;
+        final List<ResultSetRow> oldRows = unfilteredRows != null ? unfilteredRows : curRows;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
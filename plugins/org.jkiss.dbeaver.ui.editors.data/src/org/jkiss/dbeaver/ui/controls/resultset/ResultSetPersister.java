@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSForeignKeyModifyRule;
 import org.jkiss.dbeaver.model.struct.rdb.DBSManipulationType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTableForeignKey;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryCache;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.jobs.DataSourceJob;
 import org.jkiss.dbeaver.ui.UITask;
@@ -640,6 +641,9 @@ class ResultSetPersister {
             } finally {
                 model.setUpdateInProgress(null);
             }
+            if (!generateScript) {
+                invalidateDictionaryLabels();
+            }
 
             if (!generateScript) {
                 // Reflect changes
@@ -677,6 +681,21 @@ class ResultSetPersister {
             return Status.OK_STATUS;
         }
 
+        /**
+         * Edited entities may be dictionaries of references shown in other editors
+         */
+        private void invalidateDictionaryLabels() {
+            Set<DBSEntity> entities = new HashSet<>();
+            for (List<DataStatementInfo> statements : List.of(insertStatements, deleteStatements, updateStatements)) {
+                for (DataStatementInfo statement : statements) {
+                    entities.add(statement.entity);
+                }
+            }
+            for (DBSEntity entity : entities) {
+                DBVDictionaryCache.invalidate(entity);
+            }
+        }
+
         private Throwable executeStatements(DBRProgressMonitor monitor) {
             monitor.beginTask(
                 ResultSetMessages.controls_resultset_viewer_monitor_aply_changes,
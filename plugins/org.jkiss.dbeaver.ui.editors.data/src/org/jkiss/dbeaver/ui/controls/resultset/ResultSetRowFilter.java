@@ -0,0 +1,287 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Client-side filter of fetched rows.
+ *
+ * Attribute constraints are compiled into a predicate tree once. Rows are evaluated in chunks
+ * in the common fork-join pool, result is a bitmap of matched row indexes.
+ * Conditions follow SQL semantic: comparison with NULL value never matches.
+ */
+class ResultSetRowFilter {
+
+    // Number of rows evaluated by a single task. Must be a multiple of 64 (bitmap word size)
+    private static final int CHUNK_SIZE = 64 * 128;
+
+    private interface RowPredicate {
+        boolean matches(@NotNull ResultSetRow row);
+    }
+
+    @Nullable
+    private final RowPredicate predicate;
+
+    private ResultSetRowFilter(@Nullable RowPredicate predicate) {
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compiles filter constraints.
+     * Returns null if filter can't be evaluated on client side (custom SQL criteria, unsupported operators, etc).
+     */
+    @Nullable
+    static ResultSetRowFilter compile(@NotNull ResultSetModel model, @NotNull DBDDataFilter filter) {
+        if (!CommonUtils.isEmpty(filter.getWhere()) || !CommonUtils.isEmpty(filter.getOrder())) {
+            return null;
+        }
+        List<RowPredicate> predicates = new ArrayList<>();
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (!CommonUtils.isEmpty(constraint.getCriteria())) {
+                // SQL expression
+                return null;
+            }
+            if (constraint.getOperator() == null) {
+                continue;
+            }
+            DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+            if (binding == null) {
+                return null;
+            }
+            Predicate<Object> valueCheck = compileCondition(constraint);
+            if (valueCheck == null) {
+                return null;
+            }
+            predicates.add(row -> valueCheck.test(model.getCellValue(binding, row)));
+        }
+        if (predicates.isEmpty()) {
+            return new ResultSetRowFilter(null);
+        }
+        if (predicates.size() == 1) {
+            return new ResultSetRowFilter(predicates.get(0));
+        }
+        final RowPredicate[] children = predicates.toArray(new RowPredicate[0]);
+        if (filter.isAnyConstraint()) {
+            return new ResultSetRowFilter(row -> {
+                for (RowPredicate child : children) {
+                    if (child.matches(row)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        } else {
+            return new ResultSetRowFilter(row -> {
+                for (RowPredicate child : children) {
+                    if (!child.matches(row)) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+        }
+    }
+
+    @Nullable
+    private static Predicate<Object> compileCondition(@NotNull DBDAttributeConstraint constraint) {
+        final DBCLogicalOperator operator = constraint.getOperator();
+        final Object value = constraint.getValue();
+        final boolean reverse = constraint.isReverseOperator();
+        switch (operator) {
+            case BETWEEN:
+            case SOUNDS:
+            case CONTAINS:
+            case CONTAINS_KEY:
+                // Not implemented on client side
+                return null;
+            default:
+                break;
+        }
+        if (operator.getArgumentCount() == 0) {
+            final boolean notNull = operator == DBCLogicalOperator.IS_NOT_NULL;
+            return cellValue -> DBUtils.isNullValue(cellValue) == !notNull;
+        }
+        if (DBUtils.isNullValue(value)) {
+            // Converted to IS [NOT] NULL
+            return cellValue -> DBUtils.isNullValue(cellValue) != reverse;
+        }
+        if (operator.getArgumentCount() < 0) {
+            if (!value.getClass().isArray()) {
+                return null;
+            }
+            // NULL in values list matches NULL cells
+            boolean hasNull = false;
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                Object item = Array.get(value, i);
+                if (DBUtils.isNullValue(item)) {
+                    hasNull = true;
+                } else {
+                    values.add(item);
+                }
+            }
+            final boolean matchNull = hasNull && !reverse;
+            final Object[] arguments = values.toArray();
+            return cellValue -> DBUtils.isNullValue(cellValue) ? matchNull : operator.evaluate(cellValue, arguments) != reverse;
+        }
+        if (operator == DBCLogicalOperator.EQUALS && value instanceof Object[]) {
+            // Multiple values
+            final Object[][] arguments = new Object[((Object[]) value).length][];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = new Object[] { ((Object[]) value)[i] };
+            }
+            return cellValue -> {
+                if (DBUtils.isNullValue(cellValue)) {
+                    return false;
+                }
+                for (Object[] argument : arguments) {
+                    if (operator.evaluate(cellValue, argument)) {
+                        return !reverse;
+                    }
+                }
+                return reverse;
+            };
+        }
+        if (operator == DBCLogicalOperator.REGEX) {
+            // Do not compile pattern for each row
+            final Pattern pattern;
+            try {
+                pattern = Pattern.compile(value.toString());
+            } catch (PatternSyntaxException e) {
+                return null;
+            }
+            return cellValue -> !DBUtils.isNullValue(cellValue) && pattern.matcher(cellValue.toString()).matches() != reverse;
+        }
+        if (operator == DBCLogicalOperator.LIKE || operator == DBCLogicalOperator.NOT_LIKE || operator == DBCLogicalOperator.ILIKE) {
+            // Do not compile pattern for each row. Only ILIKE is case insensitive.
+            final Pattern pattern = compileLikePattern(value.toString(), operator == DBCLogicalOperator.ILIKE);
+            final boolean notLike = (operator == DBCLogicalOperator.NOT_LIKE) != reverse;
+            return cellValue -> !DBUtils.isNullValue(cellValue) && pattern.matcher(cellValue.toString()).matches() != notLike;
+        }
+        final Object[] arguments = { value };
+        return cellValue -> !DBUtils.isNullValue(cellValue) && operator.evaluate(cellValue, arguments) != reverse;
+    }
+
+    /**
+     * Converts SQL LIKE pattern to regex: % matches any string, _ matches any character,
+     * backslash escapes the next character. Other characters match literally.
+     */
+    @NotNull
+    static Pattern compileLikePattern(@NotNull String like, boolean caseInsensitive) {
+        StringBuilder regex = new StringBuilder(like.length() + 16);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '\\' && i < like.length() - 1) {
+                literal.append(like.charAt(++i));
+                continue;
+            }
+            if (c != '%' && c != '_') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            regex.append(c == '%' ? ".*" : ".");
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        int flags = Pattern.DOTALL;
+        if (caseInsensitive) {
+            flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        return Pattern.compile(regex.toString(), flags);
+    }
+
+    /**
+     * Returns true if filter has no conditions (all rows match)
+     */
+    boolean isEmpty() {
+        return predicate == null;
+    }
+
+    /**
+     * Evaluates filter for all rows. Returns bitmap of matched row indexes.
+     */
+    @NotNull
+    BitSet evaluate(@NotNull List<ResultSetRow> rows) {
+        long[] words = new long[(rows.size() + 63) / 64];
+        if (predicate == null) {
+            BitSet all = new BitSet(rows.size());
+            all.set(0, rows.size());
+            return all;
+        }
+        if (rows.size() <= CHUNK_SIZE) {
+            new FilterTask(rows, words, 0, rows.size()).compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(new FilterTask(rows, words, 0, rows.size()));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private class FilterTask extends RecursiveAction {
+        private final List<ResultSetRow> rows;
+        private final long[] words;
+        // From index is always a multiple of 64, so tasks never write the same word
+        private final int fromIndex;
+        private final int toIndex;
+
+        FilterTask(List<ResultSetRow> rows, long[] words, int fromIndex, int toIndex) {
+            this.rows = rows;
+            this.words = words;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= CHUNK_SIZE) {
+                for (int i = fromIndex; i < toIndex; i++) {
+                    if (predicate.matches(rows.get(i))) {
+                        words[i >>> 6] |= 1L << i;
+                    }
+                }
+            } else {
+                int middle = fromIndex + (((toIndex - fromIndex) / 2) & ~63);
+                invokeAll(
+                    new FilterTask(rows, words, fromIndex, middle),
+                    new FilterTask(rows, words, middle, toIndex));
+            }
+        }
+    }
+}
@@ -624,7 +624,9 @@ public class ResultSetViewer extends Viewer
         {
             //model.setDataFilter(dataFilter);
             if (refreshData) {
-                refreshWithFilter(dataFilter);
+                if (!filterLocally(dataFilter)) {
+                    refreshWithFilter(dataFilter);
+                }
             } else {
                 model.setDataFilter(dataFilter);
                 activePresentation.refreshData(true, false, true);
@@ -633,6 +635,31 @@ public class ResultSetViewer extends Viewer
         }
     }
 
+    /**
+     * Applies filter to already fetched rows if all rows were fetched and client side filtering is enabled.
+     * Returns false if filter must be applied by query re-execution.
+     */
+    private boolean filterLocally(@NotNull DBDDataFilter dataFilter)
+    {
+        if (!getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_CLIENT_SIDE_FILTER) ||
+            !model.hasData() || isHasMoreData() || model.isUpdateInProgress() || model.isDirty())
+        {
+            return false;
+        }
+        try {
+            if (!model.filterRowsLocally(dataFilter)) {
+                return false;
+            }
+        } catch (Exception e) {
+            log.debug("Error filtering rows on client side", e);
+            return false;
+        }
+        activePresentation.refreshData(true, false, true);
+        updateFiltersText();
+        updateStatusMessage();
+        return true;
+    }
+
     @Override
     public void setSegmentFetchSize(Integer segmentFetchSize) {
         this.segmentFetchSize = segmentFetchSize;
@@ -3743,12 +3770,33 @@ public class ResultSetViewer extends Viewer
                 segmentSize = (curRow.getVisualNumber() / segmentSize + 1) * segmentSize;
             }
             dataReceiver.setNextSegmentRead(false);
+            invalidateReferencedDictionaries();
             return runDataPump(dataContainer, null, 0, segmentSize, curRow == null ? 0 : curRow.getRowNumber(), false, false, true, onSuccess);
         } else {
             return false;
         }
     }
 
+    /**
+     * Drops cached labels of dictionaries referenced by this result set. They may be changed as well.
+     */
+    private void invalidateReferencedDictionaries() {
+        Set<DBSEntity> dictionaries = new HashSet<>();
+        for (DBDAttributeBinding attribute : model.getVisibleAttributes()) {
+            for (DBSEntityReferrer referrer : CommonUtils.safeList(attribute.getReferrers())) {
+                if (referrer instanceof DBSEntityAssociation) {
+                    DBSEntity dictionary = ((DBSEntityAssociation) referrer).getAssociatedEntity();
+                    if (dictionary != null) {
+                        dictionaries.add(dictionary);
+                    }
+                }
+            }
+        }
+        for (DBSEntity dictionary : dictionaries) {
+            DBVDictionaryCache.invalidate(dictionary);
+        }
+    }
+
     // Refreshes model metadata (virtual objects + colors and other)
     // It is a bit hacky function because we need to bind custom attributes (usually this happens during data read)
     public boolean refreshMetaData() {
@@ -308,6 +308,8 @@ public class ResultSetMessages extends NLS {
     // ResultSetsMain
     public static String pref_page_database_resultsets_label_filter_force_subselect;
     public static String pref_page_database_resultsets_label_filter_force_subselect_tip;
+    public static String pref_page_database_resultsets_label_client_side_filter;
+    public static String pref_page_database_resultsets_label_client_side_filter_tip;
     public static String pref_page_database_resultsets_group_binary;
     public static String pref_page_database_resultsets_label_binary_use_strings;
     public static String pref_page_database_resultsets_label_binary_presentation;
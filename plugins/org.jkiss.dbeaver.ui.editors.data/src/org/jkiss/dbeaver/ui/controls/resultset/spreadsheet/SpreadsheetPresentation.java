@@ -163,6 +163,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     private boolean colorizeDataTypes = true;
     private final Map<DBPDataKind, Color> dataTypesForegrounds = new IdentityHashMap<>();
+    private final SpreadsheetReferenceLabels referenceLabels = new SpreadsheetReferenceLabels(this);
+    private final SpreadsheetTextCache textCache = new SpreadsheetTextCache();
 
     public Spreadsheet getSpreadsheet() {
         return spreadsheet;
@@ -239,6 +241,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     public void dispose() {
         closeEditors();
         clearMetaData();
+        referenceLabels.dispose();
 
         UIUtils.dispose(this.cellHeaderSelectionBackground);
         super.dispose();
@@ -850,6 +853,12 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         useNativeNumbersFormat = controller.getPreferenceStore().getBoolean(ModelPreferences.RESULT_NATIVE_NUMERIC_FORMAT);
 
         spreadsheet.setColumnScrolling(!getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_USE_SMOOTH_SCROLLING));
+        if (refreshMetadata) {
+            referenceLabels.resetAttributes();
+        } else {
+            referenceLabels.resetFailures();
+        }
+        textCache.invalidate();
 
         spreadsheet.setRedraw(false);
         try {
@@ -861,6 +870,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     @Override
     public void formatData(boolean refreshData) {
+        textCache.invalidate();
         spreadsheet.refreshData(false, true, false);
     }
 
@@ -874,6 +884,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
     @Override
     public void updateValueView() {
+        // Value may be changed in place (e.g. collection element)
+        textCache.invalidate();
         spreadsheet.redrawGrid();
         spreadsheet.updateScrollbars();
 
@@ -908,6 +920,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
         }
 
         this.columnOrder = recordMode ? SWT.DEFAULT : SWT.NONE;
+        // Collections are formatted differently in record mode
+        textCache.invalidate();
         if (oldRow != null && oldAttribute != null) {
             IGridColumn gridColumn = spreadsheet.getColumnByElement(
                 recordMode ? oldRow : oldAttribute);
@@ -2173,6 +2187,19 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
 
         @Nullable
         private Object formatValue(DBDAttributeBinding attr, ResultSetRow row, Object value) {
+            if (attr == null || row == null) {
+                return formatValueText(attr, row, value);
+            }
+            Object text = textCache.getText(row, attr, value);
+            if (text == SpreadsheetTextCache.NOT_CACHED) {
+                text = formatValueText(attr, row, value);
+                textCache.putText(row, attr, value, text);
+            }
+            return text;
+        }
+
+        @Nullable
+        private Object formatValueText(DBDAttributeBinding attr, ResultSetRow row, Object value) {
             if (DBUtils.isNullValue(value) && row.getState() == ResultSetRow.STATE_ADDED) {
                 // New row and no value. Let's try to show default value
                 DBSEntityAttribute entityAttribute = attr.getEntityAttribute();
@@ -2476,6 +2503,10 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                         }
                     }
                 }
+                String label = referenceLabels.getLabel(attr, value);
+                if (!CommonUtils.isEmpty(label)) {
+                    text.append("\n").append(label);
+                }
                 return text.toString();
             }
             return "";
@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.spreadsheet;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.RunnableWithResult;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSEntityReferrer;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryCache;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary labels of reference cells.
+ *
+ * Labels are taken from dictionary caches only, so link tooltips never wait for database.
+ * The first tooltip of a missing label reads labels in background for all reference columns
+ * of visible rows and the next page of rows. Painting doesn't read labels.
+ */
+class SpreadsheetReferenceLabels {
+    private static final Log log = Log.getLog(SpreadsheetReferenceLabels.class);
+
+    // Delay before labels read, so fast scrolling doesn't read labels of skipped rows
+    private static final long PREFETCH_DELAY = 200;
+
+    private final SpreadsheetPresentation presentation;
+    // Dictionary caches of reference attributes. Empty for attributes which do not reference dictionaries.
+    private final Map<DBDAttributeBinding, Optional<DBVDictionaryCache>> attributeCaches = new ConcurrentHashMap<>();
+    // Attributes whose labels couldn't be read. They are retried after the next data refresh.
+    private final Set<DBDAttributeBinding> failedAttributes = ConcurrentHashMap.newKeySet();
+    private PrefetchJob prefetchJob;
+
+    SpreadsheetReferenceLabels(@NotNull SpreadsheetPresentation presentation) {
+        this.presentation = presentation;
+    }
+
+    /**
+     * Returns cached dictionary label of the cell value. Schedules labels read if label isn't cached yet.
+     */
+    @Nullable
+    String getLabel(@NotNull DBDAttributeBinding attribute, @Nullable Object value) {
+        if (CommonUtils.isEmpty(attribute.getReferrers()) || !DBVDictionaryCache.isCacheableKey(value) || failedAttributes.contains(attribute)) {
+            return null;
+        }
+        Optional<DBVDictionaryCache> cache = attributeCaches.get(attribute);
+        if (cache == null || (cache.isPresent() && !cache.get().isCached(value))) {
+            schedulePrefetch();
+            return null;
+        }
+        return cache.map(c -> c.getCachedLabel(value)).orElse(null);
+    }
+
+    /**
+     * Forgets attribute references (e.g. after metadata change)
+     */
+    void resetAttributes() {
+        attributeCaches.clear();
+        failedAttributes.clear();
+    }
+
+    /**
+     * Allows to retry labels read of attributes which failed before
+     */
+    void resetFailures() {
+        failedAttributes.clear();
+    }
+
+    void dispose() {
+        if (prefetchJob != null) {
+            prefetchJob.cancel();
+            prefetchJob = null;
+        }
+    }
+
+    private void schedulePrefetch() {
+        if (prefetchJob == null) {
+            prefetchJob = new PrefetchJob();
+        }
+        if (prefetchJob.getState() == PrefetchJob.NONE) {
+            prefetchJob.schedule(PREFETCH_DELAY);
+        }
+    }
+
+    /**
+     * Collects reference values of visible rows and the next page of rows
+     */
+    private Map<DBDAttributeBinding, Set<Object>> collectKeys() {
+        Map<DBDAttributeBinding, Set<Object>> keys = new LinkedHashMap<>();
+        Spreadsheet spreadsheet = presentation.getSpreadsheet();
+        if (spreadsheet == null || spreadsheet.isDisposed()) {
+            return keys;
+        }
+        ResultSetModel model = presentation.getController().getModel();
+        List<DBDAttributeBinding> attributes = new ArrayList<>();
+        for (DBDAttributeBinding attribute : model.getVisibleAttributes()) {
+            if (!CommonUtils.isEmpty(attribute.getReferrers()) && !failedAttributes.contains(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        if (attributes.isEmpty()) {
+            return keys;
+        }
+        List<ResultSetRow> rows = new ArrayList<>();
+        if (presentation.getController().isRecordMode()) {
+            ResultSetRow currentRow = presentation.getController().getCurrentRow();
+            if (currentRow != null) {
+                rows.add(currentRow);
+            }
+        } else {
+            int topIndex = spreadsheet.getTopIndex();
+            int bottomIndex = spreadsheet.getBottomIndex();
+            int lastIndex = Math.min(spreadsheet.getItemCount() - 1, bottomIndex + (bottomIndex - topIndex) + 1);
+            for (int i = Math.max(topIndex, 0); i <= lastIndex; i++) {
+                Object element = spreadsheet.getRow(i).getElement();
+                if (element instanceof ResultSetRow) {
+                    rows.add((ResultSetRow) element);
+                }
+            }
+        }
+        for (DBDAttributeBinding attribute : attributes) {
+            Optional<DBVDictionaryCache> cache = attributeCaches.get(attribute);
+            if (cache != null && !cache.isPresent()) {
+                continue;
+            }
+            Set<Object> attributeKeys = new LinkedHashSet<>();
+            for (ResultSetRow row : rows) {
+                Object value = model.getCellValue(attribute, row);
+                if (DBVDictionaryCache.isCacheableKey(value) && (cache == null || !cache.get().isCached(value))) {
+                    attributeKeys.add(value);
+                }
+            }
+            if (!attributeKeys.isEmpty()) {
+                keys.put(attribute, attributeKeys);
+            }
+        }
+        return keys;
+    }
+
+    @NotNull
+    private Optional<DBVDictionaryCache> resolveCache(@NotNull DBRProgressMonitor monitor, @NotNull DBDAttributeBinding attribute) {
+        Optional<DBVDictionaryCache> cache = attributeCaches.get(attribute);
+        if (cache != null) {
+            return cache;
+        }
+        cache = Optional.empty();
+        DBSEntityAttribute entityAttribute = attribute.getEntityAttribute();
+        if (entityAttribute != null) {
+            for (DBSEntityReferrer referrer : CommonUtils.safeList(attribute.getReferrers())) {
+                try {
+                    DBVDictionaryCache referenceCache = DBVDictionaryCache.findReferenceCache(monitor, referrer, entityAttribute);
+                    if (referenceCache != null) {
+                        cache = Optional.of(referenceCache);
+                        break;
+                    }
+                } catch (Exception e) {
+                    log.debug("Error resolving reference dictionary of " + attribute.getName(), e);
+                    failedAttributes.add(attribute);
+                    return Optional.empty();
+                }
+            }
+        }
+        attributeCaches.put(attribute, cache);
+        return cache;
+    }
+
+    private class PrefetchJob extends AbstractJob {
+        PrefetchJob() {
+            super("Read reference labels");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            Map<DBDAttributeBinding, Set<Object>> keys = UIUtils.syncExec(new RunnableWithResult<>() {
+                @Override
+                public Map<DBDAttributeBinding, Set<Object>> runWithResult() {
+                    return collectKeys();
+                }
+            });
+            if (keys == null || keys.isEmpty()) {
+                return Status.OK_STATUS;
+            }
+            for (Map.Entry<DBDAttributeBinding, Set<Object>> entry : keys.entrySet()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                Optional<DBVDictionaryCache> cache = resolveCache(monitor, entry.getKey());
+                if (cache.isPresent()) {
+                    try {
+                        cache.get().prefetch(monitor, entry.getValue());
+                    } catch (Exception e) {
+                        log.debug("Error reading reference labels of " + entry.getKey().getName(), e);
+                        // Do not retry until the next refresh, otherwise each tooltip would read them again
+                        failedAttributes.add(entry.getKey());
+                    }
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
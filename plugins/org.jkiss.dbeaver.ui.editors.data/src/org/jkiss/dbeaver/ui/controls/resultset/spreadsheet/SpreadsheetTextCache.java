@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.spreadsheet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Formatted texts of grid cells.
+ *
+ * Cell text is valid while cell holds the same value object and row state is the same.
+ * Display settings changes drop the whole cache.
+ * Cache is used in UI thread only.
+ */
+class SpreadsheetTextCache {
+
+    static final Object NOT_CACHED = new Object();
+
+    // Cache is dropped when it grows bigger, visible rows are re-formatted on the next paint
+    private static final int MAX_CACHED_ROWS = 2000;
+
+    private static class CellText {
+        private final Object value;
+        private final byte rowState;
+        private final Object text;
+
+        CellText(Object value, byte rowState, Object text) {
+            this.value = value;
+            this.rowState = rowState;
+            this.text = text;
+        }
+    }
+
+    private final Map<ResultSetRow, Map<DBDAttributeBinding, CellText>> rows = new IdentityHashMap<>();
+
+    /**
+     * Returns cached text of cell value or NOT_CACHED
+     */
+    @Nullable
+    Object getText(@NotNull ResultSetRow row, @NotNull DBDAttributeBinding attribute, @Nullable Object value) {
+        Map<DBDAttributeBinding, CellText> rowTexts = rows.get(row);
+        if (rowTexts == null) {
+            return NOT_CACHED;
+        }
+        CellText cellText = rowTexts.get(attribute);
+        if (cellText == null || cellText.value != value || cellText.rowState != row.getState()) {
+            return NOT_CACHED;
+        }
+        return cellText.text;
+    }
+
+    void putText(@NotNull ResultSetRow row, @NotNull DBDAttributeBinding attribute, @Nullable Object value, @Nullable Object text) {
+        Map<DBDAttributeBinding, CellText> rowTexts = rows.get(row);
+        if (rowTexts == null) {
+            if (rows.size() >= MAX_CACHED_ROWS) {
+                rows.clear();
+            }
+            rowTexts = new IdentityHashMap<>();
+            rows.put(row, rowTexts);
+        }
+        rowTexts.put(attribute, new CellText(value, row.getState(), text));
+    }
+
+    void invalidate() {
+        rows.clear();
+    }
+}
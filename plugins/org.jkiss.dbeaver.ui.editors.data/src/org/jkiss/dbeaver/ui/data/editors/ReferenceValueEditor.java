@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.model.navigator.DBNUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.AbstractLoadService;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.virtual.DBVDictionaryCache;
 import org.jkiss.dbeaver.ui.*;
 import org.jkiss.dbeaver.ui.controls.ProgressLoaderVisualizer;
 import org.jkiss.dbeaver.ui.controls.resultset.ResultSetUtils;
@@ -549,6 +550,13 @@ public class ReferenceValueEditor {
                 if (enumValues.isEmpty()) {
                     return null;
                 }
+                if (precedingKeys == null) {
+                    // Share read labels with reference labels of the data editor
+                    DBVDictionaryCache labelsCache = DBVDictionaryCache.getEntityCache(monitor, refConstraint.getParentObject(), refColumn);
+                    if (labelsCache != null) {
+                        labelsCache.putLabels(enumValues);
+                    }
+                }
                 if (enumValues.size() >= 1) {
                     firstValue = enumValues.get(0).getValue();
                     lastValue = enumValues.get(enumValues.size() - 1).getValue();
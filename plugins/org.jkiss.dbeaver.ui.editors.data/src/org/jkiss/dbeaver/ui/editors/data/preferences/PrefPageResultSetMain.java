@@ -58,6 +58,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Button readQueryReferences;
     private Text queryCancelTimeout;
     private Button filterForceSubselect;
+    private Button clientSideFilter;
 
     private Button keepStatementOpenCheck;
     private Button alwaysUseAllColumns;
@@ -95,6 +96,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(ResultSetPreferences.RS_EDIT_REFRESH_AFTER_UPDATE) ||
             store.contains(ResultSetPreferences.KEEP_STATEMENT_OPEN) ||
             store.contains(ResultSetPreferences.RESULT_SET_ORDERING_MODE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_CLIENT_SIDE_FILTER) ||
             store.contains(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
             store.contains(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS) ||
             store.contains(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG) ||
@@ -152,6 +154,8 @@ public class PrefPageResultSetMain extends TargetPrefPage
 
             filterForceSubselect = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_filter_force_subselect,
                 ResultSetMessages.pref_page_database_resultsets_label_filter_force_subselect_tip, false, 2);
+            clientSideFilter = UIUtils.createCheckbox(queriesGroup, ResultSetMessages.pref_page_database_resultsets_label_client_side_filter,
+                ResultSetMessages.pref_page_database_resultsets_label_client_side_filter_tip, false, 2);
 
             readQueryMetadata.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -215,6 +219,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             readQueryReferences.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_READ_REFERENCES));
             queryCancelTimeout.setText(store.getString(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT));
             filterForceSubselect.setSelection(store.getBoolean(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT));
+            clientSideFilter.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_CLIENT_SIDE_FILTER));
 
             keepStatementOpenCheck.setSelection(store.getBoolean(ResultSetPreferences.KEEP_STATEMENT_OPEN));
             alwaysUseAllColumns.setSelection(store.getBoolean(ResultSetPreferences.RS_EDIT_USE_ALL_COLUMNS));
@@ -248,6 +253,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(ModelPreferences.RESULT_SET_READ_REFERENCES, readQueryReferences.getSelection());
             store.setValue(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT, queryCancelTimeout.getText());
             store.setValue(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT, filterForceSubselect.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_CLIENT_SIDE_FILTER, clientSideFilter.getSelection());
 
             store.setValue(ResultSetPreferences.KEEP_STATEMENT_OPEN, keepStatementOpenCheck.getSelection());
             store.setValue(ResultSetPreferences.RS_EDIT_USE_ALL_COLUMNS, alwaysUseAllColumns.getSelection());
@@ -279,6 +285,7 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(ModelPreferences.RESULT_SET_READ_REFERENCES);
         store.setToDefault(ResultSetPreferences.RESULT_SET_CANCEL_TIMEOUT);
         store.setToDefault(ModelPreferences.SQL_FILTER_FORCE_SUBSELECT);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_CLIENT_SIDE_FILTER);
 
         store.setToDefault(ResultSetPreferences.KEEP_STATEMENT_OPEN);
         store.setToDefault(ResultSetPreferences.RS_EDIT_USE_ALL_COLUMNS);
@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Comparison of JMH results saved in JSON format by different builds
+ */
+class BenchmarkComparison {
+
+    static class Score {
+        private final double value;
+        private final double error;
+        private final String unit;
+        private final boolean higherIsBetter;
+
+        Score(double value, double error, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    static class Change {
+        private final String description;
+        private final boolean regression;
+
+        Change(String description, boolean regression) {
+            this.description = description;
+            this.regression = regression;
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        /**
+         * @return true if the slowdown exceeds both the threshold and the measurement errors
+         */
+        boolean isRegression() {
+            return regression;
+        }
+    }
+
+    /**
+     * Compares the benchmarks present in both results
+     *
+     * @param thresholdPercent allowed slowdown
+     * @return changes of the common benchmarks in the order of the current results
+     */
+    static List<Change> compare(Map<String, Score> baseline, Map<String, Score> current, double thresholdPercent) {
+        List<Change> changes = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score oldScore = baseline.get(entry.getKey());
+            if (oldScore == null || oldScore.value == 0) {
+                // new benchmark
+                continue;
+            }
+            Score newScore = entry.getValue();
+            // positive change is a slowdown for all the modes
+            double change = (newScore.value - oldScore.value) / oldScore.value;
+            if (newScore.higherIsBetter) {
+                change = -change;
+            }
+            String description = String.format(Locale.ENGLISH, "%s: %.3f -> %.3f %s (%+.1f%%)",
+                entry.getKey(), oldScore.value, newScore.value, newScore.unit, change * 100);
+            changes.add(new Change(
+                description,
+                change * 100 > thresholdPercent && Math.abs(newScore.value - oldScore.value) > oldScore.error + newScore.error));
+        }
+        return changes;
+    }
+
+    /**
+     * Reads scores of JMH results in JSON format
+     *
+     * @return scores by benchmark name, mode and parameters
+     */
+    static Map<String, Score> readScores(Path file) throws IOException {
+        JsonArray results;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            results = new JsonParser().parse(reader).getAsJsonArray();
+        }
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonElement element : results) {
+            JsonObject result = element.getAsJsonObject();
+            String mode = result.get("mode").getAsString();
+            StringBuilder key = new StringBuilder(result.get("benchmark").getAsString()).append(" [").append(mode);
+            JsonObject params = result.getAsJsonObject("params");
+            if (params != null) {
+                Map<String, String> sortedParams = new TreeMap<>();
+                for (Map.Entry<String, JsonElement> param : params.entrySet()) {
+                    sortedParams.put(param.getKey(), param.getValue().getAsString());
+                }
+                for (Map.Entry<String, String> param : sortedParams.entrySet()) {
+                    key.append(", ").append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+            key.append(']');
+
+            JsonObject metric = result.getAsJsonObject("primaryMetric");
+            JsonElement error = metric.get("scoreError");
+            scores.put(key.toString(), new Score(
+                metric.get("score").getAsDouble(),
+                error == null || !error.isJsonPrimitive() || !error.getAsJsonPrimitive().isNumber() ? 0 : error.getAsDouble(),
+                metric.get("scoreUnit").getAsString(),
+                "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Generated data of the benchmark fixtures.
+ * Values depend on the row index only, so every run and every database gets the same data.
+ */
+public class BenchmarkData {
+
+    public static final String DATA_TABLE = "BENCH_DATA";
+    public static final String COPY_TABLE = "BENCH_COPY";
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final long BASE_TIME = 1600000000000L;
+
+    public static void createTable(Connection connection, String tableName) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + tableName + " (" +
+                "ID INTEGER NOT NULL PRIMARY KEY, " +
+                "NAME VARCHAR(100) NOT NULL, " +
+                "AMOUNT DECIMAL(12,2), " +
+                "CREATED TIMESTAMP, " +
+                "NOTE VARCHAR(200))");
+        }
+    }
+
+    public static void fillTable(Connection connection, String tableName, int rowCount) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + tableName + " VALUES (?,?,?,?,?)")) {
+            for (int i = 0; i < rowCount; i++) {
+                Object[] row = makeRow(i);
+                for (int k = 0; k < row.length; k++) {
+                    statement.setObject(k + 1, row[k]);
+                }
+                statement.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    public static void clearTable(Connection connection, String tableName) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM " + tableName);
+        }
+    }
+
+    /**
+     * Row of the data table: some names need quoting in CSV and every fifth note is null
+     */
+    public static Object[] makeRow(int index) {
+        return new Object[] {
+            index,
+            index % 7 == 0 ? "Item \"" + index + "\", special" : "Item " + index,
+            BigDecimal.valueOf(index * 37L % 1000000, 2),
+            new Timestamp(BASE_TIME + index * 60000L),
+            index % 5 == 0 ? null : "Note for the item " + index
+        };
+    }
+
+    /**
+     * SQL script with a mix of queries, DML, comments and string literals
+     */
+    public static String makeSqlScript(int statementsCount) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < statementsCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    script.append("SELECT d.ID, d.AMOUNT * 1.5 AS TOTAL, \"Customer Name\", upper(c.NAME)\n")
+                        .append("  FROM sales.BENCH_DATA d\n")
+                        .append("  LEFT OUTER JOIN sales.customers c ON c.ID = d.ID\n")
+                        .append("  WHERE d.AMOUNT >= ").append(i).append(" AND c.NAME LIKE 'A%' -- filter\n")
+                        .append("  ORDER BY TOTAL DESC;\n");
+                    break;
+                case 1:
+                    script.append("INSERT INTO ").append(COPY_TABLE).append(" (ID, NAME, NOTE) VALUES (")
+                        .append(i).append(", 'it''s row ").append(i).append("', NULL);\n");
+                    break;
+                case 2:
+                    script.append("/* batch update */\nUPDATE ").append(DATA_TABLE).append(" SET AMOUNT = AMOUNT - ").append(i % 7)
+                        .append(", NOTE = 'updated' WHERE ID = ").append(i).append(";\n");
+                    break;
+                default:
+                    script.append("DELETE FROM ").append(COPY_TABLE).append(" WHERE ID < ").append(i).append(" OR NOTE IS NULL;\n\n");
+                    break;
+            }
+        }
+        return script.toString();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Embedded database engines used as benchmark fixtures.
+ * Each database lives in memory (or in a temporary file) for the benchmark trial only.
+ */
+public enum BenchmarkDatabase {
+
+    H2("org.h2.Driver", "jdbc:h2:mem:{name};DB_CLOSE_DELAY=-1"),
+    SQLITE("org.sqlite.JDBC", "jdbc:sqlite:{file}"),
+    DERBY("org.apache.derby.jdbc.EmbeddedDriver", "jdbc:derby:memory:{name};create=true");
+
+    private final String driverClassName;
+    private final String urlPattern;
+
+    BenchmarkDatabase(String driverClassName, String urlPattern) {
+        this.driverClassName = driverClassName;
+        this.urlPattern = urlPattern;
+    }
+
+    /**
+     * Opens connection to the new empty database.
+     * Driver is instantiated directly since DriverManager doesn't see drivers of the bundle class path.
+     */
+    public Connection openDatabase(String name) throws SQLException {
+        String url = urlPattern.replace("{name}", name);
+        if (url.contains("{file}")) {
+            try {
+                File file = File.createTempFile(name, ".db");
+                file.deleteOnExit();
+                url = url.replace("{file}", file.getAbsolutePath());
+            } catch (IOException e) {
+                throw new SQLException("Can't create database file", e);
+            }
+        }
+        return connect(url);
+    }
+
+    /**
+     * Closes the connection and releases the database storage
+     */
+    public void closeDatabase(String name, Connection connection) throws SQLException {
+        switch (this) {
+            case H2:
+                // DB_CLOSE_DELAY keeps the database after the last connection is closed
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SHUTDOWN");
+                }
+                connection.close();
+                break;
+            case SQLITE:
+                String url = connection.getMetaData().getURL();
+                connection.close();
+                new File(url.substring(url.indexOf(':', "jdbc:".length()) + 1)).delete();
+                break;
+            case DERBY:
+                connection.close();
+                try {
+                    connect("jdbc:derby:memory:" + name + ";drop=true").close();
+                } catch (SQLException e) {
+                    // Derby reports the successful drop with an exception
+                }
+                break;
+        }
+    }
+
+    private Connection connect(String url) throws SQLException {
+        Driver driver;
+        try {
+            driver = (Driver) Class.forName(driverClassName).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new SQLException("Can't load driver " + driverClassName, e);
+        }
+        Connection connection = driver.connect(url, new Properties());
+        if (connection == null) {
+            throw new SQLException("Driver " + driverClassName + " doesn't accept URL " + url);
+        }
+        return connection;
+    }
+}
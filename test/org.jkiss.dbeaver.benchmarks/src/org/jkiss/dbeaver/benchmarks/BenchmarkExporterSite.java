@@ -0,0 +1,126 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPNamedObject;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Exporter site writing to nowhere, it only counts the written chars
+ */
+class BenchmarkExporterSite implements IStreamDataExporterSite {
+
+    private final DBDAttributeBinding[] attributes;
+    private final Map<String, Object> properties;
+    private final CountingWriter counter = new CountingWriter();
+    private final PrintWriter writer = new PrintWriter(counter);
+
+    BenchmarkExporterSite(DBDAttributeBinding[] attributes, Map<String, Object> properties) {
+        this.attributes = attributes;
+        this.properties = properties;
+    }
+
+    long getWrittenLength() {
+        return counter.length;
+    }
+
+    @Override
+    public DBPNamedObject getSource() {
+        return () -> BenchmarkData.DATA_TABLE;
+    }
+
+    @Override
+    public DBDDisplayFormat getExportFormat() {
+        return DBDDisplayFormat.UI;
+    }
+
+    @Override
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public DBDAttributeBinding[] getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return OutputStream.nullOutputStream();
+    }
+
+    @Nullable
+    @Override
+    public File getOutputFile() {
+        return null;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public void writeBinaryData(@NotNull DBDContentStorage cs) {
+        // there are no binaries in the benchmark data
+    }
+
+    @NotNull
+    @Override
+    public String getOutputEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    private static class CountingWriter extends Writer {
+        private long length;
+
+        @Override
+        public void write(char[] buffer, int offset, int count) {
+            length += count;
+        }
+
+        @Override
+        public void write(String str, int offset, int count) {
+            length += count;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
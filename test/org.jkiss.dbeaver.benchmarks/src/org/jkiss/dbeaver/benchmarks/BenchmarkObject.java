@@ -0,0 +1,68 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+/**
+ * Named object stored in the benchmarked caches
+ */
+class BenchmarkObject implements DBSObject {
+
+    private final String name;
+
+    BenchmarkObject(String name) {
+        this.name = name;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    @Override
+    public String getDescription() {
+        return null;
+    }
+
+    @Override
+    public boolean isPersisted() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public DBSObject getParentObject() {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public DBPDataSource getDataSource() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
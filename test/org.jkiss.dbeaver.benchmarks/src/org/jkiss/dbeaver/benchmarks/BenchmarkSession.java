@@ -0,0 +1,139 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCFactory;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStandardValueHandlerProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+import org.jkiss.dbeaver.registry.formatter.DataFormatterRegistry;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * DBeaver session over the plain JDBC connection to the embedded database.
+ *
+ * Data source and session are mocks without connection management, while result sets,
+ * statements and value handlers are the real ones, so the benchmarks measure DBeaver code over the real driver.
+ */
+public class BenchmarkSession implements AutoCloseable {
+
+    private final BenchmarkDatabase database;
+    private final String databaseName;
+    private final Connection connection;
+    private final JDBCFactory jdbcFactory = new JDBCFactoryDefault();
+    private final JDBCDataSource dataSource;
+    private final JDBCSession session;
+
+    public BenchmarkSession(BenchmarkDatabase database, String databaseName) throws SQLException {
+        this.database = database;
+        this.databaseName = databaseName;
+        this.connection = database.openDatabase(databaseName);
+
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSourceInfo info = Mockito.mock(DBPDataSourceInfo.class);
+        dataSource = Mockito.mock(JDBCDataSource.class);
+        Mockito.when(container.getDataSource()).thenReturn(dataSource);
+        Mockito.when(container.getPreferenceStore()).thenReturn(DBWorkbench.getPlatform().getPreferenceStore());
+        Mockito.when(info.supportsBatchUpdates()).thenReturn(true);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getInfo()).thenReturn(info);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        Mockito.when(dataSource.getJdbcFactory()).thenReturn(jdbcFactory);
+        Mockito.when(dataSource.getAdapter(DBDValueHandlerProvider.class)).thenReturn(new JDBCStandardValueHandlerProvider());
+        Mockito.when(dataSource.resolveDataKind(Mockito.anyString(), Mockito.anyInt())).thenAnswer(
+            invocation -> JDBCDataSource.getDataKind(invocation.getArgument(0), invocation.getArgument(1)));
+
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getDataFormatterProfile()).thenReturn(DataFormatterRegistry.getInstance().getGlobalProfile());
+        Mockito.when(session.getDefaultValueHandler()).thenReturn(DefaultValueHandler.INSTANCE);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public JDBCSession getSession() {
+        return session;
+    }
+
+    public JDBCFactory getJdbcFactory() {
+        return jdbcFactory;
+    }
+
+    /**
+     * Wraps result set the way the SQL editor and data transfer see it
+     */
+    public JDBCResultSet wrapResultSet(ResultSet resultSet, String query) throws SQLException {
+        return jdbcFactory.createResultSet(session, null, resultSet, query, true);
+    }
+
+    public JDBCColumnMetaData[] readAttributes(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        JDBCColumnMetaData[] attributes = new JDBCColumnMetaData[metaData.getColumnCount()];
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = new JDBCColumnMetaData(dataSource, metaData, i);
+        }
+        return attributes;
+    }
+
+    public DBDValueHandler[] findValueHandlers(DBSTypedObject[] attributes) {
+        DBDValueHandler[] handlers = new DBDValueHandler[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+        }
+        return handlers;
+    }
+
+    public DBDAttributeBinding[] bindAttributes(JDBCColumnMetaData[] attributes) {
+        DBSDataContainer dataContainer = Mockito.mock(DBSDataContainer.class);
+        Mockito.when(dataContainer.getDataSource()).thenReturn(dataSource);
+        DBDAttributeBinding[] bindings = new DBDAttributeBinding[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            bindings[i] = new DBDAttributeBindingMeta(dataContainer, session, attributes[i]);
+        }
+        return bindings;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        database.closeDatabase(databaseName, connection);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.ext.clickhouse.model.data.ClickhouseRowBinaryEncoder;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of rows into ClickHouse RowBinary blocks, like the ClickHouse bulk loader does before sending a block.
+ * Every tenth string is null.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClickhouseRowBinaryBenchmark {
+
+    private static final long BASE_TIME = 1600000000000L;
+
+    @Param({"10000", "100000"})
+    public int rowCount;
+
+    private Object[][] rows;
+    private ClickhouseRowBinaryEncoder encoder;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DBCException {
+        rows = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new Object[] {
+                (long) i,
+                i % 10 == 0 ? null : "Row " + i,
+                new Timestamp(BASE_TIME + i * 1000L),
+                i * 0.5
+            };
+        }
+        encoder = new ClickhouseRowBinaryEncoder(Arrays.asList("Int64", "Nullable(String)", "DateTime", "Float64"), 1024 * 1024);
+    }
+
+    @Benchmark
+    public int encodeBlock() throws DBCException {
+        encoder.clearBlock();
+        for (Object[] row : rows) {
+            encoder.addRow(row);
+        }
+        return encoder.getBlockSize();
+    }
+}
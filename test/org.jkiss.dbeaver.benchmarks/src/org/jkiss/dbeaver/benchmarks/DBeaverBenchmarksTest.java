@@ -0,0 +1,107 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs JMH benchmarks of this bundle in the headless platform and saves the results in JMH JSON format.
+ *
+ * Benchmarks run in the test JVM since forked JVMs wouldn't see the OSGi bundles,
+ * so results of the different builds are comparable only when they run on the same machine and JVM.
+ *
+ * System properties (set from the same Maven properties):
+ * benchmark.include - regular expression of the benchmarks to run, all by default;
+ * benchmark.result - path of the JSON results;
+ * benchmark.baseline - JSON results of the previous build, the test fails on slowdowns against them;
+ * benchmark.threshold - allowed slowdown in percents;
+ * benchmark.argLine - test JVM arguments, -Xmx4g by default.
+ * Paths should be absolute since the test runtime works in its own directory.
+ * Baseline is read before the run, so it may be the results file of the previous run.
+ * Benchmark errors fail the test instead of being left out of the results.
+ *
+ * Example: mvn -Pdesktop,benchmarks verify -Dbenchmark.include=ResultSetFetch -Dbenchmark.baseline=/path/to/jmh-result.json
+ */
+public class DBeaverBenchmarksTest {
+
+    private static final Log log = Log.getLog(DBeaverBenchmarksTest.class);
+
+    @Test
+    public void runBenchmarks() throws RunnerException, IOException {
+        Path resultFile = Path.of(CommonUtils.notNull(getProperty("benchmark.result"), "target/jmh-result.json")).toAbsolutePath();
+        Files.createDirectories(resultFile.getParent());
+
+        String baselineFile = getProperty("benchmark.baseline");
+        Map<String, BenchmarkComparison.Score> baseline = null;
+        if (baselineFile != null) {
+            Assert.assertTrue("Baseline results not found: " + baselineFile, Files.isRegularFile(Path.of(baselineFile)));
+            baseline = BenchmarkComparison.readScores(Path.of(baselineFile));
+        }
+
+        Options options = new OptionsBuilder()
+            .include(CommonUtils.notNull(getProperty("benchmark.include"), ".*"))
+            .forks(0)
+            .shouldFailOnError(true)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.toString())
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        Assert.assertFalse("No benchmarks matched", results.isEmpty());
+        log.info("Benchmark results saved to " + resultFile);
+
+        if (baseline != null) {
+            double threshold = CommonUtils.toDouble(getProperty("benchmark.threshold"), 10);
+            List<BenchmarkComparison.Change> changes = BenchmarkComparison.compare(
+                baseline, BenchmarkComparison.readScores(resultFile), threshold);
+            for (BenchmarkComparison.Change change : changes) {
+                log.info(change.getDescription());
+            }
+            List<String> regressions = changes.stream()
+                .filter(BenchmarkComparison.Change::isRegression)
+                .map(BenchmarkComparison.Change::getDescription)
+                .collect(Collectors.toList());
+            Assert.assertTrue("Benchmarks slowed down by more than " + threshold + "%:\n" + String.join("\n", regressions), regressions.isEmpty());
+        }
+    }
+
+    /**
+     * Empty Maven properties are passed as empty strings, and undefined ones may stay unresolved
+     */
+    @Nullable
+    private static String getProperty(String name) {
+        String value = System.getProperty(name);
+        return CommonUtils.isEmpty(value) || value.startsWith("${") ? null : value;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterCSV;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV export of the fetched rows with the default exporter settings.
+ * Rows are fetched once, so only the value formatting and quoting is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataExporterCSVBenchmark {
+
+    private static final String QUERY = "SELECT * FROM " + BenchmarkData.DATA_TABLE;
+
+    // the data is the same for all the databases, but the value types reported by the drivers differ
+    @Param({"H2", "SQLITE", "DERBY"})
+    public BenchmarkDatabase database;
+
+    @Param({"1000", "10000", "100000"})
+    public int rowCount;
+
+    private BenchmarkSession session;
+    private DBDAttributeBinding[] bindings;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, DBException {
+        session = new BenchmarkSession(database, "export" + rowCount);
+        BenchmarkData.createTable(session.getConnection(), BenchmarkData.DATA_TABLE);
+        BenchmarkData.fillTable(session.getConnection(), BenchmarkData.DATA_TABLE, rowCount);
+
+        JDBCSession jdbcSession = session.getSession();
+        try (Statement statement = session.getConnection().createStatement();
+             JDBCResultSet resultSet = session.wrapResultSet(statement.executeQuery(QUERY), QUERY)) {
+            JDBCColumnMetaData[] attributes = session.readAttributes(resultSet.getOriginal());
+            bindings = session.bindAttributes(attributes);
+            while (resultSet.nextRow()) {
+                Object[] row = new Object[bindings.length];
+                for (int i = 0; i < bindings.length; i++) {
+                    row[i] = bindings[i].getValueHandler().fetchValueObject(jdbcSession, resultSet, attributes[i], i);
+                }
+                rows.add(row);
+            }
+        }
+
+        properties.put("delimiter", ",");
+        properties.put("rowDelimiter", "default");
+        properties.put("header", "top");
+        properties.put("quoteChar", "\"");
+        properties.put("quoteAlways", "disabled");
+        properties.put("nullString", "");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        session.close();
+    }
+
+    @Benchmark
+    public long exportRows() throws DBException, IOException {
+        JDBCSession jdbcSession = session.getSession();
+        BenchmarkExporterSite site = new BenchmarkExporterSite(bindings, properties);
+        DataExporterCSV exporter = new DataExporterCSV();
+        exporter.init(site);
+        exporter.exportHeader(jdbcSession);
+        for (Object[] row : rows) {
+            exporter.exportRow(jdbcSession, null, row);
+        }
+        exporter.exportFooter(new VoidProgressMonitor());
+        site.flush();
+        exporter.dispose();
+        return site.getWrittenLength();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts through ExecuteBatchImpl with reused prepared statement, like data transfer consumer does.
+ * Every fifth row has null note, so the batch is restarted on the changes of the null columns set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecuteBatchBenchmark {
+
+    private static final String INSERT_QUERY = "INSERT INTO " + BenchmarkData.COPY_TABLE + " VALUES (?,?,?,?,?)";
+
+    @Param({"H2", "SQLITE", "DERBY"})
+    public BenchmarkDatabase database;
+
+    @Param({"1000", "10000"})
+    public int rowCount;
+
+    private BenchmarkSession session;
+    private DBSAttributeBase[] attributes;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final Map<String, Object> options = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        session = new BenchmarkSession(database, "batch" + rowCount);
+        BenchmarkData.createTable(session.getConnection(), BenchmarkData.COPY_TABLE);
+        try (Statement statement = session.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + BenchmarkData.COPY_TABLE)) {
+            attributes = session.readAttributes(resultSet);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(BenchmarkData.makeRow(i));
+        }
+        session.getConnection().setAutoCommit(false);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() throws SQLException {
+        BenchmarkData.clearTable(session.getConnection(), BenchmarkData.COPY_TABLE);
+        session.getConnection().commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        session.close();
+    }
+
+    @Benchmark
+    public long insertBatch() throws DBException, SQLException {
+        DBCStatistics statistics;
+        try (InsertBatch batch = new InsertBatch(attributes)) {
+            for (Object[] row : rows) {
+                batch.add(row);
+            }
+            statistics = batch.execute(session.getSession(), options);
+        }
+        session.getConnection().commit();
+        return statistics.getRowsUpdated();
+    }
+
+    private class InsertBatch extends ExecuteBatchImpl {
+
+        InsertBatch(DBSAttributeBase[] attributes) {
+            super(attributes, null, true);
+        }
+
+        @NotNull
+        @Override
+        protected DBCStatement prepareStatement(@NotNull DBCSession dbSession, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
+            try {
+                return session.getJdbcFactory().createPreparedStatement(
+                    (JDBCSession) dbSession,
+                    session.getConnection().prepareStatement(INSERT_QUERY),
+                    INSERT_QUERY,
+                    true);
+            } catch (SQLException e) {
+                throw new DBCException(e, dbSession.getExecutionContext());
+            }
+        }
+
+        @Override
+        protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
+            for (int i = 0; i < handlers.length; i++) {
+                handlers[i].bindValueObject(statement.getSession(), statement, attributes[i], i, attributeValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.erd.ui.layout.algorithm.force.ForceDirectedLayout;
+import org.jkiss.dbeaver.erd.ui.layout.algorithm.force.ForceLayoutGraph;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Force-directed layout of ER diagrams with thousands of entities: layout of the whole diagram
+ * and layout after a few entities were added to the laid out diagram (only the new component is laid out).
+ * Graphs are schema-like: most tables reference a few other tables, some tables are standalone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ForceDirectedLayoutBenchmark {
+
+    @Param({"1000", "5000", "10000"})
+    public int entitiesCount;
+
+    // Node sizes and edges of the generated diagram
+    private ForceLayoutGraph sourceGraph;
+    // The same diagram after layout
+    private ForceLayoutGraph laidOutGraph;
+
+    private ForceLayoutGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sourceGraph = generateGraph(entitiesCount, 1);
+        laidOutGraph = copyGraph(sourceGraph, false);
+        new ForceDirectedLayout(laidOutGraph).layout(new VoidProgressMonitor());
+    }
+
+    /**
+     * Layout changes node positions, so each invocation lays out a fresh copy
+     */
+    @Setup(Level.Invocation)
+    public void copyGraph() {
+        graph = copyGraph(sourceGraph, false);
+    }
+
+    @Benchmark
+    public ForceLayoutGraph layoutDiagram() {
+        new ForceDirectedLayout(graph).layout(new VoidProgressMonitor());
+        return graph;
+    }
+
+    @Benchmark
+    public ForceLayoutGraph layoutAddedEntities() {
+        ForceLayoutGraph changed = copyGraph(laidOutGraph, true);
+        int first = changed.addNode(150, 120);
+        for (int i = 1; i < 10; i++) {
+            changed.addEdge(first, changed.addNode(150, 80));
+        }
+        new ForceDirectedLayout(changed).layout(new VoidProgressMonitor());
+        return changed;
+    }
+
+    private static ForceLayoutGraph generateGraph(int size, long seed) {
+        Random random = new Random(seed);
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        for (int i = 0; i < size; i++) {
+            graph.addNode(100 + random.nextInt(150), 40 + random.nextInt(250));
+        }
+        for (int i = 1; i < size; i++) {
+            if (random.nextInt(10) > 0) {
+                graph.addEdge(i, random.nextInt(i));
+            }
+            if (random.nextInt(3) == 0) {
+                graph.addEdge(i, random.nextInt(size));
+            }
+        }
+        return graph;
+    }
+
+    private static ForceLayoutGraph copyGraph(ForceLayoutGraph source, boolean copyPositions) {
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        for (int i = 0; i < source.getNodeCount(); i++) {
+            graph.addNode(source.getNodeWidth(i), source.getNodeHeight(i));
+            if (copyPositions) {
+                graph.setNodePosition(i, source.getNodeX(i), source.getNodeY(i));
+            }
+        }
+        for (int i = 0; i < source.getEdgeCount(); i++) {
+            graph.addEdge(source.getEdgeSource(i), source.getEdgeTarget(i));
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.SimpleObjectCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of the cached objects by name, like the navigator and SQL completion do for tables and columns.
+ * Case insensitive caches store upper case names and look up the names in any case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ObjectCacheBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int objectCount;
+
+    @Param({"true", "false"})
+    public boolean caseSensitive;
+
+    private final List<BenchmarkObject> objects = new ArrayList<>();
+    private String[] lookupNames;
+    private final SimpleObjectCache<DBSObject, BenchmarkObject> cache = new SimpleObjectCache<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lookupNames = new String[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            String name = "TABLE_" + i;
+            objects.add(new BenchmarkObject(name));
+            // look up in the shuffled order, so the hash map isn't walked sequentially
+            int lookupIndex = (int) (i * 7919L % objectCount);
+            lookupNames[lookupIndex] = caseSensitive ? name : name.toLowerCase();
+        }
+        cache.setCaseSensitive(caseSensitive);
+        cache.setCache(new ArrayList<>(objects));
+    }
+
+    @Benchmark
+    public BenchmarkObject lookup(LookupCursor cursor) {
+        return cache.getCachedObject(cursor.nextName(lookupNames));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BenchmarkObject lookupConcurrent(LookupCursor cursor) {
+        return cache.getCachedObject(cursor.nextName(lookupNames));
+    }
+
+    /**
+     * Cache reload followed by the lookup of all the objects, the name map is rebuilt on the first lookup
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int reloadAndLookupAll() {
+        SimpleObjectCache<DBSObject, BenchmarkObject> reloaded = new SimpleObjectCache<>();
+        reloaded.setCaseSensitive(caseSensitive);
+        reloaded.setCache(new ArrayList<>(objects));
+        int found = 0;
+        for (String name : lookupNames) {
+            if (reloaded.getCachedObject(name) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Position in the looked up names, per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class LookupCursor {
+        private int position;
+
+        String nextName(String[] names) {
+            if (++position >= names.length) {
+                position = 0;
+            }
+            return names[position];
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.parser.common.ParseTextEdit;
+import org.jkiss.dbeaver.parser.common.ParseTreeNode;
+import org.jkiss.dbeaver.parser.common.Parser;
+import org.jkiss.dbeaver.parser.common.ParserFactory;
+import org.jkiss.dbeaver.parser.common.grammar.GrammarInfo;
+import org.jkiss.dbeaver.parser.common.grammar.GrammarInfoBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.jkiss.dbeaver.parser.common.grammar.ExpressionFactory.*;
+
+/**
+ * Parsing of SQL scripts with the grammar parser: statement by statement, the whole script at once
+ * and reparsing of the whole script tree after small edits (typing in the editor).
+ * Grammar is a simplified SQL grammar, comments are part of the skip rule.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParserBenchmark {
+
+    @Param({"500", "2000"})
+    public int statementsCount;
+
+    private Parser statementParser;
+    private Parser scriptParser;
+    private String[] statements;
+    private String script;
+
+    private String reparseText;
+    private ParseTreeNode reparseTree;
+    private int[] numberEnds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statementParser = ParserFactory.getFactory(makeSqlGrammar("stmt")).createParser();
+        scriptParser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        script = makeSqlScript(statementsCount);
+        statements = script.split(";\n");
+
+        // null is both the keyword and the name in the grammar, so the reparsed fragment would have several trees
+        reparseText = script.replace("null", "0");
+        reparseTree = scriptParser.parse(reparseText).getTrees(false).get(0);
+        List<Integer> ends = new ArrayList<>();
+        for (int i = 1; i < reparseText.length(); i++) {
+            char c = reparseText.charAt(i);
+            if (Character.isDigit(reparseText.charAt(i - 1)) && !Character.isLetterOrDigit(c) && c != '.' && c != '\'') {
+                ends.add(i);
+            }
+        }
+        numberEnds = ends.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public int parseStatements() {
+        int parsed = 0;
+        for (String statement : statements) {
+            if (statementParser.parse(statement).isSuccess()) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public boolean parseScript() {
+        return scriptParser.parse(script).isSuccess();
+    }
+
+    /**
+     * Grammar analysis and compilation of the terminals into the lexer automaton
+     */
+    @Benchmark
+    public ParserFactory createParserFactory() {
+        return ParserFactory.getFactory(makeSqlGrammar("script"));
+    }
+
+    /**
+     * Inserts a digit after a number and removes it, so the text and the tree stay the same between invocations
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ParseTreeNode reparse(EditCursor cursor) {
+        int offset = numberEnds[cursor.nextIndex(numberEnds.length)];
+        ParseTextEdit insert = new ParseTextEdit(offset, 0, "7");
+        String newText = insert.apply(reparseText);
+        scriptParser.reparse(reparseTree, reparseText, insert, newText, false);
+        return scriptParser.reparse(reparseTree, newText, new ParseTextEdit(offset, 1, ""), reparseText, false);
+    }
+
+    /**
+     * Position of the next edit, per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class EditCursor {
+        private int position;
+
+        int nextIndex(int count) {
+            // spread the edits over the script
+            position = (int) ((position + 7919L) % count);
+            return position;
+        }
+    }
+
+    private static GrammarInfo makeSqlGrammar(String startRule) {
+        GrammarInfoBuilder gb = new GrammarInfoBuilder("sql");
+        gb.setUseSkipRule(false);
+        gb.setRule("sp", regex("([\\s]+|--[^\\n]*)*"));
+        gb.setSkipRuleName("sp");
+        gb.setUseSkipRule(true);
+
+        if (startRule.equals("script")) {
+            gb.setRule("script", seq(call("stmt"), zeroOrMore(";", call("stmt")), optional(";")));
+        }
+        gb.setRule("stmt", alt(call("select"), call("insert"), call("update"), call("delete")));
+
+        gb.setRule("select", seq(
+            "select", optional("distinct"), call("select_list"),
+            "from", call("table_ref"), zeroOrMore(call("join")),
+            optional("where", call("expr")),
+            optional("group", "by", call("expr_list"), optional("having", call("expr"))),
+            optional("order", "by", call("order_list")),
+            optional("limit", call("number"))
+        ));
+        gb.setRule("select_list", alt("*", seq(call("select_item"), zeroOrMore(",", call("select_item")))));
+        gb.setRule("select_item", seq(call("expr"), optional(optional("as"), call("name"))));
+        gb.setRule("table_ref", seq(call("qualified_name"), optional(optional("as"), call("name"))));
+        gb.setRule("join", seq(
+            optional(alt("inner", seq(alt("left", "right", "full"), optional("outer")))),
+            "join", call("table_ref"), "on", call("expr")
+        ));
+        gb.setRule("order_list", seq(call("order_item"), zeroOrMore(",", call("order_item"))));
+        gb.setRule("order_item", seq(call("expr"), optional(alt("asc", "desc"))));
+
+        gb.setRule("insert", seq(
+            "insert", "into", call("qualified_name"), "(", call("name_list"), ")",
+            "values", call("row"), zeroOrMore(",", call("row"))
+        ));
+        gb.setRule("row", seq("(", call("expr_list"), ")"));
+        gb.setRule("update", seq(
+            "update", call("qualified_name"), "set", call("assignment"), zeroOrMore(",", call("assignment")),
+            optional("where", call("expr"))
+        ));
+        gb.setRule("assignment", seq(call("name"), "=", call("expr")));
+        gb.setRule("delete", seq("delete", "from", call("qualified_name"), optional("where", call("expr"))));
+
+        gb.setRule("name_list", seq(call("name"), zeroOrMore(",", call("name"))));
+        gb.setRule("expr_list", seq(call("expr"), zeroOrMore(",", call("expr"))));
+        gb.setRule("expr", seq(optional("not"), call("operand"), zeroOrMore(call("operator"), optional("not"), call("operand"))));
+        gb.setRule("operator", alt("+", "-", "*", "/", "||", "=", "<>", "<=", ">=", "<", ">", "and", "or", "like"));
+        gb.setRule("operand", alt(
+            call("number"), call("string"), "null",
+            seq("(", call("expr"), ")"),
+            seq(call("name"), "(", optional(call("expr_list")), ")"),
+            call("qualified_name")
+        ));
+        gb.setRule("qualified_name", seq(call("name"), zeroOrMore(".", call("name"))));
+        gb.setRule("name", alt(regex("[a-z_][a-z_0-9$]*"), regex("\"[^\"]+\"")));
+        gb.setRule("number", regex("[0-9]+(\\.[0-9]+)?"));
+        gb.setRule("string", regex("'([^']|'')*'"));
+
+        gb.setStartRuleName(startRule);
+        return gb.buildGrammarInfo();
+    }
+
+    private static String makeSqlScript(int statementsCount) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < statementsCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    script.append("SELECT o.id, o.amount * 1.5 AS total, \"Customer Name\", upper(c.name)\n")
+                        .append("  FROM sales.orders o\n")
+                        .append("  LEFT OUTER JOIN sales.customers c ON c.id = o.customer_id\n")
+                        .append("  WHERE o.amount >= ").append(i).append(" AND c.name LIKE 'A%' -- filter\n")
+                        .append("  ORDER BY total DESC LIMIT 10;\n");
+                    break;
+                case 1:
+                    script.append("insert into audit_log (id, message, created) values (")
+                        .append(i).append(", 'it''s row ").append(i).append("', now()), (")
+                        .append(i + 1).append(", null, now());\n");
+                    break;
+                case 2:
+                    script.append("UPDATE inventory SET quantity = quantity - ").append(i % 7)
+                        .append(", updated_by = 'batch' WHERE item_id = ").append(i).append(";\n");
+                    break;
+                default:
+                    script.append("delete from temp_data where created < ").append(i).append(" or status = 'obsolete';\n");
+                    break;
+            }
+        }
+        return script.toString();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.ext.postgresql.PostgreValueParser;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreOid;
+import org.jkiss.dbeaver.ext.postgresql.model.data.PostgreBinaryDecoder;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of PostgreSQL int4[] values transferred in binary format against parsing of their text form,
+ * which is what the driver does for arrays fetched in text format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostgreArrayDecodeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int arraySize;
+
+    private byte[] binaryValue;
+    private String textValue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(arraySize);
+        ByteBuffer buffer = ByteBuffer.allocate(20 + arraySize * 8);
+        buffer.putInt(1).putInt(0).putInt(PostgreOid.INT4).putInt(arraySize).putInt(1);
+        StringJoiner text = new StringJoiner(",", "{", "}");
+        for (int i = 0; i < arraySize; i++) {
+            int item = random.nextInt();
+            buffer.putInt(4).putInt(item);
+            text.add(String.valueOf(item));
+        }
+        binaryValue = buffer.array();
+        textValue = text.toString();
+    }
+
+    @Benchmark
+    public int decodeBinary() throws DBCException {
+        int[] values = (int[]) PostgreBinaryDecoder.decodePrimitiveArray(binaryValue, new BitSet());
+        return values[arraySize - 1];
+    }
+
+    @Benchmark
+    public int parseText() throws DBCException {
+        List<Object> values = PostgreValueParser.parseArrayString(textValue, ",");
+        return Integer.parseInt((String) values.get(arraySize - 1));
+    }
+}
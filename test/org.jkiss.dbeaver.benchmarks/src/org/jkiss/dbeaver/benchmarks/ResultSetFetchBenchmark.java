@@ -0,0 +1,104 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of the whole table through JDBCResultSetImpl and JDBC value handlers,
+ * like the results viewer and data transfer producer do.
+ * Plain JDBC read of the same table is the baseline of the wrappers overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResultSetFetchBenchmark {
+
+    private static final String QUERY = "SELECT * FROM " + BenchmarkData.DATA_TABLE;
+
+    @Param({"H2", "SQLITE", "DERBY"})
+    public BenchmarkDatabase database;
+
+    @Param({"1000", "10000", "100000"})
+    public int rowCount;
+
+    private BenchmarkSession session;
+    private JDBCColumnMetaData[] attributes;
+    private DBDValueHandler[] valueHandlers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        session = new BenchmarkSession(database, "fetch" + rowCount);
+        BenchmarkData.createTable(session.getConnection(), BenchmarkData.DATA_TABLE);
+        BenchmarkData.fillTable(session.getConnection(), BenchmarkData.DATA_TABLE, rowCount);
+        try (Statement statement = session.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(QUERY)) {
+            attributes = session.readAttributes(resultSet);
+        }
+        valueHandlers = session.findValueHandlers(attributes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        session.close();
+    }
+
+    @Benchmark
+    public long fetchPlain(Blackhole blackhole) throws SQLException {
+        long count = 0;
+        try (Statement statement = session.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(QUERY)) {
+            int columnCount = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                for (int i = 1; i <= columnCount; i++) {
+                    blackhole.consume(resultSet.getObject(i));
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long fetchValues(Blackhole blackhole) throws SQLException, DBException {
+        JDBCSession jdbcSession = session.getSession();
+        long count = 0;
+        try (Statement statement = session.getConnection().createStatement();
+             JDBCResultSet resultSet = session.wrapResultSet(statement.executeQuery(QUERY), QUERY)) {
+            while (resultSet.nextRow()) {
+                for (int i = 0; i < valueHandlers.length; i++) {
+                    blackhole.consume(valueHandlers[i].fetchValueObject(jdbcSession, resultSet, attributes[i], i));
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+}
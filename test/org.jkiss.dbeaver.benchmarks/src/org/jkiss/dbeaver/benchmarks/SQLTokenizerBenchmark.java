@@ -0,0 +1,75 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLParserContext;
+import org.jkiss.dbeaver.model.sql.parser.SQLRuleManager;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptParser;
+import org.jkiss.dbeaver.model.text.parser.TPRuleBasedScanner;
+import org.jkiss.dbeaver.model.text.parser.TPToken;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenization of SQL script with the rules of SQLRuleManager and splitting of the script into queries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLTokenizerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int statementsCount;
+
+    private SQLSyntaxManager syntaxManager;
+    private SQLRuleManager ruleManager;
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(BasicSQLDialect.INSTANCE, DBWorkbench.getPlatform().getPreferenceStore());
+        ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(null, false);
+        document = new Document(BenchmarkData.makeSqlScript(statementsCount));
+    }
+
+    @Benchmark
+    public int tokenize() {
+        TPRuleBasedScanner scanner = new TPRuleBasedScanner();
+        scanner.setRules(ruleManager.getAllRules());
+        scanner.setRange(document, 0, document.getLength());
+        int count = 0;
+        for (TPToken token = scanner.nextToken(); !token.isEOF(); token = scanner.nextToken()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int extractQueries() {
+        SQLParserContext context = new SQLParserContext(null, syntaxManager, ruleManager, document);
+        return SQLScriptParser.extractScriptQueries(context, 0, document.getLength(), true, false, false).size();
+    }
+}
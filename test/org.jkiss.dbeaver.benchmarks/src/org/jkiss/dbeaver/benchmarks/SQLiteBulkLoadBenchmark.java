@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.benchmarks;
+
+import org.jkiss.dbeaver.ext.sqlite.model.SQLiteBulkLoader;
+import org.jkiss.dbeaver.ext.sqlite.model.SQLiteDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads rows into SQLite table with a secondary index through SQLiteBulkLoader
+ * and through plain batches committed every 10000 rows, like data transfer does without bulk loader.
+ * Rows are flushed to the loader every 10000 rows as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SQLiteBulkLoadBenchmark {
+
+    private static final int COMMIT_SIZE = 10000;
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_QUERY = "INSERT INTO " + BenchmarkData.COPY_TABLE + " VALUES (?,?,?,?,?)";
+
+    @Param({"10000", "100000"})
+    public int rowCount;
+
+    @Param({"true", "false"})
+    public boolean deferIndexes;
+
+    private BenchmarkSession session;
+    private SQLiteDataSource dataSource;
+    private DBSDataContainer table;
+    private DBSAttributeBase[] attributes;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        session = new BenchmarkSession(BenchmarkDatabase.SQLITE, "bulk" + rowCount);
+        Connection connection = session.getConnection();
+        BenchmarkData.createTable(connection, BenchmarkData.COPY_TABLE);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX BENCH_COPY_NAME ON " + BenchmarkData.COPY_TABLE + " (NAME)");
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + BenchmarkData.COPY_TABLE)) {
+                attributes = session.readAttributes(resultSet);
+            }
+        }
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(BenchmarkData.makeRow(i));
+        }
+
+        // Loader prepares the insert statement in session, the mocked session delegates it to the connection
+        JDBCSession jdbcSession = session.getSession();
+        Mockito.when(jdbcSession.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+            String query = invocation.getArgument(0);
+            return session.getJdbcFactory().createPreparedStatement(jdbcSession, connection.prepareStatement(query), query, true);
+        });
+
+        DBPDriver driver = Mockito.mock(DBPDriver.class);
+        Mockito.when(driver.getDriverParameter(SQLiteBulkLoader.PARAM_BULK_LOAD_DEFER_INDEXES)).thenReturn(deferIndexes);
+        // Benchmark database is a scratch file, so journal settings are relaxed
+        Mockito.when(driver.getDriverParameter(SQLiteBulkLoader.PARAM_BULK_LOAD_FAST_JOURNAL)).thenReturn(true);
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getDriver()).thenReturn(driver);
+        dataSource = Mockito.mock(SQLiteDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        // Tables are entities and data containers
+        table = Mockito.mock(DBSDataContainer.class, Mockito.withSettings().extraInterfaces(DBSEntity.class));
+        Mockito.when(table.getName()).thenReturn(BenchmarkData.COPY_TABLE);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() throws SQLException {
+        Connection connection = session.getConnection();
+        connection.setAutoCommit(true);
+        BenchmarkData.clearTable(connection, BenchmarkData.COPY_TABLE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        session.close();
+    }
+
+    @Benchmark
+    public int bulkLoad() throws DBCException {
+        JDBCSession jdbcSession = session.getSession();
+        try (DBSDataBulkLoader.BulkLoadManager loader = new SQLiteBulkLoader(dataSource).createBulkLoad(
+            jdbcSession, table, attributes, Mockito.mock(DBCExecutionSource.class), COMMIT_SIZE, new HashMap<>()))
+        {
+            for (int i = 0; i < rows.size(); i++) {
+                loader.addRow(jdbcSession, rows.get(i));
+                if ((i + 1) % COMMIT_SIZE == 0) {
+                    loader.flushRows(jdbcSession);
+                }
+            }
+            loader.finishBulkLoad(jdbcSession);
+        }
+        return rows.size();
+    }
+
+    @Benchmark
+    public int plainBatches() throws SQLException {
+        Connection connection = session.getConnection();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY)) {
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                for (int k = 0; k < row.length; k++) {
+                    statement.setObject(k + 1, row[k]);
+                }
+                statement.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+                if ((i + 1) % COMMIT_SIZE == 0) {
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.force;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks layout results on generated ERD-like graphs.
+ */
+public class ForceDirectedLayoutTest {
+
+    @Test
+    public void testLayoutHasNoOverlaps() {
+        ForceLayoutGraph graph = generateGraph(1000, 1);
+        new ForceDirectedLayout(graph).layout(new VoidProgressMonitor());
+        assertValidLayout(graph);
+    }
+
+    @Test
+    public void testLayoutIsDeterministic() {
+        ForceLayoutGraph first = generateGraph(300, 2);
+        ForceLayoutGraph second = generateGraph(300, 2);
+        new ForceDirectedLayout(first).layout(new VoidProgressMonitor());
+        new ForceDirectedLayout(second).layout(new VoidProgressMonitor());
+        for (int i = 0; i < first.getNodeCount(); i++) {
+            Assert.assertEquals(first.getNodeX(i), second.getNodeX(i), 0);
+            Assert.assertEquals(first.getNodeY(i), second.getNodeY(i), 0);
+        }
+    }
+
+    @Test
+    public void testPlacedComponentsAreKept() {
+        ForceLayoutGraph graph = generateGraph(500, 3);
+        new ForceDirectedLayout(graph).layout(new VoidProgressMonitor());
+
+        // Same graph with a new standalone component
+        ForceLayoutGraph changed = new ForceLayoutGraph();
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            changed.addNode(graph.getNodeWidth(i), graph.getNodeHeight(i));
+            changed.setNodePosition(i, graph.getNodeX(i), graph.getNodeY(i));
+        }
+        for (int i = 0; i < graph.getEdgeCount(); i++) {
+            changed.addEdge(graph.getEdgeSource(i), graph.getEdgeTarget(i));
+        }
+        int first = changed.addNode(100, 100);
+        for (int i = 1; i < 10; i++) {
+            changed.addEdge(first, changed.addNode(100, 50));
+        }
+        new ForceDirectedLayout(changed).layout(new VoidProgressMonitor());
+
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            Assert.assertEquals(graph.getNodeX(i), changed.getNodeX(i), 0);
+            Assert.assertEquals(graph.getNodeY(i), changed.getNodeY(i), 0);
+        }
+        assertValidLayout(changed);
+    }
+
+    @Test
+    public void testChangedComponentIsRefined() {
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        for (int i = 0; i < 20; i++) {
+            graph.addNode(100, 80);
+            graph.setNodePosition(i, (i % 5) * 200, (i / 5) * 200);
+            if (i > 0) {
+                graph.addEdge(i, i - 1);
+            }
+        }
+        int added = graph.addNode(100, 80);
+        graph.addEdge(added, 10);
+        new ForceDirectedLayout(graph).layout(new VoidProgressMonitor());
+
+        // New node is placed near its neighbor
+        double distance = Math.hypot(graph.getNodeX(added) - graph.getNodeX(10), graph.getNodeY(added) - graph.getNodeY(10));
+        Assert.assertTrue(distance < 1000);
+        assertValidLayout(graph);
+    }
+
+    @Test
+    public void testDenseOverlapsAreRemoved() {
+        // Star with big nodes: the changed component is refined from positions where all nodes are stacked
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        int center = graph.addNode(300, 300);
+        graph.setNodePosition(center, 0, 0);
+        for (int i = 1; i < 200; i++) {
+            int node = graph.addNode(250, 200 + i % 7 * 30);
+            graph.setNodePosition(node, i % 3, i % 5);
+            graph.addEdge(center, node);
+        }
+        graph.addEdge(center, graph.addNode(100, 100));
+        new ForceDirectedLayout(graph).layout(new VoidProgressMonitor());
+        assertValidLayout(graph);
+    }
+
+    /**
+     * Generates schema-like graph: most tables reference a few other tables, some tables are standalone
+     */
+    private static ForceLayoutGraph generateGraph(int size, long seed) {
+        Random random = new Random(seed);
+        ForceLayoutGraph graph = new ForceLayoutGraph();
+        for (int i = 0; i < size; i++) {
+            graph.addNode(100 + random.nextInt(150), 40 + random.nextInt(250));
+        }
+        for (int i = 1; i < size; i++) {
+            if (random.nextInt(10) > 0) {
+                graph.addEdge(i, random.nextInt(i));
+            }
+            if (random.nextInt(3) == 0) {
+                graph.addEdge(i, random.nextInt(size));
+            }
+        }
+        return graph;
+    }
+
+    private static void assertValidLayout(ForceLayoutGraph graph) {
+        int count = graph.getNodeCount();
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            Assert.assertTrue(Double.isFinite(graph.getNodeX(i)));
+            Assert.assertTrue(Double.isFinite(graph.getNodeY(i)));
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(graph.getNodeX(a), graph.getNodeX(b)));
+        for (int i = 0; i < count; i++) {
+            int a = order[i];
+            for (int k = i + 1; k < count; k++) {
+                int b = order[k];
+                if (graph.getNodeX(b) >= graph.getNodeX(a) + graph.getNodeWidth(a)) {
+                    break;
+                }
+                boolean overlap = graph.getNodeY(a) < graph.getNodeY(b) + graph.getNodeHeight(b) &&
+                    graph.getNodeY(b) < graph.getNodeY(a) + graph.getNodeHeight(a);
+                Assert.assertFalse("Nodes " + a + " and " + b + " overlap", overlap);
+            }
+        }
+    }
+}
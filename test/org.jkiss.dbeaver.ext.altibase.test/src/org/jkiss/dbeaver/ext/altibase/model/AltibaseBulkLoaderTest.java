@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.altibase.model;
+
+import org.jkiss.dbeaver.ext.altibase.AltibaseConstants;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+import java.util.Collections;
+
+public class AltibaseBulkLoaderTest {
+
+    private DBPDriver driver;
+    private AltibaseDataSource dataSource;
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+    private DBDValueHandler valueHandler;
+    private DBCTransactionManager txnManager;
+    private JDBCSession session;
+    private JDBCPreparedStatement statement;
+
+    @Before
+    public void setUp() throws Exception {
+        driver = Mockito.mock(DBPDriver.class);
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getDriver()).thenReturn(driver);
+
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        valueHandler = Mockito.mock(DBDValueHandler.class);
+        DBDValueHandlerProvider valueHandlerProvider = Mockito.mock(DBDValueHandlerProvider.class);
+        Mockito.when(valueHandlerProvider.getValueHandler(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(valueHandler);
+
+        dataSource = Mockito.mock(AltibaseDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.when(dataSource.getAdapter(DBDValueHandlerProvider.class)).thenReturn(valueHandlerProvider);
+
+        table = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBPQualifiedObject.class));
+        Mockito.when(table.getName()).thenReturn("T1");
+        Mockito.when(table.getDataSource()).thenReturn(dataSource);
+        Mockito.when(((DBPQualifiedObject) table).getFullyQualifiedName(Mockito.any())).thenReturn("SCH.T1");
+
+        attributes = new DBSAttributeBase[] {createAttribute("ID"), createAttribute("AMOUNT")};
+
+        DBCExecutionContext executionContext = Mockito.mock(DBCExecutionContext.class,
+            Mockito.withSettings().extraInterfaces(DBCTransactionManager.class));
+        Mockito.when(executionContext.isConnected()).thenReturn(true);
+        txnManager = (DBCTransactionManager) executionContext;
+
+        statement = Mockito.mock(JDBCPreparedStatement.class);
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getExecutionContext()).thenReturn(executionContext);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.prepareStatement(Mockito.anyString())).thenReturn(statement);
+    }
+
+    @Test
+    public void testInsertWithoutHintsByDefault() throws Exception {
+        createBulkLoad(0);
+        Mockito.verify(session).prepareStatement("INSERT INTO SCH.T1 (ID, AMOUNT) VALUES (?, ?)");
+    }
+
+    @Test
+    public void testInsertHints() throws Exception {
+        Mockito.when(driver.getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_APPEND)).thenReturn("true");
+        Mockito.when(driver.getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_PARALLEL)).thenReturn("4");
+        createBulkLoad(0);
+        Mockito.verify(session).prepareStatement("INSERT /*+ APPEND PARALLEL(T1, 4) */ INTO SCH.T1 (ID, AMOUNT) VALUES (?, ?)");
+    }
+
+    @Test
+    public void testParallelHintWithoutAppend() throws Exception {
+        Mockito.when(driver.getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_APPEND)).thenReturn("false");
+        Mockito.when(driver.getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_PARALLEL)).thenReturn("2");
+        createBulkLoad(0);
+        Mockito.verify(session).prepareStatement("INSERT /*+ PARALLEL(T1, 2) */ INTO SCH.T1 (ID, AMOUNT) VALUES (?, ?)");
+    }
+
+    @Test
+    public void testRowsAreSentInArrays() throws Exception {
+        Mockito.when(driver.getDriverParameter(AltibaseConstants.PARAM_BULK_LOAD_ARRAY_SIZE)).thenReturn("2");
+        DBSDataBulkLoader.BulkLoadManager bulkLoad = createBulkLoad(0);
+        for (int i = 0; i < 5; i++) {
+            bulkLoad.addRow(session, new Object[] {i, "value" + i});
+        }
+        Mockito.verify(valueHandler, Mockito.times(10)).bindValueObject(Mockito.eq(session), Mockito.eq(statement), Mockito.any(), Mockito.anyInt(), Mockito.any());
+        Mockito.verify(statement, Mockito.times(5)).addBatch();
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(txnManager, Mockito.never()).commit(session);
+
+        // The rest of rows is sent and committed at the end
+        bulkLoad.finishBulkLoad(session);
+        Mockito.verify(statement, Mockito.times(3)).executeBatch();
+        Mockito.verify(txnManager).commit(session);
+
+        bulkLoad.close();
+        Mockito.verify(statement).close();
+    }
+
+    @Test
+    public void testCommitSizeLimitsArraySize() throws Exception {
+        DBSDataBulkLoader.BulkLoadManager bulkLoad = createBulkLoad(3);
+        for (int i = 0; i < 3; i++) {
+            bulkLoad.addRow(session, new Object[] {i, null});
+        }
+        Mockito.verify(statement).executeBatch();
+    }
+
+    @Test
+    public void testAutoCommitSkipsCommit() throws Exception {
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(true);
+        DBSDataBulkLoader.BulkLoadManager bulkLoad = createBulkLoad(0);
+        bulkLoad.addRow(session, new Object[] {1, null});
+        bulkLoad.flushRows(session);
+        Mockito.verify(statement).executeBatch();
+        Mockito.verify(txnManager, Mockito.never()).commit(session);
+    }
+
+    @Test(expected = DBCException.class)
+    public void testBatchErrorIsReported() throws Exception {
+        Mockito.when(statement.executeBatch()).thenThrow(new SQLException("Unique constraint violated"));
+        DBSDataBulkLoader.BulkLoadManager bulkLoad = createBulkLoad(0);
+        bulkLoad.addRow(session, new Object[] {1, null});
+        bulkLoad.flushRows(session);
+    }
+
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoad(int commitSize) throws DBCException {
+        return new AltibaseBulkLoader(dataSource).createBulkLoad(
+            session, table, attributes, Mockito.mock(DBCExecutionSource.class), commitSize, Collections.emptyMap());
+    }
+
+    private static DBSAttributeBase createAttribute(String name) {
+        DBSAttributeBase attribute = Mockito.mock(DBSAttributeBase.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        return attribute;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model.data;
+
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+public class ClickhouseRowBinaryEncoderTest {
+
+    @Test
+    public void testIntegers() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Int8", "UInt16", "Int32", "Int64", "UInt64");
+        encoder.addRow(new Object[] {-1, 65535, 258, -2L, new BigInteger("18446744073709551615")});
+        assertBlock(encoder,
+            "ff",
+            "ffff",
+            "02010000",
+            "feffffffffffffff",
+            "ffffffffffffffff");
+        Assert.assertEquals(1, encoder.getRowCount());
+    }
+
+    @Test
+    public void testBigIntegers() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Int128", "UInt256");
+        encoder.addRow(new Object[] {-2, "1"});
+        assertBlock(encoder,
+            "feffffffffffffffffffffffffffffff",
+            "0100000000000000000000000000000000000000000000000000000000000000");
+    }
+
+    @Test
+    public void testFloatsAndBool() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Float32", "Float64", "Bool");
+        encoder.addRow(new Object[] {1.5f, -2.0, true});
+        assertBlock(encoder, "0000c03f", "00000000000000c0", "01");
+    }
+
+    @Test
+    public void testStrings() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("String", "FixedString(4)", "LowCardinality(String)");
+        encoder.addRow(new Object[] {"ab", "xy", "é"});
+        assertBlock(encoder, "026162", "78790000", "02c3a9");
+
+        // Length prefix is LEB128
+        encoder.clearBlock();
+        char[] longString = new char[300];
+        Arrays.fill(longString, 'a');
+        encoder.addRow(new Object[] {new String(longString), "", ""});
+        Assert.assertEquals(2 + 300 + 4 + 1, encoder.getBlockSize());
+        Assert.assertEquals((byte) 0xac, encoder.getBlockData()[0]);
+        Assert.assertEquals((byte) 0x02, encoder.getBlockData()[1]);
+    }
+
+    @Test
+    public void testNullable() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Nullable(Int32)", "Int32", "Nullable(String)");
+        encoder.addRow(new Object[] {null, 0, "a"});
+        encoder.addRow(new Object[] {7, 8, null});
+        assertBlock(encoder,
+            "01", "00000000", "000161",
+            "0007000000", "08000000", "01");
+        Assert.assertEquals(2, encoder.getRowCount());
+    }
+
+    @Test
+    public void testNullInNonNullableColumn() throws DBCException {
+        // NULL must not turn into 0, empty string, epoch or empty array
+        Object[][] values = {
+            {"Int32", null},
+            {"String", null},
+            {"DateTime", null},
+            {"LowCardinality(String)", null},
+            {"Array(Int16)", null},
+            {"Array(String)", Arrays.asList("a", null)}
+        };
+        for (Object[] value : values) {
+            ClickhouseRowBinaryEncoder encoder = createEncoder("Nullable(Int32)", (String) value[0]);
+            try {
+                encoder.addRow(new Object[] {1, value[1]});
+                Assert.fail("NULL must be rejected by " + value[0]);
+            } catch (DBCException e) {
+                Assert.assertEquals(0, encoder.getBlockSize());
+                Assert.assertEquals(0, encoder.getRowCount());
+            }
+        }
+    }
+
+    @Test
+    public void testArrays() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Array(Int16)", "Array(Nullable(String))");
+        encoder.addRow(new Object[] {new Object[] {1, 2}, Arrays.asList("a", null)});
+        encoder.addRow(new Object[] {Collections.emptyList(), Collections.emptyList()});
+        assertBlock(encoder,
+            "0201000200", "0200016101",
+            "00", "00");
+    }
+
+    @Test
+    public void testDecimals() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Decimal(9, 2)", "Decimal64(3)", "Decimal(38,0)");
+        encoder.addRow(new Object[] {new BigDecimal("-1.005"), "2", 5});
+        assertBlock(encoder,
+            "9bffffff",
+            "d007000000000000",
+            "05000000000000000000000000000000");
+    }
+
+    @Test
+    public void testDates() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Date", "Date32", "DateTime('UTC')", "DateTime64(3, 'UTC')");
+        Timestamp timestamp = Timestamp.from(Instant.ofEpochSecond(86400, 123456789));
+        encoder.addRow(new Object[] {LocalDate.ofEpochDay(2), LocalDate.ofEpochDay(-1), timestamp, timestamp});
+        assertBlock(encoder,
+            "0200",
+            "ffffffff",
+            "80510100",
+            "7b5c260500000000");
+    }
+
+    @Test
+    public void testUUIDAndEnum() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("UUID", "Enum8('a' = 1, 'b,c' = -2)");
+        encoder.addRow(new Object[] {UUID.fromString("00000000-0000-0001-0000-000000000002"), "b,c"});
+        encoder.addRow(new Object[] {new UUID(0, 0), 1});
+        assertBlock(encoder,
+            "0100000000000000", "0200000000000000", "fe",
+            "0000000000000000", "0000000000000000", "01");
+    }
+
+    @Test
+    public void testBadValues() throws DBCException {
+        ClickhouseRowBinaryEncoder encoder = createEncoder("Int32", "FixedString(1)");
+        encoder.addRow(new Object[] {1, "a"});
+        int blockSize = encoder.getBlockSize();
+        try {
+            encoder.addRow(new Object[] {2, "too long"});
+            Assert.fail("Long string must not be encoded");
+        } catch (DBCException e) {
+            // Block is not changed
+            Assert.assertEquals(blockSize, encoder.getBlockSize());
+            Assert.assertEquals(1, encoder.getRowCount());
+        }
+        try {
+            createEncoder("Map(String, Int32)");
+            Assert.fail("Map type is not supported");
+        } catch (DBCException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTypeArguments() {
+        Assert.assertEquals(Arrays.asList("3", "'Europe/Moscow'"), ClickhouseRowBinaryEncoder.getTypeArguments("DateTime64(3, 'Europe/Moscow')"));
+        Assert.assertEquals(Collections.singletonList("Nullable(Decimal(9, 2))"), ClickhouseRowBinaryEncoder.getTypeArguments("Array(Nullable(Decimal(9, 2)))"));
+        Assert.assertEquals(Arrays.asList("'a,(' = 1", "'b' = 2"), ClickhouseRowBinaryEncoder.getTypeArguments("Enum8('a,(' = 1, 'b' = 2)"));
+        Assert.assertTrue(ClickhouseRowBinaryEncoder.getTypeArguments("String").isEmpty());
+    }
+
+    private static ClickhouseRowBinaryEncoder createEncoder(String... types) throws DBCException {
+        return new ClickhouseRowBinaryEncoder(Arrays.asList(types), 1024);
+    }
+
+    private static void assertBlock(ClickhouseRowBinaryEncoder encoder, String... hexParts) {
+        StringBuilder actual = new StringBuilder();
+        for (byte b : encoder.getBlockData()) {
+            actual.append(String.format("%02x", b));
+        }
+        Assert.assertEquals(String.join("", hexParts), actual.toString());
+    }
+}
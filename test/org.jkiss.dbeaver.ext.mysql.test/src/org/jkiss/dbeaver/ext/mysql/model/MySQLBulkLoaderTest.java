@@ -0,0 +1,232 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class MySQLBulkLoaderTest {
+
+    /**
+     * Statement with the local infile stream setter of MySQL drivers
+     */
+    public abstract static class LocalInfileStatement implements Statement {
+        public abstract void setLocalInfileInputStream(InputStream stream);
+    }
+
+    /**
+     * MySQL Connector/J 5.1 connection
+     */
+    public abstract static class LegacyConnection implements Connection {
+        public abstract boolean getAllowLoadLocalInfile();
+    }
+
+    private MySQLDataSource dataSource;
+    private JDBCSession session;
+    private LocalInfileStatement loadStatement;
+    private ResultSet localInfileResult;
+    private DBSEntity table;
+    private DBSAttributeBase[] attributes;
+
+    @Before
+    public void setUp() throws SQLException {
+        dataSource = Mockito.mock(MySQLDataSource.class);
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> "`" + invocation.getArgument(0) + "`");
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+
+        table = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBSDataContainer.class, DBPQualifiedObject.class));
+        Mockito.when(table.getName()).thenReturn("orders");
+        Mockito.when(((DBPQualifiedObject) table).getFullyQualifiedName(Mockito.any())).thenReturn("`test`.`orders`");
+        attributes = new DBSAttributeBase[] {
+            makeAttribute("id", "int", DBPDataKind.NUMERIC),
+            makeAttribute("name", "varchar", DBPDataKind.STRING)
+        };
+
+        localInfileResult = Mockito.mock(ResultSet.class);
+        Mockito.when(localInfileResult.next()).thenReturn(true);
+        Mockito.when(localInfileResult.getInt(1)).thenReturn(1);
+        Statement queryStatement = Mockito.mock(Statement.class);
+        Mockito.when(queryStatement.executeQuery("SELECT @@local_infile")).thenReturn(localInfileResult);
+        loadStatement = Mockito.mock(LocalInfileStatement.class);
+
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.createStatement()).thenReturn(queryStatement, loadStatement);
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+    }
+
+    @Test
+    public void testLoadRows() throws Exception {
+        Mockito.when(loadStatement.executeUpdate(Mockito.anyString())).thenReturn(2);
+        DBSDataBulkLoader.BulkLoadManager manager = createBulkLoad();
+        manager.addRow(session, new Object[] {1, "first\tline"});
+        manager.addRow(session, new Object[] {2, null});
+        manager.finishBulkLoad(session);
+
+        Mockito.verify(loadStatement).executeUpdate(
+            "LOAD DATA LOCAL INFILE 'dbeaver-bulk-load' INTO TABLE `test`.`orders` CHARACTER SET utf8" +
+                " FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (`id`, `name`)");
+        ArgumentCaptor<InputStream> stream = ArgumentCaptor.forClass(InputStream.class);
+        Mockito.verify(loadStatement).setLocalInfileInputStream(stream.capture());
+        Assert.assertEquals("1\tfirst\\tline\n2\t\\N\n", new String(stream.getValue().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLocalInfileDisabledOnServer() throws SQLException {
+        Mockito.when(localInfileResult.getInt(1)).thenReturn(0);
+        assertBulkLoadFails("disabled on the server");
+    }
+
+    @Test
+    public void testLocalInfileDisabledInDriver() throws SQLException {
+        LegacyConnection connection = Mockito.mock(LegacyConnection.class);
+        Mockito.when(connection.getAllowLoadLocalInfile()).thenReturn(false);
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+        assertBulkLoadFails("allowLoadLocalInfile");
+
+        Mockito.when(connection.getAllowLoadLocalInfile()).thenReturn(true);
+        Assert.assertTrue(MySQLBulkLoader.isLocalInfileAllowed(connection));
+        // drivers without the property check local infile on load
+        Assert.assertTrue(MySQLBulkLoader.isLocalInfileAllowed(Mockito.mock(Connection.class)));
+    }
+
+    @Test
+    public void testSkippedRows() throws Exception {
+        // duplicate key is skipped with a warning
+        Mockito.when(loadStatement.executeUpdate(Mockito.anyString())).thenReturn(1);
+        Mockito.when(loadStatement.getWarnings()).thenReturn(new SQLWarning("Duplicate entry '1' for key 'PRIMARY'"));
+        DBSDataBulkLoader.BulkLoadManager manager = createBulkLoad();
+        manager.addRow(session, new Object[] {1, "a"});
+        manager.addRow(session, new Object[] {1, "b"});
+        try {
+            manager.flushRows(session);
+            Assert.fail("Skipped rows must fail the load");
+        } catch (DBCException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("affected 1 of 2 rows"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Duplicate entry"));
+        }
+    }
+
+    @Test
+    public void testEscapedSeparators() throws IOException {
+        Assert.assertEquals("a\\tb", escape("a\tb"));
+        Assert.assertEquals("line1\\nline2\\r\\n", escape("line1\nline2\r\n"));
+        Assert.assertEquals("c:\\\\dir\\\\", escape("c:\\dir\\"));
+        Assert.assertEquals("a\\0b", escape("a\0b"));
+        Assert.assertEquals("plain 'text' \"quoted\", é", escape("plain 'text' \"quoted\", é"));
+        Assert.assertEquals("", escape(""));
+    }
+
+    @Test
+    public void testNullValues() throws IOException {
+        Assert.assertEquals("\\N", write(MySQLBulkLoader.ColumnEncoding.TEXT, null));
+        Assert.assertEquals("\\N", write(MySQLBulkLoader.ColumnEncoding.HEX, null));
+        Assert.assertEquals("\\N", write(MySQLBulkLoader.ColumnEncoding.SPATIAL, null));
+        // Strings which look like NULL marker must stay strings
+        Assert.assertEquals("\\\\N", write(MySQLBulkLoader.ColumnEncoding.TEXT, "\\N"));
+        Assert.assertEquals("NULL", write(MySQLBulkLoader.ColumnEncoding.TEXT, "NULL"));
+    }
+
+    @Test
+    public void testBinaryValues() throws IOException {
+        // Binary values are sent in hex, so separators and escape characters in data don't matter
+        Assert.assertEquals("00095C0A4EFFFF", write(MySQLBulkLoader.ColumnEncoding.HEX,
+            new byte[] {0, '\t', '\\', '\n', 'N', (byte) 0xFF, (byte) 0xFF}));
+        Assert.assertEquals("", write(MySQLBulkLoader.ColumnEncoding.HEX, new byte[0]));
+        Assert.assertEquals("613A62", write(MySQLBulkLoader.ColumnEncoding.HEX, "a:b"));
+        Assert.assertEquals("258", write(MySQLBulkLoader.ColumnEncoding.BIT, new byte[] {1, 2}));
+        Assert.assertEquals("1", write(MySQLBulkLoader.ColumnEncoding.BIT, true));
+    }
+
+    @Test
+    public void testTextValues() throws IOException {
+        Assert.assertEquals("0.00000001", write(MySQLBulkLoader.ColumnEncoding.TEXT, new BigDecimal("1E-8")));
+        Assert.assertEquals("0", write(MySQLBulkLoader.ColumnEncoding.TEXT, false));
+        Assert.assertEquals("2022-01-02 03:04:05.123456",
+            write(MySQLBulkLoader.ColumnEncoding.TEXT, Timestamp.valueOf("2022-01-02 03:04:05.123456")));
+        Assert.assertEquals("2022-01-02 03:04:05.000000",
+            write(MySQLBulkLoader.ColumnEncoding.TEXT, LocalDateTime.of(2022, 1, 2, 3, 4, 5)));
+        Assert.assertEquals("POINT(1 2)", write(MySQLBulkLoader.ColumnEncoding.SPATIAL, "POINT(1 2)"));
+    }
+
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoad() throws DBCException {
+        return new MySQLBulkLoader(dataSource).createBulkLoad(
+            session, (DBSDataContainer) table, attributes, Mockito.mock(DBCExecutionSource.class), 100, Map.of());
+    }
+
+    private void assertBulkLoadFails(String message) {
+        try {
+            createBulkLoad();
+            Assert.fail("Bulk load must fail");
+        } catch (DBCException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    private static DBSAttributeBase makeAttribute(String name, String typeName, DBPDataKind dataKind) {
+        DBSAttributeBase attribute = Mockito.mock(DBSAttributeBase.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        Mockito.when(attribute.getTypeName()).thenReturn(typeName);
+        Mockito.when(attribute.getDataKind()).thenReturn(dataKind);
+        return attribute;
+    }
+
+    private static String escape(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        MySQLBulkLoader.writeEscaped(writer, value);
+        return writer.toString();
+    }
+
+    private static String write(MySQLBulkLoader.ColumnEncoding encoding, Object value) throws IOException {
+        StringWriter writer = new StringWriter();
+        MySQLBulkLoader.writeValue(
+            writer, encoding, value, Mockito.mock(DBSAttributeBase.class), Mockito.mock(DBDValueHandler.class));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OracleSourceCacheTest {
+
+    @Mock
+    private OracleSchema schema;
+    @Mock
+    private DBRProgressMonitor monitor;
+
+    private OracleSourceCache sourceCache;
+
+    @Before
+    public void setUp() {
+        sourceCache = new OracleSourceCache(schema);
+        sourceCache.setSources(Arrays.asList(
+            new OracleSourceCache.SourceEntry("PACKAGE", "ORDERS_PKG",
+                "PACKAGE orders_pkg AS\n  PROCEDURE add_order(p_customer_id NUMBER);\nEND;\n"),
+            new OracleSourceCache.SourceEntry("PACKAGE BODY", "ORDERS_PKG",
+                "PACKAGE BODY orders_pkg AS\n  PROCEDURE add_order(p_customer_id NUMBER) IS\n  BEGIN\n    INSERT INTO orders VALUES (p_customer_id);\n  END;\nEND;\n"),
+            new OracleSourceCache.SourceEntry("PROCEDURE", "CLEANUP",
+                "PROCEDURE cleanup IS\nBEGIN\n  DELETE FROM order_log;\nEND;\n")
+        ), true);
+    }
+
+    @Test
+    public void testFindSources() {
+        Assert.assertEquals(Arrays.asList("PACKAGE ORDERS_PKG", "PACKAGE BODY ORDERS_PKG"), findSources("%CUSTOMER%", false));
+        Assert.assertEquals(Arrays.asList("PACKAGE BODY ORDERS_PKG"), findSources("%insert into orders%", false));
+        Assert.assertEquals(Arrays.asList("PROCEDURE CLEANUP"), findSources("%order_log%", false));
+        Assert.assertEquals(Arrays.asList("PROCEDURE CLEANUP"), findSources("%ORDER_LOG%", false));
+        Assert.assertEquals(Arrays.asList("PROCEDURE CLEANUP"), findSources("%DELETE FROM ORDER%", false));
+        Assert.assertEquals(Arrays.asList("PACKAGE BODY ORDERS_PKG", "PROCEDURE CLEANUP"), findSources("%BEGIN%", false));
+        // Masks are matched against whole lines
+        Assert.assertEquals(Arrays.asList("PROCEDURE CLEANUP"), findSources("BEGIN", false));
+        Assert.assertTrue(findSources("%customers%", false).isEmpty());
+        Assert.assertTrue(findSources("%CUSTOMER_ID NUMBER) IS%", true).isEmpty());
+        Assert.assertEquals(Arrays.asList("PACKAGE BODY ORDERS_PKG"), findSources("%customer_id NUMBER) IS%", true));
+    }
+
+    @Test
+    public void testGetSource() {
+        Assert.assertTrue(sourceCache.getSource(monitor, "PROCEDURE", "CLEANUP").startsWith("PROCEDURE cleanup"));
+        // Source is returned once, then it is read from database
+        Assert.assertNull(sourceCache.getSource(monitor, "PROCEDURE", "CLEANUP"));
+        // Object without source
+        Assert.assertEquals("", sourceCache.getSource(monitor, "TYPE BODY", "ORDER_TYPE"));
+
+        sourceCache.updateSource("PROCEDURE", "CLEANUP", "PROCEDURE cleanup IS\nBEGIN\n  DELETE FROM order_history;\nEND;\n");
+        Assert.assertTrue(findSources("%order_log%", false).isEmpty());
+        Assert.assertEquals(Arrays.asList("PROCEDURE CLEANUP"), findSources("%order_history%", false));
+    }
+
+    @Test
+    public void testPrefetchIsScheduledAfterSeparateReads() {
+        final int[] prefetchCount = new int[1];
+        OracleSourceCache cache = new OracleSourceCache(schema) {
+            @Override
+            void schedulePrefetch() {
+                prefetchCount[0]++;
+            }
+        };
+        for (int i = 0; i < 19; i++) {
+            Assert.assertNull(cache.getSource(monitor, "PROCEDURE", "PROC" + i));
+        }
+        Assert.assertEquals(0, prefetchCount[0]);
+        // Read doesn't wait for the prefetch
+        Assert.assertNull(cache.getSource(monitor, "PROCEDURE", "PROC19"));
+        Assert.assertEquals(1, prefetchCount[0]);
+        Assert.assertNull(cache.getSource(monitor, "PROCEDURE", "PROC20"));
+        Assert.assertEquals(1, prefetchCount[0]);
+
+        // Cache clear re-arms the prefetch
+        cache.clearCache();
+        for (int i = 0; i < 19; i++) {
+            Assert.assertNull(cache.getSource(monitor, "PROCEDURE", "PROC" + i));
+        }
+        Assert.assertEquals(1, prefetchCount[0]);
+        Assert.assertNull(cache.getSource(monitor, "PROCEDURE", "PROC19"));
+        Assert.assertEquals(2, prefetchCount[0]);
+    }
+
+    private List<String> findSources(String mask, boolean caseSensitive) {
+        List<String> result = new ArrayList<>();
+        for (OracleSourceCache.SourceEntry entry : sourceCache.findSources(mask, caseSensitive)) {
+            result.add(entry.getType() + " " + entry.getName());
+        }
+        return result;
+    }
+}
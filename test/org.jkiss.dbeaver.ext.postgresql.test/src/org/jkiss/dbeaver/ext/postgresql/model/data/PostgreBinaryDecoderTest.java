@@ -0,0 +1,203 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model.data;
+
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreOid;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+public class PostgreBinaryDecoderTest {
+
+    @Test
+    public void testDecodeIntArray() throws DBCException {
+        byte[] data = makeIntArray(new Integer[] {1, null, -3, Integer.MAX_VALUE});
+
+        BitSet nulls = new BitSet();
+        Object values = PostgreBinaryDecoder.decodePrimitiveArray(data, nulls);
+        Assert.assertArrayEquals(new int[] {1, 0, -3, Integer.MAX_VALUE}, (int[]) values);
+        Assert.assertEquals(BitSet.valueOf(new long[] {2}), nulls);
+    }
+
+    @Test
+    public void testDecodeEmptyArray() throws DBCException {
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        buffer.putInt(0).putInt(0).putInt(PostgreOid.FLOAT8);
+        Object values = PostgreBinaryDecoder.decodePrimitiveArray(buffer.array(), new BitSet());
+        Assert.assertArrayEquals(new double[0], (double[]) values, 0);
+    }
+
+    @Test
+    public void testDecodeDoubleAndBoolArrays() throws DBCException {
+        ByteBuffer buffer = ByteBuffer.allocate(20 + 2 * 12);
+        buffer.putInt(1).putInt(0).putInt(PostgreOid.FLOAT8).putInt(2).putInt(1);
+        buffer.putInt(8).putDouble(1.5);
+        buffer.putInt(8).putDouble(-0.25);
+        Assert.assertArrayEquals(
+            new double[] {1.5, -0.25},
+            (double[]) PostgreBinaryDecoder.decodePrimitiveArray(buffer.array(), new BitSet()),
+            0);
+
+        buffer = ByteBuffer.allocate(20 + 2 * 5);
+        buffer.putInt(1).putInt(0).putInt(PostgreOid.BOOL).putInt(2).putInt(1);
+        buffer.putInt(1).put((byte) 1);
+        buffer.putInt(1).put((byte) 0);
+        Assert.assertArrayEquals(
+            new boolean[] {true, false},
+            (boolean[]) PostgreBinaryDecoder.decodePrimitiveArray(buffer.array(), new BitSet()));
+    }
+
+    @Test
+    public void testNotDecodedArrays() throws DBCException {
+        // Two dimensions
+        ByteBuffer buffer = ByteBuffer.allocate(28);
+        buffer.putInt(2).putInt(0).putInt(PostgreOid.INT4).putInt(0).putInt(1).putInt(0).putInt(1);
+        Assert.assertNull(PostgreBinaryDecoder.decodePrimitiveArray(buffer.array(), new BitSet()));
+
+        // Text elements
+        buffer = ByteBuffer.allocate(20);
+        buffer.putInt(1).putInt(0).putInt(PostgreOid.TEXT).putInt(0).putInt(1);
+        Assert.assertNull(PostgreBinaryDecoder.decodePrimitiveArray(buffer.array(), new BitSet()));
+    }
+
+    @Test
+    public void testBinaryColumn() throws SQLException {
+        // Text forms may start with any byte, so only the column format is checked
+        FormatMetaData metaData = Mockito.mock(FormatMetaData.class);
+        Mockito.when(metaData.getFormat(1)).thenReturn(1);
+        Mockito.when(metaData.getFormat(2)).thenReturn(0);
+        Assert.assertTrue(PostgreBinaryDecoder.isBinaryColumn(mockResultSet(metaData), 1));
+        Assert.assertFalse(PostgreBinaryDecoder.isBinaryColumn(mockResultSet(metaData), 2));
+
+        Mockito.when(metaData.getFormat(3)).thenThrow(new SQLException("The column index is out of range: 3"));
+        Assert.assertFalse(PostgreBinaryDecoder.isBinaryColumn(mockResultSet(metaData), 3));
+
+        // Not a PostgreSQL driver
+        Assert.assertFalse(PostgreBinaryDecoder.isBinaryColumn(mockResultSet(Mockito.mock(ResultSetMetaData.class)), 1));
+    }
+
+    @Test
+    public void testBinaryColumnFormatIsReadOnce() throws SQLException {
+        FormatMetaData metaData = Mockito.mock(FormatMetaData.class);
+        Mockito.when(metaData.getFormat(1)).thenReturn(1);
+        JDBCResultSet resultSet = mockResultSet(metaData);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(PostgreBinaryDecoder.isBinaryColumn(resultSet, 1));
+        }
+        Mockito.verify(metaData, Mockito.times(1)).getFormat(1);
+
+        // Other result set reads its own format
+        Assert.assertTrue(PostgreBinaryDecoder.isBinaryColumn(mockResultSet(metaData), 1));
+        Mockito.verify(metaData, Mockito.times(2)).getFormat(1);
+    }
+
+    @Test(expected = DBCException.class)
+    public void testTruncatedArray() throws DBCException {
+        byte[] data = makeIntArray(new Integer[] {1, 2, 3});
+        PostgreBinaryDecoder.decodePrimitiveArray(Arrays.copyOf(data, data.length - 2), new BitSet());
+    }
+
+    @Test
+    public void testDecodeComposite() throws DBCException {
+        byte[] text = "a\"b".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 12 + 8 + text.length + 8);
+        buffer.putInt(3);
+        buffer.putInt(PostgreOid.INT4).putInt(4).putInt(42);
+        buffer.putInt(PostgreOid.TEXT).putInt(text.length).put(text);
+        buffer.putInt(PostgreOid.INT8).putInt(-1);
+        Assert.assertArrayEquals(new Object[] {42, "a\"b", null}, PostgreBinaryDecoder.decodeComposite(buffer.array()));
+
+        buffer = ByteBuffer.allocate(4 + 8 + 8);
+        buffer.putInt(1);
+        buffer.putInt(PostgreOid.NUMERIC).putInt(8).putLong(0);
+        Assert.assertNull(PostgreBinaryDecoder.decodeComposite(buffer.array()));
+    }
+
+    @Test
+    public void testDecodeHStore() throws DBCException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 10 + 8 + 4);
+        buffer.putInt(2);
+        buffer.putInt(1).put((byte) 'a').putInt(1).put((byte) '1');
+        buffer.putInt(4).put("b\"\\c".getBytes(StandardCharsets.UTF_8)).putInt(-1);
+        Map<String, String> pairs = PostgreBinaryDecoder.decodeHStore(buffer.array());
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("a", "1");
+        expected.put("b\"\\c", null);
+        Assert.assertEquals(expected, pairs);
+        Assert.assertEquals("\"a\"=>\"1\", \"b\\\"\\\\c\"=>NULL", PostgreHStoreValueHandler.formatHStore(pairs));
+    }
+
+    @Test
+    public void testPrimitiveArray() {
+        BitSet nulls = new BitSet();
+        nulls.set(1);
+        PostgrePrimitiveArray array = new PostgrePrimitiveArray(
+            Mockito.mock(DBSDataType.class), Mockito.mock(DBDValueHandler.class), new long[] {5, 0, 7}, nulls);
+        Assert.assertEquals(3, array.getItemCount());
+        Assert.assertEquals(Arrays.asList(5L, null, 7L), array);
+        Assert.assertArrayEquals(new Object[] {5L, null, 7L}, (Object[]) array.getRawValue());
+        Assert.assertFalse(array.isModified());
+
+        PostgrePrimitiveArray copy = (PostgrePrimitiveArray) array.cloneValue(new VoidProgressMonitor());
+        copy.setItem(1, 6L);
+        Assert.assertTrue(copy.isModified());
+        Assert.assertNull(copy.getPrimitiveValues());
+        Assert.assertEquals(Arrays.asList(5L, 6L, 7L), copy);
+        Assert.assertEquals(Arrays.asList(5L, null, 7L), array);
+    }
+
+    private static byte[] makeIntArray(Integer[] items) {
+        ByteBuffer buffer = ByteBuffer.allocate(20 + items.length * 8);
+        buffer.putInt(1).putInt(0).putInt(PostgreOid.INT4).putInt(items.length).putInt(1);
+        for (Integer item : items) {
+            if (item == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(4).putInt(item);
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static JDBCResultSet mockResultSet(ResultSetMetaData metaData) throws SQLException {
+        ResultSet original = Mockito.mock(ResultSet.class);
+        Mockito.when(original.getMetaData()).thenReturn(metaData);
+        JDBCResultSet resultSet = Mockito.mock(JDBCResultSet.class);
+        Mockito.when(resultSet.getOriginal()).thenReturn(original);
+        return resultSet;
+    }
+
+    /**
+     * Metadata with PGResultSetMetaData.getFormat method
+     */
+    public abstract static class FormatMetaData implements ResultSetMetaData {
+        public abstract int getFormat(int column) throws SQLException;
+    }
+}
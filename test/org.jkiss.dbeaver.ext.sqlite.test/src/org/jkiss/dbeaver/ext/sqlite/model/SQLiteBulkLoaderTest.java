@@ -0,0 +1,201 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.sqlite.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.connection.DBPDriver;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStandardValueHandlerProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFactoryDefault;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.sqlite.JDBC;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Properties;
+
+/**
+ * Loads rows with SQLiteBulkLoader into the real SQLite database.
+ * Database is a file: journal mode of in-memory databases can't be changed.
+ */
+public class SQLiteBulkLoaderTest {
+
+    private static final String INDEX_SQL = "CREATE INDEX ORDERS_NAME ON ORDERS (NAME)";
+
+    private Path databaseFile;
+    private Connection connection;
+    private DBPDriver driver;
+    private SQLiteDataSource dataSource;
+    private JDBCSession session;
+    private DBSDataContainer table;
+    private DBSAttributeBase[] attributes;
+
+    @Before
+    public void setUp() throws Exception {
+        databaseFile = Files.createTempFile("bulk-load", ".db");
+        connection = new JDBC().connect("jdbc:sqlite:" + databaseFile, new Properties());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ORDERS (ID INTEGER PRIMARY KEY, NAME TEXT)");
+            statement.execute(INDEX_SQL);
+            statement.execute("PRAGMA journal_mode = DELETE");
+            statement.execute("PRAGMA synchronous = FULL");
+        }
+
+        driver = Mockito.mock(DBPDriver.class);
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getDriver()).thenReturn(driver);
+        dataSource = Mockito.mock(SQLiteDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(BasicSQLDialect.INSTANCE);
+        Mockito.when(dataSource.getAdapter(DBDValueHandlerProvider.class)).thenReturn(new JDBCStandardValueHandlerProvider());
+
+        JDBCFactoryDefault jdbcFactory = new JDBCFactoryDefault();
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.prepareStatement(Mockito.anyString())).thenAnswer(invocation -> {
+            String query = invocation.getArgument(0);
+            return jdbcFactory.createPreparedStatement(session, connection.prepareStatement(query), query, true);
+        });
+
+        table = Mockito.mock(DBSDataContainer.class, Mockito.withSettings().extraInterfaces(DBSEntity.class));
+        Mockito.when(table.getName()).thenReturn("ORDERS");
+        attributes = new DBSAttributeBase[] { makeAttribute("ID"), makeAttribute("NAME") };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connection.close();
+        Files.deleteIfExists(databaseFile);
+    }
+
+    @Test
+    public void testSettingsAreRestoredAfterLoad() throws Exception {
+        setLoaderParameters(true, true);
+        try (DBSDataBulkLoader.BulkLoadManager loader = createBulkLoad()) {
+            Assert.assertEquals("0", readPragma("synchronous"));
+            Assert.assertEquals("memory", readPragma("journal_mode"));
+            Assert.assertNull(readIndexSql());
+            for (int i = 1; i <= 10; i++) {
+                loader.addRow(session, new Object[] { String.valueOf(i), "name" + i });
+            }
+            loader.finishBulkLoad(session);
+        }
+        Assert.assertEquals(10, countRows());
+        assertSettingsRestored();
+    }
+
+    @Test
+    public void testSettingsAreRestoredAfterFailedLoad() throws Exception {
+        setLoaderParameters(true, true);
+        DBSDataBulkLoader.BulkLoadManager loader = createBulkLoad();
+        try {
+            loader.addRow(session, new Object[] { "1", "first" });
+            loader.addRow(session, new Object[] { "1", "duplicate" });
+            loader.flushRows(session);
+            Assert.fail("Duplicate key must fail the load");
+        } catch (DBCException e) {
+            // expected
+        } finally {
+            loader.close();
+        }
+        Assert.assertEquals(0, countRows());
+        assertSettingsRestored();
+    }
+
+    @Test
+    public void testJournalIsKeptByDefault() throws Exception {
+        try (DBSDataBulkLoader.BulkLoadManager loader = createBulkLoad()) {
+            Assert.assertEquals("2", readPragma("synchronous"));
+            Assert.assertEquals("delete", readPragma("journal_mode"));
+            Assert.assertEquals(INDEX_SQL, readIndexSql());
+            loader.addRow(session, new Object[] { "1", "first" });
+            loader.finishBulkLoad(session);
+        }
+        Assert.assertEquals(1, countRows());
+        assertSettingsRestored();
+    }
+
+    private void assertSettingsRestored() throws SQLException {
+        Assert.assertTrue(connection.getAutoCommit());
+        Assert.assertEquals("2", readPragma("synchronous"));
+        Assert.assertEquals("delete", readPragma("journal_mode"));
+        Assert.assertEquals(INDEX_SQL, readIndexSql());
+    }
+
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoad() throws DBException {
+        return new SQLiteBulkLoader(dataSource).createBulkLoad(
+            session, table, attributes, Mockito.mock(DBCExecutionSource.class), 100, new HashMap<>());
+    }
+
+    private void setLoaderParameters(boolean fastJournal, boolean deferIndexes) {
+        Mockito.when(driver.getDriverParameter(SQLiteBulkLoader.PARAM_BULK_LOAD_FAST_JOURNAL)).thenReturn(fastJournal);
+        Mockito.when(driver.getDriverParameter(SQLiteBulkLoader.PARAM_BULK_LOAD_DEFER_INDEXES)).thenReturn(deferIndexes);
+    }
+
+    private String readPragma(String name) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("PRAGMA " + name)) {
+                Assert.assertTrue(resultSet.next());
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    private String readIndexSql() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT sql FROM sqlite_master WHERE type='index' AND name='ORDERS_NAME'")) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    private int countRows() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM ORDERS")) {
+                Assert.assertTrue(resultSet.next());
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static DBSAttributeBase makeAttribute(String name) {
+        DBSAttributeBase attribute = Mockito.mock(DBSAttributeBase.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.STRING);
+        Mockito.when(attribute.getTypeID()).thenReturn(Types.VARCHAR);
+        return attribute;
+    }
+}
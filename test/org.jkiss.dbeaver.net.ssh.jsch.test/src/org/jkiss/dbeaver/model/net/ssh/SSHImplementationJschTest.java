@@ -0,0 +1,209 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.common.session.helpers.AbstractSession;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.forward.AcceptAllForwardingFilter;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.dbeaver.model.net.DBWHandlerDescriptor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tunnels to the embedded SSH server which forwards connections to the local echo server.
+ * Shared session must multiplex port forwardings of all tunnels and be reconnected when it is broken.
+ */
+public class SSHImplementationJschTest {
+
+    private static final String USER = "dbeaver";
+    private static final String PASSWORD = "secret";
+    private static final long WAIT_TIMEOUT = 10000;
+
+    private SshServer sshServer;
+    private ServerSocket echoServer;
+    private final AtomicInteger createdSessions = new AtomicInteger();
+    private final List<SSHImplementationJsch> tunnels = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        echoServer = new ServerSocket(0);
+        Thread echoThread = new Thread(this::runEchoServer, "Echo server");
+        echoThread.setDaemon(true);
+        echoThread.start();
+
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("127.0.0.1");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        sshServer.setPasswordAuthenticator((username, password, session) -> USER.equals(username) && PASSWORD.equals(password));
+        sshServer.setForwardingFilter(AcceptAllForwardingFilter.INSTANCE);
+        sshServer.addSessionListener(new SessionListener() {
+            @Override
+            public void sessionCreated(Session session) {
+                createdSessions.incrementAndGet();
+            }
+        });
+        sshServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (SSHImplementationJsch tunnel : tunnels) {
+            tunnel.closeTunnel(new VoidProgressMonitor());
+        }
+        sshServer.stop(true);
+        echoServer.close();
+    }
+
+    @Test
+    public void testTunnelsShareSession() throws Exception {
+        int firstPort = openTunnel(true);
+        int secondPort = openTunnel(true);
+        assertEcho(firstPort);
+        assertEcho(secondPort);
+        Assert.assertEquals(1, createdSessions.get());
+
+        // The other tunnel keeps the session
+        tunnels.remove(0).closeTunnel(new VoidProgressMonitor());
+        assertEcho(secondPort);
+        Assert.assertEquals(1, sshServer.getActiveSessions().size());
+
+        // The last tunnel disconnects it
+        tunnels.remove(0).closeTunnel(new VoidProgressMonitor());
+        waitFor(() -> sshServer.getActiveSessions().isEmpty());
+    }
+
+    @Test
+    public void testSessionIsNotSharedByDefault() throws Exception {
+        int firstPort = openTunnel(false);
+        int secondPort = openTunnel(false);
+        assertEcho(firstPort);
+        assertEcho(secondPort);
+        Assert.assertEquals(2, createdSessions.get());
+    }
+
+    @Test
+    public void testBrokenSessionIsReconnected() throws Exception {
+        int firstPort = openTunnel(true);
+        assertEcho(firstPort);
+
+        for (AbstractSession session : sshServer.getActiveSessions()) {
+            session.close(true);
+        }
+        // Port forwarding is closed together with the broken session
+        waitFor(() -> !canConnect(firstPort));
+
+        // Next tunnel reconnects the session and restores port forwarding of the first one
+        int secondPort = openTunnel(true);
+        assertEcho(secondPort);
+        assertEcho(firstPort);
+        Assert.assertEquals(2, createdSessions.get());
+        Assert.assertEquals(1, sshServer.getActiveSessions().size());
+    }
+
+    /**
+     * Opens tunnel to the echo server and returns its local port
+     */
+    private int openTunnel(boolean shareSession) throws Exception {
+        DBWHandlerConfiguration configuration = new DBWHandlerConfiguration(Mockito.mock(DBWHandlerDescriptor.class), null);
+        configuration.setUserName(USER);
+        configuration.setPassword(PASSWORD);
+        configuration.setProperty(DBWHandlerConfiguration.PROP_HOST, "127.0.0.1");
+        configuration.setProperty(DBWHandlerConfiguration.PROP_PORT, sshServer.getPort());
+        configuration.setProperty(SSHConstants.PROP_AUTH_TYPE, SSHConstants.AuthType.PASSWORD.name());
+        configuration.setProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION, true);
+        configuration.setProperty(SSHConstants.PROP_CONNECT_TIMEOUT, SSHConstants.DEFAULT_CONNECT_TIMEOUT);
+        configuration.setProperty(SSHConstants.PROP_REMOTE_PORT, echoServer.getLocalPort());
+        configuration.setProperty(SSHConstants.PROP_SHARE_SESSION, shareSession);
+
+        DBPConnectionConfiguration connectionInfo = new DBPConnectionConfiguration();
+        connectionInfo.setHostName("127.0.0.1");
+        connectionInfo.setHostPort(String.valueOf(echoServer.getLocalPort()));
+
+        SSHImplementationJsch tunnel = new SSHImplementationJsch();
+        DBPConnectionConfiguration tunnelInfo = tunnel.initTunnel(new VoidProgressMonitor(), configuration, connectionInfo);
+        tunnels.add(tunnel);
+        return Integer.parseInt(tunnelInfo.getHostPort());
+    }
+
+    private static void assertEcho(int port) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setSoTimeout((int) WAIT_TIMEOUT);
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            writer.write("ping " + port + "\n");
+            writer.flush();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Assert.assertEquals("ping " + port, reader.readLine());
+        }
+    }
+
+    private static boolean canConnect(int port) {
+        try (Socket ignored = new Socket("127.0.0.1", port)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail("Timeout waiting for the tunnel state");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private void runEchoServer() {
+        while (!echoServer.isClosed()) {
+            final Socket socket;
+            try {
+                socket = echoServer.accept();
+            } catch (IOException e) {
+                return;
+            }
+            Thread connectionThread = new Thread(() -> {
+                try (socket) {
+                    socket.getInputStream().transferTo(socket.getOutputStream());
+                } catch (IOException e) {
+                    // connection closed
+                }
+            }, "Echo connection");
+            connectionThread.setDaemon(true);
+            connectionThread.start();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.parser.common.test;
+
+import org.jkiss.dbeaver.parser.common.ParseResult;
+import org.jkiss.dbeaver.parser.common.ParseTextEdit;
+import org.jkiss.dbeaver.parser.common.ParseTreeNode;
+import org.jkiss.dbeaver.parser.common.Parser;
+import org.jkiss.dbeaver.parser.common.ParserFactory;
+import org.jkiss.dbeaver.parser.common.grammar.GrammarInfo;
+import org.jkiss.dbeaver.parser.common.grammar.GrammarInfoBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.jkiss.dbeaver.parser.common.grammar.ExpressionFactory.*;
+
+/**
+ * Parsing and reparsing of SQL scripts with a simplified SQL grammar.
+ * Performance is measured by ParserBenchmark of the benchmarks bundle.
+ */
+public class ParserScriptTest {
+
+    static GrammarInfo makeSqlGrammar(String startRule) {
+        GrammarInfoBuilder gb = new GrammarInfoBuilder("sql");
+        gb.setUseSkipRule(false);
+        gb.setRule("sp", regex("([\\s]+|--[^\\n]*)*"));
+        gb.setSkipRuleName("sp");
+        gb.setUseSkipRule(true);
+
+        if (startRule.equals("script")) {
+            gb.setRule("script", seq(call("stmt"), zeroOrMore(";", call("stmt")), optional(";")));
+        }
+        gb.setRule("stmt", alt(call("select"), call("insert"), call("update"), call("delete")));
+
+        gb.setRule("select", seq(
+            "select", optional("distinct"), call("select_list"),
+            "from", call("table_ref"), zeroOrMore(call("join")),
+            optional("where", call("expr")),
+            optional("group", "by", call("expr_list"), optional("having", call("expr"))),
+            optional("order", "by", call("order_list")),
+            optional("limit", call("number"))
+        ));
+        gb.setRule("select_list", alt("*", seq(call("select_item"), zeroOrMore(",", call("select_item")))));
+        gb.setRule("select_item", seq(call("expr"), optional(optional("as"), call("name"))));
+        gb.setRule("table_ref", seq(call("qualified_name"), optional(optional("as"), call("name"))));
+        gb.setRule("join", seq(
+            optional(alt("inner", seq(alt("left", "right", "full"), optional("outer")))),
+            "join", call("table_ref"), "on", call("expr")
+        ));
+        gb.setRule("order_list", seq(call("order_item"), zeroOrMore(",", call("order_item"))));
+        gb.setRule("order_item", seq(call("expr"), optional(alt("asc", "desc"))));
+
+        gb.setRule("insert", seq(
+            "insert", "into", call("qualified_name"), "(", call("name_list"), ")",
+            "values", call("row"), zeroOrMore(",", call("row"))
+        ));
+        gb.setRule("row", seq("(", call("expr_list"), ")"));
+        gb.setRule("update", seq(
+            "update", call("qualified_name"), "set", call("assignment"), zeroOrMore(",", call("assignment")),
+            optional("where", call("expr"))
+        ));
+        gb.setRule("assignment", seq(call("name"), "=", call("expr")));
+        gb.setRule("delete", seq("delete", "from", call("qualified_name"), optional("where", call("expr"))));
+
+        gb.setRule("name_list", seq(call("name"), zeroOrMore(",", call("name"))));
+        gb.setRule("expr_list", seq(call("expr"), zeroOrMore(",", call("expr"))));
+        gb.setRule("expr", seq(optional("not"), call("operand"), zeroOrMore(call("operator"), optional("not"), call("operand"))));
+        gb.setRule("operator", alt("+", "-", "*", "/", "||", "=", "<>", "<=", ">=", "<", ">", "and", "or", "like"));
+        gb.setRule("operand", alt(
+            call("number"), call("string"), "null",
+            seq("(", call("expr"), ")"),
+            seq(call("name"), "(", optional(call("expr_list")), ")"),
+            call("qualified_name")
+        ));
+        gb.setRule("qualified_name", seq(call("name"), zeroOrMore(".", call("name"))));
+        gb.setRule("name", alt(regex("[a-z_][a-z_0-9$]*"), regex("\"[^\"]+\"")));
+        gb.setRule("number", regex("[0-9]+(\\.[0-9]+)?"));
+        gb.setRule("string", regex("'([^']|'')*'"));
+
+        gb.setStartRuleName(startRule);
+        return gb.buildGrammarInfo();
+    }
+
+    static String makeSqlScript(int statementsCount) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < statementsCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    script.append("SELECT o.id, o.amount * 1.5 AS total, \"Customer Name\", upper(c.name)\n")
+                        .append("  FROM sales.orders o\n")
+                        .append("  LEFT OUTER JOIN sales.customers c ON c.id = o.customer_id\n")
+                        .append("  WHERE o.amount >= ").append(i).append(" AND c.name LIKE 'A%' -- filter\n")
+                        .append("  ORDER BY total DESC LIMIT 10;\n");
+                    break;
+                case 1:
+                    script.append("insert into audit_log (id, message, created) values (")
+                        .append(i).append(", 'it''s row ").append(i).append("', now()), (")
+                        .append(i + 1).append(", null, now());\n");
+                    break;
+                case 2:
+                    script.append("UPDATE inventory SET quantity = quantity - ").append(i % 7)
+                        .append(", updated_by = 'batch' WHERE item_id = ").append(i).append(";\n");
+                    break;
+                default:
+                    script.append("delete from temp_data where created < ").append(i).append(" or status = 'obsolete';\n");
+                    break;
+            }
+        }
+        return script.toString();
+    }
+
+    @Test
+    public void parseScript() {
+        Parser parser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        Assert.assertTrue(parser.parse(makeSqlScript(8)).isSuccess());
+        Assert.assertFalse(parser.parse("select from orders").isSuccess());
+        Assert.assertFalse(parser.parse("select 'unterminated from orders").isSuccess());
+    }
+
+    @Test
+    public void parseLongScript() {
+        // ambiguous parts of every statement must not multiply the alternatives of the whole script
+        Parser parser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        String script = makeSqlScript(300);
+        ParseResult result = parser.parse(script);
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(1, result.getTrees(false).size());
+        Assert.assertEquals(300, result.getTrees(false).get(0).stream().filter(
+            n -> n.getRule() != null && n.getRule().getName().equals("stmt")
+        ).count());
+    }
+
+    @Test
+    public void reparseScript() {
+        Parser parser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        String text = makeUnambiguousSqlScript(40);
+        ParseTreeNode tree = parser.parse(text).getTrees(false).get(0);
+        List<Integer> numberEnds = findNumberEnds(text);
+        // going backwards, so the edits don't move the positions yet to be edited
+        for (int i = numberEnds.size() - 1; i >= 0; i--) {
+            // typing a digit and a whitespace after the number
+            ParseTextEdit[] edits = {
+                new ParseTextEdit(numberEnds.get(i), 0, "1"),
+                new ParseTextEdit(numberEnds.get(i) + 1, 0, " ")
+            };
+            for (ParseTextEdit edit : edits) {
+                String newText = edit.apply(text);
+                Assert.assertSame(tree, parser.reparse(tree, text, edit, newText, false));
+                Assert.assertEquals(collectTerms(parser.parse(newText).getTrees(false).get(0), newText), collectTerms(tree, newText));
+                text = newText;
+            }
+        }
+    }
+
+    @Test
+    public void reparseCommentAtTermBoundary() {
+        // "--" right after the term is dispatched as the "-" operator, so the comment is not a whitespace edit there
+        assertReparsedAsParsed("delete from t where status = 'x'", " =", "--c\n");
+        assertReparsedAsParsed("select a from sales.orders", ".", "--c\n");
+        // the same comment after the whitespace is still just a whitespace edit
+        String text = "delete from t where status = 'x'";
+        ParseTextEdit edit = new ParseTextEdit(text.indexOf(" =") + 1, 0, "--c\n");
+        Parser parser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        ParseTreeNode tree = parser.parse(text).getTrees(false).get(0);
+        String newText = edit.apply(text);
+        Assert.assertSame(tree, parser.reparse(tree, text, edit, newText, false));
+        Assert.assertEquals(collectTerms(parser.parse(newText).getTrees(false).get(0), newText), collectTerms(tree, newText));
+    }
+
+    private static void assertReparsedAsParsed(String text, String insertBefore, String insertion) {
+        Parser parser = ParserFactory.getFactory(makeSqlGrammar("script")).createParser();
+        ParseTreeNode tree = parser.parse(text).getTrees(false).get(0);
+        ParseTextEdit edit = new ParseTextEdit(text.indexOf(insertBefore), 0, insertion);
+        String newText = edit.apply(text);
+        ParseTreeNode reparsed = parser.reparse(tree, text, edit, newText, false);
+        List<ParseTreeNode> trees = parser.parse(newText).getTrees(false);
+        if (trees.isEmpty()) {
+            Assert.assertNull(reparsed);
+        } else {
+            Assert.assertNotNull(reparsed);
+            Assert.assertEquals(collectTerms(trees.get(0), newText), collectTerms(reparsed, newText));
+        }
+    }
+
+    private static String makeUnambiguousSqlScript(int statementsCount) {
+        // null is both the keyword and the name in the test grammar, so the reparsed fragment would have several trees
+        return makeSqlScript(statementsCount).replace("null", "0");
+    }
+
+    private static List<Integer> findNumberEnds(String text) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 1; i < text.length(); i++) {
+            if (Character.isDigit(text.charAt(i - 1)) && !Character.isLetterOrDigit(text.charAt(i)) && text.charAt(i) != '.' && text.charAt(i) != '\'') {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> collectTerms(ParseTreeNode tree, String text) {
+        return tree.stream().filter(n -> n.getRule() == null && n.getChildren().isEmpty())
+            .map(n -> n.getPosition() + ":" + n.getContent(text)).sorted().collect(Collectors.toList());
+    }
+}
@@ -237,6 +237,32 @@ public class ParserTest {
         Assert.assertEquals(expectedTree.collectString(), tree.get(0).collectString());
     }
     
+    @Test
+    public void reparseExpressions() {
+        GrammarCtx c = new GrammarCtx(true);
+        Parser p = ParserFactory.getFactory(c.grammar).createParser();
+
+        String text = "(1 + 2 + (3 * 4     / 5)) +     6 + 7";
+        ParseTreeNode tree = p.parse(text).getTrees(false).get(0);
+        ParseTextEdit[] edits = {
+            new ParseTextEdit(15, 0, "2"), // (1 + 2 + (3 * 42     / 5)) +     6 + 7
+            new ParseTextEdit(18, 3, ""), // (1 + 2 + (3 * 42  / 5)) +     6 + 7
+            new ParseTextEdit(5, 1, "(8 - 9)"), // (1 + (8 - 9) + (3 * 42  / 5)) +     6 + 7
+            new ParseTextEdit(0, 0, "  "), //   (1 + (8 - 9) + (3 * 42  / 5)) +     6 + 7
+            new ParseTextEdit(39, 0, "0 "), //   (1 + (8 - 9) + (3 * 42  / 5)) +     60  + 7
+        };
+        for (ParseTextEdit edit : edits) {
+            String newText = edit.apply(text);
+            Assert.assertSame(tree, p.reparse(tree, text, edit, newText, false));
+            Assert.assertEquals(p.parse(newText).getTrees(false).get(0).collectString(newText), tree.collectString(newText));
+            text = newText;
+        }
+
+        // the rest of the text is not valid anymore
+        ParseTextEdit edit = new ParseTextEdit(text.length() - 1, 1, "+");
+        Assert.assertNull(p.reparse(tree, text, edit, edit.apply(text), false));
+    }
+
     @Test
     public void parseWords() {
         GrammarInfoBuilder gb = new GrammarInfoBuilder("stmt");
@@ -319,4 +345,44 @@ public class ParserTest {
         Assert.assertTrue(p.parse("Enum8('hello' = 1, 'world' = 2)").isSuccess());
         
     }
+
+    @Test
+    public void parseCaseInsensitiveTerms() {
+        final var gb = new GrammarInfoBuilder("Type");
+        gb.setRule("sp", regex("[\\s]*"));
+        gb.setSkipRuleName("sp");
+        gb.setUseSkipRule(true);
+
+        gb.setRule("name", regex("[A-Z_][A-Z_0-9]*"));
+        gb.setRule("length", regex("[1-9][0-9]{0,2}"));
+        gb.setRule("type", seq(call("name"), optional("(", call("length"), ")"), optional("not", "null")));
+        gb.setStartRuleName("type");
+
+        Parser p = ParserFactory.getFactory(gb.buildGrammarInfo()).createParser();
+
+        Assert.assertTrue(p.parse("varchar(100) NOT NULL").isSuccess());
+        Assert.assertTrue(p.parse("Int not Null").isSuccess());
+        Assert.assertTrue(p.parse("int").isSuccess());
+        Assert.assertFalse(p.parse("varchar(1000)").isSuccess());
+        Assert.assertFalse(p.parse("varchar(0)").isSuccess());
+        Assert.assertFalse(p.parse("int notnull").isSuccess());
+    }
+
+    @Test
+    public void parseWithRegexOnlyTerms() {
+        // lookahead can't be compiled into the lexer automaton and is matched separately
+        final var gb = new GrammarInfoBuilder("List");
+        gb.setCaseSensitiveTerms(true);
+        gb.setRule("last", regex("[a-z]+(?=\\.)"));
+        gb.setRule("item", regex("[0-9]+"));
+        gb.setRule("list", seq(zeroOrMore(call("item"), ","), call("last"), "."));
+        gb.setStartRuleName("list");
+
+        Parser p = ParserFactory.getFactory(gb.buildGrammarInfo()).createParser();
+
+        Assert.assertTrue(p.parse("1,23,abc.").isSuccess());
+        Assert.assertTrue(p.parse("a.").isSuccess());
+        Assert.assertFalse(p.parse("1,23,abc").isSuccess());
+        Assert.assertFalse(p.parse("1,abc,def.").isSuccess());
+    }
 }
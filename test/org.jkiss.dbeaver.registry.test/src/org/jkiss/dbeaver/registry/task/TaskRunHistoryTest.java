@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class TaskRunHistoryTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path statsFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        statsFolder = tempFolder.newFolder("stats").toPath();
+    }
+
+    @Test
+    public void testAppendAndReload() {
+        TaskRunHistory history = createHistory();
+        TaskRunImpl run1 = createRun("run1");
+        TaskRunImpl run2 = createRun("run2");
+        TaskRunImpl run3 = createRun("run3");
+        history.addRun(run1);
+        history.addRun(run2);
+        history.addRun(run3);
+        run2.setRunDuration(500);
+        history.updateRun(run2);
+        history.removeRun(run3);
+
+        Assert.assertTrue(Files.exists(statsFolder.resolve(TaskRunHistory.JOURNAL_FILE_NAME)));
+        Assert.assertFalse(Files.exists(statsFolder.resolve(TaskRunHistory.META_FILE_NAME)));
+
+        TaskRunHistory reloaded = createHistory();
+        Assert.assertEquals(List.of("run1", "run2"), getRunIds(reloaded));
+        Assert.assertEquals(500, reloaded.getRuns().get(1).getRunDuration());
+        Assert.assertEquals("run2", reloaded.getLastRun().getId());
+    }
+
+    @Test
+    public void testInvalidateReadsRunsOfOtherProcess() {
+        TaskRunHistory history = createHistory();
+        history.addRun(createRun("run1"));
+
+        TaskRunHistory otherProcess = createHistory();
+        otherProcess.addRun(createRun("run2"));
+
+        Assert.assertEquals(List.of("run1"), getRunIds(history));
+        history.invalidate();
+        Assert.assertEquals(List.of("run1", "run2"), getRunIds(history));
+    }
+
+    @Test
+    public void testCompactionKeepsRunsOfOtherProcess() {
+        TaskRunHistory history = createHistory();
+        TaskRunImpl run1 = createRun("run1");
+        history.addRun(run1);
+
+        // Appended to the journal after history was read
+        TaskRunHistory otherProcess = createHistory();
+        otherProcess.addRun(createRun("run2"));
+
+        // Updates fill the journal and trigger compaction
+        Path journalFile = statsFolder.resolve(TaskRunHistory.JOURNAL_FILE_NAME);
+        for (int i = 1; Files.exists(journalFile); i++) {
+            Assert.assertTrue("Journal is not compacted", i < 1000);
+            run1.setRunDuration(i);
+            history.updateRun(run1);
+        }
+        Assert.assertTrue(Files.exists(statsFolder.resolve(TaskRunHistory.META_FILE_NAME)));
+
+        Assert.assertEquals(List.of("run1", "run2"), getRunIds(history));
+        TaskRunHistory reloaded = createHistory();
+        Assert.assertEquals(List.of("run1", "run2"), getRunIds(reloaded));
+        Assert.assertEquals(run1.getRunDuration(), reloaded.getRuns().get(0).getRunDuration());
+
+        // Journal is appended after the snapshot
+        history.addRun(createRun("run3"));
+        Assert.assertEquals(List.of("run1", "run2", "run3"), getRunIds(createHistory()));
+    }
+
+    @Test
+    public void testClear() {
+        TaskRunHistory history = createHistory();
+        history.addRun(createRun("run1"));
+        history.addRun(createRun("run2"));
+        history.clear();
+
+        Assert.assertTrue(history.getRuns().isEmpty());
+        Assert.assertFalse(Files.exists(statsFolder.resolve(TaskRunHistory.JOURNAL_FILE_NAME)));
+        Assert.assertTrue(createHistory().getRuns().isEmpty());
+        Assert.assertNull(createHistory().getLastRun());
+    }
+
+    @Test
+    public void testBrokenJournalRecordIsSkipped() throws IOException {
+        TaskRunHistory history = createHistory();
+        history.addRun(createRun("run1"));
+        try (Writer writer = Files.newBufferedWriter(
+            statsFolder.resolve(TaskRunHistory.JOURNAL_FILE_NAME), StandardCharsets.UTF_8, StandardOpenOption.APPEND))
+        {
+            // Record which was not written completely
+            writer.write("{\"action\":\"add\",\"run\":{\"id\":\"run");
+        }
+        Assert.assertEquals(List.of("run1"), getRunIds(createHistory()));
+    }
+
+    private TaskRunHistory createHistory() {
+        return new TaskRunHistory(create -> statsFolder);
+    }
+
+    private static TaskRunImpl createRun(String id) {
+        return new TaskRunImpl(id, new Date(), "user", "test", 0, null, null);
+    }
+
+    private static List<String> getRunIds(TaskRunHistory history) {
+        List<String> ids = new ArrayList<>();
+        for (TaskRunImpl run : history.getRuns()) {
+            ids.add(run.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Composite objects read by the composite loader from rows of a query which reads objects of several owners.
+ * Caches must not query the database after the loader filled them.
+ */
+public class JDBCCompositeCacheTest {
+
+    private final DBRProgressMonitor monitor = new VoidProgressMonitor();
+    private final Map<String, String> currentRow = new HashMap<>();
+    private JDBCSession session;
+    private JDBCResultSet resultSet;
+
+    private TestObject schema;
+    private TestObject table1;
+    private TestObject table2;
+    private TestObject table3;
+    private IndexCache indexCache;
+
+    @Before
+    public void setUp() throws Exception {
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        resultSet = Mockito.mock(JDBCResultSet.class);
+        Mockito.when(resultSet.getString(Mockito.anyString())).thenAnswer(invocation -> currentRow.get(invocation.<String>getArgument(0)));
+
+        schema = new TestObject("SCHEMA", null);
+        table1 = new TestObject("T1", schema);
+        table2 = new TestObject("T2", schema);
+        table3 = new TestObject("T3", schema);
+        indexCache = new IndexCache(makeTableCache(table1, table2, table3));
+    }
+
+    @Test
+    public void testLoaderCachesObjectsOfAllParents() throws Exception {
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader loader = indexCache.createLoader(schema);
+        readRows(loader,
+            new String[] {"T1", "IDX_A", "C1"},
+            new String[] {"T1", "IDX_A", "C2"},
+            new String[] {"T2", "IDX_B", "C3"},
+            new String[] {"T2", "IDX_C", "C4"});
+        loader.cacheObjects(monitor);
+        loader.cacheObjectReferences(monitor);
+
+        Assert.assertTrue(indexCache.isFullyCached());
+        Assert.assertEquals(3, indexCache.getCachedObjects().size());
+        Assert.assertEquals(List.of("IDX_A"), getNames(indexCache.getCachedObjects(table1)));
+        Assert.assertEquals(List.of("IDX_B", "IDX_C"), getNames(indexCache.getCachedObjects(table2)));
+        Assert.assertEquals(List.of("C1", "C2"), getNames(indexCache.getCachedObjects(table1).get(0).columns));
+        // Table without indexes is cached too
+        Assert.assertEquals(Collections.emptyList(), indexCache.getCachedObjects(table3));
+
+        // Served from cache, index query would fail
+        Assert.assertEquals(List.of("IDX_B", "IDX_C"), getNames(indexCache.getObjects(monitor, schema, table2)));
+        Assert.assertNotNull(indexCache.getObject(monitor, schema, "IDX_C"));
+    }
+
+    @Test
+    public void testEmptyResultMarksOwnerCached() throws Exception {
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader loader = indexCache.createLoader(schema);
+        loader.cacheObjects(monitor);
+        loader.cacheObjectReferences(monitor);
+
+        Assert.assertTrue(indexCache.isFullyCached());
+        Assert.assertEquals(Collections.emptyList(), indexCache.getAllObjects(monitor, schema));
+        Assert.assertEquals(Collections.emptyList(), indexCache.getObjects(monitor, schema, table1));
+    }
+
+    @Test
+    public void testBrokenObjectIsNotCached() throws Exception {
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader loader = indexCache.createLoader(schema);
+        readRows(loader,
+            new String[] {"T1", "IDX_A", "C1"},
+            new String[] {"T1", "IDX_A", null},
+            new String[] {"T1", "IDX_B", "C2"},
+            new String[] {"T_UNKNOWN", "IDX_C", "C3"});
+        loader.cacheObjects(monitor);
+
+        Assert.assertEquals(List.of("IDX_B"), getNames(indexCache.getCachedObjects()));
+    }
+
+    @Test
+    public void testCachedParentIsKept() throws Exception {
+        TestIndex cachedIndex = new TestIndex("IDX_CACHED", table1);
+        indexCache.cacheObject(cachedIndex);
+
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader loader = indexCache.createLoader(schema);
+        readRows(loader,
+            new String[] {"T1", "IDX_A", "C1"},
+            new String[] {"T2", "IDX_B", "C2"});
+        loader.cacheObjects(monitor);
+
+        Assert.assertEquals(List.of(cachedIndex), indexCache.getCachedObjects(table1));
+        Assert.assertEquals(List.of("IDX_B"), getNames(indexCache.getCachedObjects(table2)));
+        Assert.assertEquals(Set.of("IDX_CACHED", "IDX_B"), new HashSet<>(getNames(indexCache.getCachedObjects())));
+    }
+
+    @Test
+    public void testReferencesAreCachedAfterObjectsOfAllLoaders() throws Exception {
+        // Foreign key of the first schema refers to the unique key of the second one
+        TestObject refSchema = new TestObject("REF_SCHEMA", null);
+        TestObject refTable = new TestObject("REF_TABLE", refSchema);
+        IndexCache keyCache = new IndexCache(makeTableCache(refTable));
+        ForeignKeyCache foreignKeyCache = new ForeignKeyCache(makeTableCache(table1), keyCache, refTable);
+
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader foreignKeyLoader = foreignKeyCache.createLoader(schema);
+        JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader keyLoader = keyCache.createLoader(refSchema);
+        readRows(foreignKeyLoader, new String[] {"T1", "FK_REF", "REF_ID"});
+        readRows(keyLoader, new String[] {"REF_TABLE", "PK_REF", "ID"});
+
+        foreignKeyLoader.cacheObjects(monitor);
+        keyLoader.cacheObjects(monitor);
+        TestIndex foreignKey = foreignKeyCache.getCachedObjects(table1).get(0);
+        Assert.assertEquals(List.of("REF_ID"), getNames(foreignKey.columns));
+        Assert.assertNull(foreignKey.referencedKeys);
+
+        foreignKeyLoader.cacheObjectReferences(monitor);
+        keyLoader.cacheObjectReferences(monitor);
+        Assert.assertEquals(List.of("PK_REF"), getNames(foreignKey.referencedKeys));
+    }
+
+    private void readRows(
+        @NotNull JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject>.CompositeLoader loader,
+        @NotNull String[]... rows) throws Exception
+    {
+        for (String[] row : rows) {
+            currentRow.clear();
+            currentRow.put("TABLE_NAME", row[0]);
+            currentRow.put("INDEX_NAME", row[1]);
+            currentRow.put("COLUMN_NAME", row[2]);
+            loader.readRow(session, resultSet);
+        }
+    }
+
+    private static List<String> getNames(@Nullable List<? extends DBSObject> objects) {
+        Assert.assertNotNull(objects);
+        return objects.stream().map(DBSObject::getName).collect(Collectors.toList());
+    }
+
+    private static TableCache makeTableCache(TestObject... tables) {
+        TableCache tableCache = new TableCache();
+        tableCache.setCache(new ArrayList<>(Arrays.asList(tables)));
+        return tableCache;
+    }
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+        private final DBSObject parent;
+
+        TestObject(String name, DBSObject parent) {
+            this.name = name;
+            this.parent = parent;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public DBSObject getParentObject() {
+            return parent;
+        }
+
+        @Nullable
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class TestIndex extends TestObject {
+        private final List<TestObject> columns = new ArrayList<>();
+        private List<TestIndex> referencedKeys;
+
+        TestIndex(String name, DBSObject parent) {
+            super(name, parent);
+        }
+    }
+
+    /**
+     * Tables are cached by test, so the cache never reads them
+     */
+    private static class TableCache extends JDBCStructCache<TestObject, TestObject, TestObject> {
+        TableCache() {
+            super("TABLE_NAME");
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareObjectsStatement(@NotNull JDBCSession session, @NotNull TestObject owner) {
+            throw new AssertionError("Tables must be read from cache");
+        }
+
+        @Nullable
+        @Override
+        protected TestObject fetchObject(@NotNull JDBCSession session, @NotNull TestObject owner, @NotNull JDBCResultSet resultSet) {
+            throw new AssertionError("Tables must be read from cache");
+        }
+
+        @Override
+        protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull TestObject owner, @Nullable TestObject forObject) {
+            throw new AssertionError("Columns must not be read");
+        }
+
+        @Override
+        protected TestObject fetchChild(@NotNull JDBCSession session, @NotNull TestObject owner, @NotNull TestObject parent, @NotNull JDBCResultSet dbResult) {
+            throw new AssertionError("Columns must not be read");
+        }
+    }
+
+    private static class IndexCache extends JDBCCompositeCache<TestObject, TestObject, TestIndex, TestObject> {
+        IndexCache(JDBCStructCache<TestObject, ?, ?> tableCache) {
+            super(tableCache, TestObject.class, "TABLE_NAME", "INDEX_NAME");
+        }
+
+        @NotNull
+        @Override
+        protected JDBCStatement prepareObjectsStatement(JDBCSession session, TestObject owner, TestObject forParent) {
+            throw new AssertionError("Indexes must be read by loader");
+        }
+
+        @Nullable
+        @Override
+        protected TestIndex fetchObject(JDBCSession session, TestObject owner, TestObject parent, String childName, JDBCResultSet resultSet) {
+            return new TestIndex(childName, parent);
+        }
+
+        @Nullable
+        @Override
+        protected TestObject[] fetchObjectRow(JDBCSession session, TestObject parent, TestIndex forObject, JDBCResultSet resultSet) {
+            String columnName = JDBCUtils.safeGetString(resultSet, "COLUMN_NAME");
+            return columnName == null ? null : new TestObject[] { new TestObject(columnName, parent) };
+        }
+
+        @Override
+        protected void cacheChildren(DBRProgressMonitor monitor, TestIndex object, List<TestObject> children) {
+            object.columns.addAll(children);
+        }
+    }
+
+    private static class ForeignKeyCache extends IndexCache {
+        private final IndexCache referencedCache;
+        private final TestObject referencedTable;
+
+        ForeignKeyCache(JDBCStructCache<TestObject, ?, ?> tableCache, IndexCache referencedCache, TestObject referencedTable) {
+            super(tableCache);
+            this.referencedCache = referencedCache;
+            this.referencedTable = referencedTable;
+        }
+
+        @Override
+        protected void cacheChildren2(DBRProgressMonitor monitor, TestIndex object, List<TestObject> children) {
+            object.referencedKeys = referencedCache.getCachedObjects(referencedTable);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.dbeaver.model.net.DBWHandlerDescriptor;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHAuthConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHHostConfiguration;
+import org.jkiss.dbeaver.model.net.ssh.config.SSHPortForwardConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SSHSessionPoolTest {
+
+    private static class TestSession {
+        private boolean alive = true;
+        private boolean closed;
+        private final List<SSHPortForwardConfiguration> portForwards = new ArrayList<>();
+    }
+
+    private static class TestController implements SSHSessionPool.SessionController<TestSession> {
+        private int opened;
+
+        @NotNull
+        @Override
+        public TestSession openSession() {
+            opened++;
+            return new TestSession();
+        }
+
+        @Override
+        public boolean isSessionAlive(@NotNull TestSession session) {
+            return session.alive;
+        }
+
+        @Override
+        public void closeSession(@NotNull TestSession session) {
+            session.closed = true;
+        }
+
+        @Override
+        public void addPortForward(@NotNull TestSession session, @NotNull SSHPortForwardConfiguration portForward) {
+            session.portForwards.add(portForward);
+        }
+
+        @Override
+        public void removePortForward(@NotNull TestSession session, @NotNull SSHPortForwardConfiguration portForward) {
+            session.portForwards.remove(portForward);
+        }
+    }
+
+    private static SSHPortForwardConfiguration makePortForward(int localPort) {
+        return new SSHPortForwardConfiguration("127.0.0.1", localPort, "db", 5432);
+    }
+
+    private static DBWHandlerConfiguration makeConfiguration() {
+        return new DBWHandlerConfiguration(Mockito.mock(DBWHandlerDescriptor.class), null);
+    }
+
+    @Test
+    public void testSessionIsShared() throws DBException {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>();
+        TestController controller1 = new TestController();
+        TestController controller2 = new TestController();
+        SSHPortForwardConfiguration forward1 = makePortForward(10001);
+        SSHPortForwardConfiguration forward2 = makePortForward(10002);
+
+        TestSession first = pool.acquire("host", controller1, forward1);
+        TestSession second = pool.acquire("host", controller2, forward2);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, controller1.opened);
+        Assert.assertEquals(0, controller2.opened);
+        Assert.assertEquals(List.of(forward1, forward2), first.portForwards);
+        Assert.assertEquals(2, pool.getReferenceCount("host"));
+
+        pool.release("host", controller1);
+        Assert.assertFalse(first.closed);
+        Assert.assertEquals(List.of(forward2), first.portForwards);
+        pool.release("host", controller2);
+        Assert.assertTrue(first.closed);
+        Assert.assertTrue(first.portForwards.isEmpty());
+        Assert.assertEquals(0, pool.getReferenceCount("host"));
+    }
+
+    @Test
+    public void testDifferentKeys() throws DBException {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>();
+        TestController controller = new TestController();
+
+        Assert.assertNotSame(
+            pool.acquire("host1", controller, makePortForward(10001)),
+            pool.acquire("host2", controller, makePortForward(10002)));
+        Assert.assertEquals(2, controller.opened);
+    }
+
+    @Test
+    public void testBrokenSessionReconnect() throws DBException {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>();
+        TestController controller1 = new TestController();
+        TestController controller2 = new TestController();
+        SSHPortForwardConfiguration forward1 = makePortForward(10001);
+        SSHPortForwardConfiguration forward2 = makePortForward(10002);
+
+        TestSession first = pool.acquire("host", controller1, forward1);
+        first.alive = false;
+        TestSession second = pool.acquire("host", controller2, forward2);
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(first.closed);
+        // Port forwarding of the first tunnel is restored on the new session
+        Assert.assertEquals(List.of(forward1, forward2), second.portForwards);
+        Assert.assertEquals(2, pool.getReferenceCount("host"));
+    }
+
+    @Test
+    public void testOpenFailureReleasesReference() {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>();
+        SSHSessionPool.SessionController<TestSession> controller = new TestController() {
+            @NotNull
+            @Override
+            public TestSession openSession() {
+                throw new IllegalStateException("Connection refused");
+            }
+        };
+        Assert.assertThrows(IllegalStateException.class, () -> pool.acquire("host", controller, makePortForward(10001)));
+        Assert.assertEquals(0, pool.getReferenceCount("host"));
+    }
+
+    @Test
+    public void testPortForwardFailureClosesSession() {
+        SSHSessionPool<TestSession> pool = new SSHSessionPool<>();
+        List<TestSession> sessions = new ArrayList<>();
+        SSHSessionPool.SessionController<TestSession> controller = new TestController() {
+            @NotNull
+            @Override
+            public TestSession openSession() {
+                TestSession session = super.openSession();
+                sessions.add(session);
+                return session;
+            }
+
+            @Override
+            public void addPortForward(@NotNull TestSession session, @NotNull SSHPortForwardConfiguration portForward) {
+                throw new IllegalStateException("Address already in use");
+            }
+        };
+        Assert.assertThrows(IllegalStateException.class, () -> pool.acquire("host", controller, makePortForward(10001)));
+        Assert.assertEquals(0, pool.getReferenceCount("host"));
+        Assert.assertTrue(sessions.get(0).closed);
+    }
+
+    @Test
+    public void testSessionKey() {
+        SSHHostConfiguration host = new SSHHostConfiguration("user", "bastion", SSHAuthConfiguration.usingPassword("secret", true));
+        SSHHostConfiguration sameHost = new SSHHostConfiguration("user", "bastion", SSHAuthConfiguration.usingPassword("secret", false));
+        SSHHostConfiguration otherPassword = new SSHHostConfiguration("user", "bastion", SSHAuthConfiguration.usingPassword("other", true));
+        SSHHostConfiguration otherUser = new SSHHostConfiguration("admin", "bastion", SSHAuthConfiguration.usingPassword("secret", true));
+        DBWHandlerConfiguration configuration = makeConfiguration();
+
+        String key = SSHSessionPool.makeSessionKey(configuration, new SSHHostConfiguration[]{host});
+        Assert.assertEquals(key, SSHSessionPool.makeSessionKey(configuration, new SSHHostConfiguration[]{sameHost}));
+        Assert.assertNotEquals(key, SSHSessionPool.makeSessionKey(configuration, new SSHHostConfiguration[]{otherPassword}));
+        Assert.assertNotEquals(key, SSHSessionPool.makeSessionKey(configuration, new SSHHostConfiguration[]{otherUser}));
+        Assert.assertFalse(key.contains("secret"));
+    }
+
+    @Test
+    public void testSessionKeySettings() {
+        SSHHostConfiguration[] hosts = {
+            new SSHHostConfiguration("user", "bastion", SSHAuthConfiguration.usingPassword("secret", true))
+        };
+        DBWHandlerConfiguration configuration = makeConfiguration();
+        configuration.setProperty(SSHConstants.PROP_CONNECT_TIMEOUT, 10000);
+        configuration.setProperty(SSHConstants.PROP_LOCAL_PORT, 10001);
+        String key = SSHSessionPool.makeSessionKey(configuration, hosts);
+
+        // Port forwarding settings don't affect the session
+        DBWHandlerConfiguration otherForward = new DBWHandlerConfiguration(configuration);
+        otherForward.setProperty(SSHConstants.PROP_LOCAL_PORT, 10002);
+        otherForward.setProperty(SSHConstants.PROP_REMOTE_HOST, "db2");
+        Assert.assertEquals(key, SSHSessionPool.makeSessionKey(otherForward, hosts));
+
+        DBWHandlerConfiguration bypassVerification = new DBWHandlerConfiguration(configuration);
+        bypassVerification.setProperty(SSHConstants.PROP_BYPASS_HOST_VERIFICATION, true);
+        Assert.assertNotEquals(key, SSHSessionPool.makeSessionKey(bypassVerification, hosts));
+
+        DBWHandlerConfiguration otherTimeout = new DBWHandlerConfiguration(configuration);
+        otherTimeout.setProperty(SSHConstants.PROP_CONNECT_TIMEOUT, 20000);
+        Assert.assertNotEquals(key, SSHSessionPool.makeSessionKey(otherTimeout, hosts));
+
+        DBWHandlerConfiguration keepAlive = new DBWHandlerConfiguration(configuration);
+        keepAlive.setProperty(SSHConstants.PROP_ALIVE_INTERVAL, 30);
+        Assert.assertNotEquals(key, SSHSessionPool.makeSessionKey(keepAlive, hosts));
+    }
+}
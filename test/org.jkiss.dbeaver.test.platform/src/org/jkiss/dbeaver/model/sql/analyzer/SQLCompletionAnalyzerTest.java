@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.model.sql.analyzer;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.sql.analyzer.builder.request.RequestBuilder;
 import org.jkiss.dbeaver.model.sql.analyzer.builder.request.RequestResult;
+import org.jkiss.dbeaver.model.sql.completion.SQLCompletionAnalyzer;
 import org.jkiss.dbeaver.model.sql.completion.SQLCompletionProposalBase;
 import org.junit.Assert;
 import org.junit.Ignore;
@@ -241,6 +242,27 @@ public class SQLCompletionAnalyzerTest {
         }
     }
 
+    @Test
+    public void testManyTableNamesCompletion() throws DBException {
+        final int tableCount = SQLCompletionAnalyzer.MAX_CHILD_PROPOSALS + 500;
+        final RequestResult request = RequestBuilder
+            .tables(s -> {
+                for (int i = 0; i < tableCount; i++) {
+                    s.table(String.format("Tbl%05d", i), empty());
+                }
+            })
+            .prepare();
+
+        {
+            final List<SQLCompletionProposalBase> proposals = request.request("SELECT * FROM Tbl|");
+            Assert.assertEquals(SQLCompletionAnalyzer.MAX_CHILD_PROPOSALS, proposals.size());
+            Assert.assertEquals("Tbl00000", proposals.get(0).getReplacementString());
+            Assert.assertEquals(
+                String.format("Tbl%05d", SQLCompletionAnalyzer.MAX_CHILD_PROPOSALS - 1),
+                proposals.get(proposals.size() - 1).getReplacementString());
+        }
+    }
+
     @Test
     public void testSchemaTableNamesCompletion() throws DBException {
         final RequestResult request = RequestBuilder
@@ -0,0 +1,196 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPHiddenObject;
+import org.jkiss.dbeaver.model.DBPVirtualObject;
+import org.jkiss.dbeaver.model.impl.struct.RelationalObjectType;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBSObjectType;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class SQLIdentifierIndexTest {
+
+    @Test
+    public void testPrefixLookupKeepsChildrenOrder() {
+        List<DBSObject> children = createObjects("orders", "Order_Items", "customers", "ORDER_STATUS", "order");
+        SQLIdentifierIndex.ContainerIndex index = SQLIdentifierIndex.ContainerIndex.build(children);
+        Assert.assertNotNull(index);
+
+        Assert.assertEquals(
+            Arrays.asList("orders", "Order_Items", "ORDER_STATUS", "order"),
+            getNames(index.findObjects("ORDER")));
+        Assert.assertEquals(
+            Arrays.asList("Order_Items"),
+            getNames(index.findObjects("order_i")));
+        Assert.assertEquals(
+            Arrays.asList("customers"),
+            getNames(index.findObjects("c")));
+    }
+
+    @Test
+    public void testNoMatches() {
+        SQLIdentifierIndex.ContainerIndex index = SQLIdentifierIndex.ContainerIndex.build(
+            createObjects("alpha", "beta", "gamma"));
+        Assert.assertNotNull(index);
+
+        Assert.assertTrue(index.findObjects("delta").isEmpty());
+        Assert.assertTrue(index.findObjects("alphabet").isEmpty());
+        Assert.assertTrue(index.findObjects("zzz").isEmpty());
+    }
+
+    @Test
+    public void testMidWordIsNotMatched() {
+        // Prefix lookup matches name starts only
+        SQLIdentifierIndex.ContainerIndex index = SQLIdentifierIndex.ContainerIndex.build(
+            createObjects("order_line_item", "OrderLineItem", "line_items"));
+        Assert.assertNotNull(index);
+
+        Assert.assertEquals(Arrays.asList("line_items"), getNames(index.findObjects("line")));
+        Assert.assertTrue(index.findObjects("oli").isEmpty());
+    }
+
+    @Test
+    public void testFuzzyLookup() {
+        SQLIdentifierIndex.ContainerIndex index = SQLIdentifierIndex.ContainerIndex.build(
+            createObjects("order_line_item", "OrderLineItem", "line_items", "customer2order", "orders"));
+        Assert.assertNotNull(index);
+
+        // word starts
+        Assert.assertEquals(
+            Arrays.asList("order_line_item", "OrderLineItem", "line_items"),
+            getNames(index.findObjects("line", true)));
+        Assert.assertEquals(
+            Arrays.asList("order_line_item", "OrderLineItem", "customer2order", "orders"),
+            getNames(index.findObjects("order", true)));
+        // camel-hump and underscore initials
+        Assert.assertEquals(
+            Arrays.asList("order_line_item", "OrderLineItem"),
+            getNames(index.findObjects("OLI", true)));
+        // mid-word text is not a word start
+        Assert.assertTrue(index.findObjects("rder", true).isEmpty());
+    }
+
+    @Test
+    public void testScopeLookup() {
+        DBPDataSource dataSource = mock(DBPDataSource.class);
+        when(dataSource.getContainer()).thenReturn(mock(DBPDataSourceContainer.class));
+        SQLIdentifierIndex identifierIndex = new SQLIdentifierIndex(mock(DBNModel.class), dataSource);
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        DBSObjectType[] tableTypes = {RelationalObjectType.TYPE_TABLE};
+
+        DBSObject catalog = createContainer("catalog");
+        DBSObject schema1 = createContainer("schema1");
+        DBSObject schema2 = createContainer("schema2");
+        List<DBSObject> catalogChildren = Arrays.asList(schema1, schema2);
+        List<DBSObject> schema1Children = Arrays.asList(createTable("orders"), createTable("customers"));
+        List<DBSObject> schema2Children = new ArrayList<>(Arrays.asList(createTable("order_items")));
+        schema2Children.addAll(createObjects("order_proc"));
+
+        // Not loaded containers can't be searched without the database
+        Assert.assertNull(identifierIndex.findScopeObjects(monitor, catalog, "order", false, tableTypes, 100));
+        identifierIndex.findObjects(catalog, catalogChildren, "s");
+        identifierIndex.findObjects(schema1, schema1Children, "o");
+        Assert.assertNull(identifierIndex.findScopeObjects(monitor, catalog, "order", false, tableTypes, 100));
+        Assert.assertEquals(
+            Arrays.asList("orders"),
+            getNames(identifierIndex.findScopeObjects(monitor, schema1, "order", false, tableTypes, 100)));
+
+        identifierIndex.findObjects(schema2, schema2Children, "o");
+        Assert.assertEquals(
+            Arrays.asList("orders", "order_items"),
+            getNames(identifierIndex.findScopeObjects(monitor, catalog, "order", false, tableTypes, 100)));
+        Assert.assertEquals(
+            Arrays.asList("orders", "order_items", "order_proc"),
+            getNames(identifierIndex.findScopeObjects(monitor, catalog, "order", false, null, 100)));
+        Assert.assertEquals(
+            Arrays.asList("order_items"),
+            getNames(identifierIndex.findScopeObjects(monitor, catalog, "items", true, tableTypes, 100)));
+        Assert.assertEquals(
+            Arrays.asList("orders"),
+            getNames(identifierIndex.findScopeObjects(monitor, catalog, "o", false, tableTypes, 1)));
+    }
+
+    @Test
+    public void testHiddenObjectsAreSkipped() {
+        List<DBSObject> children = createObjects("table1", "table2");
+        DBSObject hidden = mock(DBSObject.class, withSettings().extraInterfaces(DBPHiddenObject.class));
+        when(hidden.getName()).thenReturn("table_hidden");
+        when(((DBPHiddenObject) hidden).isHidden()).thenReturn(true);
+        children.add(1, hidden);
+
+        SQLIdentifierIndex.ContainerIndex index = SQLIdentifierIndex.ContainerIndex.build(children);
+        Assert.assertNotNull(index);
+        Assert.assertEquals(Arrays.asList("table1", "table2"), getNames(index.findObjects("table")));
+    }
+
+    @Test
+    public void testVirtualObjectsAreNotIndexed() {
+        List<DBSObject> children = createObjects("table1");
+        DBSObject virtual = mock(DBSObject.class, withSettings().extraInterfaces(DBPVirtualObject.class));
+        when(virtual.getName()).thenReturn("virtual");
+        when(((DBPVirtualObject) virtual).isVirtual()).thenReturn(true);
+        children.add(virtual);
+
+        Assert.assertNull(SQLIdentifierIndex.ContainerIndex.build(children));
+    }
+
+    private static List<DBSObject> createObjects(String... names) {
+        List<DBSObject> objects = new ArrayList<>();
+        for (String name : names) {
+            DBSObject object = mock(DBSObject.class);
+            when(object.getName()).thenReturn(name);
+            objects.add(object);
+        }
+        return objects;
+    }
+
+    private static DBSObject createContainer(String name) {
+        DBSObject container = mock(DBSObject.class, withSettings().extraInterfaces(DBSObjectContainer.class));
+        when(container.getName()).thenReturn(name);
+        return container;
+    }
+
+    private static DBSObject createTable(String name) {
+        DBSTable table = mock(DBSTable.class);
+        when(table.getName()).thenReturn(name);
+        return table;
+    }
+
+    private static List<String> getNames(List<DBSObject> objects) {
+        List<String> names = new ArrayList<>();
+        for (DBSObject object : objects) {
+            names.add(object.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.virtual;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDAttributeValue;
+import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDictionary;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+public class DBVDictionaryCacheTest {
+
+    /**
+     * Dictionary with labels for even keys only
+     */
+    private static class TestDictionary implements DBSDictionary {
+        private final List<Integer> querySizes = new ArrayList<>();
+
+        @Override
+        public boolean supportsDictionaryEnumeration() {
+            return true;
+        }
+
+        @NotNull
+        @Override
+        public List<DBDLabelValuePair> getDictionaryEnumeration(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBSEntityAttribute keyColumn,
+            Object keyPattern,
+            @Nullable List<DBDAttributeValue> preceedingKeys,
+            boolean caseInsensitiveSearch,
+            boolean sortAsc,
+            boolean sortByValue,
+            int offset,
+            int maxResults)
+        {
+            return Collections.emptyList();
+        }
+
+        @NotNull
+        @Override
+        public List<DBDLabelValuePair> getDictionaryValues(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBSEntityAttribute keyColumn,
+            @NotNull List<Object> keyValues,
+            @Nullable List<DBDAttributeValue> preceedingKeys,
+            boolean sortByValue,
+            boolean sortAsc)
+        {
+            querySizes.add(keyValues.size());
+            List<DBDLabelValuePair> result = new ArrayList<>();
+            for (Object key : keyValues) {
+                // Dictionary key column is BIGINT
+                long value = ((Number) key).longValue();
+                if (value % 2 == 0) {
+                    result.add(new DBDLabelValuePair("label" + value, value));
+                }
+            }
+            return result;
+        }
+    }
+
+    private TestDictionary dictionary;
+    private DBSEntityAttribute keyAttribute;
+    private DBVDictionaryCache cache;
+
+    @Before
+    public void init() {
+        dictionary = new TestDictionary();
+        keyAttribute = mockAttribute(mockDataSource());
+        cache = DBVDictionaryCache.getCache(dictionary, keyAttribute);
+    }
+
+    @Test
+    public void testCachesAreKeptInDataSource() {
+        Assert.assertSame(cache, DBVDictionaryCache.getCache(dictionary, keyAttribute));
+
+        // Reconnected data source has its own caches
+        DBSEntityAttribute reconnectedAttribute = mockAttribute(mockDataSource());
+        Assert.assertNotSame(cache, DBVDictionaryCache.getCache(dictionary, reconnectedAttribute));
+    }
+
+    @Test
+    public void testMissingKeysAreReadInBatches() throws DBException {
+        Map<Object, String> labels = cache.getLabels(new VoidProgressMonitor(), keys(0, 450));
+        Assert.assertEquals(Arrays.asList(200, 200, 50), dictionary.querySizes);
+        Assert.assertEquals(225, labels.size());
+        Assert.assertEquals("label10", labels.get(10));
+
+        // Everything is cached, including missing keys
+        labels = cache.getLabels(new VoidProgressMonitor(), keys(0, 450));
+        Assert.assertEquals(3, dictionary.querySizes.size());
+        Assert.assertEquals(225, labels.size());
+        Assert.assertTrue(cache.isCached(11));
+        Assert.assertNull(cache.getCachedLabel(11));
+    }
+
+    @Test
+    public void testOnlyMissingKeysAreRead() throws DBException {
+        cache.prefetch(new VoidProgressMonitor(), keys(0, 100));
+        cache.getLabels(new VoidProgressMonitor(), keys(50, 150));
+        Assert.assertEquals(Arrays.asList(100, 50), dictionary.querySizes);
+    }
+
+    @Test
+    public void testNumericKeyTypes() throws DBException {
+        cache.prefetch(new VoidProgressMonitor(), Collections.singletonList(4));
+        Assert.assertEquals("label4", cache.getCachedLabel(4L));
+        Assert.assertEquals("label4", cache.getCachedLabel(new java.math.BigDecimal("4.00")));
+        Assert.assertNull(cache.getCachedLabel(6));
+    }
+
+    @Test
+    public void testLabelValues() throws DBException {
+        List<DBDLabelValuePair> values = cache.getLabelValues(new VoidProgressMonitor(), Arrays.asList(4, 3, 2, 4L));
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals(4, values.get(0).getValue());
+        Assert.assertEquals("label4", values.get(0).getLabel());
+        Assert.assertEquals(2, values.get(1).getValue());
+    }
+
+    @Test
+    public void testPutLabels() throws DBException {
+        cache.putLabels(Arrays.asList(new DBDLabelValuePair("enum1", 1L), new DBDLabelValuePair("enum2", 2L)));
+        Assert.assertEquals("enum1", cache.getCachedLabel(1));
+        Assert.assertEquals("enum2", cache.getLabels(new VoidProgressMonitor(), keys(1, 3)).get(2));
+        Assert.assertTrue(dictionary.querySizes.isEmpty());
+    }
+
+    @Test
+    public void testInvalidate() throws DBException {
+        cache.prefetch(new VoidProgressMonitor(), keys(0, 10));
+        DBVDictionaryCache.invalidate(Mockito.mock(org.jkiss.dbeaver.model.struct.DBSEntity.class));
+        Assert.assertTrue(cache.isCached(2));
+
+        cache.invalidate();
+        Assert.assertFalse(cache.isCached(2));
+        cache.prefetch(new VoidProgressMonitor(), keys(0, 10));
+        Assert.assertEquals(2, dictionary.querySizes.size());
+    }
+
+    @Test
+    public void testCacheSizeIsBounded() throws DBException {
+        cache.prefetch(new VoidProgressMonitor(), keys(0, DBVDictionaryCache.MAX_CACHED_KEYS));
+        cache.getCachedLabel(0);
+        cache.prefetch(new VoidProgressMonitor(), keys(DBVDictionaryCache.MAX_CACHED_KEYS, DBVDictionaryCache.MAX_CACHED_KEYS + 1));
+        // Least recently used key is evicted
+        Assert.assertTrue(cache.isCached(0));
+        Assert.assertFalse(cache.isCached(1));
+    }
+
+    private static DBPDataSource mockDataSource() {
+        Map<String, Object> attributes = new HashMap<>();
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContextAttribute(Mockito.anyString()))
+            .thenAnswer(invocation -> attributes.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(dataSource).setContextAttribute(Mockito.anyString(), Mockito.any());
+        return dataSource;
+    }
+
+    private static DBSEntityAttribute mockAttribute(DBPDataSource dataSource) {
+        DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+        Mockito.when(attribute.getDataSource()).thenReturn(dataSource);
+        return attribute;
+    }
+
+    private static List<Object> keys(int from, int to) {
+        List<Object> keys = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+}
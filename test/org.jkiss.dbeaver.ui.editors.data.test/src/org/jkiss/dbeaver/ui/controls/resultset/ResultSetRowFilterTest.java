@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2022 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+public class ResultSetRowFilterTest {
+
+    private ResultSetModel model;
+    private List<ResultSetRow> rows;
+
+    @Before
+    public void init() {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        model = Mockito.mock(ResultSetModel.class);
+        Mockito.when(model.getAttributeBinding(Mockito.any())).thenReturn(binding);
+        Mockito.when(model.getCellValue(Mockito.eq(binding), Mockito.any(ResultSetRow.class)))
+            .thenAnswer(invocation -> invocation.<ResultSetRow>getArgument(1).getValues()[0]);
+        rows = new ArrayList<>();
+        for (Object value : new Object[] {"Alpha", "alpha", "ALPHABET", "beta", "a.b", "axb", "50%", "line1\nline2", null}) {
+            rows.add(new ResultSetRow(rows.size(), new Object[] {value}));
+        }
+    }
+
+    @Test
+    public void testLargeResultSetIsEvaluatedInChunks() {
+        // Several chunks of 8192 rows and the partial last chunk
+        rows = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 8192 * 3 + 100; i++) {
+            boolean match = i % 7 == 0 || i == 8191 || i == 8192;
+            rows.add(new ResultSetRow(i, new Object[] {(match ? "match" : "skip") + i}));
+            if (match) {
+                expected.add(i);
+            }
+        }
+        Assert.assertEquals(expected, evaluate(DBCLogicalOperator.LIKE, "match%", false));
+    }
+
+    @Test
+    public void testClearFilterRestoresAllRows() {
+        DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+        ResultSetModel resultSet = Mockito.spy(new ResultSetModel());
+        Mockito.doReturn(binding).when(resultSet).getAttributeBinding(Mockito.any());
+        Mockito.doAnswer(invocation -> invocation.<ResultSetRow>getArgument(1).getValues()[0])
+            .when(resultSet).getCellValue(Mockito.eq(binding), Mockito.any(ResultSetRow.class));
+        List<Object[]> data = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            data.add(new Object[] {i % 2 == 0 ? "even" : "odd"});
+        }
+        resultSet.appendData(data, true);
+
+        Assert.assertTrue(resultSet.filterRowsLocally(makeFilter(DBCLogicalOperator.EQUALS, "even")));
+        Assert.assertTrue(resultSet.isFilteredLocally());
+        Assert.assertEquals(10, resultSet.getRowCount());
+        for (int i = 0; i < resultSet.getRowCount(); i++) {
+            Assert.assertEquals(i * 2, resultSet.getRow(i).getRowNumber());
+            Assert.assertEquals(i, resultSet.getRow(i).getVisualNumber());
+        }
+
+        // Rows fetched and added while filter is set are numbered after all fetched rows
+        resultSet.appendData(List.<Object[]>of(new Object[] {"even"}, new Object[] {"odd"}), false);
+        ResultSetRow newRow = resultSet.addNewRow(0, new Object[] {"odd"});
+        Assert.assertEquals(22, newRow.getRowNumber());
+        Assert.assertEquals(13, resultSet.getRowCount());
+
+        // Empty filter restores all rows in the original order
+        Assert.assertTrue(resultSet.filterRowsLocally(makeFilter(null, null)));
+        Assert.assertFalse(resultSet.isFilteredLocally());
+        Assert.assertEquals(23, resultSet.getRowCount());
+        for (int i = 0; i < resultSet.getRowCount(); i++) {
+            Assert.assertEquals(i, resultSet.getRow(i).getRowNumber());
+            Assert.assertEquals(i, resultSet.getRow(i).getVisualNumber());
+        }
+        Assert.assertSame(newRow, resultSet.getRow(22));
+    }
+
+    @Test
+    public void testLikeIsCaseSensitive() {
+        Assert.assertEquals(List.of(1), evaluate(DBCLogicalOperator.LIKE, "alpha%", false));
+        Assert.assertEquals(List.of(0), evaluate(DBCLogicalOperator.LIKE, "Alph_", false));
+    }
+
+    @Test
+    public void testILikeIsCaseInsensitive() {
+        Assert.assertEquals(List.of(0, 1, 2), evaluate(DBCLogicalOperator.ILIKE, "alpha%", false));
+    }
+
+    @Test
+    public void testNotLike() {
+        // NULL never matches
+        Assert.assertEquals(List.of(0, 2, 3, 4, 5, 6, 7), evaluate(DBCLogicalOperator.NOT_LIKE, "alpha%", false));
+        Assert.assertEquals(List.of(1), evaluate(DBCLogicalOperator.NOT_LIKE, "alpha%", true));
+        Assert.assertEquals(List.of(0, 2, 3, 4, 5, 6, 7), evaluate(DBCLogicalOperator.LIKE, "alpha%", true));
+    }
+
+    @Test
+    public void testRegexCharactersAreLiterals() {
+        Assert.assertEquals(List.of(4), evaluate(DBCLogicalOperator.LIKE, "a.b", false));
+        Assert.assertEquals(List.of(4, 5), evaluate(DBCLogicalOperator.LIKE, "a_b", false));
+        Assert.assertEquals(Collections.emptyList(), evaluate(DBCLogicalOperator.LIKE, "a*", false));
+    }
+
+    @Test
+    public void testEscapedWildcards() {
+        Assert.assertEquals(List.of(6), evaluate(DBCLogicalOperator.LIKE, "%\\%", false));
+        Assert.assertEquals(List.of(4), evaluate(DBCLogicalOperator.LIKE, "a\\.b", false));
+    }
+
+    @Test
+    public void testWildcardMatchesLineBreaks() {
+        Assert.assertEquals(List.of(7), evaluate(DBCLogicalOperator.LIKE, "line1%2", false));
+    }
+
+    private List<Integer> evaluate(DBCLogicalOperator operator, Object value, boolean reverse) {
+        DBDDataFilter dataFilter = makeFilter(operator, value);
+        dataFilter.getConstraints().get(0).setReverseOperator(reverse);
+        ResultSetRowFilter filter = ResultSetRowFilter.compile(model, dataFilter);
+        Assert.assertNotNull(filter);
+        BitSet matched = filter.evaluate(rows);
+        List<Integer> result = new ArrayList<>();
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    private static DBDDataFilter makeFilter(DBCLogicalOperator operator, Object value) {
+        DBDAttributeConstraint constraint = new DBDAttributeConstraint("value", 0);
+        constraint.setOperator(operator);
+        constraint.setValue(value);
+        return new DBDDataFilter(new ArrayList<>(List.of(constraint)));
+    }
+}